@@ -65,4 +65,12 @@ public interface BatchConsumer extends BiConsumer<BatchIterator, Throwable> {
     default boolean requiresScroll() {
         return false;
     }
+
+    /**
+     * @return true if the consumer may stop consuming before the {@link BatchIterator} is exhausted and resume
+     *         it later, e.g. once a client fetches the next rows. The iterator may stay open for an unbounded time.
+     */
+    default boolean maySuspend() {
+        return false;
+    }
 }
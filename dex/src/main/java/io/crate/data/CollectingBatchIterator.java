@@ -25,24 +25,30 @@ package io.crate.data;
 import io.crate.concurrent.CompletableFutures;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 /**
  * A BatchIterator implementation which always fully consumes another BatchIterator before it can generate it's result.
  *
- * Result generation and row-processing is handled by a {@link Collector}
+ * Result generation and row-processing is handled by a {@link Collector}, or by a {@code batchCollector}
+ * which consumes the source in a different way than row by row.
  *
  * @param <A> the state type of the {@link Collector}
  */
 public class CollectingBatchIterator<A> implements BatchIterator {
 
     private final BatchIterator source;
+    @Nullable
     private final Collector<Row, A, ? extends Iterable<Row>> collector;
+    @Nullable
+    private final Supplier<CompletableFuture<? extends Iterable<Row>>> batchCollector;
     private final RowColumns rowData;
 
     private Iterator<Row> it = Collections.emptyIterator();
@@ -69,12 +75,31 @@ public class CollectingBatchIterator<A> implements BatchIterator {
     }
 
     public static <A> BatchIterator newInstance(BatchIterator source, Collector<Row, A, ? extends Iterable<Row>> collector, int numCols) {
-        return new CloseAssertingBatchIterator(new CollectingBatchIterator<>(source, collector, numCols));
+        return new CloseAssertingBatchIterator(new CollectingBatchIterator<>(source, collector, null, numCols));
     }
 
-    private CollectingBatchIterator(BatchIterator source, Collector<Row, A, ? extends Iterable<Row>> collector, int numCols) {
+    /**
+     * Create a BatchIterator which uses {@code batchCollector} to consume the source.
+     * This allows to consume the source in a different way than row by row.
+     *
+     * @param batchCollector invoked once on the first {@link #loadNextBatch()} call;
+     *                       it must fully consume the source and return a future of the result rows.
+     */
+    public static BatchIterator newInstance(BatchIterator source,
+                                            Supplier<CompletableFuture<? extends Iterable<Row>>> batchCollector,
+                                            int numCols) {
+        return new CloseAssertingBatchIterator(
+            new CollectingBatchIterator<Void>(source, null, batchCollector, numCols));
+    }
+
+    private CollectingBatchIterator(BatchIterator source,
+                                    @Nullable Collector<Row, A, ? extends Iterable<Row>> collector,
+                                    @Nullable Supplier<CompletableFuture<? extends Iterable<Row>>> batchCollector,
+                                    int numCols) {
+        assert (collector == null) != (batchCollector == null) : "either collector or batchCollector must be set";
         this.source = source;
         this.collector = collector;
+        this.batchCollector = batchCollector;
         this.rowData = new RowColumns(numCols);
     }
 
@@ -112,7 +137,7 @@ public class CollectingBatchIterator<A> implements BatchIterator {
     @Override
     public CompletionStage<?> loadNextBatch() {
         if (resultFuture == null) {
-            resultFuture = BatchRowVisitor.visitRows(source, collector)
+            resultFuture = (collector == null ? batchCollector.get() : BatchRowVisitor.visitRows(source, collector))
                 .whenComplete((r, t) -> {
                     source.close();
                     if (t == null) {
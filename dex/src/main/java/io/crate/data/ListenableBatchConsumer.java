@@ -49,6 +49,11 @@ public class ListenableBatchConsumer implements BatchConsumer {
         return delegate.requiresScroll();
     }
 
+    @Override
+    public boolean maySuspend() {
+        return delegate.maySuspend();
+    }
+
     public CompletableFuture<?> completionFuture() {
         return completionFuture;
     }
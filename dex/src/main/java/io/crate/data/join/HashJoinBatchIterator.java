@@ -0,0 +1,387 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.data.join;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.CloseAssertingBatchIterator;
+import io.crate.data.Columns;
+import io.crate.data.Input;
+import io.crate.data.RowBridging;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * HashJoin BatchIterator implementations for equi-joins.
+ *
+ * The right side is the build side: it is fully consumed and materialized into a hash table keyed by
+ * {@code rightKey} before the first row is emitted. The left side is the probe side and is streamed;
+ * for each left row the matching build rows are looked up by {@code leftKey}.
+ *
+ * <pre>
+ *     for (rightRow in right) {
+ *         table[rightKey(rightRow)].add(rightRow)
+ *     }
+ *     for (leftRow in left) {
+ *         for (rightRow in table[leftKey(leftRow)]) {
+ *             match?
+ *                 onRow
+ *         }
+ *         if (noMatches && emitUnmatchedLeft) {
+ *             onRow (right-side-null)
+ *         }
+ *     }
+ *     if (emitUnmatchedRight) {
+ *         for (rightRow in table) {
+ *             if (noMatches) {
+ *                 onRow (left-side-null)
+ *             }
+ *         }
+ *     }
+ * </pre>
+ *
+ * Keys which are {@code null} never match, just like {@code null = null} is not true in SQL.
+ * The {@code joinCondition} is evaluated on every candidate pair so that it may contain additional
+ * non-equality terms.
+ *
+ * - {@link #innerJoin(BatchIterator, BatchIterator, Function, Function, Function, Consumer)}
+ * - {@link #leftJoin(BatchIterator, BatchIterator, Function, Function, Function, Consumer)}
+ * - {@link #rightJoin(BatchIterator, BatchIterator, Function, Function, Function, Consumer)}
+ * - {@link #fullOuterJoin(BatchIterator, BatchIterator, Function, Function, Function, Consumer)}
+ */
+public class HashJoinBatchIterator implements BatchIterator {
+
+    private static final int NO_CANDIDATE = -1;
+
+    /**
+     * Create a BatchIterator that creates the inner-join result of {@code left} and {@code right}.
+     *
+     * @param buildRowAccounting called with every row of the right side that is kept in memory;
+     *                           may throw to abort the join if memory limits are exceeded.
+     */
+    public static BatchIterator innerJoin(BatchIterator left,
+                                          BatchIterator right,
+                                          Function<Columns, Supplier<Object>> leftKey,
+                                          Function<Columns, Supplier<Object>> rightKey,
+                                          Function<Columns, BooleanSupplier> joinCondition,
+                                          Consumer<Object[]> buildRowAccounting) {
+        return new CloseAssertingBatchIterator(new HashJoinBatchIterator(
+            left, right, leftKey, rightKey, joinCondition, buildRowAccounting, false, false));
+    }
+
+    /**
+     * Create a BatchIterator that creates the left-outer-join result of {@code left} and {@code right}.
+     */
+    public static BatchIterator leftJoin(BatchIterator left,
+                                         BatchIterator right,
+                                         Function<Columns, Supplier<Object>> leftKey,
+                                         Function<Columns, Supplier<Object>> rightKey,
+                                         Function<Columns, BooleanSupplier> joinCondition,
+                                         Consumer<Object[]> buildRowAccounting) {
+        return new CloseAssertingBatchIterator(new HashJoinBatchIterator(
+            left, right, leftKey, rightKey, joinCondition, buildRowAccounting, true, false));
+    }
+
+    /**
+     * Create a BatchIterator that creates the right-outer-join result of {@code left} and {@code right}.
+     */
+    public static BatchIterator rightJoin(BatchIterator left,
+                                          BatchIterator right,
+                                          Function<Columns, Supplier<Object>> leftKey,
+                                          Function<Columns, Supplier<Object>> rightKey,
+                                          Function<Columns, BooleanSupplier> joinCondition,
+                                          Consumer<Object[]> buildRowAccounting) {
+        return new CloseAssertingBatchIterator(new HashJoinBatchIterator(
+            left, right, leftKey, rightKey, joinCondition, buildRowAccounting, false, true));
+    }
+
+    /**
+     * Create a BatchIterator that creates the full-outer-join result of {@code left} and {@code right}.
+     */
+    public static BatchIterator fullOuterJoin(BatchIterator left,
+                                              BatchIterator right,
+                                              Function<Columns, Supplier<Object>> leftKey,
+                                              Function<Columns, Supplier<Object>> rightKey,
+                                              Function<Columns, BooleanSupplier> joinCondition,
+                                              Consumer<Object[]> buildRowAccounting) {
+        return new CloseAssertingBatchIterator(new HashJoinBatchIterator(
+            left, right, leftKey, rightKey, joinCondition, buildRowAccounting, true, true));
+    }
+
+    /**
+     * Creates a key function which uses the values of the columns at the given positions as hash key.
+     * If any of the values is null the key is null.
+     */
+    public static Function<Columns, Supplier<Object>> columnsKey(int... positions) {
+        assert positions.length > 0 : "must have at least one key column";
+        return columns -> {
+            Input<?>[] inputs = new Input[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                inputs[i] = columns.get(positions[i]);
+            }
+            if (inputs.length == 1) {
+                Input<?> input = inputs[0];
+                return input::value;
+            }
+            return () -> {
+                Object[] values = new Object[inputs.length];
+                for (int i = 0; i < inputs.length; i++) {
+                    Object value = inputs[i].value();
+                    if (value == null) {
+                        return null;
+                    }
+                    values[i] = value;
+                }
+                return Arrays.asList(values);
+            };
+        };
+    }
+
+    private final BatchIterator left;
+    private final BatchIterator right;
+    private final BuildRowColumns buildRowColumns;
+    private final CombinedColumn rowData;
+    private final Supplier<Object> leftKey;
+    private final Supplier<Object> rightKey;
+    private final BooleanSupplier joinCondition;
+    private final Consumer<Object[]> buildRowAccounting;
+    private final boolean emitUnmatchedLeft;
+    private final boolean emitUnmatchedRight;
+
+    private final List<Object[]> buildRows = new ArrayList<>();
+    /**
+     * position of the first row in {@link #buildRows} for each key; further rows with the same key are linked via
+     * {@link #nextWithSameKey}
+     */
+    private final Map<Object, Integer> firstPositionByKey = new HashMap<>();
+    private int[] nextWithSameKey = new int[16];
+
+    private BitSet matchedBuildRows;
+    private boolean buildComplete = false;
+    private boolean onLeftRow = false;
+    private boolean leftRowMatched = false;
+    private int candidate = NO_CANDIDATE;
+    private boolean probeComplete = false;
+    private int unmatchedPosition = -1;
+
+    private HashJoinBatchIterator(BatchIterator left,
+                                  BatchIterator right,
+                                  Function<Columns, Supplier<Object>> leftKey,
+                                  Function<Columns, Supplier<Object>> rightKey,
+                                  Function<Columns, BooleanSupplier> joinCondition,
+                                  Consumer<Object[]> buildRowAccounting,
+                                  boolean emitUnmatchedLeft,
+                                  boolean emitUnmatchedRight) {
+        this.left = left;
+        this.right = right;
+        this.buildRowColumns = new BuildRowColumns(right.rowData().size());
+        this.rowData = new CombinedColumn(left.rowData(), buildRowColumns);
+        this.leftKey = leftKey.apply(left.rowData());
+        this.rightKey = rightKey.apply(right.rowData());
+        this.joinCondition = joinCondition.apply(rowData);
+        this.buildRowAccounting = buildRowAccounting;
+        this.emitUnmatchedLeft = emitUnmatchedLeft;
+        this.emitUnmatchedRight = emitUnmatchedRight;
+    }
+
+    @Override
+    public Columns rowData() {
+        return rowData;
+    }
+
+    @Override
+    public void moveToStart() {
+        if (buildComplete) {
+            if (matchedBuildRows != null) {
+                matchedBuildRows.clear();
+            }
+        } else {
+            right.moveToStart();
+            buildRows.clear();
+            firstPositionByKey.clear();
+        }
+        left.moveToStart();
+        onLeftRow = false;
+        leftRowMatched = false;
+        candidate = NO_CANDIDATE;
+        probeComplete = false;
+        unmatchedPosition = -1;
+        rowData.resetLeft();
+        rowData.resetRight();
+    }
+
+    @Override
+    public boolean moveNext() {
+        if (buildComplete == false && consumeBuildSide() == false) {
+            return false;
+        }
+        if (probeComplete) {
+            return moveToNextUnmatchedBuildRow();
+        }
+        rowData.resetRight();
+        while (true) {
+            if (onLeftRow) {
+                while (candidate != NO_CANDIDATE) {
+                    int position = candidate;
+                    candidate = nextWithSameKey[position];
+                    buildRowColumns.row = buildRows.get(position);
+                    if (joinCondition.getAsBoolean()) {
+                        leftRowMatched = true;
+                        if (emitUnmatchedRight) {
+                            matchedBuildRows.set(position);
+                        }
+                        return true;
+                    }
+                }
+                onLeftRow = false;
+                if (leftRowMatched == false && emitUnmatchedLeft) {
+                    rowData.nullRight();
+                    return true;
+                }
+            }
+            if (left.moveNext()) {
+                onLeftRow = true;
+                leftRowMatched = false;
+                Object key = leftKey.get();
+                Integer firstPosition = key == null ? null : firstPositionByKey.get(key);
+                candidate = firstPosition == null ? NO_CANDIDATE : firstPosition;
+                continue;
+            }
+            if (emitUnmatchedRight && left.allLoaded()) {
+                probeComplete = true;
+                rowData.nullLeft();
+                return moveToNextUnmatchedBuildRow();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Adds all currently available rows of the right side to the hash table.
+     *
+     * @return true if the right side is exhausted and the hash table is complete
+     */
+    private boolean consumeBuildSide() {
+        Columns rightColumns = right.rowData();
+        while (right.moveNext()) {
+            Object key = rightKey.get();
+            if (key == null && emitUnmatchedRight == false) {
+                // can never match and is never emitted
+                continue;
+            }
+            Object[] row = RowBridging.materialize(rightColumns);
+            buildRowAccounting.accept(row);
+            int position = buildRows.size();
+            buildRows.add(row);
+            if (position == nextWithSameKey.length) {
+                nextWithSameKey = Arrays.copyOf(nextWithSameKey, position * 2);
+            }
+            Integer previous = key == null ? null : firstPositionByKey.put(key, position);
+            nextWithSameKey[position] = previous == null ? NO_CANDIDATE : previous;
+        }
+        if (right.allLoaded()) {
+            buildComplete = true;
+            if (emitUnmatchedRight) {
+                matchedBuildRows = new BitSet(buildRows.size());
+            }
+        }
+        return buildComplete;
+    }
+
+    private boolean moveToNextUnmatchedBuildRow() {
+        while (++unmatchedPosition < buildRows.size()) {
+            if (matchedBuildRows.get(unmatchedPosition) == false) {
+                buildRowColumns.row = buildRows.get(unmatchedPosition);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        left.close();
+        right.close();
+        buildRows.clear();
+        firstPositionByKey.clear();
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() {
+        if (buildComplete == false && consumeBuildSide() == false) {
+            return right.loadNextBatch();
+        }
+        return left.loadNextBatch();
+    }
+
+    @Override
+    public boolean allLoaded() {
+        if (buildComplete) {
+            return left.allLoaded();
+        }
+        return right.allLoaded() && left.allLoaded();
+    }
+
+    @Override
+    public void kill(@Nonnull Throwable throwable) {
+        left.kill(throwable);
+        right.kill(throwable);
+    }
+
+    /**
+     * Columns which provide access to a materialized row of the build side
+     */
+    private static class BuildRowColumns implements Columns {
+
+        private final Input<?>[] inputs;
+        private Object[] row;
+
+        BuildRowColumns(int numColumns) {
+            inputs = new Input[numColumns];
+            for (int i = 0; i < numColumns; i++) {
+                final int idx = i;
+                inputs[i] = () -> row[idx];
+            }
+        }
+
+        @Override
+        public Input<?> get(int index) {
+            return inputs[index];
+        }
+
+        @Override
+        public int size() {
+            return inputs.length;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.data;
+
+import io.crate.data.join.HashJoinBatchIterator;
+import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.BatchSimulatingIterator;
+import io.crate.testing.RowGenerator;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.testing.TestingBatchIterators;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HashJoinBatchIteratorTest {
+
+    private static final Consumer<Object[]> NO_ACCOUNTING = row -> {};
+
+    private ArrayList<Object[]> innerJoinResult;
+    private ArrayList<Object[]> leftJoinResult;
+    private ArrayList<Object[]> rightJoinResult;
+    private ArrayList<Object[]> fullJoinResult;
+
+    private Function<Columns, BooleanSupplier> getCol0EqCol1JoinCondition() {
+        return columns -> new BooleanSupplier() {
+
+            Input<?> col1 = columns.get(0);
+            Input<?> col2 = columns.get(1);
+
+            @Override
+            public boolean getAsBoolean() {
+                return Objects.equals(col1.value(), col2.value());
+            }
+        };
+    }
+
+    private static Function<Columns, Supplier<Object>> col0() {
+        return HashJoinBatchIterator.columnsKey(0);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        innerJoinResult = new ArrayList<>();
+        innerJoinResult.add(new Object[] { 2, 2, });
+        innerJoinResult.add(new Object[] { 3, 3, });
+
+        leftJoinResult = new ArrayList<>();
+        leftJoinResult.add(new Object[] { 0, null });
+        leftJoinResult.add(new Object[] { 1, null });
+        leftJoinResult.add(new Object[] { 2, 2, });
+        leftJoinResult.add(new Object[] { 3, 3, });
+
+        rightJoinResult = new ArrayList<>();
+        rightJoinResult.add(new Object[] { 2, 2, });
+        rightJoinResult.add(new Object[] { 3, 3, });
+        rightJoinResult.add(new Object[] { null, 4 });
+        rightJoinResult.add(new Object[] { null, 5 });
+
+        fullJoinResult = new ArrayList<>();
+        fullJoinResult.add(new Object[] { 0, null });
+        fullJoinResult.add(new Object[] { 1, null });
+        fullJoinResult.add(new Object[] { 2, 2, });
+        fullJoinResult.add(new Object[] { 3, 3, });
+        fullJoinResult.add(new Object[] { null, 4 });
+        fullJoinResult.add(new Object[] { null, 5 });
+    }
+
+    @Test
+    public void testInnerJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.innerJoin(
+                TestingBatchIterators.range(0, 4),
+                TestingBatchIterators.range(2, 6),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(innerJoinResult);
+    }
+
+    @Test
+    public void testInnerJoinBatchedSource() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.innerJoin(
+                new BatchSimulatingIterator(TestingBatchIterators.range(0, 4), 2, 2, null),
+                new BatchSimulatingIterator(TestingBatchIterators.range(2, 6), 2, 2, null),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(innerJoinResult);
+    }
+
+    @Test
+    public void testInnerJoinWithDuplicateKeysOnBothSides() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.innerJoin(
+                RowsBatchIterator.newInstance(RowGenerator.fromSingleColValues(Arrays.asList(1, 2, 1)), 1),
+                RowsBatchIterator.newInstance(RowGenerator.fromSingleColValues(Arrays.asList(1, 1, 3)), 1),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        List<Object[]> expectedResult = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expectedResult.add(new Object[] { 1, 1 });
+        }
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void testNullKeysNeverMatch() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.fullOuterJoin(
+                RowsBatchIterator.newInstance(RowGenerator.fromSingleColValues(Arrays.asList(1, null)), 1),
+                RowsBatchIterator.newInstance(RowGenerator.fromSingleColValues(Arrays.asList(null, 1)), 1),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        List<Object[]> expectedResult = new ArrayList<>();
+        expectedResult.add(new Object[] { 1, 1 });
+        expectedResult.add(new Object[] { null, null });
+        expectedResult.add(new Object[] { null, null });
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void testJoinConditionIsAppliedOnCandidates() throws Exception {
+        BatchIterator iterator = HashJoinBatchIterator.innerJoin(
+            TestingBatchIterators.range(0, 4),
+            TestingBatchIterators.range(2, 6),
+            col0(),
+            col0(),
+            columns -> () -> (Integer) columns.get(0).value() > 2,
+            NO_ACCOUNTING
+        );
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(iterator, null);
+        assertThat(consumer.getResult(), Matchers.contains(new Object[][] { new Object[] { 3, 3 } }));
+    }
+
+    @Test
+    public void testLeftJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.leftJoin(
+                TestingBatchIterators.range(0, 4),
+                TestingBatchIterators.range(2, 6),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(leftJoinResult);
+    }
+
+    @Test
+    public void testLeftJoinBatchedSource() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.leftJoin(
+                new BatchSimulatingIterator(TestingBatchIterators.range(0, 4), 2, 2, null),
+                new BatchSimulatingIterator(TestingBatchIterators.range(2, 6), 2, 2, null),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(leftJoinResult);
+    }
+
+    @Test
+    public void testRightJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.rightJoin(
+                TestingBatchIterators.range(0, 4),
+                TestingBatchIterators.range(2, 6),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(rightJoinResult);
+    }
+
+    @Test
+    public void testRightJoinBatchedSource() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.rightJoin(
+                new BatchSimulatingIterator(TestingBatchIterators.range(0, 4), 2, 2, null),
+                new BatchSimulatingIterator(TestingBatchIterators.range(2, 6), 2, 2, null),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(rightJoinResult);
+    }
+
+    @Test
+    public void testFullOuterJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.fullOuterJoin(
+                TestingBatchIterators.range(0, 4),
+                TestingBatchIterators.range(2, 6),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(fullJoinResult);
+    }
+
+    @Test
+    public void testFullOuterJoinBatchedSource() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(
+            () -> HashJoinBatchIterator.fullOuterJoin(
+                new BatchSimulatingIterator(TestingBatchIterators.range(0, 4), 2, 2, null),
+                new BatchSimulatingIterator(TestingBatchIterators.range(2, 6), 2, 2, null),
+                col0(),
+                col0(),
+                getCol0EqCol1JoinCondition(),
+                NO_ACCOUNTING
+            )
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(fullJoinResult);
+    }
+
+    @Test
+    public void testBuildSideRowsAreAccounted() throws Exception {
+        AtomicInteger accountedRows = new AtomicInteger(0);
+        BatchIterator iterator = HashJoinBatchIterator.innerJoin(
+            TestingBatchIterators.range(0, 4),
+            TestingBatchIterators.range(2, 6),
+            col0(),
+            col0(),
+            getCol0EqCol1JoinCondition(),
+            row -> accountedRows.incrementAndGet()
+        );
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(iterator, null);
+        consumer.getResult();
+        assertThat(accountedRows.get(), is(4));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+package io.crate.beans;
+
+import io.crate.operation.collect.stats.JobsLogs;
+import io.crate.operation.collect.stats.StatementStatsEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+public class StatementStatistics implements StatementStatisticsMBean {
+
+    public static final String NAME = "io.crate.monitoring:type=StatementStatistics";
+
+    static final int TOP_N = 10;
+
+    private final JobsLogs jobsLogs;
+
+    public StatementStatistics(JobsLogs jobsLogs) {
+        this.jobsLogs = jobsLogs;
+    }
+
+    @Override
+    public long getNumberOfFingerprints() {
+        long count = 0;
+        for (StatementStatsEntry ignored : jobsLogs.statementStatsGetter()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long calls = 0;
+        for (StatementStatsEntry entry : jobsLogs.statementStatsGetter()) {
+            calls += entry.calls();
+        }
+        return calls;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long errors = 0;
+        for (StatementStatsEntry entry : jobsLogs.statementStatsGetter()) {
+            errors += entry.errors();
+        }
+        return errors;
+    }
+
+    @Override
+    public String[] getTopStatementsByTotalDuration() {
+        List<StatementStatsEntry> entries = new ArrayList<>();
+        for (StatementStatsEntry entry : jobsLogs.statementStatsGetter()) {
+            entries.add(entry);
+        }
+        entries.sort(Comparator.comparingDouble(StatementStatsEntry::totalDuration).reversed());
+        int size = Math.min(TOP_N, entries.size());
+        String[] result = new String[size];
+        for (int i = 0; i < size; i++) {
+            StatementStatsEntry entry = entries.get(i);
+            result[i] = String.format(Locale.ENGLISH, "%.3f ms | %d calls | %.3f ms mean | %.3f ms p99 | %s",
+                entry.totalDuration(),
+                entry.calls(),
+                entry.meanDuration(),
+                entry.durationPercentile(99.0),
+                entry.fingerprint());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+package io.crate.beans;
+
+import io.crate.operation.collect.stats.JobsLogs;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class StatementStatisticsTest {
+
+    @Test
+    public void testTopStatementsAreOrderedByTotalDuration() throws Exception {
+        JobsLogs jobsLogs = new JobsLogs(() -> false);
+        execute(jobsLogs, "select 1", 0);
+        execute(jobsLogs, "select name from sys.cluster", 20);
+        jobsLogs.logPreExecutionFailure(UUID.randomUUID(), "select * from unknown", "TableUnknownException");
+
+        StatementStatistics statistics = new StatementStatistics(jobsLogs);
+        assertThat(statistics.getNumberOfFingerprints(), is(3L));
+        assertThat(statistics.getTotalCalls(), is(3L));
+        assertThat(statistics.getTotalErrors(), is(1L));
+
+        String[] top = statistics.getTopStatementsByTotalDuration();
+        assertThat(top.length, is(3));
+        assertThat(top[0], endsWith("SELECT name FROM sys.cluster"));
+        assertThat(top[0], containsString("| 1 calls |"));
+    }
+
+    private static void execute(JobsLogs jobsLogs, String stmt, long sleepMillis) throws InterruptedException {
+        UUID jobId = UUID.randomUUID();
+        jobsLogs.logExecutionStart(jobId, stmt);
+        Thread.sleep(sleepMillis);
+        jobsLogs.logExecutionEnd(jobId, null, 1L);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.operation.language;
+
+import io.crate.data.Input;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Scalar;
+import io.crate.types.DataTypes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class JavaScriptUDFBenchmark {
+
+    private final Input<Object>[] inputs = new Input[] { () -> 10L, () -> 32L };
+
+    private JavaScriptUserDefinedFunction function;
+    private Scalar<Object, Object> compiledFunction;
+
+    @Setup
+    public void setup() throws Exception {
+        FunctionInfo info = new FunctionInfo(
+            new FunctionIdent("doc", "add", Arrays.asList(DataTypes.LONG, DataTypes.LONG)),
+            DataTypes.LONG
+        );
+        function = new JavaScriptUserDefinedFunction(
+            info,
+            JavaScriptLanguage.compileScript("function add(a, b) { return a + b; }")
+        );
+        compiledFunction = function.compile(Collections.emptyList());
+    }
+
+    @Benchmark
+    public Object measureCompiledFunctionCall() {
+        return compiledFunction.evaluate(inputs);
+    }
+
+    @Benchmark
+    public Object measureFunctionCall() {
+        return function.evaluate(inputs);
+    }
+}
@@ -51,7 +51,7 @@ public class JavaScriptLanguage implements UDFLanguage {
             new FunctionIdent(meta.schema(), meta.name(), meta.argumentTypes()),
             meta.returnType()
         );
-        return new JavaScriptUserDefinedFunction(info, meta.definition());
+        return new JavaScriptUserDefinedFunction(info, compileScript(meta.definition()));
     }
 
     @Nullable
@@ -69,9 +69,19 @@ public class JavaScriptLanguage implements UDFLanguage {
         return null;
     }
 
+    static CompiledScript compileScript(String source) throws ScriptException {
+        return ENGINE.compile(source);
+    }
+
     static Bindings bindScript(String source) throws ScriptException {
+        return bindScript(compileScript(source));
+    }
+
+    /**
+     * Evaluates an already compiled script in new bindings, which is a lot cheaper than compiling it again.
+     */
+    static Bindings bindScript(CompiledScript compiledScript) throws ScriptException {
         Bindings bindings = ENGINE.createBindings();
-        CompiledScript compiledScript = ENGINE.compile(source);
         compiledScript.eval(bindings);
         return bindings;
     }
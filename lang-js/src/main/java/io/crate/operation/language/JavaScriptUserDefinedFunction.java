@@ -33,6 +33,7 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.BytesRefs;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptException;
 import java.util.HashSet;
 import java.util.List;
@@ -43,11 +44,15 @@ import java.util.stream.Collectors;
 public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
     private final FunctionInfo info;
-    private final String script;
+    private final CompiledScript compiledScript;
 
-    JavaScriptUserDefinedFunction(FunctionInfo info, String script) {
+    /**
+     * @param compiledScript the script is compiled once per function definition,
+     *                       only the bindings are created per compiled function or evaluation.
+     */
+    JavaScriptUserDefinedFunction(FunctionInfo info, CompiledScript compiledScript) {
         this.info = info;
-        this.script = script;
+        this.compiledScript = compiledScript;
     }
 
     @Override
@@ -58,7 +63,7 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
     @Override
     public Scalar<Object, Object> compile(List<Symbol> arguments) {
         try {
-            return new CompiledFunction(JavaScriptLanguage.bindScript(script));
+            return new CompiledFunction(resolveFunction(JavaScriptLanguage.bindScript(compiledScript)));
         } catch (ScriptException e) {
             // this should not happen if the script was evaluated upfront
             throw new io.crate.exceptions.ScriptException(
@@ -72,7 +77,7 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
     @Override
     public Object evaluate(Input<Object>[] values) {
         try {
-            return evaluateScriptWithBindings(JavaScriptLanguage.bindScript(script), values);
+            return evaluateFunction(resolveFunction(JavaScriptLanguage.bindScript(compiledScript)), values);
         } catch (ScriptException e) {
             // this should not happen if the script was evaluated upfront
             throw new io.crate.exceptions.ScriptException(
@@ -85,10 +90,10 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
     private class CompiledFunction extends Scalar<Object, Object> {
 
-        private final Bindings bindings;
+        private final ScriptObjectMirror function;
 
-        private CompiledFunction(Bindings bindings) {
-            this.bindings = bindings;
+        private CompiledFunction(ScriptObjectMirror function) {
+            this.function = function;
         }
 
         @Override
@@ -100,12 +105,26 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
         @Override
         public final Object evaluate(Input<Object>[] values) {
-            return evaluateScriptWithBindings(bindings, values);
+            return evaluateFunction(function, values);
         }
 
     }
 
-    private Object evaluateScriptWithBindings(Bindings bindings, Input<Object>[] values) {
+    /**
+     * Looks up the function once per set of bindings instead of once per evaluation.
+     */
+    private ScriptObjectMirror resolveFunction(Bindings bindings) {
+        Object function = bindings.get(info.ident().name());
+        if (function instanceof ScriptObjectMirror && ((ScriptObjectMirror) function).isFunction()) {
+            return (ScriptObjectMirror) function;
+        }
+        throw new io.crate.exceptions.ScriptException(
+            "The name of the function signature doesn't match the function name in the function definition.",
+            JavaScriptLanguage.NAME
+        );
+    }
+
+    private Object evaluateFunction(ScriptObjectMirror function, Input<Object>[] values) {
         Object[] args = new Object[values.length];
         for (int i = 0; i < values.length; i++) {
             args[i] = processBytesRefInputIfNeeded(values[i].value());
@@ -113,12 +132,7 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
         Object result;
         try {
-            result = ((ScriptObjectMirror) bindings.get(info.ident().name())).call(this, args);
-        } catch (NullPointerException e) {
-            throw new io.crate.exceptions.ScriptException(
-                "The name of the function signature doesn't match the function name in the function definition.",
-                JavaScriptLanguage.NAME
-            );
+            result = function.call(this, args);
         } catch (ECMAException e) {
             throw new io.crate.exceptions.ScriptException(
                 e.getMessage(),
@@ -33,9 +33,14 @@ singleExpression
 statement
     : query                                                                          #default
     | BEGIN                                                                          #begin
-    | EXPLAIN statement                                                              #explain
+    | DECLARE cursorName=ident (NO SCROLL)? CURSOR ((WITH | WITHOUT) HOLD)? FOR query #declare
+    | FETCH (NEXT | ALL | FORWARD (count=integerLiteral | ALL)? | count=integerLiteral)?
+        (FROM | IN)? cursorName=ident                                                #fetch
+    | CLOSE (ALL | cursorName=ident)                                                 #close
+    | EXPLAIN ANALYZE? statement                                                     #explain
     | OPTIMIZE TABLE tableWithPartitions withProperties?                             #optimize
     | REFRESH TABLE tableWithPartitions                                              #refreshTable
+    | ANALYZE (table (',' table)*)?                                                  #analyze
     | UPDATE aliasedRelation SET assignment (',' assignment)* where?                 #update
     | DELETE FROM aliasedRelation where?                                             #delete
     | SHOW TRANSACTION ISOLATION LEVEL                                               #showTransaction
@@ -58,7 +63,7 @@ statement
     | INSERT INTO table ('(' ident (',' ident)* ')')? insertSource
         (ON DUPLICATE KEY UPDATE assignment (',' assignment)*)?                      #insert
     | RESTORE SNAPSHOT qname (ALL | TABLE tableWithPartitions) withProperties?       #restore
-    | COPY tableWithPartition FROM path=expr withProperties?                         #copyFrom
+    | COPY tableWithPartition columns? FROM (STDIN | path=expr) withProperties?      #copyFrom
     | COPY tableWithPartition columns? where?
         TO DIRECTORY? path=expr withProperties?                                      #copyTo
     | DROP BLOB TABLE (IF EXISTS)? table                                             #dropBlobTable
@@ -552,16 +557,17 @@ on
     ;
 
 nonReserved
-    : ALIAS | ANALYZER | BERNOULLI | BLOB | CATALOGS | CHAR_FILTERS | CLUSTERED
+    : ALIAS | ANALYZE | ANALYZER | BERNOULLI | BLOB | CATALOGS | CHAR_FILTERS | CLUSTERED
     | COLUMNS | COPY | CURRENT | DATE | DAY | DISTRIBUTED | DUPLICATE | DYNAMIC | EXPLAIN
     | EXTENDS | FOLLOWING | FORMAT | FULLTEXT | FUNCTIONS | GEO_POINT | GEO_SHAPE | GLOBAL
     | GRAPHVIZ | HOUR | IGNORED | KEY | KILL | LOGICAL | LOCAL | MATERIALIZED | MINUTE
     | MONTH | OFF | ONLY | OVER | OPTIMIZE | PARTITION | PARTITIONED | PARTITIONS | PLAIN
     | PRECEDING | RANGE | REFRESH | ROW | ROWS | SCHEMAS | SECOND | SESSION
-    | SHARDS | SHOW | STRICT | SYSTEM | TABLES | TABLESAMPLE | TEXT | TIME
+    | SHARDS | SHOW | STDIN | STRICT | SYSTEM | TABLES | TABLESAMPLE | TEXT | TIME
     | TIMESTAMP | TO | TOKENIZER | TOKEN_FILTERS | TYPE | VALUES | VIEW | YEAR
     | REPOSITORY | SNAPSHOT | RESTORE | GENERATED | ALWAYS | BEGIN
-    | ISOLATION | TRANSACTION | LEVEL | LANGUAGE
+    | ISOLATION | TRANSACTION | LEVEL | LANGUAGE | DECLARE | CURSOR | FETCH | NEXT
+    | FORWARD | CLOSE | NO | SCROLL | HOLD | WITHOUT
     ;
 
 SELECT: 'SELECT';
@@ -733,10 +739,12 @@ INDEX: 'INDEX';
 
 DYNAMIC: 'DYNAMIC';
 STRICT: 'STRICT';
+STDIN: 'STDIN';
 IGNORED: 'IGNORED';
 
 ARRAY: 'ARRAY';
 
+ANALYZE: 'ANALYZE';
 ANALYZER: 'ANALYZER';
 EXTENDS: 'EXTENDS';
 TOKENIZER: 'TOKENIZER';
@@ -755,6 +763,17 @@ ALWAYS: 'ALWAYS';
 
 READ: 'READ';
 
+DECLARE: 'DECLARE';
+CURSOR: 'CURSOR';
+FETCH: 'FETCH';
+NEXT: 'NEXT';
+FORWARD: 'FORWARD';
+CLOSE: 'CLOSE';
+NO: 'NO';
+SCROLL: 'SCROLL';
+HOLD: 'HOLD';
+WITHOUT: 'WITHOUT';
+
 EQ  : '=';
 NEQ : '<>' | '!=';
 LT  : '<';
@@ -62,8 +62,16 @@ public final class SqlFormatter {
         public Void visitCopyFrom(CopyFrom node, Integer indent) {
             append(indent, "COPY ");
             process(node.table(), indent);
+            if (!node.columns().isEmpty()) {
+                builder.append(" ");
+                appendFlatNodeList(node.columns(), indent);
+            }
             append(indent, " FROM ");
-            process(node.path(), indent);
+            if (node.fromStdin()) {
+                append(indent, "STDIN");
+            } else {
+                process(node.path(), indent);
+            }
             if (node.genericProperties().isPresent()) {
                 append(indent, " ");
                 process(node.genericProperties().get(), indent);
@@ -78,9 +86,52 @@ public final class SqlFormatter {
             return null;
         }
 
+        @Override
+        public Void visitAnalyzeStatement(AnalyzeStatement node, Integer indent) {
+            append(indent, "ANALYZE");
+            List<Table> tables = node.tables();
+            for (int i = 0; i < tables.size(); i++) {
+                builder.append(i == 0 ? " " : ", ");
+                tables.get(i).accept(this, indent);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitDeclareCursor(DeclareCursor node, Integer indent) {
+            append(indent, "DECLARE ");
+            builder.append(quoteIdentifierIfNeeded(node.cursorName()));
+            builder.append(" CURSOR FOR ");
+            process(node.query(), indent);
+            return null;
+        }
+
+        @Override
+        public Void visitFetch(Fetch node, Integer indent) {
+            append(indent, "FETCH ");
+            if (node.count() == Fetch.ALL) {
+                builder.append("ALL");
+            } else {
+                builder.append(node.count());
+            }
+            builder.append(" FROM ");
+            builder.append(quoteIdentifierIfNeeded(node.cursorName()));
+            return null;
+        }
+
+        @Override
+        public Void visitCloseCursor(CloseCursor node, Integer indent) {
+            append(indent, "CLOSE ");
+            builder.append(node.cursorName().map(this::quoteIdentifierIfNeeded).orElse("ALL"));
+            return null;
+        }
+
         @Override
         protected Void visitExplain(Explain node, Integer indent) {
             append(indent, "EXPLAIN ");
+            if (node.isAnalyze()) {
+                builder.append("ANALYZE ");
+            }
             process(node.getStatement(), indent);
             return null;
         }
@@ -61,6 +61,33 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         return new BeginStatement();
     }
 
+    @Override
+    public Node visitDeclare(SqlBaseParser.DeclareContext context) {
+        return new DeclareCursor(getIdentText(context.cursorName), (Query) visit(context.query()));
+    }
+
+    @Override
+    public Node visitFetch(SqlBaseParser.FetchContext context) {
+        long count = 1L;
+        if (context.ALL() != null) {
+            count = Fetch.ALL;
+        } else if (context.count != null) {
+            count = Long.parseLong(context.count.getText());
+            if (count < 1) {
+                throw new IllegalArgumentException("FETCH count must be greater than 0");
+            }
+        }
+        return new Fetch(getIdentText(context.cursorName), count);
+    }
+
+    @Override
+    public Node visitClose(SqlBaseParser.CloseContext context) {
+        if (context.ALL() != null) {
+            return new CloseCursor();
+        }
+        return new CloseCursor(getIdentText(context.cursorName));
+    }
+
     @Override
     public Node visitOptimize(SqlBaseParser.OptimizeContext context) {
         return new OptimizeStatement(
@@ -183,9 +210,14 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
 
     @Override
     public Node visitCopyFrom(SqlBaseParser.CopyFromContext context) {
+        List<Expression> columns = Optional.ofNullable(context.columns())
+            .map(list -> visit(list.primaryExpression(), Expression.class))
+            .orElse(null);
+
         return new CopyFrom(
             (Table) visit(context.tableWithPartition()),
-            (Expression) visit(context.path),
+            columns,
+            context.STDIN() != null ? null : (Expression) visit(context.path),
             visitIfPresent(context.withProperties(), GenericProperties.class));
     }
 
@@ -284,7 +316,7 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
 
     @Override
     public Node visitExplain(SqlBaseParser.ExplainContext context) {
-        return new Explain((Statement) visit(context.statement()));
+        return new Explain((Statement) visit(context.statement()), context.ANALYZE() != null);
     }
 
     @Override
@@ -316,6 +348,11 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         return new RefreshStatement(visit(context.tableWithPartitions().tableWithPartition(), Table.class));
     }
 
+    @Override
+    public Node visitAnalyze(SqlBaseParser.AnalyzeContext context) {
+        return new AnalyzeStatement(visit(context.table(), Table.class));
+    }
+
     @Override
     public Node visitTableOnly(SqlBaseParser.TableOnlyContext context) {
         return new Table(getQualifiedName(context.qname()));
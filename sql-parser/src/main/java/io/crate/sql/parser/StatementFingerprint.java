@@ -0,0 +1,166 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.sql.parser;
+
+import io.crate.sql.parser.antlr.v4.SqlBaseLexer;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Creates a normalized form of a SQL statement which identifies all executions of the same statement
+ * regardless of the literals used and the formatting of the statement text.
+ *
+ * <pre>
+ *     select name from  t where id in (1, 2, 3) and x = 'foo'
+ *     -&gt;
+ *     SELECT name FROM t WHERE id IN (?) AND x = ?
+ * </pre>
+ *
+ * <ul>
+ *     <li>string and numeric literals and parameter placeholders become {@code ?}</li>
+ *     <li>lists of literals and rows of literals (e.g. in VALUES) are collapsed into a single entry</li>
+ *     <li>keywords are upper case, unquoted identifiers lower case</li>
+ *     <li>whitespace and comments are removed</li>
+ * </ul>
+ *
+ * Only the lexer is used, so this is much cheaper than parsing and works for invalid statements as well.
+ */
+public final class StatementFingerprint {
+
+    private static final String PLACEHOLDER = "?";
+    private static final Vocabulary VOCABULARY = SqlBaseLexer.VOCABULARY;
+
+    private StatementFingerprint() {
+    }
+
+    public static String of(String statement) {
+        SqlBaseLexer lexer = new SqlBaseLexer(new CaseInsensitiveStream(new ANTLRInputStream(statement)));
+        lexer.removeErrorListeners();
+
+        List<String> tokens = new ArrayList<>();
+        boolean positionalParameter = false;
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+                continue;
+            }
+            if (positionalParameter) {
+                positionalParameter = false;
+                if (token.getType() == SqlBaseLexer.INTEGER_VALUE) {
+                    // $1
+                    continue;
+                }
+            }
+            String text = token.getText();
+            switch (token.getType()) {
+                case SqlBaseLexer.STRING:
+                case SqlBaseLexer.INTEGER_VALUE:
+                case SqlBaseLexer.DECIMAL_VALUE:
+                    addPlaceholder(tokens);
+                    break;
+
+                case SqlBaseLexer.IDENTIFIER:
+                    tokens.add(text.toLowerCase(Locale.ENGLISH));
+                    break;
+
+                default:
+                    if (text.equals("$") || text.equals(PLACEHOLDER)) {
+                        positionalParameter = text.equals("$");
+                        addPlaceholder(tokens);
+                    } else if (text.equals(")")) {
+                        tokens.add(text);
+                        collapseRows(tokens);
+                    } else if (VOCABULARY.getLiteralName(token.getType()) != null) {
+                        // keyword or operator
+                        tokens.add(text.toUpperCase(Locale.ENGLISH));
+                    } else {
+                        tokens.add(text);
+                    }
+            }
+        }
+        return join(tokens);
+    }
+
+    /**
+     * ? , ?  -&gt;  ?
+     */
+    private static void addPlaceholder(List<String> tokens) {
+        int size = tokens.size();
+        if (size >= 2 && tokens.get(size - 1).equals(",") && tokens.get(size - 2).equals(PLACEHOLDER)) {
+            tokens.remove(size - 1);
+        } else {
+            tokens.add(PLACEHOLDER);
+        }
+    }
+
+    /**
+     * ( ? ) , ( ? )  -&gt;  ( ? )
+     */
+    private static void collapseRows(List<String> tokens) {
+        int size = tokens.size();
+        if (size >= 7
+            && tokens.get(size - 1).equals(")")
+            && tokens.get(size - 2).equals(PLACEHOLDER)
+            && tokens.get(size - 3).equals("(")
+            && tokens.get(size - 4).equals(",")
+            && tokens.get(size - 5).equals(")")
+            && tokens.get(size - 6).equals(PLACEHOLDER)
+            && tokens.get(size - 7).equals("(")) {
+            tokens.subList(size - 4, size).clear();
+        }
+    }
+
+    private static String join(List<String> tokens) {
+        StringBuilder sb = new StringBuilder();
+        String previous = null;
+        for (String token : tokens) {
+            if (previous != null && needsSpace(previous, token)) {
+                sb.append(' ');
+            }
+            sb.append(token);
+            previous = token;
+        }
+        return sb.toString();
+    }
+
+    private static boolean needsSpace(String previous, String token) {
+        switch (token) {
+            case ",":
+            case ")":
+            case "]":
+            case "[":
+            case ".":
+                return false;
+            case "(":
+                // function calls: count(*)
+                char first = previous.charAt(0);
+                return !(Character.isLowerCase(first) || first == '_' || first == '"');
+            default:
+                return !(previous.equals("(") || previous.equals("[") || previous.equals("."));
+        }
+    }
+}
@@ -401,6 +401,10 @@ public abstract class AstVisitor<R, C> {
         return visitStatement(node, context);
     }
 
+    public R visitAnalyzeStatement(AnalyzeStatement node, C context) {
+        return visitStatement(node, context);
+    }
+
     public R visitOptimizeStatement(OptimizeStatement node, C context) {
         return visitStatement(node, context);
     }
@@ -501,6 +505,18 @@ public abstract class AstVisitor<R, C> {
         return visitStatement(node, context);
     }
 
+    public R visitDeclareCursor(DeclareCursor node, C context) {
+        return visitStatement(node, context);
+    }
+
+    public R visitFetch(Fetch node, C context) {
+        return visitStatement(node, context);
+    }
+
+    public R visitCloseCursor(CloseCursor node, C context) {
+        return visitStatement(node, context);
+    }
+
     public R visitShowTransaction(ShowTransaction showTransaction, C context) {
         return visitStatement(showTransaction, context);
     }
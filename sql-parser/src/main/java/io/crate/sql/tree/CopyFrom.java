@@ -22,20 +22,37 @@
 package io.crate.sql.tree;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
 
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 public class CopyFrom extends Statement {
 
     private final Table table;
+    private final List<Expression> columns;
+    @Nullable
     private final Expression path;
     private final Optional<GenericProperties> genericProperties;
 
     public CopyFrom(Table table,
                     Expression path,
                     Optional<GenericProperties> genericProperties) {
+        this(table, null, path, genericProperties);
+    }
+
+    /**
+     * @param path the uri of the files to import or null to read the rows from the client (COPY ... FROM STDIN)
+     */
+    public CopyFrom(Table table,
+                    @Nullable List<Expression> columns,
+                    @Nullable Expression path,
+                    Optional<GenericProperties> genericProperties) {
 
         this.table = table;
+        this.columns = MoreObjects.firstNonNull(columns, ImmutableList.<Expression>of());
         this.path = path;
         this.genericProperties = genericProperties;
     }
@@ -44,10 +61,22 @@ public class CopyFrom extends Statement {
         return table;
     }
 
+    public List<Expression> columns() {
+        return columns;
+    }
+
+    /**
+     * @return the uri of the files to import or null if the rows are read from the client
+     */
+    @Nullable
     public Expression path() {
         return path;
     }
 
+    public boolean fromStdin() {
+        return path == null;
+    }
+
     public Optional<GenericProperties> genericProperties() {
         return genericProperties;
     }
@@ -60,7 +89,8 @@ public class CopyFrom extends Statement {
         CopyFrom that = (CopyFrom) o;
 
         if (!genericProperties.equals(that.genericProperties)) return false;
-        if (!path.equals(that.path)) return false;
+        if (!Objects.equals(path, that.path)) return false;
+        if (!columns.equals(that.columns)) return false;
         if (!table.equals(that.table)) return false;
 
         return true;
@@ -69,7 +99,8 @@ public class CopyFrom extends Statement {
     @Override
     public int hashCode() {
         int result = table.hashCode();
-        result = 31 * result + path.hashCode();
+        result = 31 * result + columns.hashCode();
+        result = 31 * result + Objects.hashCode(path);
         result = 31 * result + genericProperties.hashCode();
         return result;
     }
@@ -78,6 +109,7 @@ public class CopyFrom extends Statement {
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("table", table)
+            .add("columns", columns)
             .add("path", path)
             .add("properties", genericProperties)
             .toString();
@@ -0,0 +1,83 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.sql.tree;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * FETCH [ NEXT | ALL | FORWARD [ count | ALL ] | count ] [ FROM | IN ] cursor_name
+ * </pre>
+ */
+public class Fetch extends Statement {
+
+    /**
+     * count used for FETCH ALL
+     */
+    public static final long ALL = -1L;
+
+    private final String cursorName;
+    private final long count;
+
+    public Fetch(String cursorName, long count) {
+        this.cursorName = cursorName;
+        this.count = count;
+    }
+
+    public String cursorName() {
+        return cursorName;
+    }
+
+    /**
+     * @return the number of rows to fetch or {@link #ALL}
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cursorName.hashCode() + Long.hashCode(count);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Fetch that = (Fetch) o;
+        return count == that.count && cursorName.equals(that.cursorName);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("cursorName", cursorName)
+            .add("count", count)
+            .toString();
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitFetch(this, context);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.sql.parser;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class StatementFingerprintTest {
+
+    @Test
+    public void testLiteralsAreReplaced() throws Exception {
+        assertThat(StatementFingerprint.of("select name from t where id = 1 and x = 'foo' and d > 1.5"),
+            is("SELECT name FROM t WHERE id = ? AND x = ? AND d > ?"));
+    }
+
+    @Test
+    public void testParametersAreReplaced() throws Exception {
+        assertThat(StatementFingerprint.of("select * from t where a = ? and b = $2"),
+            is("SELECT * FROM t WHERE a = ? AND b = ?"));
+    }
+
+    @Test
+    public void testFormattingAndCaseIsNormalized() throws Exception {
+        assertThat(StatementFingerprint.of("SELECT  Name\n FROM T -- comment\n WHERE count(*)>1"),
+            is("SELECT name FROM t WHERE count(*) > ?"));
+        assertThat(StatementFingerprint.of("select \"Name\" from doc.t"),
+            is("SELECT \"Name\" FROM doc.t"));
+    }
+
+    @Test
+    public void testListsAreCollapsed() throws Exception {
+        assertThat(StatementFingerprint.of("select * from t where id in (1, 2, 3)"),
+            is(StatementFingerprint.of("select * from t where id in (4)")));
+        assertThat(StatementFingerprint.of("insert into t (a, b) values (1, 'a'), (2, 'b'), (3, 'c')"),
+            is("INSERT INTO t(a, b) VALUES (?)"));
+    }
+
+    @Test
+    public void testKeywordLiteralsAreKept() throws Exception {
+        assertThat(StatementFingerprint.of("select * from t where x is null and b = true"),
+            is("SELECT * FROM t WHERE x IS NULL AND b = TRUE"));
+    }
+}
@@ -139,6 +139,8 @@ public class TestStatementBuilder {
     @Test
     public void testExplainStmtBuilder() {
         printStatement("explain drop table foo");
+        printStatement("explain analyze select * from foo");
+        printStatement("explain analyze");
     }
 
     @Test
@@ -195,6 +197,40 @@ public class TestStatementBuilder {
         assertTrue(stmt.equals(new KillStatement()));
     }
 
+    @Test
+    public void testCursorStmtBuilder() {
+        printStatement("declare c cursor for select * from t");
+        printStatement("declare c no scroll cursor with hold for select x from t where x > 10 order by x");
+        printStatement("fetch from c");
+        printStatement("fetch next from c");
+        printStatement("fetch 10 from c");
+        printStatement("fetch forward 10 in c");
+        printStatement("fetch all from c");
+        printStatement("fetch forward all from c");
+        printStatement("close c");
+        printStatement("close all");
+    }
+
+    @Test
+    public void testFetch() throws Exception {
+        assertThat(SqlParser.createStatement("FETCH c"), is(new Fetch("c", 1L)));
+        assertThat(SqlParser.createStatement("FETCH FORWARD 5 FROM c"), is(new Fetch("c", 5L)));
+        assertThat(SqlParser.createStatement("FETCH ALL IN c"), is(new Fetch("c", Fetch.ALL)));
+    }
+
+    @Test
+    public void testFetchZeroRowsIsNotAllowed() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("FETCH count must be greater than 0");
+        SqlParser.createStatement("FETCH 0 FROM c");
+    }
+
+    @Test
+    public void testCloseAll() throws Exception {
+        assertThat(SqlParser.createStatement("CLOSE ALL"), is(new CloseCursor()));
+        assertThat(SqlParser.createStatement("CLOSE \"all\""), is(new CloseCursor("all")));
+    }
+
     @Test
     public void testRefreshStmtBuilder() {
         printStatement("refresh table t");
@@ -205,6 +241,13 @@ public class TestStatementBuilder {
         printStatement("refresh table tableh partition (pcol['nested'] = ?)");
     }
 
+    @Test
+    public void testAnalyzeStmtBuilder() {
+        printStatement("analyze");
+        printStatement("analyze t");
+        printStatement("analyze schemah.tableh, t");
+    }
+
     @Test
     public void testOptimize() throws Exception {
         printStatement("optimize table t");
@@ -555,6 +598,14 @@ public class TestStatementBuilder {
         printStatement("copy foo from ? with (some_property=1)");
         printStatement("copy foo from ? with (some_property=false)");
         printStatement("copy schemah.foo from '/folder/file.extension'");
+        printStatement("copy foo from stdin");
+        printStatement("copy foo (a, b) from stdin with (format='csv', header=true)");
+        printStatement("copy foo partition (a='x') from stdin");
+
+        CopyFrom copyFrom = (CopyFrom) SqlParser.createStatement("copy foo from stdin");
+        assertThat(copyFrom.fromStdin(), is(true));
+        copyFrom = (CopyFrom) SqlParser.createStatement("copy foo from stdin_files");
+        assertThat(copyFrom.fromStdin(), is(false));
 
         printStatement("copy foo (nae) to '/folder/file.extension'");
         printStatement("copy foo to '/folder/file.extension'");
@@ -1010,7 +1061,11 @@ public class TestStatementBuilder {
         if (statement instanceof Query ||
             statement instanceof CreateTable ||
             statement instanceof CopyFrom ||
-            statement instanceof CreateFunction) {
+            statement instanceof CreateFunction ||
+            statement instanceof AnalyzeStatement ||
+            statement instanceof DeclareCursor ||
+            statement instanceof Fetch ||
+            statement instanceof CloseCursor) {
             println(SqlFormatter.formatSql(statement));
             println("");
             assertFormattedSql(statement);
@@ -23,6 +23,7 @@
 package io.crate.analyze;
 
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
 import io.crate.planner.Plan;
 import io.crate.sql.parser.SqlParser;
 import io.crate.sql.tree.Statement;
@@ -47,6 +48,7 @@ public class PreExecutionBenchmark {
 
     private TestThreadPool threadPool;
     private SQLExecutor e;
+    private StatementCache statementCache;
     private Statement selectStatement;
     private Analysis selectAnalysis;
     private UUID jobId;
@@ -54,16 +56,18 @@ public class PreExecutionBenchmark {
     @Setup
     public void setup() {
         threadPool = new TestThreadPool("testing");
-        e = SQLExecutor.builder(
-            new ClusterService(Settings.builder().put("cluster.name", "ClusterServiceTests").build(),
-                new ClusterSettings(Settings.EMPTY, Sets.newHashSet(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)),
-                threadPool)).
+        ClusterService clusterService = new ClusterService(
+            Settings.builder().put("cluster.name", "ClusterServiceTests").build(),
+            new ClusterSettings(Settings.EMPTY, Sets.newHashSet(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)),
+            threadPool);
+        e = SQLExecutor.builder(clusterService).
             enableDefaultTables().
             build();
         selectStatement = SqlParser.createStatement("select name from users");
         selectAnalysis =
             e.analyzer.boundAnalyze(selectStatement, SessionContext.SYSTEM_SESSION, ParameterContext.EMPTY);
         jobId = UUID.randomUUID();
+        statementCache = new StatementCache(Settings.EMPTY, clusterService);
     }
 
     @TearDown
@@ -77,6 +81,11 @@ public class PreExecutionBenchmark {
         return SqlParser.createStatement("select name from users");
     }
 
+    @Benchmark
+    public Statement benchParseCached() throws Exception {
+        return statementCache.parse("select name from users");
+    }
+
     @Benchmark
     public AnalyzedStatement benchParseAndAnalyzeSelect() {
         return e.analyze("select name from users");
@@ -0,0 +1,210 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.transport.task.elasticsearch;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.Option;
+import io.crate.action.sql.SQLOperations;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.Analysis;
+import io.crate.analyze.Analyzer;
+import io.crate.analyze.EvaluatingNormalizer;
+import io.crate.analyze.ParameterContext;
+import io.crate.data.Bucket;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.executor.transport.TransportActionProvider;
+import io.crate.jobs.JobContextService;
+import io.crate.metadata.Functions;
+import io.crate.metadata.ReplaceMode;
+import io.crate.operation.InputFactory;
+import io.crate.operation.collect.sources.SystemCollectSource;
+import io.crate.operation.projectors.ProjectionToProjectorVisitor;
+import io.crate.operation.projectors.ProjectorFactory;
+import io.crate.planner.Plan;
+import io.crate.planner.Planner;
+import io.crate.planner.consumer.ESGetTemplate;
+import io.crate.planner.node.dql.ESGet;
+import io.crate.plugin.BlobPlugin;
+import io.crate.plugin.CrateCorePlugin;
+import io.crate.plugin.SQLPlugin;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Statement;
+import io.crate.testing.TestingBatchConsumer;
+import org.elasticsearch.action.bulk.BulkRetryCoordinatorPool;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Injector;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.node.internal.InternalSettingsPreparer;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures primary key lookups end-to-end on a single node whose table has a single shard,
+ * so the document is always read from the local shard by the {@link LocalShardGetAction}.
+ *
+ * <ul>
+ *     <li>{@link #benchESGetTask()} binds the cached plan template and executes the {@link ESGetTask}.</li>
+ *     <li>{@link #benchSession()} goes through bind, execute and sync of a session, like a PostgreSQL client
+ *     using the extended query protocol.</li>
+ * </ul>
+ */
+@State(value = Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ESGetTaskBenchmark {
+
+    private static final String QUERY = "select name from users where id = ?";
+
+    private Path home;
+    private Node node;
+    private Functions functions;
+    private ProjectorFactory projectorFactory;
+    private TransportActionProvider transportActionProvider;
+    private LocalShardGetAction localShardGetAction;
+    private JobContextService jobContextService;
+    private SQLOperations.Session session;
+    private ESGetTemplate template;
+    private Row params;
+    private List<Object> paramValues;
+
+    @Setup
+    public void setup() throws Exception {
+        home = Files.createTempDirectory("crate-benchmark");
+        node = new BenchmarkNode(Settings.builder()
+            .put("cluster.name", ESGetTaskBenchmark.class.getSimpleName())
+            .put("node.name", "benchmark")
+            .put("path.home", home.toString())
+            .put("transport.type", "local")
+            .put("discovery.type", "local")
+            .put("http.enabled", false)
+            .put("psql.enabled", false)
+            .put(EsExecutors.PROCESSORS_SETTING.getKey(), Runtime.getRuntime().availableProcessors())
+            .build());
+        node.start();
+
+        Injector injector = node.injector();
+        SQLOperations sqlOperations = injector.getInstance(SQLOperations.class);
+        session = sqlOperations.createSession("doc", Option.NONE, 10_000);
+        execute("create table users (id long primary key, name string) " +
+                "clustered into 1 shards with (number_of_replicas = 0)");
+        node.client().admin().cluster().prepareHealth("users").setWaitForGreenStatus().get();
+        execute("insert into users (id, name) values (1, 'Arthur')");
+        execute("refresh table users");
+
+        functions = injector.getInstance(Functions.class);
+        transportActionProvider = injector.getInstance(TransportActionProvider.class);
+        localShardGetAction = injector.getInstance(LocalShardGetAction.class);
+        jobContextService = injector.getInstance(JobContextService.class);
+        projectorFactory = new ProjectionToProjectorVisitor(
+            injector.getInstance(ClusterService.class),
+            functions,
+            injector.getInstance(IndexNameExpressionResolver.class),
+            injector.getInstance(ThreadPool.class),
+            injector.getInstance(Settings.class),
+            transportActionProvider,
+            injector.getInstance(BulkRetryCoordinatorPool.class),
+            new InputFactory(functions),
+            EvaluatingNormalizer.functionOnlyNormalizer(functions, ReplaceMode.COPY),
+            injector.getInstance(SystemCollectSource.class)::getRowUpdater);
+
+        paramValues = Collections.singletonList(1L);
+        params = new RowN(paramValues.toArray());
+        Statement statement = SqlParser.createStatement(QUERY);
+        Analysis analysis = injector.getInstance(Analyzer.class).boundAnalyze(
+            statement, SessionContext.SYSTEM_SESSION, new ParameterContext(params, Collections.<Row>emptyList()));
+        Plan plan = injector.getInstance(Planner.class).plan(analysis, UUID.randomUUID(), 0, 0);
+        template = ESGetTemplate.create(statement, analysis, plan, params);
+        assert template != null : "statement must be a primary key lookup";
+
+        session.parse("lookup", QUERY, Collections.emptyList());
+    }
+
+    @TearDown
+    public void cleanup() throws Exception {
+        node.close();
+        for (Path path : Files.walk(home).sorted((p1, p2) -> p2.compareTo(p1)).toArray(Path[]::new)) {
+            Files.delete(path);
+        }
+    }
+
+    private void execute(String stmt) throws Exception {
+        session.parse("", stmt, Collections.emptyList());
+        session.bind("", "", Collections.emptyList(), null);
+        BaseResultReceiver resultReceiver = new BaseResultReceiver();
+        session.execute("", 0, resultReceiver);
+        session.sync();
+        resultReceiver.completionFuture().get(30, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Bucket benchESGetTask() throws Exception {
+        ESGet plan = template.bind(params, UUID.randomUUID());
+        ESGetTask task = new ESGetTask(
+            functions, projectorFactory, transportActionProvider, localShardGetAction, plan, jobContextService);
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        task.execute(consumer, params);
+        return consumer.getBucket();
+    }
+
+    @Benchmark
+    public Object benchSession() throws Exception {
+        session.bind("", "lookup", paramValues, null);
+        BaseResultReceiver resultReceiver = new BaseResultReceiver();
+        session.execute("", 0, resultReceiver);
+        session.sync();
+        return resultReceiver.completionFuture().get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ESGetTaskBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(opt).run();
+    }
+
+    private static class BenchmarkNode extends Node {
+
+        BenchmarkNode(Settings settings) {
+            super(InternalSettingsPreparer.prepareEnvironment(settings, null),
+                Arrays.asList(SQLPlugin.class, BlobPlugin.class, CrateCorePlugin.class));
+        }
+    }
+}
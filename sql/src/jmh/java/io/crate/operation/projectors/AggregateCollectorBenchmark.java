@@ -30,10 +30,12 @@ import io.crate.data.Row1;
 import io.crate.operation.aggregation.AggregationFunction;
 import io.crate.operation.aggregation.impl.SumAggregation;
 import io.crate.operation.collect.InputCollectExpression;
+import io.crate.operation.vector.LongVector;
 import io.crate.types.DataTypes;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.openjdk.jmh.annotations.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -51,13 +53,16 @@ public class AggregateCollectorBenchmark {
         new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
     private final List<Row> rows = IntStream.range(0, 10_000).mapToObj(Row1::new).collect(Collectors.toList());
 
+    private final List<LongVector> vectors = new ArrayList<>();
+
     private AggregateCollector colllector;
+    private SumAggregation sumAggregation;
 
     @Setup
     public void setup() {
         InputCollectExpression inExpr0 = new InputCollectExpression(0);
 
-        SumAggregation sumAggregation = new SumAggregation(DataTypes.INTEGER);
+        sumAggregation = new SumAggregation(DataTypes.INTEGER);
         colllector = new AggregateCollector(
             Collections.singletonList(inExpr0),
             RAM_ACCOUNTING_CONTEXT,
@@ -65,6 +70,16 @@ public class AggregateCollectorBenchmark {
             new AggregationFunction[] { sumAggregation },
             new Input[] { inExpr0 }
         );
+
+        for (int i = 0; i < rows.size(); i += BatchAggregator.BATCH_SIZE) {
+            int size = Math.min(BatchAggregator.BATCH_SIZE, rows.size() - i);
+            LongVector vector = new LongVector(BatchAggregator.BATCH_SIZE);
+            vector.reset(size);
+            for (int j = 0; j < size; j++) {
+                vector.set(j, (int) rows.get(i + j).get(0));
+            }
+            vectors.add(vector);
+        }
     }
 
     @Benchmark
@@ -77,4 +92,14 @@ public class AggregateCollectorBenchmark {
         }
         return finisher.apply(state);
     }
+
+    @Benchmark
+    public Double measureSumBatchIterate() {
+        Double state = sumAggregation.newState(RAM_ACCOUNTING_CONTEXT);
+        for (int i = 0; i < vectors.size(); i++) {
+            LongVector vector = vectors.get(i);
+            state = sumAggregation.iterateBatch(RAM_ACCOUNTING_CONTEXT, state, vector.size(), vector);
+        }
+        return sumAggregation.terminatePartial(RAM_ACCOUNTING_CONTEXT, state);
+    }
 }
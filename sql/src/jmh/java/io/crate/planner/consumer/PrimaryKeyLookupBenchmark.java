@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.consumer;
+
+import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
+import io.crate.analyze.Analysis;
+import io.crate.analyze.ParameterContext;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.planner.Plan;
+import io.crate.sql.tree.Statement;
+import io.crate.testing.SQLExecutor;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.set.Sets;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pre-execution work of a primary key lookup with and without a cached plan template.
+ */
+@State(value = Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrimaryKeyLookupBenchmark {
+
+    private static final String QUERY = "select name from users where id = ?";
+
+    private TestThreadPool threadPool;
+    private SQLExecutor e;
+    private StatementCache statementCache;
+    private ESGetTemplate template;
+    private Row params;
+
+    @Setup
+    public void setup() {
+        threadPool = new TestThreadPool("testing");
+        ClusterService clusterService = new ClusterService(
+            Settings.builder().put("cluster.name", "ClusterServiceTests").build(),
+            new ClusterSettings(Settings.EMPTY, Sets.newHashSet(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)),
+            threadPool);
+        e = SQLExecutor.builder(clusterService).
+            enableDefaultTables().
+            build();
+        statementCache = new StatementCache(Settings.EMPTY, clusterService);
+        params = new RowN(new Object[]{10L});
+
+        Statement statement = statementCache.parse(QUERY);
+        Analysis analysis = analyze(statement);
+        Plan plan = e.planner.plan(analysis, UUID.randomUUID(), 0, 0);
+        template = ESGetTemplate.create(statement, analysis, plan, params);
+        assert template != null : "statement must be a primary key lookup";
+    }
+
+    @TearDown
+    public void cleanup() throws InterruptedException {
+        threadPool.shutdown();
+        threadPool.awaitTermination(20, TimeUnit.SECONDS);
+    }
+
+    private Analysis analyze(Statement statement) {
+        return e.analyzer.boundAnalyze(
+            statement, SessionContext.SYSTEM_SESSION, new ParameterContext(params, Collections.<Row>emptyList()));
+    }
+
+    @Benchmark
+    public Plan benchAnalyzeAndPlan() {
+        Statement statement = statementCache.parse(QUERY);
+        return e.planner.plan(analyze(statement), UUID.randomUUID(), 0, 0);
+    }
+
+    @Benchmark
+    public Plan benchBindTemplate() {
+        return template.bind(params, UUID.randomUUID());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(PrimaryKeyLookupBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(opt).run();
+    }
+}
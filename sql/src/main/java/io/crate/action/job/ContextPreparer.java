@@ -28,12 +28,16 @@ import com.carrotsearch.hppc.procedures.ObjectProcedure;
 import com.google.common.base.MoreObjects;
 import io.crate.Streamer;
 import io.crate.analyze.EvaluatingNormalizer;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Symbol;
 import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowSizeEstimator;
 import io.crate.data.BatchConsumer;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.executor.transport.TransportActionProvider;
+import io.crate.executor.transport.distributed.DistributingConsumer;
 import io.crate.executor.transport.distributed.SingleBucketBuilder;
 import io.crate.jobs.*;
 import io.crate.metadata.Functions;
@@ -411,6 +415,21 @@ public class ContextPreparer extends AbstractComponent {
          * Retrieve the rowReceiver of the downstream of phase
          */
         BatchConsumer getBatchConsumer(UpstreamPhase phase, int pageSize) {
+            SubContextProfiler profiler = contextBuilder.profiler(phase.phaseId(), phase.name());
+            BatchConsumer consumer = downstreamConsumer(phase, pageSize, profiler);
+            return profiler == null ? consumer : profiler.countRowsOut(consumer);
+        }
+
+        /**
+         * Wraps the consumer which receives the rows before the projections of the phase are applied
+         * if the job is profiled.
+         */
+        BatchConsumer countRowsIn(ExecutionPhase phase, BatchConsumer consumer) {
+            SubContextProfiler profiler = contextBuilder.profiler(phase.phaseId(), phase.name());
+            return profiler == null ? consumer : profiler.countRowsIn(consumer);
+        }
+
+        private BatchConsumer downstreamConsumer(UpstreamPhase phase, int pageSize, @Nullable SubContextProfiler profiler) {
             NodeOperation nodeOperation = opCtx.nodeOperationByPhaseId.get(phase.phaseId());
             if (nodeOperation == null) {
                 return handlerPhaseConsumer(phase.phaseId());
@@ -427,9 +446,12 @@ public class ContextPreparer extends AbstractComponent {
             switch (distributionType) {
                 case BROADCAST:
                 case MODULO:
-                    BatchConsumer consumer = distributingDownstreamFactory.create(
+                    DistributingConsumer consumer = distributingDownstreamFactory.create(
                         nodeOperation, phase.distributionInfo(), jobId(), pageSize);
                     traceGetBatchConsumer(phase, distributionType.toString(), nodeOperation, consumer);
+                    if (profiler != null) {
+                        profiler.pagesSent(consumer::pagesSent);
+                    }
                     return consumer;
 
                 default:
@@ -517,6 +539,7 @@ public class ContextPreparer extends AbstractComponent {
                 ramAccountingContext,
                 projectorFactory
             );
+            consumer = context.countRowsIn(phase, consumer);
 
             if (upstreamOnSameNode) {
                 context.registerBatchConsumer(phase.phaseId(), consumer);
@@ -599,14 +622,17 @@ public class ContextPreparer extends AbstractComponent {
             RamAccountingContext ramAccountingContext = RamAccountingContext.forExecutionPhase(circuitBreaker, phase);
             BatchConsumer lastConsumer = context.getBatchConsumer(phase, Paging.PAGE_SIZE);
 
-            BatchConsumer firstConsumer = ProjectingBatchConsumer.create(
-                lastConsumer, phase.projections(), phase.jobId(), ramAccountingContext, projectorFactory);
+            BatchConsumer firstConsumer = context.countRowsIn(phase, ProjectingBatchConsumer.create(
+                lastConsumer, phase.projections(), phase.jobId(), ramAccountingContext, projectorFactory));
             Predicate<Row> joinCondition = RowFilter.create(inputFactory, phase.joinCondition());
 
             NestedLoopOperation nestedLoopOperation = new NestedLoopOperation(
                 firstConsumer,
                 joinCondition,
-                phase.joinType()
+                phase.joinType(),
+                toPositions(phase.leftJoinKeys()),
+                toPositions(phase.rightJoinKeys()),
+                row -> ramAccountingContext.addBytes(RowSizeEstimator.INSTANCE.estimateSize(row))
             );
             PageDownstreamContext left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
@@ -668,6 +694,14 @@ public class ContextPreparer extends AbstractComponent {
     }
 
 
+    private static int[] toPositions(List<Symbol> joinKeys) {
+        int[] positions = new int[joinKeys.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = ((InputColumn) joinKeys.get(i)).index();
+        }
+        return positions;
+    }
+
     private static long toKey(int phaseId, byte inputId) {
         long l = (long) phaseId;
         return (l << 32) | (inputId & 0xffffffffL);
@@ -36,14 +36,23 @@ public class JobRequest extends TransportRequest {
     private UUID jobId;
     private String coordinatorNodeId;
     private Collection<? extends NodeOperation> nodeOperations;
+    private boolean profiling;
 
     public JobRequest() {
     }
 
     public JobRequest(UUID jobId, String coordinatorNodeId, Collection<? extends NodeOperation> nodeOperations) {
+        this(jobId, coordinatorNodeId, nodeOperations, false);
+    }
+
+    public JobRequest(UUID jobId,
+                      String coordinatorNodeId,
+                      Collection<? extends NodeOperation> nodeOperations,
+                      boolean profiling) {
         this.jobId = jobId;
         this.coordinatorNodeId = coordinatorNodeId;
         this.nodeOperations = nodeOperations;
+        this.profiling = profiling;
     }
 
     public UUID jobId() {
@@ -58,6 +67,13 @@ public class JobRequest extends TransportRequest {
         return coordinatorNodeId;
     }
 
+    /**
+     * @return true if the execution statistics of the job context should be collected, see EXPLAIN ANALYZE
+     */
+    public boolean profiling() {
+        return profiling;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
@@ -71,6 +87,7 @@ public class JobRequest extends TransportRequest {
             nodeOperations.add(new NodeOperation(in));
         }
         this.nodeOperations = nodeOperations;
+        profiling = in.readBoolean();
     }
 
     @Override
@@ -85,5 +102,6 @@ public class JobRequest extends TransportRequest {
         for (NodeOperation nodeOperation : nodeOperations) {
             nodeOperation.writeTo(out);
         }
+        out.writeBoolean(profiling);
     }
 }
@@ -36,6 +36,7 @@ import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -79,7 +80,8 @@ public class TransportJobAction implements NodeAction<JobRequest, JobResponse> {
 
     @Override
     public CompletableFuture<JobResponse> nodeOperation(final JobRequest request) {
-        JobExecutionContext.Builder contextBuilder = jobContextService.newBuilder(request.jobId(), request.coordinatorNodeId());
+        JobExecutionContext.Builder contextBuilder = jobContextService.newBuilder(
+            request.jobId(), request.coordinatorNodeId(), Collections.emptyList(), request.profiling());
 
         SharedShardContexts sharedShardContexts = new SharedShardContexts(indicesService);
         List<CompletableFuture<Bucket>> directResponseFutures = contextPreparer.prepareOnRemote(
@@ -0,0 +1,77 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.action.job;
+
+import io.crate.executor.transport.DefaultTransportResponseHandler;
+import io.crate.executor.transport.NodeAction;
+import io.crate.executor.transport.NodeActionRequestHandler;
+import io.crate.executor.transport.Transports;
+import io.crate.jobs.JobContextService;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Retrieves the execution statistics of a job which has been started with profiling enabled
+ * (see {@link JobRequest#profiling()}) from a node. The response is sent once the job context on that node is closed.
+ */
+@Singleton
+public class TransportJobProfileAction implements NodeAction<JobProfileRequest, JobProfileResponse> {
+
+    private static final String ACTION_NAME = "crate/sql/job/profile";
+    private static final String EXECUTOR = ThreadPool.Names.SAME;
+
+    private final Transports transports;
+    private final JobContextService jobContextService;
+
+    @Inject
+    public TransportJobProfileAction(TransportService transportService,
+                                     Transports transports,
+                                     JobContextService jobContextService) {
+        this.transports = transports;
+        this.jobContextService = jobContextService;
+        transportService.registerRequestHandler(
+            ACTION_NAME,
+            JobProfileRequest::new,
+            EXECUTOR,
+            new NodeActionRequestHandler<JobProfileRequest, JobProfileResponse>(this) {});
+    }
+
+    public void execute(String node, JobProfileRequest request, ActionListener<JobProfileResponse> listener) {
+        transports.sendRequest(ACTION_NAME, node, request, listener,
+            new DefaultTransportResponseHandler<JobProfileResponse>(listener) {
+                @Override
+                public JobProfileResponse newInstance() {
+                    return new JobProfileResponse();
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<JobProfileResponse> nodeOperation(JobProfileRequest request) {
+        return jobContextService.profiles(request.jobId()).thenApply(JobProfileResponse::new);
+    }
+}
@@ -34,7 +34,7 @@ public class BatchConsumerToResultReceiver implements BatchConsumer {
 
     private ResultReceiver resultReceiver;
     private int maxRows;
-    private long rowCount = 0;
+    private int batchRowCount = 0;
     private BatchIterator activeIt;
 
     public BatchConsumerToResultReceiver(ResultReceiver resultReceiver, int maxRows) {
@@ -58,10 +58,12 @@ public class BatchConsumerToResultReceiver implements BatchConsumer {
         Row row = RowBridging.toRow(iterator.rowData());
         try {
             while (iterator.moveNext()) {
-                rowCount++;
+                batchRowCount++;
                 resultReceiver.setNextRow(row);
 
-                if (maxRows > 0 && rowCount % maxRows == 0) {
+                if (maxRows > 0 && batchRowCount >= maxRows) {
+                    // maxRows may change on resume, so the rows are counted per batch
+                    batchRowCount = 0;
                     activeIt = iterator;
                     resultReceiver.batchFinished();
                     return; // resumed via postgres protocol, close is done later
@@ -87,6 +89,11 @@ public class BatchConsumerToResultReceiver implements BatchConsumer {
         }
     }
 
+    @Override
+    public boolean maySuspend() {
+        return maxRows > 0;
+    }
+
     /**
      * If this consumer suspended itself (due to {@code maxRows} being > 0, it will close the BatchIterator
      * and finish the ResultReceiver with interrupted=true.
@@ -107,6 +114,13 @@ public class BatchConsumerToResultReceiver implements BatchConsumer {
         this.maxRows = maxRows;
     }
 
+    /**
+     * Sets the number of rows after which the consumer suspends itself the next time.
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
     public void resume() {
         assert activeIt != null : "resume must only be called if suspended() returned true and activeIt is not null";
         BatchIterator iterator = this.activeIt;
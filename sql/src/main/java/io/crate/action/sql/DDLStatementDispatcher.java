@@ -30,6 +30,7 @@ import io.crate.executor.transport.RepositoryService;
 import io.crate.executor.transport.SnapshotRestoreDDLDispatcher;
 import io.crate.executor.transport.TableCreator;
 import io.crate.operation.udf.UserDefinedFunctionDDLClient;
+import io.crate.planner.TableStatsService;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeResponse;
 import org.elasticsearch.action.admin.indices.forcemerge.TransportForceMergeAction;
@@ -65,6 +66,7 @@ public class DDLStatementDispatcher {
     private final Provider<TransportUpgradeAction> transportUpgradeActionProvider;
     private final Provider<TransportForceMergeAction> transportForceMergeActionProvider;
     private final Provider<TransportRefreshAction> transportRefreshActionProvider;
+    private final Provider<TableStatsService> tableStatsServiceProvider;
 
     private final InnerVisitor innerVisitor = new InnerVisitor();
 
@@ -78,7 +80,8 @@ public class DDLStatementDispatcher {
                                   UserDefinedFunctionDDLClient udfDDLClient,
                                   Provider<TransportUpgradeAction> transportUpgradeActionProvider,
                                   Provider<TransportForceMergeAction> transportForceMergeActionProvider,
-                                  Provider<TransportRefreshAction> transportRefreshActionProvider) {
+                                  Provider<TransportRefreshAction> transportRefreshActionProvider,
+                                  Provider<TableStatsService> tableStatsServiceProvider) {
         this.blobAdminClient = blobAdminClient;
         this.tableCreator = tableCreator;
         this.alterTableOperation = alterTableOperation;
@@ -88,6 +91,7 @@ public class DDLStatementDispatcher {
         this.transportUpgradeActionProvider = transportUpgradeActionProvider;
         this.transportForceMergeActionProvider = transportForceMergeActionProvider;
         this.transportRefreshActionProvider = transportRefreshActionProvider;
+        this.tableStatsServiceProvider = tableStatsServiceProvider;
     }
 
     public CompletableFuture<Long> dispatch(AnalyzedStatement analyzedStatement, Row parameters) {
@@ -141,6 +145,11 @@ public class DDLStatementDispatcher {
             return listener;
         }
 
+        @Override
+        public CompletableFuture<Long> visitAnalyzeTableStatement(AnalyzeTableAnalyzedStatement analysis, Row parameters) {
+            return tableStatsServiceProvider.get().analyze(analysis.tables());
+        }
+
 
         @Override
         public CompletableFuture<Long> visitCreateBlobTableStatement(CreateBlobTableAnalyzedStatement analysis,
@@ -34,6 +34,7 @@ class PreparedStmt {
 
     private final Statement statement;
     private final String query;
+    private final List<DataType> paramTypeList;
     private final ParamTypeHints paramTypes;
 
     private AnalyzedRelation relation;
@@ -42,6 +43,7 @@ class PreparedStmt {
     PreparedStmt(Statement statement, String query, List<DataType> paramTypes) {
         this.statement = statement;
         this.query = query;
+        this.paramTypeList = paramTypes;
         this.paramTypes = new ParamTypeHints(paramTypes);
     }
 
@@ -53,6 +55,10 @@ class PreparedStmt {
         return paramTypes;
     }
 
+    List<DataType> paramTypeList() {
+        return paramTypeList;
+    }
+
     public String query() {
         return query;
     }
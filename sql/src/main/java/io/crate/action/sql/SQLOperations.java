@@ -27,8 +27,10 @@ import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.symbol.Field;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.executor.Executor;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.operation.collect.stats.JobsLogs;
 import io.crate.planner.Planner;
+import io.crate.protocols.postgres.Cursors;
 import io.crate.protocols.postgres.FormatCodes;
 import io.crate.protocols.postgres.Portal;
 import io.crate.protocols.postgres.SimplePortal;
@@ -46,6 +48,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.transport.NodeDisconnectedException;
 
 import javax.annotation.Nullable;
+import java.io.InputStream;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -68,6 +71,8 @@ public class SQLOperations {
     private final Provider<Executor> executorProvider;
     private final JobsLogs jobsLogs;
     private final ClusterService clusterService;
+    private final StatementCache statementCache;
+    private final StdinFileInputFactory stdinFileInputFactory;
     private final boolean isReadOnly;
     private volatile boolean disabled;
 
@@ -77,12 +82,16 @@ public class SQLOperations {
                          Provider<Executor> executorProvider,
                          JobsLogs jobsLogs,
                          Settings settings,
-                         ClusterService clusterService) {
+                         ClusterService clusterService,
+                         StatementCache statementCache,
+                         StdinFileInputFactory stdinFileInputFactory) {
         this.analyzer = analyzer;
         this.planner = planner;
         this.executorProvider = executorProvider;
         this.jobsLogs = jobsLogs;
         this.clusterService = clusterService;
+        this.statementCache = statementCache;
+        this.stdinFileInputFactory = stdinFileInputFactory;
         this.isReadOnly = NODE_READ_ONLY_SETTING.get(settings);
     }
 
@@ -163,6 +172,7 @@ public class SQLOperations {
         private final Map<String, PreparedStmt> preparedStatements = new HashMap<>();
         private final Map<String, Portal> portals = new HashMap<>();
         private final Set<Portal> pendingExecutions = Collections.newSetFromMap(new IdentityHashMap<Portal, Boolean>());
+        private final Cursors cursors = new Cursors();
 
         private Session(Executor executor, SessionContext sessionContext) {
             this.executor = executor;
@@ -172,7 +182,15 @@ public class SQLOperations {
         private Portal getOrCreatePortal(String portalName) {
             Portal portal = portals.get(portalName);
             if (portal == null) {
-                portal = new SimplePortal(portalName, analyzer, executor, isReadOnly, sessionContext);
+                portal = new SimplePortal(
+                    portalName,
+                    analyzer,
+                    executor,
+                    isReadOnly,
+                    sessionContext,
+                    stdinFileInputFactory,
+                    cursors,
+                    statementCache);
                 portals.put(portalName, portal);
             }
             return portal;
@@ -191,7 +209,7 @@ public class SQLOperations {
 
             Statement statement;
             try {
-                statement = SqlParser.createStatement(query);
+                statement = statementCache.parse(query);
             } catch (Throwable t) {
                 if ("".equals(query)) {
                     statement = EMPTY_STMT;
@@ -263,7 +281,11 @@ public class SQLOperations {
                         analyzedRelation = preparedStmt.relation();
                     } else {
                         try {
-                            analyzedRelation = analyzer.unboundAnalyze(statement, sessionContext, preparedStmt.paramTypes());
+                            analyzedRelation = statementCache.unboundRelation(
+                                preparedStmt.query(),
+                                preparedStmt.paramTypeList(),
+                                sessionContext.defaultSchema(),
+                                () -> analyzer.unboundAnalyze(statement, sessionContext, preparedStmt.paramTypes()));
                             preparedStmt.relation(analyzedRelation);
                         } catch (Throwable t) {
                             throw SQLExceptions.createSQLActionException(t);
@@ -292,6 +314,21 @@ public class SQLOperations {
             }
         }
 
+        /**
+         * @return true if the statement bound to the portal is a COPY FROM STDIN statement
+         */
+        public boolean isCopyFromStdin(String portalName) {
+            return getSafePortal(portalName).isCopyFromStdin();
+        }
+
+        /**
+         * Provide the rows sent by the client for the COPY FROM STDIN statement bound to the portal.
+         * The rows are read by the job which is started on {@link #sync()}.
+         */
+        public void copyIn(String portalName, InputStream inputStream) {
+            getSafePortal(portalName).copyIn(inputStream);
+        }
+
         public CompletableFuture<?> sync() {
             LOGGER.debug("method=sync");
             switch (pendingExecutions.size()) {
@@ -378,6 +415,7 @@ public class SQLOperations {
             for (Portal portal : portals.values()) {
                 portal.close();
             }
+            cursors.closeAll();
         }
     }
 
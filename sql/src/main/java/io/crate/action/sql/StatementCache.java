@@ -0,0 +1,272 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.planner.consumer.ESGetTemplate;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Statement;
+import io.crate.types.DataType;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Node wide LRU cache for the pre-execution work which doesn't depend on the parameter values of a statement.
+ *
+ * <ul>
+ *     <li>Parsed statements, keyed by the statement text.</li>
+ *     <li>Relations created by the unbound analysis (used to describe prepared statements), keyed by the
+ *     statement text, the parameter types and the default schema. These entries are bound to the version
+ *     of the cluster meta data they have been created with and are discarded once the schema changes.</li>
+ *     <li>Plan templates of primary key lookups, keyed by the statement text and the default schema.
+ *     Like the relations they are bound to the schema version.</li>
+ * </ul>
+ *
+ * Apart from primary key lookups the bound analysis and the plan depend on the parameter values
+ * and are mutated by the planner, so they are not cached.
+ */
+@Singleton
+public class StatementCache {
+
+    public static final Setting<Integer> STATEMENT_CACHE_SIZE_SETTING = Setting.intSetting(
+        "node.sql.statement_cache.size",
+        1000,
+        0,
+        Setting.Property.NodeScope);
+
+    private final ClusterService clusterService;
+    private final boolean enabled;
+    private final Cache<String, Statement> statements;
+    private final Cache<RelationKey, CachedRelation> relations;
+    private final Cache<LookupKey, CachedLookup> lookups;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Inject
+    public StatementCache(Settings settings, ClusterService clusterService) {
+        this.clusterService = clusterService;
+        int size = STATEMENT_CACHE_SIZE_SETTING.get(settings);
+        this.enabled = size > 0;
+        this.statements = CacheBuilder.newBuilder()
+            .maximumSize(size)
+            .recordStats()
+            .build();
+        this.relations = CacheBuilder.newBuilder()
+            .maximumSize(size)
+            .recordStats()
+            .build();
+        this.lookups = CacheBuilder.newBuilder()
+            .maximumSize(size)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the parsed statement for {@code query}, parsing it only if it isn't cached yet.
+     * Parse errors are not cached and are thrown to the caller.
+     */
+    public Statement parse(String query) {
+        if (!enabled) {
+            return SqlParser.createStatement(query);
+        }
+        Statement statement = statements.getIfPresent(query);
+        if (statement == null) {
+            misses.increment();
+            statement = SqlParser.createStatement(query);
+            statements.put(query, statement);
+        } else {
+            hits.increment();
+        }
+        return statement;
+    }
+
+    /**
+     * Returns the relation of an unbound analysis of {@code query}.
+     * {@code analyze} is only called if there is no entry for the current schema version.
+     *
+     * @return the relation or null if the statement doesn't have a result set
+     */
+    @Nullable
+    public AnalyzedRelation unboundRelation(String query,
+                                            List<DataType> paramTypes,
+                                            String defaultSchema,
+                                            Supplier<AnalyzedRelation> analyze) {
+        if (!enabled) {
+            return analyze.get();
+        }
+        long schemaVersion = clusterService.state().metaData().version();
+        RelationKey key = new RelationKey(query, paramTypes, defaultSchema);
+        CachedRelation cached = relations.getIfPresent(key);
+        if (cached != null && cached.schemaVersion == schemaVersion) {
+            hits.increment();
+            return cached.relation;
+        }
+        misses.increment();
+        AnalyzedRelation relation = analyze.get();
+        relations.put(key, new CachedRelation(schemaVersion, relation));
+        return relation;
+    }
+
+    /**
+     * The version of the cluster meta data. Must be retrieved before the analysis of a statement
+     * whose plan is passed to {@link #cachePrimaryKeyLookup(String, String, long, Supplier)}.
+     */
+    public long schemaVersion() {
+        return clusterService.state().metaData().version();
+    }
+
+    /**
+     * Returns the plan template if {@code query} has been identified as primary key lookup
+     * with the current schema version.
+     */
+    @Nullable
+    public ESGetTemplate primaryKeyLookup(String query, String defaultSchema) {
+        if (!enabled) {
+            return null;
+        }
+        CachedLookup cached = lookups.getIfPresent(new LookupKey(query, defaultSchema));
+        if (cached != null && cached.template != null && cached.schemaVersion == schemaVersion()) {
+            hits.increment();
+            return cached.template;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the plan template of {@code query}.
+     * {@code createTemplate} is only called if the statement hasn't been checked for the given schema version;
+     * statements which aren't primary key lookups are cached as well, so that they are only checked once.
+     * These calls follow a regular analysis and planning, so they aren't counted as cache misses.
+     */
+    public void cachePrimaryKeyLookup(String query,
+                                      String defaultSchema,
+                                      long schemaVersion,
+                                      Supplier<ESGetTemplate> createTemplate) {
+        if (!enabled) {
+            return;
+        }
+        LookupKey key = new LookupKey(query, defaultSchema);
+        CachedLookup cached = lookups.getIfPresent(key);
+        if (cached != null && cached.schemaVersion == schemaVersion) {
+            return;
+        }
+        lookups.put(key, new CachedLookup(schemaVersion, createTemplate.get()));
+    }
+
+    public StatementCacheStats stats() {
+        return new StatementCacheStats(
+            statements.size() + relations.size() + lookups.size(),
+            hits.sum(),
+            misses.sum(),
+            statements.stats().evictionCount() + relations.stats().evictionCount() + lookups.stats().evictionCount()
+        );
+    }
+
+    private static class RelationKey {
+
+        private final String query;
+        private final List<DataType> paramTypes;
+        private final String defaultSchema;
+
+        RelationKey(String query, List<DataType> paramTypes, String defaultSchema) {
+            this.query = query;
+            this.paramTypes = paramTypes;
+            this.defaultSchema = defaultSchema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RelationKey that = (RelationKey) o;
+            return query.equals(that.query) &&
+                   paramTypes.equals(that.paramTypes) &&
+                   Objects.equals(defaultSchema, that.defaultSchema);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, paramTypes, defaultSchema);
+        }
+    }
+
+    private static class CachedRelation {
+
+        private final long schemaVersion;
+        @Nullable
+        private final AnalyzedRelation relation;
+
+        CachedRelation(long schemaVersion, @Nullable AnalyzedRelation relation) {
+            this.schemaVersion = schemaVersion;
+            this.relation = relation;
+        }
+    }
+
+    private static class LookupKey {
+
+        private final String query;
+        private final String defaultSchema;
+
+        LookupKey(String query, String defaultSchema) {
+            this.query = query;
+            this.defaultSchema = defaultSchema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LookupKey that = (LookupKey) o;
+            return query.equals(that.query) &&
+                   Objects.equals(defaultSchema, that.defaultSchema);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, defaultSchema);
+        }
+    }
+
+    private static class CachedLookup {
+
+        private final long schemaVersion;
+        @Nullable
+        private final ESGetTemplate template;
+
+        CachedLookup(long schemaVersion, @Nullable ESGetTemplate template) {
+            this.schemaVersion = schemaVersion;
+            this.template = template;
+        }
+    }
+}
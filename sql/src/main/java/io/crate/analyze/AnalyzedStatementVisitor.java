@@ -105,6 +105,10 @@ public class AnalyzedStatementVisitor<C, R> {
         return visitDDLStatement(analysis, context);
     }
 
+    public R visitAnalyzeTableStatement(AnalyzeTableAnalyzedStatement analysis, C context) {
+        return visitDDLStatement(analysis, context);
+    }
+
     public R visitAlterTableStatement(AlterTableAnalyzedStatement analysis, C context) {
         return visitDDLStatement(analysis, context);
     }
@@ -52,6 +52,7 @@ public class Analyzer {
     private final CreateAnalyzerStatementAnalyzer createAnalyzerStatementAnalyzer;
     private final DropBlobTableAnalyzer dropBlobTableAnalyzer;
     private final RefreshTableAnalyzer refreshTableAnalyzer;
+    private final AnalyzeTableAnalyzer analyzeTableAnalyzer;
     private final OptimizeTableAnalyzer optimizeTableAnalyzer;
     private final AlterTableAnalyzer alterTableAnalyzer;
     private final AlterBlobTableAnalyzer alterBlobTableAnalyzer;
@@ -96,6 +97,7 @@ public class Analyzer {
         this.createBlobTableAnalyzer = new CreateBlobTableAnalyzer(schemas, numberOfShards);
         this.createAnalyzerStatementAnalyzer = new CreateAnalyzerStatementAnalyzer(fulltextAnalyzerResolver);
         this.refreshTableAnalyzer = new RefreshTableAnalyzer(schemas);
+        this.analyzeTableAnalyzer = new AnalyzeTableAnalyzer(schemas);
         this.optimizeTableAnalyzer = new OptimizeTableAnalyzer(schemas);
         this.alterTableAnalyzer = new AlterTableAnalyzer(schemas);
         this.alterBlobTableAnalyzer = new AlterBlobTableAnalyzer(schemas);
@@ -230,6 +232,11 @@ public class Analyzer {
             return refreshTableAnalyzer.analyze(node, context);
         }
 
+        @Override
+        public AnalyzedStatement visitAnalyzeStatement(AnalyzeStatement node, Analysis context) {
+            return analyzeTableAnalyzer.analyze(node, context);
+        }
+
         @Override
         public AnalyzedStatement visitOptimizeStatement(OptimizeStatement node, Analysis context) {
             return optimizeTableAnalyzer.analyze(node, context);
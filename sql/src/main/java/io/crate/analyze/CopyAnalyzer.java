@@ -31,11 +31,13 @@ import io.crate.analyze.expressions.ExpressionToObjectVisitor;
 import io.crate.analyze.relations.DocTableRelation;
 import io.crate.analyze.relations.NameFieldProvider;
 import io.crate.analyze.relations.QueriedDocTable;
+import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.ValueSymbolVisitor;
 import io.crate.analyze.symbol.format.SymbolPrinter;
 import io.crate.analyze.where.WhereClauseAnalyzer;
 import io.crate.data.Row;
+import io.crate.exceptions.ColumnUnknownException;
 import io.crate.exceptions.PartitionUnknownException;
 import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.metadata.*;
@@ -46,11 +48,14 @@ import io.crate.metadata.settings.SettingsAppliers;
 import io.crate.metadata.settings.StringSetting;
 import io.crate.metadata.table.Operation;
 import io.crate.metadata.table.TableInfo;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.planner.projection.WriterProjection;
 import io.crate.sql.tree.*;
 import io.crate.types.CollectionType;
 import io.crate.types.DataTypes;
+import io.crate.sql.SqlFormatter;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.lucene.BytesRefs;
 import org.elasticsearch.common.settings.Settings;
 
 import javax.annotation.Nullable;
@@ -111,6 +116,23 @@ class CopyAnalyzer {
             nodeFilters = discoveryNodePredicate(analysis.parameterContext().parameters(), properties.remove(NodeFilters.NAME));
             settings = settingsFromProperties(properties, expressionAnalyzer, expressionAnalysisContext);
         }
+        if (node.fromStdin()) {
+            CopyFromAnalyzedStatement.InputFormat inputFormat = stdinInputFormat(settings);
+            if (inputFormat == CopyFromAnalyzedStatement.InputFormat.JSON && !node.columns().isEmpty()) {
+                throw new IllegalArgumentException("A column list is not supported for COPY FROM STDIN with format json");
+            }
+            return new CopyFromAnalyzedStatement(
+                tableInfo,
+                settings,
+                Literal.NULL,
+                partitionIdent,
+                nodeFilters,
+                stdinColumns(tableInfo, node.columns()),
+                inputFormat);
+        }
+        if (!node.columns().isEmpty()) {
+            throw new UnsupportedFeatureException("A column list is only supported for COPY FROM STDIN");
+        }
         Symbol uri = expressionAnalyzer.convert(node.path(), expressionAnalysisContext);
         uri = normalizer.normalize(uri, analysis.transactionContext());
 
@@ -119,10 +141,78 @@ class CopyAnalyzer {
               ((CollectionType) uri.valueType()).innerType() == DataTypes.STRING)) {
             throw CopyFromAnalyzedStatement.raiseInvalidType(uri.valueType());
         }
+        ensureNoStdinUri(uri);
 
         return new CopyFromAnalyzedStatement(tableInfo, settings, uri, partitionIdent, nodeFilters);
     }
 
+    /**
+     * The rows sent with a COPY FROM STDIN statement must only be readable by the statement itself.
+     */
+    private static void ensureNoStdinUri(Symbol uri) {
+        if (!(uri instanceof Literal)) {
+            return;
+        }
+        Object value = ((Literal) uri).value();
+        Object[] uris = value instanceof Object[] ? (Object[]) value : new Object[]{value};
+        for (Object fileUri : uris) {
+            if (fileUri != null && StdinFileInputFactory.isStdinUri(BytesRefs.toString(fileUri))) {
+                throw new IllegalArgumentException("Invalid fileURI: \"" + BytesRefs.toString(fileUri) +
+                                                   "\", use COPY FROM STDIN instead");
+            }
+        }
+    }
+
+    private static CopyFromAnalyzedStatement.InputFormat stdinInputFormat(Settings settings) {
+        String format = settings.get(CopyFromAnalyzedStatement.FORMAT_SETTING, CopyFromAnalyzedStatement.InputFormat.TEXT.name());
+        CopyFromAnalyzedStatement.InputFormat inputFormat;
+        try {
+            inputFormat = settingAsEnum(CopyFromAnalyzedStatement.InputFormat.class, format);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Invalid format \"%s\" for COPY FROM STDIN, supported formats are: text, csv, json", format));
+        }
+        String delimiter = settings.get(CopyFromAnalyzedStatement.DELIMITER_SETTING);
+        if (delimiter != null && delimiter.length() != 1) {
+            throw new IllegalArgumentException("COPY delimiter must be a single character");
+        }
+        return inputFormat == null ? CopyFromAnalyzedStatement.InputFormat.TEXT : inputFormat;
+    }
+
+    /**
+     * @return the columns of the rows sent by the client; all columns except generated columns if none are specified
+     */
+    private static List<Reference> stdinColumns(DocTableInfo tableInfo, List<Expression> columns) {
+        if (columns.isEmpty()) {
+            List<Reference> references = new ArrayList<>(tableInfo.columns().size());
+            for (Reference reference : tableInfo.columns()) {
+                if (!(reference instanceof GeneratedReference)) {
+                    references.add(reference);
+                }
+            }
+            return references;
+        }
+        List<Reference> references = new ArrayList<>(columns.size());
+        for (Expression column : columns) {
+            if (!(column instanceof QualifiedNameReference)
+                || ((QualifiedNameReference) column).getName().getParts().size() != 1) {
+                throw new IllegalArgumentException(
+                    "Invalid column in COPY FROM STDIN column list: " + SqlFormatter.formatSql(column));
+            }
+            ColumnIdent columnIdent = new ColumnIdent(((QualifiedNameReference) column).getName().getSuffix());
+            Reference reference = tableInfo.getReference(columnIdent);
+            if (reference == null) {
+                throw new ColumnUnknownException(columnIdent.sqlFqn());
+            }
+            if (references.contains(reference)) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "column \"%s\" specified more than once", columnIdent.sqlFqn()));
+            }
+            references.add(reference);
+        }
+        return references;
+    }
+
 
     private ExpressionAnalyzer createExpressionAnalyzer(Analysis analysis, DocTableRelation tableRelation) {
         return new ExpressionAnalyzer(
@@ -23,30 +23,82 @@
 package io.crate.analyze;
 
 import io.crate.analyze.symbol.Symbol;
+import io.crate.metadata.Reference;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.types.DataType;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.settings.Settings;
 
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.function.Predicate;
 
 public class CopyFromAnalyzedStatement extends AbstractCopyAnalyzedStatement {
 
+    public static final String FORMAT_SETTING = "format";
+    public static final String DELIMITER_SETTING = "delimiter";
+    public static final String NULL_SETTING = "null";
+    public static final String HEADER_SETTING = "header";
+
+    /**
+     * Formats of the rows sent by the client with COPY FROM STDIN
+     */
+    public enum InputFormat {
+        TEXT,
+        CSV,
+        JSON
+    }
+
     private final DocTableInfo table;
     @Nullable
     private final String partitionIdent;
     private final Predicate<DiscoveryNode> nodePredicate;
+    @Nullable
+    private final List<Reference> stdinColumns;
+    @Nullable
+    private final InputFormat stdinFormat;
 
     public CopyFromAnalyzedStatement(DocTableInfo table,
                                      Settings settings,
                                      Symbol uri,
                                      @Nullable String partitionIdent,
                                      Predicate<DiscoveryNode> nodePredicate) {
+        this(table, settings, uri, partitionIdent, nodePredicate, null, null);
+    }
+
+    public CopyFromAnalyzedStatement(DocTableInfo table,
+                                     Settings settings,
+                                     Symbol uri,
+                                     @Nullable String partitionIdent,
+                                     Predicate<DiscoveryNode> nodePredicate,
+                                     @Nullable List<Reference> stdinColumns,
+                                     @Nullable InputFormat stdinFormat) {
         super(settings, uri);
         this.table = table;
         this.partitionIdent = partitionIdent;
         this.nodePredicate = nodePredicate;
+        this.stdinColumns = stdinColumns;
+        this.stdinFormat = stdinFormat;
+    }
+
+    /**
+     * @return true if the rows are sent by the client instead of being read from a file uri
+     */
+    public boolean fromStdin() {
+        return stdinColumns != null;
+    }
+
+    /**
+     * @return the columns of the rows sent by the client, in the order they are sent; null if not {@link #fromStdin()}
+     */
+    @Nullable
+    public List<Reference> stdinColumns() {
+        return stdinColumns;
+    }
+
+    @Nullable
+    public InputFormat stdinFormat() {
+        return stdinFormat;
     }
 
     public DocTableInfo table() {
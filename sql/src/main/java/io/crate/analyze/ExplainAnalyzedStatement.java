@@ -40,9 +40,15 @@ public class ExplainAnalyzedStatement implements AnalyzedStatement, AnalyzedRela
 
     final AnalyzedStatement statement;
     private final List<Field> fields;
+    private final boolean analyze;
 
     public ExplainAnalyzedStatement(String columnName, AnalyzedStatement statement) {
+        this(columnName, statement, false);
+    }
+
+    public ExplainAnalyzedStatement(String columnName, AnalyzedStatement statement, boolean analyze) {
         this.statement = statement;
+        this.analyze = analyze;
         this.fields = Collections.singletonList(new Field(this, new OutputName(columnName), DataTypes.OBJECT));
     }
 
@@ -55,6 +61,13 @@ public class ExplainAnalyzedStatement implements AnalyzedStatement, AnalyzedRela
         return statement;
     }
 
+    /**
+     * @return true if the statement must be executed to annotate the plan with execution statistics
+     */
+    public boolean isAnalyze() {
+        return analyze;
+    }
+
     @Override
     public <C, R> R accept(AnalyzedRelationVisitor<C, R> visitor, C context) {
         return visitor.visitExplain(this, context);
@@ -126,6 +126,8 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             null,
             tableRelation);
         analyzeColumns(statement.tableInfo(), statement.columns());
+        Reference[] onDuplicateKeyColumns = resolveOnDuplicateKeyColumns(
+            tableRelation, expressionAnalyzer, expressionAnalysisContext, node.onDuplicateKeyAssignments());
         for (ValuesList valuesList : node.valuesLists()) {
             analyzeValues(
                 tableRelation,
@@ -138,6 +140,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                 valuesAwareExpressionAnalyzer,
                 valuesList,
                 node.onDuplicateKeyAssignments(),
+                onDuplicateKeyColumns,
                 statement,
                 analysis.parameterContext(),
                 refToLiteral);
@@ -145,6 +148,29 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         return statement;
     }
 
+    /**
+     * The target columns of the ON DUPLICATE KEY assignments don't depend on the values of a row,
+     * so they're resolved once per statement instead of once per row.
+     */
+    private static Reference[] resolveOnDuplicateKeyColumns(DocTableRelation tableRelation,
+                                                            ExpressionAnalyzer expressionAnalyzer,
+                                                            ExpressionAnalysisContext expressionAnalysisContext,
+                                                            List<Assignment> assignments) {
+        Reference[] columns = new Reference[assignments.size()];
+        if (assignments.isEmpty()) {
+            return columns;
+        }
+        expressionAnalyzer.setResolveFieldsOperation(Operation.UPDATE);
+        for (int i = 0; i < assignments.size(); i++) {
+            Reference columnName = tableRelation.resolveField(
+                (Field) expressionAnalyzer.convert(assignments.get(i).columnName(), expressionAnalysisContext));
+            assert columnName != null : "columnName must not be null";
+            columns[i] = columnName;
+        }
+        expressionAnalyzer.setResolveFieldsOperation(Operation.INSERT);
+        return columns;
+    }
+
     private void analyzeColumns(DocTableInfo tableInfo, List<Reference> columns) {
         Collection<ColumnIdent> notUsedNonGeneratedColumns = TransportShardUpsertAction.getNotUsedNonGeneratedColumns(columns.toArray(new Reference[]{}), tableInfo);
         ConstraintsValidator.validateConstraintsForNotUsedColumns(notUsedNonGeneratedColumns, tableInfo);
@@ -185,6 +211,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                                ExpressionAnalyzer valuesAwareExpressionAnalyzer,
                                ValuesList node,
                                List<Assignment> assignments,
+                               Reference[] onDuplicateKeyColumns,
                                InsertFromValuesAnalyzedStatement statement,
                                ParameterContext parameterContext,
                                ReferenceToLiteralConverter refToLiteral) {
@@ -209,7 +236,9 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                         valuesAwareExpressionAnalyzer,
                         node,
                         assignments,
+                        onDuplicateKeyColumns,
                         statement,
+                        parameterContext,
                         refToLiteral,
                         numPks,
                         idFunction,
@@ -228,7 +257,9 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                     valuesAwareExpressionAnalyzer,
                     node,
                     assignments,
+                    onDuplicateKeyColumns,
                     statement,
+                    parameterContext,
                     refToLiteral,
                     numPks,
                     idFunction,
@@ -250,7 +281,9 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                            ExpressionAnalyzer valuesAwareExpressionAnalyzer,
                            ValuesList node,
                            List<Assignment> assignments,
+                           Reference[] onDuplicateKeyColumns,
                            InsertFromValuesAnalyzedStatement context,
+                           ParameterContext parameterContext,
                            ReferenceToLiteralConverter refToLiteral,
                            int numPrimaryKeys,
                            Function<List<BytesRef>, String> idFunction,
@@ -265,9 +298,15 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
 
         for (int i = 0, valuesSize = node.values().size(); i < valuesSize; i++) {
             Expression expression = node.values().get(i);
-            Symbol valuesSymbol = normalizer.normalize(
-                expressionAnalyzer.convert(expression, expressionAnalysisContext),
-                transactionContext);
+            Symbol valuesSymbol;
+            if (expression instanceof ParameterExpression) {
+                // bulk rows mostly consist of plain parameters, their literal needs no analysis or normalization
+                valuesSymbol = parameterContext.apply((ParameterExpression) expression);
+            } else {
+                valuesSymbol = normalizer.normalize(
+                    expressionAnalyzer.convert(expression, expressionAnalysisContext),
+                    transactionContext);
+            }
 
             // implicit type conversion
             Reference column = context.columns().get(i);
@@ -322,12 +361,9 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             valuesResolver.columns = context.columns();
             Symbol[] onDupKeyAssignments = new Symbol[assignments.size()];
             valuesResolver.assignmentColumns = new ArrayList<>(assignments.size());
-            expressionAnalyzer.setResolveFieldsOperation(Operation.UPDATE);
             for (int i = 0; i < assignments.size(); i++) {
                 Assignment assignment = assignments.get(i);
-                Reference columnName = tableRelation.resolveField(
-                    (Field) expressionAnalyzer.convert(assignment.columnName(), expressionAnalysisContext));
-                assert columnName != null : "columnName must not be null";
+                Reference columnName = onDuplicateKeyColumns[i];
 
                 Symbol valueSymbol = normalizer.normalize(
                     valuesAwareExpressionAnalyzer.convert(assignment.expression(), expressionAnalysisContext),
@@ -0,0 +1,170 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze.where;
+
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.metadata.doc.PartitionIndex;
+import io.crate.operation.operator.*;
+import io.crate.operation.operator.any.AnyEqOperator;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Narrows down the partitions a query has to be evaluated against using the {@link PartitionIndex} of the table.
+ * <p>
+ * Comparisons of a partition column with a literal (=, &lt;, &lt;=, &gt;, &gt;=, IN) are looked up in the index and
+ * combined along the AND/OR structure of the query. Any other condition is treated as "may match".
+ * The remaining candidates still have to be evaluated by normalizing the query against their partition values.
+ */
+final class PartitionPruner {
+
+    private PartitionPruner() {
+    }
+
+    /**
+     * @return the partitions which may match the query, in the order of {@link PartitionIndex#partitions()}
+     */
+    static List<PartitionName> candidates(Symbol query, PartitionIndex index) {
+        List<PartitionName> partitions = index.partitions();
+        BitSet matches = match(query, index);
+        if (matches == null) {
+            return partitions;
+        }
+        List<PartitionName> candidates = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            candidates.add(partitions.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the partitions matching the condition or null if the condition can't be answered by the index
+     */
+    @Nullable
+    private static BitSet match(Symbol condition, PartitionIndex index) {
+        if (!(condition instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) condition;
+        String name = function.info().ident().name();
+        List<Symbol> arguments = function.arguments();
+        if (name.equals(AndOperator.NAME)) {
+            return matchAll(arguments, index);
+        }
+        if (name.equals(OrOperator.NAME)) {
+            return matchAny(arguments, index);
+        }
+        if (arguments.size() != 2
+            || !(arguments.get(0) instanceof Reference)
+            || !(arguments.get(1) instanceof Literal)) {
+            return null;
+        }
+        int columnIndex = index.columnIndex(((Reference) arguments.get(0)).ident().columnIdent());
+        if (columnIndex < 0) {
+            return null;
+        }
+        Literal literal = (Literal) arguments.get(1);
+        if (name.equals(AnyEqOperator.NAME)) {
+            BitSet matches = new BitSet();
+            for (Literal value : Literal.explodeCollection(literal)) {
+                if (!isComparable(value, index, columnIndex)) {
+                    return null;
+                }
+                if (value.value() != null) {
+                    matches.or(index.matchEq(columnIndex, value.value()));
+                }
+            }
+            return matches;
+        }
+        if (!isComparable(literal, index, columnIndex) || literal.value() == null) {
+            return null;
+        }
+        Object value = literal.value();
+        switch (name) {
+            case EqOperator.NAME:
+                return index.matchEq(columnIndex, value);
+            case GtOperator.NAME:
+                return index.matchRange(columnIndex, value, false, null, false);
+            case GteOperator.NAME:
+                return index.matchRange(columnIndex, value, true, null, false);
+            case LtOperator.NAME:
+                return index.matchRange(columnIndex, null, false, value, false);
+            case LteOperator.NAME:
+                return index.matchRange(columnIndex, null, false, value, true);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * conditions which can't be answered by the index don't restrict the matches of a conjunction
+     */
+    @Nullable
+    private static BitSet matchAll(List<Symbol> conditions, PartitionIndex index) {
+        BitSet matches = null;
+        for (Symbol condition : conditions) {
+            BitSet conditionMatches = match(condition, index);
+            if (conditionMatches == null) {
+                continue;
+            }
+            if (matches == null) {
+                matches = conditionMatches;
+            } else {
+                matches.and(conditionMatches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * a disjunction can only be answered by the index if all of its conditions can
+     */
+    @Nullable
+    private static BitSet matchAny(List<Symbol> conditions, PartitionIndex index) {
+        BitSet matches = new BitSet();
+        for (Symbol condition : conditions) {
+            BitSet conditionMatches = match(condition, index);
+            if (conditionMatches == null) {
+                return null;
+            }
+            matches.or(conditionMatches);
+        }
+        return matches;
+    }
+
+    private static boolean isComparable(Literal literal, PartitionIndex index, int columnIndex) {
+        if (!literal.valueType().equals(index.columnType(columnIndex))) {
+            return false;
+        }
+        Object value = literal.value();
+        return !(value instanceof Double && ((Double) value).isNaN())
+               && !(value instanceof Float && ((Float) value).isNaN());
+    }
+}
@@ -159,10 +159,17 @@ public class WhereClauseAnalyzer {
         EvaluatingNormalizer normalizer = new EvaluatingNormalizer(
             functions, RowGranularity.PARTITION, ReplaceMode.COPY, partitionReferenceResolver, null);
 
+        // comparisons of partition columns with literals are answered by the index,
+        // only the remaining candidates are evaluated using the normalizer
+        List<PartitionName> candidates = PartitionPruner.candidates(whereClause.query(), tableInfo.partitionIndex());
+        if (candidates.isEmpty()) {
+            return WhereClause.NO_MATCH;
+        }
+
         Symbol normalized;
         Map<Symbol, List<Literal>> queryPartitionMap = new HashMap<>();
 
-        for (PartitionName partitionName : tableInfo.partitions()) {
+        for (PartitionName partitionName : candidates) {
             for (PartitionExpression partitionExpression : partitionReferenceResolver.expressions()) {
                 partitionExpression.setNextRow(partitionName);
             }
@@ -133,6 +133,22 @@ public class RamAccountingContext {
         flushBuffer.addAndGet(-bytes);
     }
 
+    /**
+     * Release bytes which have been added to the context before, e.g. because the data they account for
+     * has been written to disk.
+     *
+     * @param bytes bytes to be released
+     */
+    public void releaseBytes(long bytes) {
+        if (closed || bytes == 0) {
+            return;
+        }
+        long delta = flushBuffer.getAndSet(0) - bytes;
+        breaker.addWithoutBreaking(delta);
+        totalBytes.addAndGet(delta);
+        tripped = exceededBreaker();
+    }
+
     /**
      * Returns bytes from the buffer + bytes that have already been flushed to the breaker.
      * @return the total number of bytes that have been aggregated
@@ -175,6 +191,15 @@ public class RamAccountingContext {
         return breaker.getUsed() >= breaker.getLimit();
     }
 
+    /**
+     * Returns true if the used bytes of the breaker, including bytes of this context which haven't been flushed yet,
+     * exceed the given ratio of the breaker limit. Always false if the breaker has no limit.
+     */
+    public boolean exceedsLimit(double ratio) {
+        long limit = breaker.getLimit();
+        return limit > 0 && breaker.getUsed() + flushBuffer.get() >= limit * ratio;
+    }
+
     /**
      * Returns the configured bytes limit of the breaker
      */
@@ -0,0 +1,56 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.breaker;
+
+import org.apache.lucene.util.BytesRef;
+
+import javax.annotation.Nullable;
+
+/**
+ * Estimates the size of the cells of a materialized row.
+ */
+public class RowSizeEstimator extends SizeEstimator<Object[]> {
+
+    public static final RowSizeEstimator INSTANCE = new RowSizeEstimator();
+
+    private static final BytesRefSizeEstimator BYTES_REF_SIZE_ESTIMATOR = new BytesRefSizeEstimator();
+
+    private RowSizeEstimator() {
+    }
+
+    @Override
+    public long estimateSize(@Nullable Object[] value) {
+        if (value == null) {
+            return 8;
+        }
+        long size = 16L + value.length * 8L; // array header + references
+        for (Object cell : value) {
+            if (cell instanceof BytesRef) {
+                size += BYTES_REF_SIZE_ESTIMATOR.estimateSize((BytesRef) cell);
+            } else if (cell != null) {
+                size += 16L;
+            }
+        }
+        return RamAccountingContext.roundUp(size);
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.breaker.CrateCircuitBreakerService;
+import io.crate.concurrent.CompletableFutures;
+import io.crate.exceptions.WorkloadRejectedException;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for statements executed on this node.
+ * <p>
+ * Every statement belongs to a {@link WorkloadClass}. A statement is admitted if neither the limit of
+ * concurrently running statements of its class nor the node wide limit ({@code workload.max_concurrent})
+ * is reached and if the memory currently accounted by the query circuit breaker is within the memory share
+ * of its class. Otherwise it's queued, or rejected if the queue of its class is full or if it has waited longer
+ * than {@code workload.queue_timeout}.
+ * <p>
+ * Whenever a statement finishes, queued statements are admitted in the order of the priority of their class
+ * and in FIFO order within a class. As memory isn't released through this service, queues are also
+ * re-checked periodically while they aren't empty.
+ */
+@Singleton
+public class AdmissionService {
+
+    public static final CrateSetting<Integer> MAX_CONCURRENT_SETTING = CrateSetting.of(Setting.intSetting(
+        "workload.max_concurrent", 0, 0, Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.INTEGER);
+
+    public static final CrateSetting<TimeValue> QUEUE_TIMEOUT_SETTING = CrateSetting.of(Setting.positiveTimeSetting(
+        "workload.queue_timeout", TimeValue.timeValueMinutes(1), Setting.Property.NodeScope, Setting.Property.Dynamic),
+        DataTypes.STRING);
+
+    private static final long RECHECK_INTERVAL_MS = 100L;
+
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<CircuitBreaker> queryBreaker;
+    private final EnumMap<WorkloadClass, Group> groups = new EnumMap<>(WorkloadClass.class);
+
+    private int maxConcurrent;
+    private long queueTimeoutMillis;
+    private int running = 0;
+    private int queued = 0;
+    private boolean recheckScheduled = false;
+
+    @Inject
+    public AdmissionService(Settings settings,
+                            ClusterSettings clusterSettings,
+                            ThreadPool threadPool,
+                            CrateCircuitBreakerService breakerService) {
+        this(settings,
+            clusterSettings,
+            threadPool.generic(),
+            threadPool.scheduler(),
+            () -> breakerService.getBreaker(CrateCircuitBreakerService.QUERY));
+    }
+
+    @VisibleForTesting
+    AdmissionService(Settings settings,
+                     ClusterSettings clusterSettings,
+                     Executor executor,
+                     ScheduledExecutorService scheduler,
+                     Supplier<CircuitBreaker> queryBreaker) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.queryBreaker = queryBreaker;
+
+        maxConcurrent = MAX_CONCURRENT_SETTING.setting().get(settings);
+        clusterSettings.addSettingsUpdateConsumer(MAX_CONCURRENT_SETTING.setting(), value -> update(() -> maxConcurrent = value));
+        queueTimeoutMillis = QUEUE_TIMEOUT_SETTING.setting().get(settings).millis();
+        clusterSettings.addSettingsUpdateConsumer(QUEUE_TIMEOUT_SETTING.setting(), this::setQueueTimeout);
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            Group group = new Group(workloadClass, settings);
+            groups.put(workloadClass, group);
+            addUpdateConsumer(clusterSettings, workloadClass.maxConcurrentSetting(), value -> group.maxConcurrent = value);
+            addUpdateConsumer(clusterSettings, workloadClass.maxQueuedSetting(), value -> group.maxQueued = value);
+            addUpdateConsumer(clusterSettings, workloadClass.memoryShareSetting(), value -> group.memoryShare = value);
+            addUpdateConsumer(clusterSettings, workloadClass.prioritySetting(), value -> group.priority = value);
+        }
+    }
+
+    private <T> void addUpdateConsumer(ClusterSettings clusterSettings, CrateSetting<T> setting, Consumer<T> consumer) {
+        clusterSettings.addSettingsUpdateConsumer(setting.setting(), value -> update(() -> consumer.accept(value)));
+    }
+
+    private synchronized void setQueueTimeout(TimeValue queueTimeout) {
+        // applies to statements queued from now on
+        queueTimeoutMillis = queueTimeout.millis();
+    }
+
+    private void update(Runnable update) {
+        synchronized (this) {
+            update.run();
+        }
+        // a raised limit may admit queued statements
+        dispatch();
+    }
+
+    /**
+     * Requests admission of a statement of the given class.
+     *
+     * @return a future which is completed once the statement may be executed, or completed exceptionally with a
+     *         {@link WorkloadRejectedException} if the queue of the class is full or the statement wasn't admitted
+     *         within the queue timeout.
+     *         Every admitted statement must call {@link #release(WorkloadClass)} once it has finished.
+     */
+    public CompletableFuture<Void> admit(WorkloadClass workloadClass) {
+        Group group = groups.get(workloadClass);
+        Pending pending;
+        synchronized (this) {
+            if (group.queue.isEmpty() && !higherPriorityQueued(group) && canRun(group)) {
+                start(group, 0L);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (group.queue.size() >= group.maxQueued) {
+                group.rejected++;
+                return CompletableFutures.failedFuture(new WorkloadRejectedException(String.format(Locale.ENGLISH,
+                    "Statement rejected, the queue of the workload class '%s' is full (%d queued statements)",
+                    workloadClass.settingName(), group.maxQueued)));
+            }
+            pending = new Pending();
+            group.queue.add(pending);
+            queued++;
+            scheduleRecheck();
+            if (queueTimeoutMillis > 0) {
+                long timeoutMillis = queueTimeoutMillis;
+                pending.timeout = scheduler.schedule(
+                    () -> timeout(group, pending, timeoutMillis), timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return pending.future;
+    }
+
+    private void timeout(Group group, Pending pending, long timeoutMillis) {
+        synchronized (this) {
+            if (group.queue.remove(pending) == false) {
+                // admitted in the meantime
+                return;
+            }
+            queued--;
+            group.rejected++;
+        }
+        pending.future.completeExceptionally(new WorkloadRejectedException(String.format(Locale.ENGLISH,
+            "Statement rejected, it wasn't admitted by the workload class '%s' within the queue timeout of %s",
+            group.workloadClass.settingName(), TimeValue.timeValueMillis(timeoutMillis))));
+    }
+
+    /**
+     * Admits a statement of the given class only if it can run immediately, without queueing it.
+     *
+     * @throws WorkloadRejectedException if the statement can't run immediately
+     */
+    public void admitNow(WorkloadClass workloadClass) {
+        Group group = groups.get(workloadClass);
+        synchronized (this) {
+            if (group.queue.isEmpty() && !higherPriorityQueued(group) && canRun(group)) {
+                start(group, 0L);
+                return;
+            }
+            group.rejected++;
+        }
+        throw new WorkloadRejectedException(String.format(Locale.ENGLISH,
+            "Statement rejected, the workload class '%s' has no free slot", workloadClass.settingName()));
+    }
+
+    /**
+     * Releases the slot of an admitted statement and admits queued statements if possible.
+     */
+    public void release(WorkloadClass workloadClass) {
+        Group group = groups.get(workloadClass);
+        synchronized (this) {
+            assert group.running > 0 : "release must only be called for admitted statements";
+            group.running--;
+            running--;
+        }
+        dispatch();
+    }
+
+    /**
+     * @return a snapshot of the configuration and counters of all workload classes
+     */
+    public synchronized List<WorkloadClassStats> stats() {
+        List<WorkloadClassStats> stats = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            stats.add(new WorkloadClassStats(
+                group.workloadClass.settingName(),
+                group.priority,
+                group.maxConcurrent,
+                group.maxQueued,
+                group.memoryShare,
+                group.running,
+                group.queue.size(),
+                group.admitted,
+                group.rejected,
+                group.totalWaitNanos,
+                group.maxWaitNanos));
+        }
+        return stats;
+    }
+
+    private void dispatch() {
+        List<Pending> admitted = null;
+        synchronized (this) {
+            if (queued == 0) {
+                return;
+            }
+            List<Group> byPriority = new ArrayList<>(groups.values());
+            byPriority.sort((g1, g2) -> Integer.compare(g2.priority, g1.priority));
+            for (Group group : byPriority) {
+                while (!group.queue.isEmpty() && canRun(group)) {
+                    Pending pending = group.queue.poll();
+                    queued--;
+                    if (pending.timeout != null) {
+                        pending.timeout.cancel(false);
+                    }
+                    start(group, System.nanoTime() - pending.enqueuedNanos);
+                    if (admitted == null) {
+                        admitted = new ArrayList<>();
+                    }
+                    admitted.add(pending);
+                }
+            }
+            if (queued > 0) {
+                scheduleRecheck();
+            }
+        }
+        if (admitted != null) {
+            // don't execute the admitted statements on the thread which released the slot
+            for (Pending pending : admitted) {
+                executor.execute(() -> pending.future.complete(null));
+            }
+        }
+    }
+
+    private void scheduleRecheck() {
+        assert Thread.holdsLock(this) : "must be called while holding the lock";
+        if (recheckScheduled) {
+            return;
+        }
+        recheckScheduled = true;
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                recheckScheduled = false;
+            }
+            dispatch();
+        }, RECHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true if a class with a higher priority has queued statements which could run now.
+     *         Statements which are only held back by the limits of their own class don't block other classes.
+     */
+    private boolean higherPriorityQueued(Group group) {
+        for (Group other : groups.values()) {
+            if (other.priority > group.priority && !other.queue.isEmpty() && canRun(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canRun(Group group) {
+        if (group.maxConcurrent > 0 && group.running >= group.maxConcurrent) {
+            return false;
+        }
+        if (maxConcurrent > 0 && running >= maxConcurrent) {
+            return false;
+        }
+        if (group.memoryShare >= 1.0f) {
+            return true;
+        }
+        CircuitBreaker breaker = queryBreaker.get();
+        long limit = breaker.getLimit();
+        return limit <= 0 || breaker.getUsed() <= limit * (double) group.memoryShare;
+    }
+
+    private void start(Group group, long waitNanos) {
+        group.running++;
+        running++;
+        group.admitted++;
+        group.totalWaitNanos += waitNanos;
+        group.maxWaitNanos = Math.max(group.maxWaitNanos, waitNanos);
+    }
+
+    private static final class Pending {
+
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        @Nullable
+        private ScheduledFuture<?> timeout;
+    }
+
+    private static final class Group {
+
+        private final WorkloadClass workloadClass;
+        private final Deque<Pending> queue = new ArrayDeque<>();
+
+        private int maxConcurrent;
+        private int maxQueued;
+        private float memoryShare;
+        private int priority;
+
+        private int running = 0;
+        private long admitted = 0;
+        private long rejected = 0;
+        private long totalWaitNanos = 0;
+        private long maxWaitNanos = 0;
+
+        private Group(WorkloadClass workloadClass, Settings settings) {
+            this.workloadClass = workloadClass;
+            maxConcurrent = workloadClass.maxConcurrentSetting().setting().get(settings);
+            maxQueued = workloadClass.maxQueuedSetting().setting().get(settings);
+            memoryShare = workloadClass.memoryShareSetting().setting().get(settings);
+            priority = workloadClass.prioritySetting().setting().get(settings);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.ListenableBatchIterator;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link BatchConsumer} of an admitted statement which releases the slot of the statement
+ * once the result has been consumed, i.e. the {@link BatchIterator} is closed, or once the statement failed.
+ * <p>
+ * If the consumer {@link BatchConsumer#maySuspend() may suspend} the consumption, e.g. for cursors, portals
+ * executed with a row limit or streamed HTTP results, the slot is released as soon as the result is available.
+ * Otherwise a client which doesn't fetch the remaining rows would hold the slot for an unbounded time.
+ */
+public final class ReleasingBatchConsumer implements BatchConsumer {
+
+    private final BatchConsumer delegate;
+    private final AdmissionService admissionService;
+    private final WorkloadClass workloadClass;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    public ReleasingBatchConsumer(BatchConsumer delegate,
+                                  AdmissionService admissionService,
+                                  WorkloadClass workloadClass) {
+        this.delegate = delegate;
+        this.admissionService = admissionService;
+        this.workloadClass = workloadClass;
+    }
+
+    @Override
+    public void accept(BatchIterator iterator, @Nullable Throwable failure) {
+        if (failure == null && iterator != null && delegate.maySuspend() == false) {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            closed.whenComplete((r, t) -> release());
+            delegate.accept(new ListenableBatchIterator(iterator, closed), null);
+        } else {
+            release();
+            delegate.accept(iterator, failure);
+        }
+    }
+
+    @Override
+    public boolean requiresScroll() {
+        return delegate.requiresScroll();
+    }
+
+    @Override
+    public boolean maySuspend() {
+        return delegate.maySuspend();
+    }
+
+    private void release() {
+        if (released.compareAndSet(false, true)) {
+            admissionService.release(workloadClass);
+        }
+    }
+}
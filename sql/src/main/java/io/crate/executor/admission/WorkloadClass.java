@@ -0,0 +1,116 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.settings.Setting;
+
+import java.util.Locale;
+
+/**
+ * Classes of statements which are admitted independently by the {@link AdmissionService}.
+ * Each class has its own concurrency limit, queue size, share of the query circuit breaker and priority.
+ */
+public enum WorkloadClass {
+
+    /**
+     * Statements which read, update or delete single rows by their primary key.
+     */
+    POINT_LOOKUP("point_lookup", 30),
+
+    /**
+     * Inserts by values and bulk operations.
+     */
+    WRITE("write", 20),
+
+    /**
+     * Statements executed as distributed execution phases, e.g. queries, joins, aggregations,
+     * updates or deletes by query and COPY.
+     */
+    QUERY("query", 10);
+
+    private final String settingName;
+    private final CrateSetting<Integer> maxConcurrentSetting;
+    private final CrateSetting<Integer> maxQueuedSetting;
+    private final CrateSetting<Float> memoryShareSetting;
+    private final CrateSetting<Integer> prioritySetting;
+
+    WorkloadClass(String settingName, int defaultPriority) {
+        this.settingName = settingName;
+        String prefix = "workload." + settingName + ".";
+        maxConcurrentSetting = CrateSetting.of(Setting.intSetting(
+            prefix + "max_concurrent", 0, 0, Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.INTEGER);
+        maxQueuedSetting = CrateSetting.of(Setting.intSetting(
+            prefix + "max_queued", 100, 0, Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.INTEGER);
+        memoryShareSetting = CrateSetting.of(new Setting<Float>(
+            prefix + "memory_share", "1.0", s -> parseMemoryShare(prefix + "memory_share", s),
+            Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.FLOAT);
+        prioritySetting = CrateSetting.of(Setting.intSetting(
+            prefix + "priority", defaultPriority, 0, Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.INTEGER);
+    }
+
+    private static float parseMemoryShare(String key, String value) {
+        float share = Float.parseFloat(value);
+        if (share < 0.0f || share > 1.0f) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Failed to parse value [%s] for setting [%s], must be between 0 and 1", value, key));
+        }
+        return share;
+    }
+
+    /**
+     * The name of the class as used in settings and in {@code sys.workload_classes}
+     */
+    public String settingName() {
+        return settingName;
+    }
+
+    /**
+     * Maximum number of statements of this class running concurrently on a node, 0 means unlimited.
+     */
+    public CrateSetting<Integer> maxConcurrentSetting() {
+        return maxConcurrentSetting;
+    }
+
+    /**
+     * Maximum number of statements of this class waiting for admission, further statements are rejected.
+     */
+    public CrateSetting<Integer> maxQueuedSetting() {
+        return maxQueuedSetting;
+    }
+
+    /**
+     * Share of the query circuit breaker limit which may be in use for a statement of this class to be admitted.
+     */
+    public CrateSetting<Float> memoryShareSetting() {
+        return memoryShareSetting;
+    }
+
+    /**
+     * Classes with a higher priority are admitted first once a slot becomes available.
+     */
+    public CrateSetting<Integer> prioritySetting() {
+        return prioritySetting;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+/**
+ * Snapshot of the configuration and counters of a {@link WorkloadClass} on a node,
+ * exposed as a row of {@code sys.workload_classes}.
+ */
+public final class WorkloadClassStats {
+
+    private final String name;
+    private final int priority;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final float memoryShare;
+    private final int running;
+    private final int queued;
+    private final long admitted;
+    private final long rejected;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    WorkloadClassStats(String name,
+                       int priority,
+                       int maxConcurrent,
+                       int maxQueued,
+                       float memoryShare,
+                       int running,
+                       int queued,
+                       long admitted,
+                       long rejected,
+                       long totalWaitNanos,
+                       long maxWaitNanos) {
+        this.name = name;
+        this.priority = priority;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.memoryShare = memoryShare;
+        this.running = running;
+        this.queued = queued;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int priority() {
+        return priority;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int maxQueued() {
+        return maxQueued;
+    }
+
+    public float memoryShare() {
+        return memoryShare;
+    }
+
+    public int running() {
+        return running;
+    }
+
+    public int queued() {
+        return queued;
+    }
+
+    public long admitted() {
+        return admitted;
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    /**
+     * Sum of the time admitted statements waited in the queue in milliseconds
+     */
+    public double totalWaitTime() {
+        return totalWaitNanos / 1_000_000.0;
+    }
+
+    public double meanWaitTime() {
+        return admitted == 0 ? 0.0 : totalWaitTime() / admitted;
+    }
+
+    public double maxWaitTime() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+}
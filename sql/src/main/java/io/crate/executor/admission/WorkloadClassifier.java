@@ -0,0 +1,170 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.TableIdent;
+import io.crate.metadata.information.InformationSchemaInfo;
+import io.crate.metadata.pg_catalog.PgCatalogSchemaInfo;
+import io.crate.metadata.sys.SysSchemaInfo;
+import io.crate.planner.Merge;
+import io.crate.planner.MultiPhasePlan;
+import io.crate.planner.Plan;
+import io.crate.planner.PlanVisitor;
+import io.crate.planner.node.dml.ESDelete;
+import io.crate.planner.node.dml.Upsert;
+import io.crate.planner.node.dml.UpsertById;
+import io.crate.planner.node.dql.Collect;
+import io.crate.planner.node.dql.CollectPhase;
+import io.crate.planner.node.dql.CountPlan;
+import io.crate.planner.node.dql.ESGet;
+import io.crate.planner.node.dql.QueryThenFetch;
+import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.node.dql.join.NestedLoop;
+import io.crate.planner.node.management.ExplainPlan;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns plans to a {@link WorkloadClass}.
+ * Plans which don't process any data, like DDL, SET or KILL statements, and collects from system tables
+ * aren't subject to admission control.
+ */
+public final class WorkloadClassifier extends PlanVisitor<Void, WorkloadClass> {
+
+    private static final WorkloadClassifier INSTANCE = new WorkloadClassifier();
+    private static final Set<String> SYSTEM_SCHEMAS = ImmutableSet.of(
+        SysSchemaInfo.NAME, InformationSchemaInfo.NAME, PgCatalogSchemaInfo.NAME);
+
+    private WorkloadClassifier() {
+    }
+
+    /**
+     * @return the class of the plan or null if the plan isn't subject to admission control
+     */
+    @Nullable
+    public static WorkloadClass classify(Plan plan) {
+        return INSTANCE.process(plan, null);
+    }
+
+    @Override
+    protected WorkloadClass visitPlan(Plan plan, Void context) {
+        return null;
+    }
+
+    @Override
+    public WorkloadClass visitGetPlan(ESGet plan, Void context) {
+        return WorkloadClass.POINT_LOOKUP;
+    }
+
+    @Override
+    public WorkloadClass visitESDelete(ESDelete plan, Void context) {
+        return WorkloadClass.POINT_LOOKUP;
+    }
+
+    @Override
+    public WorkloadClass visitUpsertById(UpsertById plan, Void context) {
+        if (plan.items().size() == 1 && plan.numBulkResponses() == 0) {
+            return WorkloadClass.POINT_LOOKUP;
+        }
+        return WorkloadClass.WRITE;
+    }
+
+    @Override
+    public WorkloadClass visitUpsert(Upsert node, Void context) {
+        return WorkloadClass.WRITE;
+    }
+
+    @Override
+    public WorkloadClass visitCollect(Collect plan, Void context) {
+        CollectPhase collectPhase = plan.collectPhase();
+        if (collectPhase instanceof RoutedCollectPhase && collectsSystemTable((RoutedCollectPhase) collectPhase)) {
+            return null;
+        }
+        return WorkloadClass.QUERY;
+    }
+
+    @Override
+    public WorkloadClass visitMerge(Merge merge, Void context) {
+        return process(merge.subPlan(), context);
+    }
+
+    @Override
+    public WorkloadClass visitQueryThenFetch(QueryThenFetch plan, Void context) {
+        return WorkloadClass.QUERY;
+    }
+
+    @Override
+    public WorkloadClass visitCountPlan(CountPlan countPlan, Void context) {
+        return WorkloadClass.QUERY;
+    }
+
+    @Override
+    public WorkloadClass visitNestedLoop(NestedLoop plan, Void context) {
+        return WorkloadClass.QUERY;
+    }
+
+    @Override
+    public WorkloadClass visitMultiPhasePlan(MultiPhasePlan multiPhasePlan, Void context) {
+        return WorkloadClass.QUERY;
+    }
+
+    /**
+     * Collects from sys, information_schema or pg_catalog tables are served from memory and are needed to
+     * monitor the cluster, so they must never be queued behind user queries.
+     */
+    private static boolean collectsSystemTable(RoutedCollectPhase collectPhase) {
+        if (collectPhase.maxRowGranularity() == RowGranularity.NODE
+            || collectPhase.maxRowGranularity() == RowGranularity.SHARD) {
+            // sys.nodes or sys.shards
+            return true;
+        }
+        Map<String, Map<String, List<Integer>>> locations = collectPhase.routing().locations();
+        if (locations == null || locations.isEmpty()) {
+            return false;
+        }
+        for (Map<String, List<Integer>> indices : locations.values()) {
+            if (indices == null || indices.isEmpty()) {
+                return false;
+            }
+            for (String indexName : indices.keySet()) {
+                if (!SYSTEM_SCHEMAS.contains(TableIdent.fromIndexName(indexName).schema())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public WorkloadClass visitExplainPlan(ExplainPlan explainPlan, Void context) {
+        if (explainPlan.isAnalyze()) {
+            return process(explainPlan.subPlan(), context);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.task;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.CollectingBatchConsumer;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.RowsBatchIterator;
+import io.crate.executor.Task;
+import io.crate.executor.transport.executionphases.ExecutionPhasesTask;
+import io.crate.jobs.SubContextProfile;
+import io.crate.planner.PlanPrinter;
+import io.crate.planner.node.management.ExplainPlan;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Executes the subPlan of an {@link ExplainPlan} and returns the plan annotated with the execution statistics of its
+ * phases on every node (see {@link SubContextProfile}). The result rows of the subPlan are discarded.
+ */
+public class ExplainAnalyzeTask implements Task {
+
+    private final ExplainPlan explainPlan;
+    private final Task subTask;
+
+    public ExplainAnalyzeTask(ExplainPlan explainPlan, Task subTask) {
+        assert explainPlan.isAnalyze() : "ExplainAnalyzeTask requires an ExplainPlan with analyze enabled";
+        this.explainPlan = explainPlan;
+        this.subTask = subTask;
+    }
+
+    @Override
+    public void execute(BatchConsumer consumer, Row parameters) {
+        ExecutionPhasesTask executionPhasesTask = null;
+        if (subTask instanceof ExecutionPhasesTask) {
+            executionPhasesTask = (ExecutionPhasesTask) subTask;
+            executionPhasesTask.enableProfiling();
+        }
+        CollectingBatchConsumer<?, Long> rowCounter = new CollectingBatchConsumer<>(Collectors.counting());
+        long startedNanos = System.nanoTime();
+        try {
+            subTask.execute(rowCounter, parameters);
+        } catch (Throwable t) {
+            consumer.accept(null, t);
+            return;
+        }
+        ExecutionPhasesTask profiledTask = executionPhasesTask;
+        rowCounter.resultFuture()
+            .thenCompose(numRows -> {
+                long durationNanos = System.nanoTime() - startedNanos;
+                CompletableFuture<Map<String, List<SubContextProfile>>> profiles = profiledTask == null
+                    ? CompletableFuture.completedFuture(Collections.emptyMap())
+                    : profiledTask.profiles();
+                return profiles.thenApply(p -> toMap(p, numRows, durationNanos));
+            })
+            .whenComplete((map, t) -> {
+                if (t == null) {
+                    consumer.accept(RowsBatchIterator.newInstance(new Row1(map)), null);
+                } else {
+                    consumer.accept(null, t);
+                }
+            });
+    }
+
+    private Map<String, Object> toMap(Map<String, List<SubContextProfile>> profilesByNode,
+                                      long numRows,
+                                      long durationNanos) {
+        Map<Integer, Map<String, Object>> profilesByPhase = new HashMap<>();
+        for (Map.Entry<String, List<SubContextProfile>> entry : profilesByNode.entrySet()) {
+            for (SubContextProfile profile : entry.getValue()) {
+                profilesByPhase
+                    .computeIfAbsent(profile.phaseId(), id -> new TreeMap<>())
+                    .put(entry.getKey(), profile.toMap());
+            }
+        }
+        Map<String, Object> map = PlanPrinter.objectMap(explainPlan.subPlan(), profilesByPhase);
+        Map<String, Object> execution = new LinkedHashMap<>(2);
+        execution.put("duration", durationNanos / 1_000_000.0);
+        execution.put("rows", numRows);
+        map.put("execution", execution);
+        return map;
+    }
+
+    @Override
+    public List<CompletableFuture<Long>> executeBulk() {
+        throw new UnsupportedOperationException("ExplainAnalyzeTask cannot be executed as bulk operation");
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.transport;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.Streamer;
+import io.crate.data.Bucket;
+import io.crate.data.Row;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.crate.types.IntegerType;
+import io.crate.types.ShortType;
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column oriented encoding of the rows of a bucket, used to reduce the amount of data sent between nodes.
+ * <p>
+ * Each column is encoded on its own using the first applicable of:
+ * <ul>
+ *     <li>run-length encoding, if there are few runs of equal values</li>
+ *     <li>delta encoding, for columns of an integral type without nulls</li>
+ *     <li>dictionary encoding, if there are few distinct values</li>
+ *     <li>plain, using the {@link Streamer} of the column</li>
+ * </ul>
+ * The encoded columns are compressed as a single LZ4 block.
+ *
+ * <pre>
+ *     VInt     uncompressed length
+ *     BytesRef LZ4 compressed columns
+ * </pre>
+ */
+final class ColumnarBucketCodec {
+
+    private static final byte PLAIN = 0;
+    private static final byte RUN_LENGTH = 1;
+    private static final byte DELTA = 2;
+    private static final byte DICTIONARY = 3;
+
+    /**
+     * Types which can be delta encoded. Their streamer is the type itself.
+     */
+    private static final Set<DataType> INTEGRAL_TYPES = ImmutableSet.of(
+        DataTypes.BYTE, DataTypes.SHORT, DataTypes.INTEGER, DataTypes.LONG, DataTypes.TIMESTAMP);
+
+    private ColumnarBucketCodec() {
+    }
+
+    static void write(StreamOutput out, Streamer<?>[] streamers, Bucket bucket) throws IOException {
+        int numRows = bucket.size();
+        Object[][] columns = new Object[streamers.length][numRows];
+        int rowIdx = 0;
+        for (Row row : bucket) {
+            for (int c = 0; c < streamers.length; c++) {
+                columns[c][rowIdx] = row.get(c);
+            }
+            rowIdx++;
+        }
+        assert rowIdx == numRows : "bucket must contain " + numRows + " rows but contained " + rowIdx;
+
+        BytesStreamOutput encoded = new BytesStreamOutput();
+        for (int c = 0; c < streamers.length; c++) {
+            writeColumn(encoded, streamers[c], columns[c]);
+        }
+        BytesRef uncompressed = encoded.bytes().toBytesRef();
+        // worst case size of a LZ4 block
+        byte[] compressed = new byte[uncompressed.length + uncompressed.length / 255 + 16];
+        ByteArrayDataOutput compressedOut = new ByteArrayDataOutput(compressed);
+        CompressionMode.FAST.newCompressor().compress(
+            uncompressed.bytes, uncompressed.offset, uncompressed.length, compressedOut);
+
+        out.writeVInt(uncompressed.length);
+        out.writeBytesReference(new BytesArray(compressed, 0, compressedOut.getPosition()));
+    }
+
+    /**
+     * @return the columns of the bucket; columns[columnIdx][rowIdx]
+     */
+    static Object[][] read(BytesReference bytes, Streamer<?>[] streamers, int numRows) throws IOException {
+        StreamInput in = bytes.streamInput();
+        int uncompressedLength = in.readVInt();
+        BytesRef compressed = in.readBytesReference().toBytesRef();
+        BytesRef uncompressed = new BytesRef();
+        CompressionMode.FAST.newDecompressor().decompress(
+            new ByteArrayDataInput(compressed.bytes, compressed.offset, compressed.length),
+            uncompressedLength,
+            0,
+            uncompressedLength,
+            uncompressed);
+
+        StreamInput columnsIn = new BytesArray(uncompressed).streamInput();
+        Object[][] columns = new Object[streamers.length][];
+        for (int c = 0; c < streamers.length; c++) {
+            columns[c] = readColumn(columnsIn, streamers[c], numRows);
+        }
+        return columns;
+    }
+
+    private static void writeColumn(StreamOutput out, Streamer streamer, Object[] values) throws IOException {
+        int numRows = values.length;
+        if (numRuns(values) <= numRows / 2) {
+            out.writeByte(RUN_LENGTH);
+            int runStart = 0;
+            for (int i = 1; i <= numRows; i++) {
+                if (i == numRows || equal(values[runStart], values[i]) == false) {
+                    out.writeVInt(i - runStart);
+                    streamer.writeValueTo(out, values[runStart]);
+                    runStart = i;
+                }
+            }
+            out.writeVInt(0);
+            return;
+        }
+        DataType<?> integralType = integralType(streamer);
+        if (integralType != null && allNumbers(values)) {
+            out.writeByte(DELTA);
+            long previous = 0;
+            for (Object value : values) {
+                long current = narrow(integralType, (Number) value);
+                out.writeZLong(current - previous);
+                previous = current;
+            }
+            return;
+        }
+        Map<Object, Integer> dictionary = dictionary(values);
+        if (dictionary != null) {
+            out.writeByte(DICTIONARY);
+            Object[] entries = new Object[dictionary.size()];
+            for (Map.Entry<Object, Integer> entry : dictionary.entrySet()) {
+                entries[entry.getValue()] = entry.getKey();
+            }
+            out.writeVInt(entries.length);
+            for (Object entry : entries) {
+                streamer.writeValueTo(out, entry);
+            }
+            for (Object value : values) {
+                out.writeVInt(dictionary.get(value));
+            }
+            return;
+        }
+        out.writeByte(PLAIN);
+        for (Object value : values) {
+            streamer.writeValueTo(out, value);
+        }
+    }
+
+    private static Object[] readColumn(StreamInput in, Streamer<?> streamer, int numRows) throws IOException {
+        Object[] values = new Object[numRows];
+        byte encoding = in.readByte();
+        switch (encoding) {
+            case RUN_LENGTH:
+                int pos = 0;
+                int runLength;
+                while ((runLength = in.readVInt()) > 0) {
+                    Object value = streamer.readValueFrom(in);
+                    for (int i = 0; i < runLength; i++) {
+                        values[pos++] = value;
+                    }
+                }
+                break;
+
+            case DELTA:
+                DataType<?> integralType = integralType(streamer);
+                if (integralType == null) {
+                    throw new IOException("Delta encoded column must be of an integral type, got: " + streamer);
+                }
+                long previous = 0;
+                for (int i = 0; i < numRows; i++) {
+                    previous += in.readZLong();
+                    // converted by the type, so the values have the same class as if they were read by the streamer
+                    values[i] = integralType.value(previous);
+                }
+                break;
+
+            case DICTIONARY:
+                Object[] entries = new Object[in.readVInt()];
+                for (int i = 0; i < entries.length; i++) {
+                    entries[i] = streamer.readValueFrom(in);
+                }
+                for (int i = 0; i < numRows; i++) {
+                    values[i] = entries[in.readVInt()];
+                }
+                break;
+
+            case PLAIN:
+                for (int i = 0; i < numRows; i++) {
+                    values[i] = streamer.readValueFrom(in);
+                }
+                break;
+
+            default:
+                throw new IOException("Invalid column encoding: " + encoding);
+        }
+        return values;
+    }
+
+    private static int numRuns(Object[] values) {
+        int runs = values.length == 0 ? 0 : 1;
+        for (int i = 1; i < values.length; i++) {
+            if (equal(values[i - 1], values[i]) == false) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * @return the type of the column if it can be delta encoded, otherwise null
+     */
+    @Nullable
+    private static DataType<?> integralType(Streamer<?> streamer) {
+        if (streamer instanceof DataType && INTEGRAL_TYPES.contains(streamer)) {
+            return (DataType<?>) streamer;
+        }
+        return null;
+    }
+
+    private static boolean allNumbers(Object[] values) {
+        if (values.length == 0) {
+            return false;
+        }
+        for (Object value : values) {
+            if (value instanceof Number == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Narrow the value the same way the streamer of the type does when writing it.
+     */
+    private static long narrow(DataType<?> integralType, Number value) {
+        switch (integralType.id()) {
+            case ByteType.ID:
+                return value.byteValue();
+            case ShortType.ID:
+                return value.shortValue();
+            case IntegerType.ID:
+                return value.intValue();
+            default:
+                return value.longValue();
+        }
+    }
+
+    /**
+     * @return a mapping from the distinct values to their position or null if there are too many distinct values
+     *         to benefit from a dictionary.
+     */
+    private static Map<Object, Integer> dictionary(Object[] values) {
+        int maxEntries = values.length / 2;
+        Map<Object, Integer> dictionary = new HashMap<>();
+        for (Object value : values) {
+            if (value != null && value.getClass().isArray()) {
+                // arrays don't implement equals/hashCode
+                return null;
+            }
+            if (dictionary.containsKey(value) == false) {
+                if (dictionary.size() == maxEntries) {
+                    return null;
+                }
+                dictionary.put(value, dictionary.size());
+            }
+        }
+        return dictionary;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getClass().isArray() == false && a.equals(b);
+    }
+}
@@ -40,6 +40,7 @@ public class NodeFetchRequest extends TransportRequest {
     private UUID jobId;
     private int fetchPhaseId;
     private boolean closeContext;
+    private boolean columnarResponse;
 
     @Nullable
     private IntObjectMap<? extends IntContainer> toFetch;
@@ -50,10 +51,12 @@ public class NodeFetchRequest extends TransportRequest {
     public NodeFetchRequest(UUID jobId,
                             int fetchPhaseId,
                             boolean closeContext,
-                            IntObjectMap<? extends IntContainer> toFetch) {
+                            IntObjectMap<? extends IntContainer> toFetch,
+                            boolean columnarResponse) {
         this.jobId = jobId;
         this.fetchPhaseId = fetchPhaseId;
         this.closeContext = closeContext;
+        this.columnarResponse = columnarResponse;
         if (!toFetch.isEmpty()) {
             this.toFetch = toFetch;
         }
@@ -71,6 +74,13 @@ public class NodeFetchRequest extends TransportRequest {
         return closeContext;
     }
 
+    /**
+     * @return true if the fetched rows should be sent in the compressed columnar format.
+     */
+    public boolean isColumnarResponse() {
+        return columnarResponse;
+    }
+
     @Nullable
     public IntObjectMap<? extends IntContainer> toFetch() {
         return toFetch;
@@ -82,6 +92,7 @@ public class NodeFetchRequest extends TransportRequest {
         jobId = new UUID(in.readLong(), in.readLong());
         fetchPhaseId = in.readVInt();
         closeContext = in.readBoolean();
+        columnarResponse = in.readBoolean();
         int numReaders = in.readVInt();
         if (numReaders > 0) {
             IntObjectHashMap<IntArrayList> toFetch = new IntObjectHashMap<>(numReaders);
@@ -105,6 +116,7 @@ public class NodeFetchRequest extends TransportRequest {
         out.writeLong(jobId.getLeastSignificantBits());
         out.writeVInt(fetchPhaseId);
         out.writeBoolean(closeContext);
+        out.writeBoolean(columnarResponse);
         if (toFetch == null) {
             out.writeVInt(0);
         } else {
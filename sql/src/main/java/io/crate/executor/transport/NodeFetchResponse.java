@@ -36,22 +36,32 @@ import java.io.IOException;
 public class NodeFetchResponse extends TransportResponse {
 
     private final IntObjectMap<Streamer[]> streamers;
+    private final boolean columnar;
 
     @Nullable
     private IntObjectMap<StreamBucket> fetched;
 
     public static NodeFetchResponse forSending(IntObjectMap<StreamBucket> fetched) {
-        return new NodeFetchResponse(null, fetched);
+        return forSending(fetched, false);
+    }
+
+    /**
+     * @param columnar if true, the buckets are sent in the compressed columnar format.
+     */
+    public static NodeFetchResponse forSending(IntObjectMap<StreamBucket> fetched, boolean columnar) {
+        return new NodeFetchResponse(null, fetched, columnar);
     }
 
     public static NodeFetchResponse forReceiveing(@Nullable IntObjectMap<Streamer[]> streamers) {
-        return new NodeFetchResponse(streamers, null);
+        return new NodeFetchResponse(streamers, null, false);
     }
 
     private NodeFetchResponse(@Nullable IntObjectMap<Streamer[]> streamers,
-                              @Nullable IntObjectMap<StreamBucket> fetched) {
+                              @Nullable IntObjectMap<StreamBucket> fetched,
+                              boolean columnar) {
         this.streamers = streamers;
         this.fetched = fetched;
+        this.columnar = columnar;
     }
 
     @Nullable
@@ -84,7 +94,7 @@ public class NodeFetchResponse extends TransportResponse {
             out.writeVInt(fetched.size());
             for (IntObjectCursor<StreamBucket> cursor : fetched) {
                 out.writeVInt(cursor.key);
-                cursor.value.writeTo(out);
+                StreamBucket.writeBucket(out, null, cursor.value, columnar);
             }
         }
     }
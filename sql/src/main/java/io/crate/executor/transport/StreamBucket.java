@@ -42,10 +42,20 @@ import java.util.Iterator;
 
 public class StreamBucket implements Bucket, Streamable {
 
+    private static final byte ROW_FORMAT = 0;
+    private static final byte COLUMNAR_FORMAT = 1;
+
     private Streamer<?>[] streamers;
     private int size = -1;
+    private byte format = ROW_FORMAT;
     private BytesReference bytes;
 
+    /**
+     * decoded columns if the bucket has been received in the columnar format
+     */
+    @Nullable
+    private Object[][] columns;
+
     public static class Builder {
 
 
@@ -72,6 +82,7 @@ public class StreamBucket implements Bucket, Streamable {
         public void writeToStream(StreamOutput output) throws IOException {
             output.writeVInt(size);
             if (size > 0) {
+                output.writeByte(ROW_FORMAT);
                 output.writeBytesReference(out.bytes());
             }
         }
@@ -112,8 +123,35 @@ public class StreamBucket implements Bucket, Streamable {
     }
 
     public static void writeBucket(StreamOutput out, @Nullable Streamer<?>[] streamers, @Nullable Bucket bucket) throws IOException {
+        writeBucket(out, streamers, bucket, false);
+    }
+
+    /**
+     * Write the bucket to the stream, either row by row or, if {@code columnar} is true, using the compressed
+     * column oriented format of {@link ColumnarBucketCodec}.
+     * The columnar format is smaller for most data, but is more expensive to encode and decode.
+     */
+    public static void writeBucket(StreamOutput out,
+                                   @Nullable Streamer<?>[] streamers,
+                                   @Nullable Bucket bucket,
+                                   boolean columnar) throws IOException {
         if (bucket == null || bucket.size() == 0) {
             out.writeVInt(0);
+        } else if (columnar) {
+            if (bucket instanceof StreamBucket) {
+                StreamBucket streamBucket = (StreamBucket) bucket;
+                if (streamBucket.format == COLUMNAR_FORMAT) {
+                    streamBucket.writeTo(out);
+                    return;
+                }
+                streamers = streamBucket.streamers;
+            }
+            assert streamers != null : "Need streamers to write a bucket in the columnar format";
+            out.writeVInt(bucket.size());
+            out.writeByte(COLUMNAR_FORMAT);
+            BytesStreamOutput columnarOut = new BytesStreamOutput();
+            ColumnarBucketCodec.write(columnarOut, streamers, bucket);
+            out.writeBytesReference(columnarOut.bytes());
         } else if (bucket instanceof Streamable) {
             ((Streamable) bucket).writeTo(out);
         } else {
@@ -126,6 +164,36 @@ public class StreamBucket implements Bucket, Streamable {
         }
     }
 
+    private static class ColumnIterator implements Iterator<Row> {
+
+        private final Object[][] columns;
+        private final int size;
+        private final Object[] current;
+        private final RowN row;
+        private int pos = 0;
+
+        private ColumnIterator(Object[][] columns, int size) {
+            this.columns = columns;
+            this.size = size;
+            current = new Object[columns.length];
+            row = new RowN(current);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < size;
+        }
+
+        @Override
+        public Row next() {
+            for (int c = 0; c < columns.length; c++) {
+                current[c] = columns[c][pos];
+            }
+            pos++;
+            return row;
+        }
+    }
+
     private static class RowIterator implements Iterator<Row> {
 
         private final Streamer<?>[] streamers;
@@ -173,6 +241,12 @@ public class StreamBucket implements Bucket, Streamable {
         }
         assert streamers != null : "streamers must not be null";
         try {
+            if (format == COLUMNAR_FORMAT) {
+                if (columns == null) {
+                    columns = ColumnarBucketCodec.read(bytes, streamers, size);
+                }
+                return new ColumnIterator(columns, size);
+            }
             return new RowIterator(bytes.streamInput(), streamers, size);
         } catch (IOException e) {
             throw Throwables.propagate(e);
@@ -183,6 +257,7 @@ public class StreamBucket implements Bucket, Streamable {
     public void readFrom(StreamInput in) throws IOException {
         size = in.readVInt();
         if (size > 0) {
+            format = in.readByte();
             bytes = in.readBytesReference();
         }
     }
@@ -192,6 +267,7 @@ public class StreamBucket implements Bucket, Streamable {
         assert size > -1 : "size must be > -1";
         out.writeVInt(size);
         if (size > 0) {
+            out.writeByte(format);
             out.writeBytesReference(bytes);
         }
     }
@@ -22,6 +22,7 @@
 package io.crate.executor.transport;
 
 import io.crate.action.job.TransportJobAction;
+import io.crate.action.job.TransportJobProfileAction;
 import io.crate.executor.transport.kill.TransportKillAllNodeAction;
 import io.crate.executor.transport.kill.TransportKillJobsNodeAction;
 import org.elasticsearch.action.admin.cluster.settings.TransportClusterUpdateSettingsAction;
@@ -62,6 +63,7 @@ public class TransportActionProvider {
     private final Provider<TransportBulkCreateIndicesAction> transportBulkCreateIndicesActionProvider;
 
     private final Provider<TransportJobAction> transportJobInitActionProvider;
+    private final Provider<TransportJobProfileAction> transportJobProfileActionProvider;
     private final Provider<TransportKillAllNodeAction> transportKillAllNodeActionProvider;
     private final Provider<TransportKillJobsNodeAction> transportKillJobsNodeActionProvider;
 
@@ -86,6 +88,7 @@ public class TransportActionProvider {
                                    Provider<TransportPutMappingAction> transportPutMappingActionProvider,
                                    Provider<TransportUpdateSettingsAction> transportUpdateSettingsActionProvider,
                                    Provider<TransportJobAction> transportJobInitActionProvider,
+                                   Provider<TransportJobProfileAction> transportJobProfileActionProvider,
                                    Provider<TransportBulkCreateIndicesAction> transportBulkCreateIndicesActionProvider,
                                    Provider<TransportKillJobsNodeAction> transportKillJobsNodeActionProvider,
                                    Provider<TransportDeleteSnapshotAction> transportDeleteSnapshotActionProvider,
@@ -107,6 +110,7 @@ public class TransportActionProvider {
         this.transportPutMappingActionProvider = transportPutMappingActionProvider;
         this.transportUpdateSettingsActionProvider = transportUpdateSettingsActionProvider;
         this.transportJobInitActionProvider = transportJobInitActionProvider;
+        this.transportJobProfileActionProvider = transportJobProfileActionProvider;
         this.transportBulkCreateIndicesActionProvider = transportBulkCreateIndicesActionProvider;
         this.transportKillJobsNodeActionProvider = transportKillJobsNodeActionProvider;
         this.transportDeleteSnapshotActionProvider = transportDeleteSnapshotActionProvider;
@@ -163,6 +167,10 @@ public class TransportActionProvider {
         return transportJobInitActionProvider.get();
     }
 
+    public TransportJobProfileAction transportJobProfileAction() {
+        return transportJobProfileActionProvider.get();
+    }
+
     public TransportFetchNodeAction transportFetchNodeAction() {
         return transportFetchNodeActionProvider.get();
     }
@@ -27,12 +27,19 @@ import io.crate.action.sql.DDLStatementDispatcher;
 import io.crate.action.sql.ShowStatementDispatcher;
 import io.crate.analyze.EvaluatingNormalizer;
 import io.crate.analyze.symbol.SelectSymbol;
+import io.crate.concurrent.CompletableFutures;
 import io.crate.data.BatchConsumer;
 import io.crate.data.CollectingBatchConsumer;
 import io.crate.data.Row;
+import io.crate.exceptions.WorkloadRejectedException;
 import io.crate.executor.Executor;
 import io.crate.executor.Task;
+import io.crate.executor.admission.AdmissionService;
+import io.crate.executor.admission.ReleasingBatchConsumer;
+import io.crate.executor.admission.WorkloadClass;
+import io.crate.executor.admission.WorkloadClassifier;
 import io.crate.executor.task.DDLTask;
+import io.crate.executor.task.ExplainAnalyzeTask;
 import io.crate.executor.task.ExplainTask;
 import io.crate.executor.task.NoopTask;
 import io.crate.executor.task.SetSessionTask;
@@ -70,6 +77,7 @@ import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -91,6 +99,8 @@ public class TransportExecutor implements Executor {
     private final TransportActionProvider transportActionProvider;
     private final IndicesService indicesService;
     private final BulkRetryCoordinatorPool bulkRetryCoordinatorPool;
+    private final AdmissionService admissionService;
+    private final LocalShardGetAction localShardGetAction;
 
     private final ProjectionToProjectorVisitor globalProjectionToProjectionVisitor;
     private final MultiPhaseExecutor multiPhaseExecutor = new MultiPhaseExecutor();
@@ -111,7 +121,9 @@ public class TransportExecutor implements Executor {
                              ClusterService clusterService,
                              IndicesService indicesService,
                              BulkRetryCoordinatorPool bulkRetryCoordinatorPool,
-                             SystemCollectSource systemCollectSource) {
+                             SystemCollectSource systemCollectSource,
+                             AdmissionService admissionService,
+                             LocalShardGetAction localShardGetAction) {
         this.jobContextService = jobContextService;
         this.contextPreparer = contextPreparer;
         this.transportActionProvider = transportActionProvider;
@@ -122,6 +134,8 @@ public class TransportExecutor implements Executor {
         this.clusterService = clusterService;
         this.indicesService = indicesService;
         this.bulkRetryCoordinatorPool = bulkRetryCoordinatorPool;
+        this.admissionService = admissionService;
+        this.localShardGetAction = localShardGetAction;
         plan2TaskVisitor = new TaskCollectingVisitor();
         EvaluatingNormalizer normalizer = EvaluatingNormalizer.functionOnlyNormalizer(functions, ReplaceMode.COPY);
         globalProjectionToProjectionVisitor = new ProjectionToProjectorVisitor(
@@ -140,6 +154,21 @@ public class TransportExecutor implements Executor {
 
     @Override
     public void execute(Plan plan, BatchConsumer consumer, Row parameters) {
+        WorkloadClass workloadClass = WorkloadClassifier.classify(plan);
+        if (workloadClass == null) {
+            executeAdmitted(plan, consumer, parameters);
+            return;
+        }
+        admissionService.admit(workloadClass).whenComplete((ignored, t) -> {
+            if (t == null) {
+                executeAdmitted(plan, new ReleasingBatchConsumer(consumer, admissionService, workloadClass), parameters);
+            } else {
+                consumer.accept(null, t);
+            }
+        });
+    }
+
+    private void executeAdmitted(Plan plan, BatchConsumer consumer, Row parameters) {
         CompletableFuture<Plan> planFuture = multiPhaseExecutor.process(plan, null);
         planFuture
             .thenAccept(p -> plan2TaskVisitor.process(p, null).execute(consumer, parameters))
@@ -148,8 +177,26 @@ public class TransportExecutor implements Executor {
 
     @Override
     public List<CompletableFuture<Long>> executeBulk(Plan plan) {
-        Task task = plan2TaskVisitor.process(plan, null);
-        return task.executeBulk();
+        WorkloadClass workloadClass = WorkloadClassifier.classify(plan);
+        if (workloadClass == null) {
+            return plan2TaskVisitor.process(plan, null).executeBulk();
+        }
+        try {
+            // the number of results isn't known before the task is created, so bulk operations aren't queued
+            admissionService.admitNow(workloadClass);
+        } catch (WorkloadRejectedException e) {
+            return Collections.singletonList(CompletableFutures.failedFuture(e));
+        }
+        List<CompletableFuture<Long>> results;
+        try {
+            results = plan2TaskVisitor.process(plan, null).executeBulk();
+        } catch (Throwable t) {
+            admissionService.release(workloadClass);
+            throw t;
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+            .whenComplete((r, t) -> admissionService.release(workloadClass));
+        return results;
     }
 
     private class TaskCollectingVisitor extends PlanVisitor<Void, Task> {
@@ -166,6 +213,9 @@ public class TransportExecutor implements Executor {
 
         @Override
         public Task visitExplainPlan(ExplainPlan explainPlan, Void context) {
+            if (explainPlan.isAnalyze()) {
+                return new ExplainAnalyzeTask(explainPlan, process(explainPlan.subPlan(), context));
+            }
             return new ExplainTask(explainPlan);
         }
 
@@ -185,6 +235,7 @@ public class TransportExecutor implements Executor {
                 jobContextService,
                 indicesService,
                 transportActionProvider.transportJobInitAction(),
+                transportActionProvider.transportJobProfileAction(),
                 transportActionProvider.transportKillJobsNodeAction(),
                 nodeOperationTrees
             );
@@ -196,6 +247,7 @@ public class TransportExecutor implements Executor {
                 functions,
                 globalProjectionToProjectionVisitor,
                 transportActionProvider,
+                localShardGetAction,
                 plan,
                 jobContextService);
         }
@@ -289,6 +341,14 @@ public class TransportExecutor implements Executor {
             return CompletableFuture.completedFuture(plan);
         }
 
+        @Override
+        public CompletableFuture<Plan> visitExplainPlan(ExplainPlan explainPlan, Void context) {
+            if (explainPlan.isAnalyze()) {
+                return process(explainPlan.subPlan(), context).thenApply(p -> explainPlan);
+            }
+            return CompletableFuture.completedFuture(explainPlan);
+        }
+
         @Override
         public CompletableFuture<Plan> visitMerge(Merge merge, Void context) {
             return process(merge.subPlan(), context).thenApply(p -> merge);
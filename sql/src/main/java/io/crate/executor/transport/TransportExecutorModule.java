@@ -23,10 +23,13 @@ package io.crate.executor.transport;
 
 import io.crate.action.job.ContextPreparer;
 import io.crate.action.job.TransportJobAction;
+import io.crate.action.job.TransportJobProfileAction;
 import io.crate.executor.Executor;
+import io.crate.executor.admission.AdmissionService;
 import io.crate.executor.transport.distributed.TransportDistributedResultAction;
 import io.crate.executor.transport.kill.TransportKillAllNodeAction;
 import io.crate.executor.transport.kill.TransportKillJobsNodeAction;
+import io.crate.executor.transport.task.elasticsearch.LocalShardGetAction;
 import io.crate.lucene.LuceneQueryBuilder;
 import org.elasticsearch.common.inject.AbstractModule;
 
@@ -37,9 +40,12 @@ public class TransportExecutorModule extends AbstractModule {
         bind(TransportActionProvider.class).asEagerSingleton();
         bind(Executor.class).to(TransportExecutor.class).asEagerSingleton();
         bind(ContextPreparer.class).asEagerSingleton();
+        bind(AdmissionService.class).asEagerSingleton();
+        bind(LocalShardGetAction.class).asEagerSingleton();
         bind(LuceneQueryBuilder.class).asEagerSingleton();
 
         bind(TransportJobAction.class).asEagerSingleton();
+        bind(TransportJobProfileAction.class).asEagerSingleton();
         bind(TransportDistributedResultAction.class).asEagerSingleton();
         bind(TransportShardUpsertAction.class).asEagerSingleton();
         bind(TransportShardDeleteAction.class).asEagerSingleton();
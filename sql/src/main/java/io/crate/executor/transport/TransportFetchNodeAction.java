@@ -88,6 +88,6 @@ public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, No
             request.toFetch(),
             request.isCloseContext()
         );
-        return resultFuture.thenApply(NodeFetchResponse::forSending);
+        return resultFuture.thenApply(fetched -> NodeFetchResponse.forSending(fetched, request.isColumnarResponse()));
     }
 }
@@ -27,6 +27,7 @@ import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.transport.*;
 
 import java.util.Locale;
@@ -35,6 +36,15 @@ import java.util.Locale;
 @Singleton
 public class Transports {
 
+    /**
+     * If enabled, intermediate results and fetched rows which are sent to other nodes are encoded in a compressed,
+     * column oriented format. This reduces the network traffic at the cost of some CPU time.
+     */
+    public static final Setting<Boolean> COMPRESS_RESULTS_SETTING = Setting.boolSetting(
+        "node.sql.compress_results",
+        true,
+        Setting.Property.NodeScope);
+
     private final ClusterService clusterService;
     private final TransportService transportService;
 
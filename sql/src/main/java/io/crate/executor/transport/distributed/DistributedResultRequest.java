@@ -37,6 +37,8 @@ public class DistributedResultRequest extends TransportRequest {
     private byte inputId;
     private int executionPhaseId;
     private int bucketIdx;
+    private int pageIdx = 0;
+    private boolean columnar = false;
 
     private Streamer<?>[] streamers;
     private Bucket rows;
@@ -63,7 +65,25 @@ public class DistributedResultRequest extends TransportRequest {
                                     Streamer<?>[] streamers,
                                     Bucket rows,
                                     boolean isLast) {
+        this(jobId, executionPhaseId, inputId, bucketIdx, 0, streamers, rows, isLast, false);
+    }
+
+    /**
+     * @param columnar if true, the rows are sent in the compressed columnar format.
+     *                 See {@link StreamBucket#writeBucket(StreamOutput, Streamer[], Bucket, boolean)}
+     */
+    public DistributedResultRequest(UUID jobId,
+                                    int executionPhaseId,
+                                    byte inputId,
+                                    int bucketIdx,
+                                    int pageIdx,
+                                    Streamer<?>[] streamers,
+                                    Bucket rows,
+                                    boolean isLast,
+                                    boolean columnar) {
         this(jobId, inputId, executionPhaseId, bucketIdx);
+        this.pageIdx = pageIdx;
+        this.columnar = columnar;
         this.streamers = streamers;
         this.rows = rows;
         this.isLast = isLast;
@@ -96,6 +116,13 @@ public class DistributedResultRequest extends TransportRequest {
         return bucketIdx;
     }
 
+    /**
+     * Sequence number of the page within the bucket. Pages of a bucket are numbered starting with 0.
+     */
+    public int pageIdx() {
+        return pageIdx;
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         if (rows instanceof StreamBucket) {
             assert streamers != null : "streamers must not be null";
@@ -134,6 +161,7 @@ public class DistributedResultRequest extends TransportRequest {
         jobId = new UUID(in.readLong(), in.readLong());
         executionPhaseId = in.readVInt();
         bucketIdx = in.readVInt();
+        pageIdx = in.readVInt();
         isLast = in.readBoolean();
         inputId = in.readByte();
 
@@ -155,6 +183,7 @@ public class DistributedResultRequest extends TransportRequest {
         out.writeLong(jobId.getLeastSignificantBits());
         out.writeVInt(executionPhaseId);
         out.writeVInt(bucketIdx);
+        out.writeVInt(pageIdx);
         out.writeBoolean(isLast);
         out.writeByte(inputId);
 
@@ -165,7 +194,7 @@ public class DistributedResultRequest extends TransportRequest {
             out.writeBoolean(isKilled);
         } else {
             // TODO: we should not rely on another bucket in this class and instead write to the stream directly
-            StreamBucket.writeBucket(out, streamers, rows);
+            StreamBucket.writeBucket(out, streamers, rows, columnar);
         }
     }
 }
@@ -42,11 +42,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  * The rows from the source {@link BatchIterator} are "bucketed" using a {@link MultiBucketBuilder}. So a downstream
  * can either receive a part of the data or all data.
  *
- * Every time requests to the downstreams are made consumption of the source BatchIterator is stopped until a response
- * from all downstreams is received.
+ * Each downstream has {@link #maxPagesInFlight} credits. Sending a page uses up a credit, a response of the downstream
+ * (which is sent once the downstream has consumed the page) returns it. As long as every downstream which
+ * still needs data has a credit left, consumption of the source BatchIterator continues while the previous pages
+ * are still being transferred. Otherwise the consumption is suspended until a response returns a credit.
+ *
+ * Pages are numbered per downstream so that the downstream can process them in order even if they arrive out of order.
  */
 public class DistributingConsumer implements BatchConsumer {
 
+    public static final int DEFAULT_MAX_PAGES_IN_FLIGHT = 2;
+
     private final Logger logger;
     private final UUID jobId;
     private final int targetPhaseId;
@@ -55,15 +61,25 @@ public class DistributingConsumer implements BatchConsumer {
     private final TransportDistributedResultAction distributedResultAction;
     private final Streamer<?>[] streamers;
     private final int pageSize;
+    private final int maxPagesInFlight;
+    private final boolean columnarPages;
     private final Bucket[] buckets;
     private final List<Downstream> downstreams;
     private final boolean traceEnabled;
+    private final Object lock = new Object();
 
     @VisibleForTesting
     final MultiBucketBuilder multiBucketBuilder;
 
     private volatile Throwable failure;
 
+    /**
+     * true if the consumption of the source BatchIterator is suspended and has to be resumed by a response.
+     * Guarded by {@link #lock}
+     */
+    private boolean suspended = false;
+    private boolean lastPageSent = false;
+
     public DistributingConsumer(Logger logger,
                                 UUID jobId,
                                 MultiBucketBuilder multiBucketBuilder,
@@ -73,7 +89,10 @@ public class DistributingConsumer implements BatchConsumer {
                                 Collection<String> downstreamNodeIds,
                                 TransportDistributedResultAction distributedResultAction,
                                 Streamer<?>[] streamers,
-                                int pageSize) {
+                                int pageSize,
+                                int maxPagesInFlight,
+                                boolean columnarPages) {
+        assert maxPagesInFlight > 0 : "maxPagesInFlight must be greater than 0";
         this.traceEnabled = logger.isTraceEnabled();
         this.logger = logger;
         this.jobId = jobId;
@@ -84,6 +103,8 @@ public class DistributingConsumer implements BatchConsumer {
         this.distributedResultAction = distributedResultAction;
         this.streamers = streamers;
         this.pageSize = pageSize;
+        this.maxPagesInFlight = maxPagesInFlight;
+        this.columnarPages = columnarPages;
         this.buckets = new Bucket[downstreamNodeIds.size()];
         downstreams = new ArrayList<>(downstreamNodeIds.size());
         for (String downstreamNodeId : downstreamNodeIds) {
@@ -107,26 +128,99 @@ public class DistributingConsumer implements BatchConsumer {
                 multiBucketBuilder.add(row);
                 if (multiBucketBuilder.size() >= pageSize) {
                     forwardResults(it, false);
-                    return;
+                    if (suspendOrContinue(it) == false) {
+                        return;
+                    }
                 }
             }
         } catch (Throwable t) {
-            forwardFailure(it, t);
+            synchronized (lock) {
+                failure = t;
+            }
+            suspendOrContinue(it);
             return;
         }
         if (it.allLoaded()) {
+            synchronized (lock) {
+                lastPageSent = true;
+            }
             forwardResults(it, true);
+            suspendOrContinue(it);
         } else {
             it.loadNextBatch().whenComplete((r, t) -> {
                 if (t == null) {
                     consumeIt(it);
                 } else {
-                    forwardFailure(it, t);
+                    synchronized (lock) {
+                        failure = t;
+                    }
+                    suspendOrContinue(it);
                 }
             });
         }
     }
 
+    /**
+     * Called after pages have been sent or a failure occurred.
+     *
+     * @return true if the caller can continue to consume the source BatchIterator. Otherwise the iterator is either
+     *         handed over to {@link #onResponse(BatchIterator, Downstream, boolean, Exception)}, or it has already
+     *         been finished (closed or failure forwarded).
+     */
+    private boolean suspendOrContinue(BatchIterator it) {
+        synchronized (lock) {
+            if (canResume() == false) {
+                suspended = true;
+                return false;
+            }
+        }
+        return finishOrContinue(it);
+    }
+
+    private boolean canResume() {
+        if (failure != null || lastPageSent || downstreams.stream().noneMatch(Downstream::needsMoreData)) {
+            return downstreams.stream().allMatch(d -> d.pagesInFlight == 0);
+        }
+        for (Downstream downstream : downstreams) {
+            if (downstream.needsMoreData && downstream.pagesInFlight >= maxPagesInFlight) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean finishOrContinue(BatchIterator it) {
+        if (failure != null) {
+            forwardFailure(it, failure);
+            return false;
+        }
+        if (lastPageSent || downstreams.stream().noneMatch(Downstream::needsMoreData)) {
+            it.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void onResponse(BatchIterator it, Downstream downstream, boolean needMore, @Nullable Exception e) {
+        boolean resume = false;
+        synchronized (lock) {
+            downstream.pagesInFlight--;
+            if (e != null) {
+                failure = e;
+                downstream.needsMoreData = false;
+            } else if (needMore == false) {
+                downstream.needsMoreData = false;
+            }
+            if (suspended && canResume()) {
+                suspended = false;
+                resume = true;
+            }
+        }
+        if (resume && finishOrContinue(it)) {
+            consumeIt(it);
+        }
+    }
+
     private void forwardFailure(@Nullable final BatchIterator it, final Throwable f) {
         Throwable failure = SQLExceptions.unwrap(f); // make sure it's streamable
         AtomicInteger numActiveRequests = new AtomicInteger(downstreams.size());
@@ -172,57 +266,59 @@ public class DistributingConsumer implements BatchConsumer {
     private void forwardResults(BatchIterator it, boolean isLast) {
         multiBucketBuilder.build(buckets);
 
-        AtomicInteger numActiveRequests = new AtomicInteger(downstreams.size());
         for (int i = 0; i < downstreams.size(); i++) {
             Downstream downstream = downstreams.get(i);
-            if (downstream.needsMoreData == false) {
-                countdownAndMaybeContinue(it, numActiveRequests);
-                continue;
+            int pageIdx;
+            synchronized (lock) {
+                if (downstream.needsMoreData == false) {
+                    continue;
+                }
+                downstream.pagesInFlight++;
+                pageIdx = downstream.nextPageIdx++;
             }
             if (traceEnabled) {
-                logger.trace("forwardResults targetNode={} targetPhase={}/{} bucket={} isLast={}",
-                    downstream.nodeId, targetPhaseId, inputId, bucketIdx, isLast);
+                logger.trace("forwardResults targetNode={} targetPhase={}/{} bucket={} page={} isLast={}",
+                    downstream.nodeId, targetPhaseId, inputId, bucketIdx, pageIdx, isLast);
             }
             distributedResultAction.pushResult(
                 downstream.nodeId,
-                new DistributedResultRequest(jobId, targetPhaseId, inputId, bucketIdx, streamers, buckets[i], isLast),
+                new DistributedResultRequest(
+                    jobId, targetPhaseId, inputId, bucketIdx, pageIdx, streamers, buckets[i], isLast, columnarPages),
                 new ActionListener<DistributedResultResponse>() {
                     @Override
                     public void onResponse(DistributedResultResponse response) {
-                        downstream.needsMoreData = response.needMore();
-                        countdownAndMaybeContinue(it, numActiveRequests);
+                        DistributingConsumer.this.onResponse(it, downstream, response.needMore(), null);
                     }
 
                     @Override
                     public void onFailure(Exception e) {
-                        failure = e;
-                        downstream.needsMoreData = false;
                         // continue because it's necessary to send something to downstreams still waiting for data
-                        countdownAndMaybeContinue(it, numActiveRequests);
+                        DistributingConsumer.this.onResponse(it, downstream, false, e);
                     }
                 }
             );
         }
     }
 
-    private void countdownAndMaybeContinue(BatchIterator it, AtomicInteger numActiveRequests) {
-        if (numActiveRequests.decrementAndGet() == 0) {
-            if (downstreams.stream().anyMatch(Downstream::needsMoreData)) {
-                if (failure == null) {
-                    consumeIt(it);
-                } else {
-                    forwardFailure(it, failure);
-                }
-            } else {
-                it.close();
+    /**
+     * @return the number of pages which have been sent to the downstreams so far
+     */
+    public long pagesSent() {
+        long pagesSent = 0;
+        synchronized (lock) {
+            for (Downstream downstream : downstreams) {
+                pagesSent += downstream.nextPageIdx;
             }
         }
+        return pagesSent;
     }
 
     private static class Downstream {
 
         private final String nodeId;
         private boolean needsMoreData = true;
+        private int pagesInFlight = 0;
+        private int nextPageIdx = 0;
 
         Downstream(String nodeId) {
             this.nodeId = nodeId;
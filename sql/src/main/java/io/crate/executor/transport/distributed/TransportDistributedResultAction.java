@@ -117,6 +117,7 @@ public class TransportDistributedResultAction extends AbstractComponent implemen
             SendResponsePageResultListener pageResultListener = new SendResponsePageResultListener();
             pageBucketReceiver.setBucket(
                 request.bucketIdx(),
+                request.pageIdx(),
                 request.rows(),
                 request.isLast(),
                 pageResultListener);
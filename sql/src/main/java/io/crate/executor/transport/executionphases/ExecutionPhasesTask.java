@@ -25,9 +25,12 @@ package io.crate.executor.transport.executionphases;
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
 import io.crate.action.job.ContextPreparer;
+import io.crate.action.job.JobProfileRequest;
+import io.crate.action.job.JobProfileResponse;
 import io.crate.action.job.JobRequest;
 import io.crate.action.job.SharedShardContexts;
 import io.crate.action.job.TransportJobAction;
+import io.crate.action.job.TransportJobProfileAction;
 import io.crate.concurrent.CompletableFutures;
 import io.crate.data.BatchConsumer;
 import io.crate.data.Bucket;
@@ -41,6 +44,7 @@ import io.crate.operation.NodeOperationTree;
 import io.crate.planner.node.ExecutionPhase;
 import io.crate.planner.node.ExecutionPhases;
 import io.crate.planner.node.NodeOperationGrouper;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.collect.Tuple;
 import org.apache.logging.log4j.Logger;
@@ -93,6 +97,7 @@ public class ExecutionPhasesTask extends JobTask {
     static final Logger LOGGER = Loggers.getLogger(ExecutionPhasesTask.class);
 
     private final TransportJobAction transportJobAction;
+    private final TransportJobProfileAction transportJobProfileAction;
     private final TransportKillJobsNodeAction transportKillJobsNodeAction;
     private final List<NodeOperationTree> nodeOperationTrees;
     private final ClusterService clusterService;
@@ -101,6 +106,9 @@ public class ExecutionPhasesTask extends JobTask {
     private final IndicesService indicesService;
 
     private boolean hasDirectResponse;
+    private boolean profiling = false;
+    private JobExecutionContext localJobContext;
+    private Collection<String> remoteNodeIds = Collections.emptyList();
 
     public ExecutionPhasesTask(UUID jobId,
                                ClusterService clusterService,
@@ -108,6 +116,7 @@ public class ExecutionPhasesTask extends JobTask {
                                JobContextService jobContextService,
                                IndicesService indicesService,
                                TransportJobAction transportJobAction,
+                               TransportJobProfileAction transportJobProfileAction,
                                TransportKillJobsNodeAction transportKillJobsNodeAction,
                                List<NodeOperationTree> nodeOperationTrees) {
         super(jobId);
@@ -116,6 +125,7 @@ public class ExecutionPhasesTask extends JobTask {
         this.jobContextService = jobContextService;
         this.indicesService = indicesService;
         this.transportJobAction = transportJobAction;
+        this.transportJobProfileAction = transportJobProfileAction;
         this.transportKillJobsNodeAction = transportKillJobsNodeAction;
         this.nodeOperationTrees = nodeOperationTrees;
 
@@ -129,6 +139,48 @@ public class ExecutionPhasesTask extends JobTask {
         }
     }
 
+    /**
+     * Enables the collection of execution statistics for every phase on all involved nodes.
+     * Must be called before the task is executed.
+     */
+    public void enableProfiling() {
+        profiling = true;
+    }
+
+    /**
+     * @return a future with the execution statistics of the phases of this task grouped by node id.
+     *         It completes once the job has finished on all nodes.
+     *         Requires {@link #enableProfiling()} to be called before the task was executed.
+     */
+    public CompletableFuture<Map<String, List<SubContextProfile>>> profiles() {
+        assert profiling : "profiles are only available if profiling is enabled";
+        if (localJobContext == null) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        String localNodeId = clusterService.localNode().getId();
+        List<CompletableFuture<JobProfileResponse>> futures = new ArrayList<>(remoteNodeIds.size() + 1);
+        JobExecutionContext context = localJobContext;
+        futures.add(context.completionFuture().handle((r, t) -> new JobProfileResponse(context.profiles())));
+        for (String nodeId : remoteNodeIds) {
+            CompletableFuture<JobProfileResponse> future = new CompletableFuture<>();
+            transportJobProfileAction.execute(nodeId, new JobProfileRequest(jobId()), ActionListener.wrap(
+                future::complete,
+                future::completeExceptionally
+            ));
+            futures.add(future);
+        }
+        List<String> nodeIds = new ArrayList<>(futures.size());
+        nodeIds.add(localNodeId);
+        nodeIds.addAll(remoteNodeIds);
+        return CompletableFutures.allAsList(futures).thenApply(responses -> {
+            Map<String, List<SubContextProfile>> profilesByNode = new HashMap<>(responses.size());
+            for (int i = 0; i < responses.size(); i++) {
+                profilesByNode.put(nodeIds.get(i), responses.get(i).profiles());
+            }
+            return profilesByNode;
+        });
+    }
+
     @Override
     public void execute(BatchConsumer consumer, Row parameters) {
         assert nodeOperationTrees.size() == 1 : "must only have 1 NodeOperationTree for non-bulk operations";
@@ -190,10 +242,15 @@ public class ExecutionPhasesTask extends JobTask {
         List<Tuple<ExecutionPhase, BatchConsumer>> handlerPhaseAndReceiver = createHandlerPhaseAndReceivers(
             handlerPhases, handlerConsumers, initializationTracker);
 
-        JobExecutionContext.Builder builder = jobContextService.newBuilder(jobId(), localNodeId, operationByServer.keySet());
+        JobExecutionContext.Builder builder = jobContextService.newBuilder(
+            jobId(), localNodeId, operationByServer.keySet(), profiling);
         List<CompletableFuture<Bucket>> directResponseFutures = contextPreparer.prepareOnHandler(
             localNodeOperations, builder, handlerPhaseAndReceiver, new SharedShardContexts(indicesService));
         JobExecutionContext localJobContext = jobContextService.createContext(builder);
+        if (profiling) {
+            this.localJobContext = localJobContext;
+            this.remoteNodeIds = new ArrayList<>(operationByServer.keySet());
+        }
 
         List<PageBucketReceiver> pageBucketReceivers = getHandlerBucketReceivers(localJobContext, handlerPhaseAndReceiver);
         int bucketIdx = 0;
@@ -265,7 +322,7 @@ public class ExecutionPhasesTask extends JobTask {
                                  InitializationTracker initializationTracker) {
         for (Map.Entry<String, Collection<NodeOperation>> entry : operationByServer.entrySet()) {
             String serverNodeId = entry.getKey();
-            JobRequest request = new JobRequest(jobId(), localNodeId, entry.getValue());
+            JobRequest request = new JobRequest(jobId(), localNodeId, entry.getValue(), profiling);
             if (hasDirectResponse) {
                 transportJobAction.execute(serverNodeId, request,
                     new SetBucketActionListener(pageBucketReceivers, bucketIdx, initializationTracker));
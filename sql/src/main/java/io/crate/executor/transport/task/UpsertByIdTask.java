@@ -218,7 +218,8 @@ public class UpsertByIdTask extends JobTask {
             settings,
             bulkRetryCoordinatorPool,
             upsertById.isPartitionedTable(),
-            upsertById.items().size(),
+            // flush shard requests while items are still being added instead of buffering all of them
+            Math.min(upsertById.items().size(), BulkShardProcessor.DEFAULT_BULK_SIZE),
             builder,
             transportShardUpsertActionDelegate,
             jobId());
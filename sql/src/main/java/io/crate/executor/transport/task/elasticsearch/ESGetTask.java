@@ -72,6 +72,7 @@ public class ESGetTask extends JobTask {
     private final static Set<ColumnIdent> FETCH_SOURCE_COLUMNS = ImmutableSet.of(DocSysColumns.DOC, DocSysColumns.RAW);
     private final ProjectorFactory projectorFactory;
     private final TransportActionProvider transportActionProvider;
+    private final LocalShardGetAction localShardGetAction;
     private final ESGet esGet;
 
     private final JobContextService jobContextService;
@@ -221,33 +222,18 @@ public class ESGetTask extends JobTask {
         }
     }
 
-    private static class SingleGetJobContext extends JobContext<TransportGetAction, GetRequest, GetResponse> {
+    /**
+     * Single gets don't register a job context, the request is executed using the {@link LocalShardGetAction}
+     * which reads the document from a local shard copy if possible.
+     */
+    private static class SingleGetListener implements ActionListener<GetResponse> {
 
-        SingleGetJobContext(ESGetTask task,
-                            TransportGetAction transportAction,
-                            BatchConsumer consumer) {
-            super(task, transportAction, consumer);
-            assert task.esGet.docKeys().size() == 1 : "numer of docKeys must be 1";
-        }
-
-        @Override
-        public String name() {
-            return "SingleGet";
-        }
+        private final ESGetTask task;
+        private final BatchConsumer consumer;
 
-        @Override
-        protected GetRequest prepareRequest(ESGet node, FetchSourceContext fsc) {
-            DocKeys.DocKey docKey = node.docKeys().getOnlyKey();
-            String id = docKey.id();
-            if (id == null) {
-                return null;
-            }
-            GetRequest getRequest = new GetRequest(indexName(node.tableInfo(), docKey.partitionValues().orElse(null)),
-                Constants.DEFAULT_MAPPING_TYPE, id);
-            getRequest.fetchSourceContext(fsc);
-            getRequest.realtime(true);
-            getRequest.routing(docKey.routing());
-            return getRequest;
+        SingleGetListener(ESGetTask task, BatchConsumer consumer) {
+            this.task = task;
+            this.consumer = consumer;
         }
 
         @Override
@@ -260,7 +246,6 @@ public class ESGetTask extends JobTask {
             } else {
                 consumer.accept(RowsBatchIterator.empty(task.inputRow.numColumns()), null);
             }
-            close();
         }
 
         @Override
@@ -268,22 +253,37 @@ public class ESGetTask extends JobTask {
             if (task.esGet.tableInfo().isPartitioned() && e instanceof IndexNotFoundException) {
                 // this means we have no matching document
                 consumer.accept(RowsBatchIterator.empty(task.inputRow.numColumns()), null);
-                close();
             } else {
                 consumer.accept(null, e);
-                close(e);
             }
         }
     }
 
+    @Nullable
+    private static GetRequest prepareGetRequest(ESGet node, FetchSourceContext fsc) {
+        DocKeys.DocKey docKey = node.docKeys().getOnlyKey();
+        String id = docKey.id();
+        if (id == null) {
+            return null;
+        }
+        GetRequest getRequest = new GetRequest(indexName(node.tableInfo(), docKey.partitionValues().orElse(null)),
+            Constants.DEFAULT_MAPPING_TYPE, id);
+        getRequest.fetchSourceContext(fsc);
+        getRequest.realtime(true);
+        getRequest.routing(docKey.routing());
+        return getRequest;
+    }
+
     public ESGetTask(Functions functions,
                      ProjectorFactory projectorFactory,
                      TransportActionProvider transportActionProvider,
+                     LocalShardGetAction localShardGetAction,
                      ESGet esGet,
                      JobContextService jobContextService) {
         super(esGet.jobId());
         this.projectorFactory = projectorFactory;
         this.transportActionProvider = transportActionProvider;
+        this.localShardGetAction = localShardGetAction;
         this.esGet = esGet;
         this.jobContextService = jobContextService;
 
@@ -309,12 +309,17 @@ public class ESGetTask extends JobTask {
 
     @Override
     public void execute(BatchConsumer consumer, Row parameters) {
-        JobContext jobContext;
         if (esGet.docKeys().size() == 1) {
-            jobContext = new SingleGetJobContext(this, transportActionProvider.transportGetAction(), consumer);
-        } else {
-            jobContext = new MultiGetJobContext(this, transportActionProvider.transportMultiGetAction(), consumer);
+            GetRequest request = prepareGetRequest(esGet, fsc);
+            if (request == null) {
+                // id can be null -> since primary keys cannot be null this is a no-match
+                consumer.accept(RowsBatchIterator.empty(inputRow.numColumns()), null);
+            } else {
+                localShardGetAction.execute(request, new SingleGetListener(this, consumer));
+            }
+            return;
         }
+        JobContext jobContext = new MultiGetJobContext(this, transportActionProvider.transportMultiGetAction(), consumer);
         JobExecutionContext.Builder builder = jobContextService.newBuilder(jobId());
         builder.addSubContext(jobContext);
 
@@ -0,0 +1,138 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.transport.task.elasticsearch;
+
+import io.crate.executor.transport.TransportActionProvider;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.TransportGetAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.get.GetResult;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import javax.annotation.Nullable;
+
+/**
+ * Executes a {@link GetRequest} for a single document.
+ * <p>
+ * The shard holding the document is resolved using the routing table of the current cluster state.
+ * If a started copy of the shard is allocated on this node the document is read from it directly,
+ * without going through the transport layer. Otherwise, or if the local read fails, the request
+ * is executed using the {@link TransportGetAction}.
+ */
+@Singleton
+public class LocalShardGetAction {
+
+    private static final Logger LOGGER = Loggers.getLogger(LocalShardGetAction.class);
+
+    private final ClusterService clusterService;
+    private final IndicesService indicesService;
+    private final ThreadPool threadPool;
+    private final TransportActionProvider transportActionProvider;
+
+    @Inject
+    public LocalShardGetAction(ClusterService clusterService,
+                               IndicesService indicesService,
+                               ThreadPool threadPool,
+                               TransportActionProvider transportActionProvider) {
+        this.clusterService = clusterService;
+        this.indicesService = indicesService;
+        this.threadPool = threadPool;
+        this.transportActionProvider = transportActionProvider;
+    }
+
+    public void execute(GetRequest request, ActionListener<GetResponse> listener) {
+        IndexShard indexShard;
+        try {
+            indexShard = localShard(request);
+        } catch (Exception e) {
+            // e.g. IndexNotFoundException
+            listener.onFailure(e);
+            return;
+        }
+        if (indexShard == null) {
+            transportActionProvider.transportGetAction().execute(request, listener);
+            return;
+        }
+        try {
+            // failures of the listener are routed to onFailure, like the transport action does
+            threadPool.executor(ThreadPool.Names.GET).execute(new ActionRunnable<GetResponse>(listener) {
+                @Override
+                protected void doRun() throws Exception {
+                    GetResponse response;
+                    try {
+                        GetResult result = indexShard.getService().get(
+                            request.type(),
+                            request.id(),
+                            request.storedFields(),
+                            request.realtime(),
+                            request.version(),
+                            request.versionType(),
+                            request.fetchSourceContext());
+                        response = new GetResponse(result);
+                    } catch (Exception e) {
+                        LOGGER.debug("Failed to read document {} from local shard {}, retrying via transport",
+                            request.id(), indexShard.shardId(), e);
+                        transportActionProvider.transportGetAction().execute(request, listener);
+                        return;
+                    }
+                    listener.onResponse(response);
+                }
+            });
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    @Nullable
+    private IndexShard localShard(GetRequest request) {
+        ClusterState state = clusterService.state();
+        ShardId shardId = clusterService.operationRouting().shardId(
+            state, request.index(), request.id(), request.routing());
+        IndexShardRoutingTable shardRoutingTable = state.routingTable().shardRoutingTableOrNull(shardId);
+        if (shardRoutingTable == null) {
+            return null;
+        }
+        String localNodeId = state.nodes().getLocalNodeId();
+        for (ShardRouting shardRouting : shardRoutingTable) {
+            if (shardRouting.started() && localNodeId.equals(shardRouting.currentNodeId())) {
+                IndexService indexService = indicesService.indexService(shardId.getIndex());
+                return indexService == null ? null : indexService.getShardOrNull(shardId.id());
+            }
+        }
+        return null;
+    }
+}
@@ -43,6 +43,8 @@ import java.util.stream.Stream;
 @Singleton
 public class JobContextService extends AbstractLifecycleComponent {
 
+    private static final int MAX_FINISHED_PROFILES = 100;
+
     private final ClusterService clusterService;
     private final JobsLogs jobsLogs;
     private final ConcurrentMap<UUID, JobExecutionContext> activeContexts =
@@ -50,6 +52,26 @@ public class JobContextService extends AbstractLifecycleComponent {
 
     private final List<KillAllListener> killAllListeners = Collections.synchronizedList(new ArrayList<KillAllListener>());
 
+    /**
+     * Profiles of finished contexts which were created with profiling enabled, until they're retrieved by the
+     * coordinator using {@link #profiles(UUID)}.
+     */
+    private final Map<UUID, List<SubContextProfile>> finishedProfiles = Collections.synchronizedMap(
+        new LinkedHashMap<UUID, List<SubContextProfile>>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, List<SubContextProfile>> eldest) {
+                return size() > MAX_FINISHED_PROFILES;
+            }
+        });
+
+    /**
+     * Futures of the active contexts whose profiles are moved to {@link #finishedProfiles} once they're finished.
+     * They complete after the profiles have been moved, the callbacks of the completion future of the context
+     * itself may run before that.
+     */
+    private final ConcurrentMap<UUID, CompletableFuture<?>> profilesStoredFutures =
+        ConcurrentCollections.newConcurrentMap();
+
     @Inject
     public JobContextService(Settings settings, ClusterService clusterService, JobsLogs jobsLogs) {
         super(settings);
@@ -114,6 +136,45 @@ public class JobContextService extends AbstractLifecycleComponent {
         return new JobExecutionContext.Builder(jobId, coordinatorNodeId, participatingNodes, jobsLogs);
     }
 
+    public JobExecutionContext.Builder newBuilder(UUID jobId,
+                                                  String coordinatorNodeId,
+                                                  Collection<String> participatingNodes,
+                                                  boolean profiling) {
+        return new JobExecutionContext.Builder(jobId, coordinatorNodeId, participatingNodes, jobsLogs, profiling);
+    }
+
+    /**
+     * @return a future with the execution statistics of the context of the given job on this node.
+     *         The future completes once the context is closed. If there is no profiled context for the job,
+     *         the list is empty.
+     */
+    public CompletableFuture<List<SubContextProfile>> profiles(UUID jobId) {
+        CompletableFuture<?> profilesStored = profilesStoredFutures.get(jobId);
+        if (profilesStored != null) {
+            return profilesStored.handle((r, t) -> removeFinishedProfiles(jobId));
+        }
+        JobExecutionContext context = activeContexts.get(jobId);
+        if (context == null || storesProfiles(context)) {
+            // the context is finished and its profiles have been stored, if any
+            return CompletableFuture.completedFuture(removeFinishedProfiles(jobId));
+        }
+        return context.completionFuture().handle((r, t) -> context.profiles());
+    }
+
+    private List<SubContextProfile> removeFinishedProfiles(UUID jobId) {
+        List<SubContextProfile> profiles = finishedProfiles.remove(jobId);
+        return profiles == null ? Collections.emptyList() : profiles;
+    }
+
+    /**
+     * The profiles of contexts whose coordinator is another node are kept after the context is finished,
+     * until the coordinator retrieves them.
+     */
+    private boolean storesProfiles(JobExecutionContext context) {
+        return context.isProfiling()
+               && context.coordinatorNodeId().equals(clusterService.localNode().getId()) == false;
+    }
+
     public JobExecutionContext createContext(JobExecutionContext.Builder contextBuilder) throws Exception {
         if (contextBuilder.isEmpty()) {
             throw new IllegalArgumentException("JobExecutionContext.Builder must at least contain 1 SubExecutionContext");
@@ -121,11 +182,19 @@ public class JobContextService extends AbstractLifecycleComponent {
         final UUID jobId = contextBuilder.jobId();
         JobExecutionContext newContext = contextBuilder.build();
 
-        JobContextCallback jobContextCallback = new JobContextCallback(jobId);
-        newContext.completionFuture().whenComplete(jobContextCallback);
+        JobContextCallback jobContextCallback = new JobContextCallback(newContext);
+        CompletableFuture<Void> callbackFuture = newContext.completionFuture().whenComplete(jobContextCallback);
+        // registered before the context becomes visible, it could be killed right afterwards
+        boolean storesProfiles = storesProfiles(newContext);
+        if (storesProfiles) {
+            profilesStoredFutures.putIfAbsent(jobId, callbackFuture);
+        }
 
         JobExecutionContext existing = activeContexts.putIfAbsent(jobId, newContext);
         if (existing != null) {
+            if (storesProfiles) {
+                profilesStoredFutures.remove(jobId, callbackFuture);
+            }
             throw new IllegalArgumentException(
                 String.format(Locale.ENGLISH, "context for job %s already exists:%n%s", jobId, existing));
         }
@@ -192,14 +261,19 @@ public class JobContextService extends AbstractLifecycleComponent {
 
     private class JobContextCallback implements BiConsumer<Void, Throwable> {
 
-        private final UUID jobId;
+        private final JobExecutionContext context;
 
-        JobContextCallback(UUID jobId) {
-            this.jobId = jobId;
+        JobContextCallback(JobExecutionContext context) {
+            this.context = context;
         }
 
         @Override
         public void accept(Void aVoid, Throwable throwable) {
+            UUID jobId = context.jobId();
+            if (storesProfiles(context)) {
+                finishedProfiles.put(jobId, context.profiles());
+                profilesStoredFutures.remove(jobId);
+            }
             activeContexts.remove(jobId);
             if (logger.isTraceEnabled()) {
                 logger.trace("JobExecutionContext closed for job {} removed it -" +
@@ -34,10 +34,14 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -57,6 +61,9 @@ public class JobExecutionContext implements CompletionListenable {
     private final CompletableFuture<Void> finishedFuture = new CompletableFuture<>();
     private final AtomicBoolean killSubContextsOngoing = new AtomicBoolean(false);
     private final Collection<String> participatedNodes;
+    @Nullable
+    private final Map<Integer, SubContextProfiler> profilers;
+    private final Queue<SubContextProfile> profiles = new ConcurrentLinkedQueue<>();
     private volatile Throwable failure;
 
 
@@ -67,16 +74,39 @@ public class JobExecutionContext implements CompletionListenable {
         private final JobsLogs jobsLogs;
         private final List<ExecutionSubContext> subContexts = new ArrayList<>();
         private final Collection<String> participatingNodes;
+        @Nullable
+        private final Map<Integer, SubContextProfiler> profilers;
 
         Builder(UUID jobId, String coordinatorNode, Collection<String> participatingNodes, JobsLogs jobsLogs) {
+            this(jobId, coordinatorNode, participatingNodes, jobsLogs, false);
+        }
+
+        Builder(UUID jobId,
+                String coordinatorNode,
+                Collection<String> participatingNodes,
+                JobsLogs jobsLogs,
+                boolean profiling) {
             this.jobId = jobId;
             this.coordinatorNode = coordinatorNode;
             this.participatingNodes = participatingNodes;
             this.jobsLogs = jobsLogs;
+            this.profilers = profiling ? new HashMap<>() : null;
         }
 
         public void addSubContext(ExecutionSubContext subContext) {
             subContexts.add(subContext);
+            profiler(subContext.id(), subContext.name());
+        }
+
+        /**
+         * @return the profiler of the given phase or null if the job isn't profiled.
+         */
+        @Nullable
+        public SubContextProfiler profiler(int phaseId, String name) {
+            if (profilers == null) {
+                return null;
+            }
+            return profilers.computeIfAbsent(phaseId, id -> new SubContextProfiler(name));
         }
 
         boolean isEmpty() {
@@ -88,7 +118,7 @@ public class JobExecutionContext implements CompletionListenable {
         }
 
         JobExecutionContext build() throws Exception {
-            return new JobExecutionContext(jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts);
+            return new JobExecutionContext(jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts, profilers);
         }
     }
 
@@ -97,9 +127,11 @@ public class JobExecutionContext implements CompletionListenable {
                                 String coordinatorNodeId,
                                 Collection<String> participatingNodes,
                                 JobsLogs jobsLogs,
-                                List<ExecutionSubContext> orderedContexts) throws Exception {
+                                List<ExecutionSubContext> orderedContexts,
+                                @Nullable Map<Integer, SubContextProfiler> profilers) throws Exception {
         this.coordinatorNodeId = coordinatorNodeId;
         this.participatedNodes = participatingNodes;
+        this.profilers = profilers;
         orderedContextIds = new IntArrayList(orderedContexts.size());
         this.jobId = jobId;
         this.jobsLogs = jobsLogs;
@@ -137,6 +169,18 @@ public class JobExecutionContext implements CompletionListenable {
         return participatedNodes;
     }
 
+    public boolean isProfiling() {
+        return profilers != null;
+    }
+
+    /**
+     * @return the execution statistics of all phases of this context.
+     *         Complete once the future returned by {@link #completionFuture()} is done.
+     */
+    public List<SubContextProfile> profiles() {
+        return new ArrayList<>(profiles);
+    }
+
     private void prepare(List<ExecutionSubContext> orderedContexts) throws Exception {
         for (int i = 0; i < orderedContextIds.size(); i++) {
             int id = orderedContextIds.get(i);
@@ -162,6 +206,9 @@ public class JobExecutionContext implements CompletionListenable {
             if (subContext == null || closed.get()) {
                 break; // got killed before start was called
             }
+            if (profilers != null) {
+                profilers.get(id.value).started();
+            }
             subContext.start();
         }
         if (failure != null) {
@@ -208,6 +255,14 @@ public class JobExecutionContext implements CompletionListenable {
     }
 
     private void finish() {
+        if (profilers != null) {
+            // phases which are only a consumer of another phase on the same node don't have a sub context
+            for (Map.Entry<Integer, SubContextProfiler> entry : profilers.entrySet()) {
+                if (!orderedContextIds.contains(entry.getKey())) {
+                    profiles.add(entry.getValue().toProfile(entry.getKey(), -1, null));
+                }
+            }
+        }
         if (failure != null) {
             finishedFuture.completeExceptionally(failure);
         } else {
@@ -247,15 +302,26 @@ public class JobExecutionContext implements CompletionListenable {
             return RemoveSubContextPosition.UNKNOWN;
         }
 
+        private void recordProfile(long bytesUsed, @Nullable String error) {
+            if (profilers != null) {
+                SubContextProfiler profiler = profilers.get(id);
+                profiler.finished();
+                profiles.add(profiler.toProfile(id, bytesUsed, error));
+            }
+        }
+
         public void onSuccess(@Nullable CompletionState state) {
             assert state != null : "state must not be null";
             jobsLogs.operationFinished(id, jobId, null, state.bytesUsed());
+            recordProfile(state.bytesUsed(), null);
             remove();
         }
 
         public void onFailure(@Nonnull Throwable t) {
             failure = t;
-            jobsLogs.operationFinished(id, jobId, SQLExceptions.messageOf(t), -1);
+            String errorMessage = SQLExceptions.messageOf(t);
+            jobsLogs.operationFinished(id, jobId, errorMessage, -1);
+            recordProfile(-1, errorMessage);
             if (remove() == RemoveSubContextPosition.LAST) {
                 return;
             }
@@ -30,6 +30,13 @@ public interface PageBucketReceiver {
 
     void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener);
 
+    /**
+     * Like {@link #setBucket(int, Bucket, boolean, PageResultListener)}, but for upstreams which send further pages
+     * before the listener of the previous page has been called.
+     * Pages of a bucket are numbered starting with 0 and are processed in that order.
+     */
+    void setBucket(int bucketIdx, int pageIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener);
+
     void failure(int bucketIdx, Throwable throwable);
 
     void killed(int bucketIdx, Throwable throwable);
@@ -58,6 +58,15 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     private final BatchConsumer consumer;
     private final BatchPagingIterator<Integer> batchPagingIterator;
 
+    /**
+     * Upstreams may send pages ahead (See {@link io.crate.executor.transport.distributed.DistributingConsumer}).
+     * These are buffered until the previous page of the same bucket has been consumed.
+     * All guarded by {@link #lock}
+     */
+    private final int[] nextPageIdx;
+    private final BitSet pageInProgress;
+    private final List<IntObjectHashMap<PendingPage>> pendingPages;
+
     private Throwable lastThrowable = null;
     private volatile boolean receivingFirstPage = true;
 
@@ -81,6 +90,12 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
         this.pagingIterator = pagingIterator;
         this.bucketsByIdx = new IntObjectHashMap<>(numBuckets);
         this.listenersByBucketIdx = new IntObjectHashMap<>(numBuckets);
+        this.nextPageIdx = new int[numBuckets];
+        this.pageInProgress = new BitSet(numBuckets);
+        this.pendingPages = new ArrayList<>(numBuckets);
+        for (int i = 0; i < numBuckets; i++) {
+            pendingPages.add(new IntObjectHashMap<>());
+        }
         batchPagingIterator = new BatchPagingIterator<>(
             pagingIterator,
             this::fetchMore,
@@ -92,10 +107,24 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     }
 
     private void releaseListenersAndCloseContext(@Nullable Throwable throwable) {
-        for (ObjectCursor<PageResultListener> cursor : listenersByBucketIdx.values()) {
-            cursor.value.needMore(false);
+        List<PageResultListener> listeners = new ArrayList<>();
+        synchronized (listenersByBucketIdx) {
+            for (ObjectCursor<PageResultListener> cursor : listenersByBucketIdx.values()) {
+                listeners.add(cursor.value);
+            }
+            listenersByBucketIdx.clear();
+        }
+        synchronized (lock) {
+            for (IntObjectHashMap<PendingPage> pagesOfBucket : pendingPages) {
+                for (ObjectCursor<PendingPage> cursor : pagesOfBucket.values()) {
+                    listeners.add(cursor.value.listener);
+                }
+                pagesOfBucket.clear();
+            }
+        }
+        for (PageResultListener listener : listeners) {
+            listener.needMore(false);
         }
-        listenersByBucketIdx.clear();
         close(throwable);
     }
 
@@ -105,6 +134,48 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
 
     @Override
     public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
+        synchronized (lock) {
+            nextPageIdx[bucketIdx]++;
+            pageInProgress.set(bucketIdx);
+        }
+        setPage(bucketIdx, rows, isLast, pageResultListener);
+    }
+
+    @Override
+    public void setBucket(int bucketIdx,
+                          int pageIdx,
+                          Bucket rows,
+                          boolean isLast,
+                          PageResultListener pageResultListener) {
+        boolean releaseListener = false;
+        boolean activatePage = false;
+        synchronized (lock) {
+            if (pageIdx != nextPageIdx[bucketIdx] || pageInProgress.get(bucketIdx)) {
+                traceLog("method=setBucket buffering page", bucketIdx);
+                if (lastThrowable != null || isClosed()) {
+                    releaseListener = true;
+                } else {
+                    PendingPage page = new PendingPage(rows, isLast, pageResultListener);
+                    if (pendingPages.get(bucketIdx).put(pageIdx, page) != null) {
+                        kill(new IllegalStateException(String.format(Locale.ENGLISH,
+                            "Same page of a bucket set more than once. node=%s method=setBucket phaseId=%d bucket=%d page=%d",
+                            nodeName, id, bucketIdx, pageIdx)));
+                    }
+                }
+            } else {
+                nextPageIdx[bucketIdx]++;
+                pageInProgress.set(bucketIdx);
+                activatePage = true;
+            }
+        }
+        if (releaseListener) {
+            pageResultListener.needMore(false);
+        } else if (activatePage) {
+            setPage(bucketIdx, rows, isLast, pageResultListener);
+        }
+    }
+
+    private void setPage(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
         synchronized (listenersByBucketIdx) {
             if (lastThrowable == null) {
                 listenersByBucketIdx.put(bucketIdx, pageResultListener);
@@ -189,19 +260,50 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
                 setToEmptyBucket(i);
             }
         }
-        PageResultListener pageResultListener = listenersByBucketIdx.remove(exhaustedBucket);
-        pageResultListener.needMore(true);
+        requestNextPage(exhaustedBucket);
     }
 
     private void fetchFromUnExhausted() {
+        // buffered pages may be set immediately, so the empty buckets must be in place before requesting pages
         for (int idx = 0; idx < numBuckets; idx++) {
             if (exhausted.get(idx)) {
                 setToEmptyBucket(idx);
-            } else {
-                PageResultListener resultListener = listenersByBucketIdx.remove(idx);
-                resultListener.needMore(true);
             }
         }
+        for (int idx = 0; idx < numBuckets; idx++) {
+            if (exhausted.get(idx) == false) {
+                requestNextPage(idx);
+            }
+        }
+    }
+
+    /**
+     * Releases the listener of the current page of the bucket and sets the next page if it has already been received.
+     */
+    private void requestNextPage(int bucketIdx) {
+        PageResultListener resultListener;
+        synchronized (listenersByBucketIdx) {
+            resultListener = listenersByBucketIdx.remove(bucketIdx);
+        }
+        synchronized (lock) {
+            pageInProgress.clear(bucketIdx);
+        }
+        resultListener.needMore(true);
+
+        PendingPage nextPage;
+        synchronized (lock) {
+            if (pageInProgress.get(bucketIdx)) {
+                // the listener has already set the next page
+                return;
+            }
+            nextPage = pendingPages.get(bucketIdx).remove(nextPageIdx[bucketIdx]);
+            if (nextPage == null) {
+                return;
+            }
+            nextPageIdx[bucketIdx]++;
+            pageInProgress.set(bucketIdx);
+        }
+        setPage(bucketIdx, nextPage.rows, nextPage.isLast, nextPage.listener);
     }
 
     private void traceLog(String msg, int bucketIdx) {
@@ -269,7 +371,9 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     }
 
     private void setToEmptyBucket(int idx) {
-        bucketsByIdx.putIfAbsent(idx, Bucket.EMPTY);
+        synchronized (lock) {
+            bucketsByIdx.putIfAbsent(idx, Bucket.EMPTY);
+        }
     }
 
     @Override
@@ -336,4 +440,17 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
         assert inputId == 0 : "This downstream context only supports 1 input";
         return this;
     }
+
+    private static class PendingPage {
+
+        private final Bucket rows;
+        private final boolean isLast;
+        private final PageResultListener listener;
+
+        PendingPage(Bucket rows, boolean isLast, PageResultListener listener) {
+            this.rows = rows;
+            this.isLast = isLast;
+            this.listener = listener;
+        }
+    }
 }
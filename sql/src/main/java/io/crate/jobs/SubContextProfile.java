@@ -0,0 +1,135 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.jobs;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Execution statistics of an execution phase on one node, created by {@link SubContextProfiler}.
+ * Values which couldn't be measured for a phase are -1.
+ */
+public class SubContextProfile implements Writeable {
+
+    private final int phaseId;
+    private final String name;
+    private final long queuedNanos;
+    private final long durationNanos;
+    private final long rowsIn;
+    private final long rowsOut;
+    private final long pagesSent;
+    private final long bytesUsed;
+    @Nullable
+    private final String error;
+
+    SubContextProfile(int phaseId,
+                      String name,
+                      long queuedNanos,
+                      long durationNanos,
+                      long rowsIn,
+                      long rowsOut,
+                      long pagesSent,
+                      long bytesUsed,
+                      @Nullable String error) {
+        this.phaseId = phaseId;
+        this.name = name;
+        this.queuedNanos = queuedNanos;
+        this.durationNanos = durationNanos;
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+        this.pagesSent = pagesSent;
+        this.bytesUsed = bytesUsed;
+        this.error = error;
+    }
+
+    public SubContextProfile(StreamInput in) throws IOException {
+        phaseId = in.readVInt();
+        name = in.readString();
+        queuedNanos = in.readZLong();
+        durationNanos = in.readZLong();
+        rowsIn = in.readZLong();
+        rowsOut = in.readZLong();
+        pagesSent = in.readZLong();
+        bytesUsed = in.readZLong();
+        error = in.readOptionalString();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(phaseId);
+        out.writeString(name);
+        out.writeZLong(queuedNanos);
+        out.writeZLong(durationNanos);
+        out.writeZLong(rowsIn);
+        out.writeZLong(rowsOut);
+        out.writeZLong(pagesSent);
+        out.writeZLong(bytesUsed);
+        out.writeOptionalString(error);
+    }
+
+    public int phaseId() {
+        return phaseId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the statistics as map, durations are in milliseconds and values which haven't been measured are omitted.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        putIfMeasured(map, "queued", queuedNanos == -1 ? -1 : queuedNanos / 1_000_000.0);
+        putIfMeasured(map, "duration", durationNanos == -1 ? -1 : durationNanos / 1_000_000.0);
+        putIfMeasured(map, "rowsIn", rowsIn);
+        putIfMeasured(map, "rowsOut", rowsOut);
+        putIfMeasured(map, "pagesSent", pagesSent);
+        putIfMeasured(map, "bytesUsed", bytesUsed);
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+
+    private static void putIfMeasured(Map<String, Object> map, String key, Number value) {
+        if (value.doubleValue() >= 0) {
+            map.put(key, value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SubContextProfile{" +
+               "phaseId=" + phaseId +
+               ", name='" + name + '\'' +
+               ", values=" + toMap() +
+               '}';
+    }
+}
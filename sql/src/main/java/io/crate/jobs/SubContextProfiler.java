@@ -0,0 +1,158 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.jobs;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects the execution statistics of one execution phase on the local node if a job is profiled
+ * (see {@link JobExecutionContext.Builder#profiler(int, String)}).
+ *
+ * The timestamps are set by the {@link JobExecutionContext}, the row and page counters by the consumers
+ * which are wrapped using {@link #countRowsIn(BatchConsumer)} and {@link #countRowsOut(BatchConsumer)}.
+ */
+public class SubContextProfiler {
+
+    private final String name;
+    private final LongAdder rowsIn = new LongAdder();
+    private final LongAdder rowsOut = new LongAdder();
+    private volatile boolean countsRowsIn = false;
+    private volatile boolean countsRowsOut = false;
+    private volatile LongSupplier pagesSent = null;
+
+    private final long createdNanos = System.nanoTime();
+    private volatile long startedNanos = -1;
+    private volatile long finishedNanos = -1;
+
+    SubContextProfiler(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Wraps the consumer which receives the rows before the projections of the phase are applied.
+     */
+    public BatchConsumer countRowsIn(BatchConsumer consumer) {
+        countsRowsIn = true;
+        return new CountingBatchConsumer(consumer, rowsIn);
+    }
+
+    /**
+     * Wraps the consumer which receives the result of the phase.
+     */
+    public BatchConsumer countRowsOut(BatchConsumer consumer) {
+        countsRowsOut = true;
+        return new CountingBatchConsumer(consumer, rowsOut);
+    }
+
+    public void pagesSent(LongSupplier pagesSent) {
+        this.pagesSent = pagesSent;
+    }
+
+    void started() {
+        startedNanos = System.nanoTime();
+    }
+
+    void finished() {
+        finishedNanos = System.nanoTime();
+    }
+
+    SubContextProfile toProfile(int phaseId, long bytesUsed, @Nullable String error) {
+        long started = startedNanos;
+        long finished = finishedNanos;
+        LongSupplier pages = pagesSent;
+        return new SubContextProfile(
+            phaseId,
+            name,
+            started == -1 ? -1 : started - createdNanos,
+            started == -1 || finished == -1 ? -1 : finished - started,
+            countsRowsIn ? rowsIn.sum() : -1,
+            countsRowsOut ? rowsOut.sum() : -1,
+            pages == null ? -1 : pages.getAsLong(),
+            bytesUsed,
+            error
+        );
+    }
+
+    private static class CountingBatchConsumer implements BatchConsumer {
+
+        private final BatchConsumer delegate;
+        private final LongAdder counter;
+
+        CountingBatchConsumer(BatchConsumer delegate, LongAdder counter) {
+            this.delegate = delegate;
+            this.counter = counter;
+        }
+
+        @Override
+        public void accept(BatchIterator iterator, @Nullable Throwable failure) {
+            if (failure == null) {
+                delegate.accept(new CountingBatchIterator(iterator, counter), null);
+            } else {
+                delegate.accept(iterator, failure);
+            }
+        }
+
+        @Override
+        public boolean requiresScroll() {
+            return delegate.requiresScroll();
+        }
+
+        @Override
+        public String toString() {
+            return "CountingBatchConsumer{" +
+                   "delegate=" + delegate +
+                   '}';
+        }
+    }
+
+    private static class CountingBatchIterator extends ForwardingBatchIterator {
+
+        private final BatchIterator delegate;
+        private final LongAdder counter;
+
+        CountingBatchIterator(BatchIterator delegate, LongAdder counter) {
+            this.delegate = delegate;
+            this.counter = counter;
+        }
+
+        @Override
+        protected BatchIterator delegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean moveNext() {
+            if (delegate.moveNext()) {
+                counter.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
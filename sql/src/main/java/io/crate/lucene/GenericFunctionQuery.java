@@ -28,6 +28,8 @@ import io.crate.operation.collect.collectors.CollectorFieldsVisitor;
 import io.crate.operation.projectors.InputCondition;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.operation.vector.BatchInput;
+import io.crate.operation.vector.BooleanVector;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
@@ -41,24 +43,50 @@ import java.util.Set;
 /**
  * Query implementation which filters docIds by evaluating {@code condition} on each docId to verify if it matches.
  *
- * This query is very slow.
+ * This query is very slow if used on its own. Within a conjunction it only acts as the second phase of a
+ * {@link TwoPhaseIterator} and is evaluated on the docs matched by the other clauses.
+ * The {@code matchCost} tells Lucene how expensive the evaluation is compared to other two-phase clauses.
+ * <p>
+ * If all columns of the condition are read from doc values and its functions support batch evaluation
+ * (see {@link BatchInput#condition(Input, int)}), consecutive docIds are evaluated in batches of
+ * {@link #BATCH_SIZE} documents. This is the case if the query is used on its own or if the other clauses
+ * of a conjunction match dense ranges of documents; sparse candidates are evaluated one by one.
  */
 class GenericFunctionQuery extends Query {
 
+    /**
+     * Cost of evaluating a condition whose columns are all read from doc values
+     */
+    static final float DOC_VALUES_MATCH_COST = 10;
+
+    /**
+     * Cost of evaluating a condition which has to load and parse the source of each document
+     */
+    static final float SOURCE_LOOKUP_MATCH_COST = 1000;
+
+    static final int BATCH_SIZE = 1024;
+
     private final Function function;
     private final LuceneCollectorExpression[] expressions;
     private final CollectorContext collectorContext;
     private final Input<Boolean> condition;
+    private final float matchCost;
 
     GenericFunctionQuery(Function function,
                          Collection<? extends LuceneCollectorExpression<?>> expressions,
                          CollectorContext collectorContext,
-                         Input<Boolean> condition) {
+                         Input<Boolean> condition,
+                         float matchCost) {
         this.function = function;
         // inner loop iterates over expressions - call toArray to avoid iterator allocations
         this.expressions = expressions.toArray(new LuceneCollectorExpression[0]);
         this.collectorContext = collectorContext;
         this.condition = condition;
+        this.matchCost = matchCost;
+    }
+
+    float matchCost() {
+        return matchCost;
     }
 
     @Override
@@ -121,7 +149,8 @@ class GenericFunctionQuery extends Query {
         for (LuceneCollectorExpression expression : expressions) {
             expression.setNextReader(context);
         }
-        return new FilteredTwoPhaseIterator(context.reader(), collectorContext.visitor(), condition, expressions);
+        return new FilteredTwoPhaseIterator(
+            context.reader(), collectorContext.visitor(), condition, expressions, matchCost);
     }
 
     @Override
@@ -136,22 +165,62 @@ class GenericFunctionQuery extends Query {
         private final Input<Boolean> condition;
         private final LuceneCollectorExpression[] expressions;
         private final boolean fieldsVisitorEnabled;
+        private final float matchCost;
+
+        @Nullable
+        private final BatchInput batchCondition;
+        private final int[] docIds;
+        private final int maxDoc;
+        private BooleanVector batchMatches;
+        private int batchStart = 0;
+        private int batchEnd = 0;
+        private int previousDoc = -1;
 
         FilteredTwoPhaseIterator(LeafReader reader,
                                  @Nullable CollectorFieldsVisitor fieldsVisitor,
                                  Input<Boolean> condition,
-                                 LuceneCollectorExpression[] expressions) {
+                                 LuceneCollectorExpression[] expressions,
+                                 float matchCost) {
             super(DocIdSetIterator.all(reader.maxDoc()));
             this.reader = reader;
             this.fieldsVisitor = fieldsVisitor;
             this.fieldsVisitorEnabled = fieldsVisitor != null && fieldsVisitor.required();
             this.condition = condition;
             this.expressions = expressions;
+            this.matchCost = matchCost;
+            this.maxDoc = reader.maxDoc();
+            this.batchCondition = fieldsVisitorEnabled ? null : BatchInput.condition(condition, BATCH_SIZE);
+            this.docIds = batchCondition == null ? null : new int[BATCH_SIZE];
         }
 
         @Override
         public boolean matches() throws IOException {
             int doc = approximation.docID();
+            if (batchCondition != null) {
+                boolean consecutive = doc == previousDoc + 1;
+                previousDoc = doc;
+                if (doc >= batchStart && doc < batchEnd) {
+                    return batchMatches.matches(doc - batchStart);
+                }
+                if (consecutive) {
+                    evaluateBatch(doc);
+                    return batchMatches.matches(0);
+                }
+            }
+            return matchesDoc(doc);
+        }
+
+        private void evaluateBatch(int firstDoc) throws IOException {
+            int count = Math.min(BATCH_SIZE, maxDoc - firstDoc);
+            for (int i = 0; i < count; i++) {
+                docIds[i] = firstDoc + i;
+            }
+            batchMatches = (BooleanVector) batchCondition.evaluate(docIds, count);
+            batchStart = firstDoc;
+            batchEnd = firstDoc + count;
+        }
+
+        private boolean matchesDoc(int doc) {
             if (fieldsVisitorEnabled) {
                 fieldsVisitor.reset();
                 try {
@@ -168,8 +237,7 @@ class GenericFunctionQuery extends Query {
 
         @Override
         public float matchCost() {
-            // Arbitrary number, we don't have a way to get the cost of the condition
-            return 10;
+            return matchCost;
         }
     }
 }
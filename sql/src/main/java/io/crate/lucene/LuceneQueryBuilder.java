@@ -44,6 +44,7 @@ import io.crate.metadata.DocReferences;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.operation.InputFactory;
 import io.crate.operation.collect.DocInputFactory;
@@ -56,6 +57,11 @@ import io.crate.operation.predicate.NotPredicate;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
 import io.crate.operation.reference.doc.lucene.LuceneReferenceResolver;
+import io.crate.operation.scalar.DateTruncFunction;
+import io.crate.operation.scalar.arithmetic.AddFunction;
+import io.crate.operation.scalar.arithmetic.MultiplyFunction;
+import io.crate.operation.scalar.arithmetic.SubtractFunction;
+import io.crate.operation.scalar.cast.CastFunctionResolver;
 import io.crate.operation.scalar.conditional.CoalesceFunction;
 import io.crate.operation.scalar.geo.DistanceFunction;
 import io.crate.operation.scalar.geo.WithinFunction;
@@ -112,6 +118,7 @@ public class LuceneQueryBuilder {
     private static final Logger LOGGER = Loggers.getLogger(LuceneQueryBuilder.class);
     private final static Visitor VISITOR = new Visitor();
     private final Functions functions;
+    private final SegmentStatsCache segmentStatsCache = new SegmentStatsCache();
 
     @Inject
     public LuceneQueryBuilder(Functions functions) {
@@ -123,7 +130,8 @@ public class LuceneQueryBuilder {
                            QueryShardContext queryShardContext,
                            IndexFieldDataService indexFieldDataService,
                            IndexCache indexCache) throws UnsupportedFeatureException {
-        Context ctx = new Context(functions, mapperService, indexFieldDataService, indexCache, queryShardContext);
+        Context ctx = new Context(
+            functions, mapperService, indexFieldDataService, indexCache, queryShardContext, segmentStatsCache);
         if (whereClause.noMatch()) {
             ctx.query = Queries.newMatchNoDocsQuery("whereClause no-match");
         } else if (!whereClause.hasQuery()) {
@@ -131,6 +139,7 @@ public class LuceneQueryBuilder {
         } else {
             Symbol query = DocReferences.inverseSourceLookup(whereClause.query());
             ctx.query = VISITOR.process(query, ctx);
+            ctx.condition = query;
         }
         if (LOGGER.isTraceEnabled()) {
             if (whereClause.hasQuery()) {
@@ -158,6 +167,8 @@ public class LuceneQueryBuilder {
 
     public static class Context {
         Query query;
+        @Nullable
+        Symbol condition;
 
         final Map<String, Object> filteredFieldValues = new HashMap<>();
 
@@ -166,27 +177,40 @@ public class LuceneQueryBuilder {
         final IndexFieldDataService fieldDataService;
         final IndexCache indexCache;
         final QueryShardContext queryShardContext;
+        private final LuceneReferenceResolver referenceResolver;
+        private final SegmentStatsCache segmentStatsCache;
 
         Context(Functions functions,
                 MapperService mapperService,
                 IndexFieldDataService fieldDataService,
                 IndexCache indexCache,
-                QueryShardContext queryShardContext) {
+                QueryShardContext queryShardContext,
+                SegmentStatsCache segmentStatsCache) {
             this.queryShardContext = queryShardContext;
             FieldTypeLookup typeLookup = mapperService::fullName;
-            this.docInputFactory = new DocInputFactory(
-                functions,
-                typeLookup,
-                new LuceneReferenceResolver(typeLookup, mapperService.getIndexSettings()));
+            this.referenceResolver = new LuceneReferenceResolver(typeLookup, mapperService.getIndexSettings());
+            this.docInputFactory = new DocInputFactory(functions, typeLookup, referenceResolver);
             this.mapperService = mapperService;
             this.fieldDataService = fieldDataService;
             this.indexCache = indexCache;
+            this.segmentStatsCache = segmentStatsCache;
         }
 
         public Query query() {
             return this.query;
         }
 
+        /**
+         * @return the query, wrapped into a {@link ZoneMapQuery} if the WHERE clause contains comparisons
+         *         which can be used to skip whole segments.
+         */
+        public Query zoneMapQuery() {
+            if (condition == null) {
+                return query;
+            }
+            return ZoneMapQuery.wrap(query, condition, referenceResolver, segmentStatsCache);
+        }
+
         @Nullable
         public Float minScore() {
             Object score = filteredFieldValues.get("_score");
@@ -266,6 +290,21 @@ public class LuceneQueryBuilder {
 
     static class Visitor extends SymbolVisitor<Context, Query> {
 
+        /**
+         * Types of single valued columns which can be read from doc values without changing their value
+         */
+        private static final Set<DataType> DOC_VALUES_TYPES = ImmutableSet.of(
+            DataTypes.BYTE,
+            DataTypes.SHORT,
+            DataTypes.INTEGER,
+            DataTypes.LONG,
+            DataTypes.TIMESTAMP,
+            DataTypes.FLOAT,
+            DataTypes.DOUBLE,
+            DataTypes.BOOLEAN,
+            DataTypes.STRING
+        );
+
         interface FunctionToQuery {
 
             @Nullable
@@ -1192,10 +1231,20 @@ public class LuceneQueryBuilder {
                 .put(RegexpMatchCaseInsensitiveOperator.NAME, new RegexMatchQueryCaseInsensitive())
                 .build();
 
+        private static final MonotonicFunctionQuery monotonicFunctionQuery = new MonotonicFunctionQuery();
         private final ImmutableMap<String, InnerFunctionToQuery> innerFunctions =
             ImmutableMap.<String, InnerFunctionToQuery>builder()
                 .put(DistanceFunction.NAME, new DistanceQuery())
                 .put(WithinFunction.NAME, withinQuery)
+                .put(DateTruncFunction.NAME, monotonicFunctionQuery)
+                .put(AddFunction.NAME, monotonicFunctionQuery)
+                .put(SubtractFunction.NAME, monotonicFunctionQuery)
+                .put(MultiplyFunction.NAME, monotonicFunctionQuery)
+                .put(CastFunctionResolver.FunctionNames.TO_BYTE, monotonicFunctionQuery)
+                .put(CastFunctionResolver.FunctionNames.TO_SHORT, monotonicFunctionQuery)
+                .put(CastFunctionResolver.FunctionNames.TO_INTEGER, monotonicFunctionQuery)
+                .put(CastFunctionResolver.FunctionNames.TO_LONG, monotonicFunctionQuery)
+                .put(CastFunctionResolver.FunctionNames.TO_TIMESTAMP, monotonicFunctionQuery)
                 .build();
 
         @Override
@@ -1295,11 +1344,13 @@ public class LuceneQueryBuilder {
             if (function.valueType() != DataTypes.BOOLEAN) {
                 raiseUnsupported(function);
             }
-            // avoid field-cache
-            // reason1: analyzed columns or columns with index off wouldn't work
-            //   substr(n, 1, 1) in the case of n => analyzed would throw an error because n would be an array
-            // reason2: would have to load each value into the field cache
-            function = (Function) DocReferences.toSourceLookup(function);
+            // Columns are read from doc values if possible, everything else is looked up from the source.
+            // The source must be used for
+            //   - analyzed columns or columns with index off - there are no doc values,
+            //     substr(n, 1, 1) in the case of n => analyzed would throw an error because n would be an array
+            //   - arrays and objects - doc values lose the order and the structure of the values
+            SourceLookupDecider decider = new SourceLookupDecider(context);
+            function = (Function) RefReplacer.replaceRefs(function, decider);
 
             final InputFactory.Context<? extends LuceneCollectorExpression<?>> ctx = context.docInputFactory.getCtx();
             @SuppressWarnings("unchecked")
@@ -1314,7 +1365,43 @@ public class LuceneQueryBuilder {
             for (LuceneCollectorExpression expression : expressions) {
                 expression.startCollect(collectorContext);
             }
-            return new GenericFunctionQuery(function, expressions, collectorContext, condition);
+            float matchCost = decider.usesSourceLookup
+                ? GenericFunctionQuery.SOURCE_LOOKUP_MATCH_COST
+                : GenericFunctionQuery.DOC_VALUES_MATCH_COST;
+            return new GenericFunctionQuery(function, expressions, collectorContext, condition, matchCost);
+        }
+
+        private static class SourceLookupDecider implements java.util.function.Function<Reference, Reference> {
+
+            private final Context context;
+            private boolean usesSourceLookup = false;
+
+            SourceLookupDecider(Context context) {
+                this.context = context;
+            }
+
+            @Override
+            public Reference apply(Reference reference) {
+                if (canUseDocValues(reference)) {
+                    return reference;
+                }
+                Reference sourceRef = DocReferences.toSourceLookup(reference);
+                if (sourceRef != reference) {
+                    usesSourceLookup = true;
+                }
+                return sourceRef;
+            }
+
+            private boolean canUseDocValues(Reference reference) {
+                if (reference.granularity() != RowGranularity.DOC
+                    || reference.ident().columnIdent().isSystemColumn()
+                    || reference.indexType() != Reference.IndexType.NOT_ANALYZED
+                    || !DOC_VALUES_TYPES.contains(reference.valueType())) {
+                    return false;
+                }
+                MappedFieldType fieldType = context.getFieldTypeOrNull(reference.ident().columnIdent().fqn());
+                return fieldType != null && fieldType.hasDocValues();
+            }
         }
 
         private static Query raiseUnsupported(Function function) {
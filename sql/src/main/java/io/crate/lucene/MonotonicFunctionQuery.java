@@ -0,0 +1,403 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.lucene;
+
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.analyze.symbol.SymbolType;
+import io.crate.data.Input;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
+import io.crate.operation.operator.*;
+import io.crate.operation.scalar.DateTruncFunction;
+import io.crate.operation.scalar.TimeZoneParser;
+import io.crate.operation.scalar.arithmetic.AddFunction;
+import io.crate.operation.scalar.arithmetic.MultiplyFunction;
+import io.crate.operation.scalar.arithmetic.SubtractFunction;
+import io.crate.operation.scalar.cast.CastFunctionResolver;
+import io.crate.types.*;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.lucene.search.Queries;
+import org.elasticsearch.common.rounding.Rounding;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Rewrites comparisons of monotonic scalar functions against a literal into a range query on the underlying column.
+ *
+ * <pre>
+ *     date_trunc('day', ts) = 1487203200000    -&gt;  ts &gt;= 1487203200000 AND ts &lt;= 1487289599999
+ *     x + 10 &gt; 20                             -&gt;  x &gt;= 11
+ *     x * 4 &lt;= 10                             -&gt;  x &lt;= 2
+ *     to_long(int_col) &lt; 5                    -&gt;  int_col &lt;= 4
+ * </pre>
+ *
+ * Only integral and timestamp columns are supported, so all bounds are computed as inclusive longs.
+ * Arithmetic overflow of the scalar itself (values within the constant's distance of the long range limits)
+ * isn't taken into account.
+ *
+ * Returns null if the function tree can't be rewritten, the caller falls back to a {@link GenericFunctionQuery}.
+ */
+class MonotonicFunctionQuery implements LuceneQueryBuilder.Visitor.InnerFunctionToQuery {
+
+    @Nullable
+    @Override
+    public Query apply(Function parent, Function inner, LuceneQueryBuilder.Context context) {
+        if (parent.arguments().size() != 2) {
+            return null;
+        }
+        Symbol left = parent.arguments().get(0);
+        Symbol right = parent.arguments().get(1);
+        String operator = parent.info().ident().name();
+        Input<?> input;
+        if (left == inner && right.symbolType().isValueSymbol()) {
+            input = (Input<?>) right;
+        } else if (right == inner && left.symbolType().isValueSymbol()) {
+            input = (Input<?>) left;
+            operator = flip(operator);
+        } else {
+            return null;
+        }
+        Object value = input.value();
+        if (operator == null || !(value instanceof Number) || integralRank(inner.valueType()) < 0) {
+            return null;
+        }
+        Range range = Range.of(operator, ((Number) value).longValue());
+        if (range == null) {
+            return null;
+        }
+        Symbol symbol = inner;
+        while (symbol.symbolType() == SymbolType.FUNCTION) {
+            Function function = (Function) symbol;
+            symbol = narrow(function, range);
+            if (symbol == null) {
+                return null;
+            }
+        }
+        if (!(symbol instanceof Reference)) {
+            return null;
+        }
+        return toQuery((Reference) symbol, range, context);
+    }
+
+    @Nullable
+    private static Query toQuery(Reference reference, Range range, LuceneQueryBuilder.Context context) {
+        int rank = integralRank(reference.valueType());
+        if (rank < 0
+            || reference.granularity() != RowGranularity.DOC
+            || reference.ident().columnIdent().isSystemColumn()) {
+            return null;
+        }
+        MappedFieldType fieldType = context.getFieldTypeOrNull(reference.ident().columnIdent().fqn());
+        if (fieldType == null) {
+            return null;
+        }
+        range.clamp(minValue(rank), maxValue(rank));
+        if (range.isEmpty(minValue(rank), maxValue(rank))) {
+            return Queries.newMatchNoDocsQuery("range of monotonic function can't match");
+        }
+        return fieldType.rangeQuery(range.lower, range.upper, true, true);
+    }
+
+    /**
+     * Narrows the range from the result of {@code function} to its single non-literal argument.
+     *
+     * @return the argument the range now applies to or null if the function isn't supported
+     */
+    @Nullable
+    private static Symbol narrow(Function function, Range range) {
+        List<Symbol> args = function.arguments();
+        switch (function.info().ident().name()) {
+            case DateTruncFunction.NAME:
+                return narrowDateTrunc(args, range);
+
+            case AddFunction.NAME:
+                if (args.size() != 2) {
+                    return null;
+                }
+                if (isIntegralLiteral(args.get(1))) {
+                    return range.shift(-longValue(args.get(1))) ? args.get(0) : null;
+                }
+                if (isIntegralLiteral(args.get(0))) {
+                    return range.shift(-longValue(args.get(0))) ? args.get(1) : null;
+                }
+                return null;
+
+            case SubtractFunction.NAME:
+                if (args.size() != 2) {
+                    return null;
+                }
+                if (isIntegralLiteral(args.get(1))) {
+                    // x - c
+                    long c = longValue(args.get(1));
+                    return c != Long.MIN_VALUE && range.shift(c) ? args.get(0) : null;
+                }
+                if (isIntegralLiteral(args.get(0))) {
+                    // c - x
+                    return range.negate() && range.shift(longValue(args.get(0))) ? args.get(1) : null;
+                }
+                return null;
+
+            case MultiplyFunction.NAME:
+                if (args.size() != 2) {
+                    return null;
+                }
+                if (isIntegralLiteral(args.get(1))) {
+                    return range.divide(longValue(args.get(1))) ? args.get(0) : null;
+                }
+                if (isIntegralLiteral(args.get(0))) {
+                    return range.divide(longValue(args.get(0))) ? args.get(1) : null;
+                }
+                return null;
+
+            case CastFunctionResolver.FunctionNames.TO_BYTE:
+            case CastFunctionResolver.FunctionNames.TO_SHORT:
+            case CastFunctionResolver.FunctionNames.TO_INTEGER:
+            case CastFunctionResolver.FunctionNames.TO_LONG:
+            case CastFunctionResolver.FunctionNames.TO_TIMESTAMP:
+                if (args.size() != 1) {
+                    return null;
+                }
+                // only widening casts are the identity on the source values
+                int sourceRank = integralRank(args.get(0).valueType());
+                if (sourceRank < 0 || sourceRank > integralRank(function.valueType())) {
+                    return null;
+                }
+                return args.get(0);
+
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static Symbol narrowDateTrunc(List<Symbol> args, Range range) {
+        Symbol interval = args.get(0);
+        Symbol timeZone = args.size() == 3 ? args.get(1) : null;
+        Symbol timestamp = args.get(args.size() - 1);
+        if (!interval.symbolType().isValueSymbol()
+            || (timeZone != null && !timeZone.symbolType().isValueSymbol())
+            || integralRank(timestamp.valueType()) < 0) {
+            return null;
+        }
+        BytesRef intervalValue = (BytesRef) ((Input) interval).value();
+        BytesRef timeZoneValue = timeZone == null
+            ? TimeZoneParser.DEFAULT_TZ_BYTES_REF
+            : (BytesRef) ((Input) timeZone).value();
+        if (intervalValue == null || timeZoneValue == null) {
+            return null;
+        }
+        Rounding rounding = DateTruncFunction.rounding(intervalValue, timeZoneValue);
+        try {
+            // trunc(x) >= L  <=>  x >= ceil(L)
+            if (range.lower != null) {
+                long rounded = rounding.round(range.lower);
+                range.lower = rounded == range.lower ? rounded : rounding.nextRoundingValue(rounded);
+            }
+            // trunc(x) <= U  <=>  x < next(trunc(U))
+            if (range.upper != null) {
+                range.upper = Math.subtractExact(rounding.nextRoundingValue(rounding.round(range.upper)), 1L);
+            }
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            // bounds outside of the supported date range
+            return null;
+        }
+        return timestamp;
+    }
+
+    @Nullable
+    private static String flip(String operator) {
+        switch (operator) {
+            case EqOperator.NAME:
+                return EqOperator.NAME;
+            case LtOperator.NAME:
+                return GtOperator.NAME;
+            case LteOperator.NAME:
+                return GteOperator.NAME;
+            case GtOperator.NAME:
+                return LtOperator.NAME;
+            case GteOperator.NAME:
+                return LteOperator.NAME;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isIntegralLiteral(Symbol symbol) {
+        return symbol.symbolType().isValueSymbol()
+               && integralRank(symbol.valueType()) >= 0
+               && ((Input) symbol).value() != null;
+    }
+
+    private static long longValue(Symbol symbol) {
+        return ((Number) ((Input) symbol).value()).longValue();
+    }
+
+    /**
+     * @return the width rank of an integral type or -1 if the type isn't integral.
+     *         Timestamps are treated as longs.
+     */
+    private static int integralRank(DataType type) {
+        switch (type.id()) {
+            case ByteType.ID:
+                return 0;
+            case ShortType.ID:
+                return 1;
+            case IntegerType.ID:
+                return 2;
+            case LongType.ID:
+            case TimestampType.ID:
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    private static long minValue(int rank) {
+        switch (rank) {
+            case 0:
+                return Byte.MIN_VALUE;
+            case 1:
+                return Short.MIN_VALUE;
+            case 2:
+                return Integer.MIN_VALUE;
+            default:
+                return Long.MIN_VALUE;
+        }
+    }
+
+    private static long maxValue(int rank) {
+        switch (rank) {
+            case 0:
+                return Byte.MAX_VALUE;
+            case 1:
+                return Short.MAX_VALUE;
+            case 2:
+                return Integer.MAX_VALUE;
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Inclusive range of long values, a null bound is unbounded.
+     * Operations return false if the bounds can't be represented, in which case the rewrite is aborted.
+     */
+    static class Range {
+
+        @Nullable
+        Long lower;
+        @Nullable
+        Long upper;
+
+        Range(@Nullable Long lower, @Nullable Long upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        @Nullable
+        static Range of(String operator, long value) {
+            switch (operator) {
+                case EqOperator.NAME:
+                    return new Range(value, value);
+                case GteOperator.NAME:
+                    return new Range(value, null);
+                case GtOperator.NAME:
+                    return value == Long.MAX_VALUE ? null : new Range(value + 1, null);
+                case LteOperator.NAME:
+                    return new Range(null, value);
+                case LtOperator.NAME:
+                    return value == Long.MIN_VALUE ? null : new Range(null, value - 1);
+                default:
+                    return null;
+            }
+        }
+
+        boolean isEmpty(long min, long max) {
+            return (lower != null && upper != null && lower > upper)
+                   || (lower != null && lower > max)
+                   || (upper != null && upper < min);
+        }
+
+        /**
+         * y + delta in [lower, upper]  ->  y in [lower - delta, upper - delta]
+         */
+        boolean shift(long delta) {
+            try {
+                if (lower != null) {
+                    lower = Math.addExact(lower, delta);
+                }
+                if (upper != null) {
+                    upper = Math.addExact(upper, delta);
+                }
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+
+        /**
+         * -y in [lower, upper]  ->  y in [-upper, -lower]
+         */
+        boolean negate() {
+            if ((lower != null && lower == Long.MIN_VALUE) || (upper != null && upper == Long.MIN_VALUE)) {
+                return false;
+            }
+            Long newLower = upper == null ? null : -upper;
+            upper = lower == null ? null : -lower;
+            lower = newLower;
+            return true;
+        }
+
+        /**
+         * y * factor in [lower, upper]  ->  y in [ceil(lower / factor), floor(upper / factor)]
+         */
+        boolean divide(long factor) {
+            if (factor <= 0) {
+                return false;
+            }
+            if (lower != null) {
+                lower = Math.floorDiv(lower, factor) + (Math.floorMod(lower, factor) == 0 ? 0 : 1);
+            }
+            if (upper != null) {
+                upper = Math.floorDiv(upper, factor);
+            }
+            return true;
+        }
+
+        /**
+         * Bounds beyond the value range of the column type don't restrict anything.
+         */
+        void clamp(long min, long max) {
+            if (lower != null && lower <= min) {
+                lower = null;
+            }
+            if (upper != null && upper >= max) {
+                upper = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import io.crate.operation.reference.doc.lucene.NumericDocValuesBatchReader;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import org.apache.lucene.index.LeafReader;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link SegmentColumnStats} of columns per segment core.
+ * <p>
+ * Segments are immutable, so the statistics of a column are computed once, either from the point values or,
+ * if the column isn't indexed, from its doc values. They are removed once the segment core is closed.
+ * As deletions don't change the segment core, the statistics include the values of deleted documents.
+ */
+final class SegmentStatsCache {
+
+    private final ConcurrentMap<Object, ConcurrentMap<String, Optional<SegmentColumnStats>>> statsByCore =
+        new ConcurrentHashMap<>();
+
+    /**
+     * @return the statistics of the column or null if they can't be computed
+     */
+    @Nullable
+    SegmentColumnStats get(LeafReader reader, String columnName, NumericDocValuesBatchReader<?> column) throws IOException {
+        Object coreKey = reader.getCoreCacheKey();
+        ConcurrentMap<String, Optional<SegmentColumnStats>> statsByColumn = statsByCore.get(coreKey);
+        if (statsByColumn == null) {
+            statsByColumn = new ConcurrentHashMap<>();
+            ConcurrentMap<String, Optional<SegmentColumnStats>> existing = statsByCore.putIfAbsent(coreKey, statsByColumn);
+            if (existing == null) {
+                reader.addCoreClosedListener(statsByCore::remove);
+            } else {
+                statsByColumn = existing;
+            }
+        }
+        Optional<SegmentColumnStats> stats = statsByColumn.get(columnName);
+        if (stats == null) {
+            SegmentColumnStats columnStats = column.segmentStats(reader);
+            if (columnStats == null) {
+                columnStats = column.docValuesStats(reader);
+            }
+            stats = Optional.ofNullable(columnStats);
+            statsByColumn.putIfAbsent(columnName, stats);
+        }
+        return stats.orElse(null);
+    }
+
+    int size() {
+        return statsByCore.size();
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
+import io.crate.operation.operator.*;
+import io.crate.operation.reference.ReferenceResolver;
+import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.operation.reference.doc.lucene.NumericDocValuesBatchReader;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.types.DataTypes;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Query which uses the minimum and maximum value of columns within a segment (a "zone map")
+ * to skip segments which can't contain any match of the wrapped query.
+ * <p>
+ * The zone maps are built from the ranges of comparisons between a numeric or timestamp column and a literal
+ * which are part of the top level conjunction of the WHERE clause. If the WHERE clause consists of such comparisons
+ * only and all documents of a segment are within the ranges, the segment is matched without evaluating the
+ * wrapped query at all.
+ * <p>
+ * The statistics of a segment are read from the point values of the column, or, if the column isn't indexed,
+ * computed from its doc values once per segment and cached in a {@link SegmentStatsCache}.
+ */
+public class ZoneMapQuery extends Query {
+
+    private enum SegmentMatch {
+        NONE,
+        SOME,
+        ALL
+    }
+
+    private final Query query;
+    private final List<ColumnRange> ranges;
+    private final boolean rangesOnly;
+    private final SegmentStatsCache statsCache;
+
+    /**
+     * @param rangesOnly true if the wrapped query matches exactly the documents within all ranges
+     */
+    ZoneMapQuery(Query query, List<ColumnRange> ranges, boolean rangesOnly, SegmentStatsCache statsCache) {
+        this.query = query;
+        this.ranges = ranges;
+        this.rangesOnly = rangesOnly;
+        this.statsCache = statsCache;
+    }
+
+    /**
+     * Wraps {@code query} into a ZoneMapQuery if {@code condition} contains comparisons which can be answered
+     * using the statistics of segments, otherwise {@code query} is returned.
+     */
+    static Query wrap(Query query,
+                      Symbol condition,
+                      ReferenceResolver<? extends LuceneCollectorExpression<?>> referenceResolver,
+                      SegmentStatsCache statsCache) {
+        List<Symbol> conditions = new ArrayList<>();
+        addConjunctions(condition, conditions);
+        List<ColumnRange> ranges = new ArrayList<>(conditions.size());
+        for (Symbol symbol : conditions) {
+            ColumnRange range = ColumnRange.of(symbol, referenceResolver);
+            if (range != null) {
+                ranges.add(range);
+            }
+        }
+        if (ranges.isEmpty()) {
+            return query;
+        }
+        return new ZoneMapQuery(query, ranges, ranges.size() == conditions.size(), statsCache);
+    }
+
+    private static void addConjunctions(Symbol condition, List<Symbol> conditions) {
+        if (condition instanceof Function && ((Function) condition).info().ident().name().equals(AndOperator.NAME)) {
+            for (Symbol argument : ((Function) condition).arguments()) {
+                addConjunctions(argument, conditions);
+            }
+        } else {
+            conditions.add(condition);
+        }
+    }
+
+    /**
+     * Counts the live documents matching this query.
+     * Segments matched completely by the zone maps are counted without visiting their documents.
+     */
+    public int count(IndexSearcher searcher) throws IOException {
+        Weight weight = null;
+        int count = 0;
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            LeafReader reader = leaf.reader();
+            switch (matchSegment(reader)) {
+                case NONE:
+                    break;
+                case ALL:
+                    count += reader.numDocs();
+                    break;
+                case SOME:
+                    if (weight == null) {
+                        weight = searcher.createNormalizedWeight(query, false);
+                    }
+                    BulkScorer scorer = weight.bulkScorer(leaf);
+                    if (scorer != null) {
+                        TotalHitCountCollector collector = new TotalHitCountCollector();
+                        scorer.score(collector.getLeafCollector(leaf), reader.getLiveDocs());
+                        count += collector.getTotalHits();
+                    }
+                    break;
+                default:
+                    throw new AssertionError("unexpected segment match");
+            }
+        }
+        return count;
+    }
+
+    private SegmentMatch matchSegment(LeafReader reader) throws IOException {
+        boolean allMatch = rangesOnly;
+        for (ColumnRange range : ranges) {
+            SegmentColumnStats stats = statsCache.get(reader, range.columnName, range.column);
+            if (stats == null) {
+                allMatch = false;
+                continue;
+            }
+            switch (range.match(stats, reader.maxDoc())) {
+                case NONE:
+                    return SegmentMatch.NONE;
+                case SOME:
+                    allMatch = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return allMatch ? SegmentMatch.ALL : SegmentMatch.SOME;
+    }
+
+    @Override
+    public Query rewrite(IndexReader reader) throws IOException {
+        Query rewritten = query.rewrite(reader);
+        if (rewritten != query) {
+            return new ZoneMapQuery(rewritten, ranges, rangesOnly, statsCache);
+        }
+        return this;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, boolean needsScores) throws IOException {
+        Weight weight = searcher.createWeight(query, needsScores);
+        return new Weight(this) {
+            @Override
+            public void extractTerms(Set<Term> terms) {
+                weight.extractTerms(terms);
+            }
+
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                return weight.explain(context, doc);
+            }
+
+            @Override
+            public float getValueForNormalization() throws IOException {
+                return weight.getValueForNormalization();
+            }
+
+            @Override
+            public void normalize(float norm, float boost) {
+                weight.normalize(norm, boost);
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                switch (matchSegment(context.reader())) {
+                    case NONE:
+                        return null;
+                    case ALL:
+                        if (!needsScores) {
+                            return new ConstantScoreScorer(this, 0f, DocIdSetIterator.all(context.reader().maxDoc()));
+                        }
+                        return weight.scorer(context);
+                    default:
+                        return weight.scorer(context);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString(String field) {
+        return "ZoneMapQuery(" + query.toString(field) + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!sameClassAs(o)) return false;
+
+        ZoneMapQuery that = (ZoneMapQuery) o;
+
+        return rangesOnly == that.rangesOnly && query.equals(that.query) && ranges.equals(that.ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = classHash();
+        result = 31 * result + query.hashCode();
+        result = 31 * result + ranges.hashCode();
+        return result;
+    }
+
+    /**
+     * The range of values of a column which is matched by a comparison with a literal.
+     * A {@code null} bound means the range is unbounded in that direction.
+     */
+    static final class ColumnRange {
+
+        private final String columnName;
+        private final NumericDocValuesBatchReader<?> column;
+        private final boolean floatingPoint;
+        @Nullable
+        private final Number lower;
+        private final boolean includeLower;
+        @Nullable
+        private final Number upper;
+        private final boolean includeUpper;
+
+        ColumnRange(String columnName,
+                    NumericDocValuesBatchReader<?> column,
+                    boolean floatingPoint,
+                    @Nullable Number lower,
+                    boolean includeLower,
+                    @Nullable Number upper,
+                    boolean includeUpper) {
+            this.columnName = columnName;
+            this.column = column;
+            this.floatingPoint = floatingPoint;
+            this.lower = lower;
+            this.includeLower = includeLower;
+            this.upper = upper;
+            this.includeUpper = includeUpper;
+        }
+
+        @Nullable
+        private static ColumnRange of(Symbol condition, ReferenceResolver<? extends LuceneCollectorExpression<?>> referenceResolver) {
+            if (!(condition instanceof Function)) {
+                return null;
+            }
+            Function function = (Function) condition;
+            List<Symbol> arguments = function.arguments();
+            if (arguments.size() != 2
+                || !(arguments.get(0) instanceof Reference)
+                || !(arguments.get(1) instanceof Literal)) {
+                return null;
+            }
+            Reference reference = (Reference) arguments.get(0);
+            Literal literal = (Literal) arguments.get(1);
+            if (reference.granularity() != RowGranularity.DOC
+                || !reference.valueType().equals(literal.valueType())
+                || !(literal.value() instanceof Number)) {
+                return null;
+            }
+            LuceneCollectorExpression<?> expression = referenceResolver.getImplementation(reference);
+            if (!(expression instanceof NumericDocValuesBatchReader)) {
+                return null;
+            }
+            String columnName = reference.ident().columnIdent().fqn();
+            NumericDocValuesBatchReader<?> column = (NumericDocValuesBatchReader<?>) expression;
+            boolean floatingPoint = reference.valueType().equals(DataTypes.DOUBLE)
+                                    || reference.valueType().equals(DataTypes.FLOAT);
+            Number value = (Number) literal.value();
+            switch (function.info().ident().name()) {
+                case EqOperator.NAME:
+                    return new ColumnRange(columnName, column, floatingPoint, value, true, value, true);
+                case GtOperator.NAME:
+                    return new ColumnRange(columnName, column, floatingPoint, value, false, null, false);
+                case GteOperator.NAME:
+                    return new ColumnRange(columnName, column, floatingPoint, value, true, null, false);
+                case LtOperator.NAME:
+                    return new ColumnRange(columnName, column, floatingPoint, null, false, value, false);
+                case LteOperator.NAME:
+                    return new ColumnRange(columnName, column, floatingPoint, null, false, value, true);
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Floating point values are compared by their numeric value, so -0.0 and 0.0 are equal.
+         * As the indexed point values order -0.0 before 0.0, floating point values equal to a bound
+         * are neither used to skip a segment nor to match it completely.
+         */
+        private SegmentMatch match(SegmentColumnStats stats, int maxDoc) {
+            Number min = stats.min();
+            Number max = stats.max();
+            if (stats.docCount() == 0L || min == null || max == null) {
+                return SegmentMatch.NONE;
+            }
+            if (floatingPoint && (Double.isNaN(min.doubleValue()) || Double.isNaN(max.doubleValue()))) {
+                return SegmentMatch.SOME;
+            }
+            if (lower != null && !greaterThan(max, lower, includeLower || floatingPoint)) {
+                return SegmentMatch.NONE;
+            }
+            if (upper != null && !greaterThan(upper, min, includeUpper || floatingPoint)) {
+                return SegmentMatch.NONE;
+            }
+            // documents without a value never match a comparison
+            if (stats.docCount() < maxDoc) {
+                return SegmentMatch.SOME;
+            }
+            if (lower != null && !greaterThan(min, lower, includeLower && !floatingPoint)) {
+                return SegmentMatch.SOME;
+            }
+            if (upper != null && !greaterThan(upper, max, includeUpper && !floatingPoint)) {
+                return SegmentMatch.SOME;
+            }
+            return SegmentMatch.ALL;
+        }
+
+        private boolean greaterThan(Number a, Number b, boolean orEqual) {
+            int cmp = compare(a, b);
+            return cmp > 0 || (cmp == 0 && orEqual);
+        }
+
+        private int compare(Number a, Number b) {
+            if (floatingPoint) {
+                double x = a.doubleValue();
+                double y = b.doubleValue();
+                return x < y ? -1 : (x > y ? 1 : 0);
+            }
+            return Long.compare(a.longValue(), b.longValue());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ColumnRange that = (ColumnRange) o;
+
+            return includeLower == that.includeLower
+                   && includeUpper == that.includeUpper
+                   && columnName.equals(that.columnName)
+                   && Objects.equals(lower, that.lower)
+                   && Objects.equals(upper, that.upper);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(columnName, lower, includeLower, upper, includeUpper);
+        }
+    }
+}
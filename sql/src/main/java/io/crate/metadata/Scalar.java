@@ -25,6 +25,7 @@ import io.crate.analyze.symbol.Function;
 import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.data.Input;
+import io.crate.operation.vector.NumericVector;
 
 import java.util.Collection;
 import java.util.List;
@@ -69,6 +70,28 @@ public abstract class Scalar<ReturnType, InputType> implements FunctionImplement
         return this;
     }
 
+    /**
+     * Whether {@link #evaluateBatch(NumericVector[], NumericVector)} is implemented.
+     * Only scalars with numeric or boolean arguments and a numeric or boolean return type can support it.
+     */
+    public boolean supportsBatchEvaluate() {
+        return false;
+    }
+
+    /**
+     * Evaluate the function for a batch of rows at once.
+     *
+     * @param args   one vector per argument, holding the argument values of all rows.
+     *               Arguments of an integral type are provided as {@link io.crate.operation.vector.LongVector}.
+     * @param result the vector to write the results to; a {@link io.crate.operation.vector.BooleanVector}
+     *               if the return type is boolean, a {@link io.crate.operation.vector.DoubleVector}
+     *               if the return type is float or double, otherwise a {@link io.crate.operation.vector.LongVector}.
+     */
+    public void evaluateBatch(NumericVector[] args, NumericVector result) {
+        throw new UnsupportedOperationException(
+            "Function " + info().ident().name() + " doesn't support batch evaluation");
+    }
+
     @Override
     public Symbol normalizeSymbol(Function symbol, TransactionContext transactionContext) {
         try {
@@ -37,7 +37,6 @@ import io.crate.exceptions.UnhandledServerException;
 import io.crate.metadata.*;
 import io.crate.metadata.table.SchemaInfo;
 import io.crate.metadata.table.TableInfo;
-import io.crate.operation.udf.UDFLanguage;
 import io.crate.operation.udf.UserDefinedFunctionMetaData;
 import io.crate.operation.udf.UserDefinedFunctionService;
 import io.crate.operation.udf.UserDefinedFunctionsMetaData;
@@ -309,8 +308,7 @@ public class DocSchemaInfo implements SchemaInfo {
         Map<FunctionIdent, FunctionImplementation> udfFunctions = new HashMap<>();
         for (UserDefinedFunctionMetaData function : functionsMetadata) {
             try {
-                UDFLanguage lang = udfService.getLanguage(function.language());
-                FunctionImplementation impl = lang.createFunctionImplementation(function);
+                FunctionImplementation impl = udfService.getFunctionImplementation(function);
                 udfFunctions.put(impl.info().ident(), impl);
             } catch (javax.script.ScriptException | IllegalArgumentException e) {
                 LOGGER.warn(
@@ -76,6 +76,7 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
     private final Set<Operation> supportedOperations;
 
     private final List<PartitionName> partitions;
+    private volatile PartitionIndex partitionIndex;
 
     private final boolean isAlias;
     private final boolean hasAutoGeneratedPrimaryKey;
@@ -303,6 +304,20 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         return partitions;
     }
 
+    /**
+     * returns an index over the values of the partition columns of {@linkplain #partitions()}.
+     * It is built on first use; a new DocTableInfo is created whenever the partitions change.
+     */
+    public PartitionIndex partitionIndex() {
+        assert isPartitioned : "partitionIndex is only available on partitioned tables";
+        PartitionIndex index = partitionIndex;
+        if (index == null) {
+            index = new PartitionIndex(partitionedByColumns, partitions);
+            partitionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * returns <code>true</code> if this table is a partitioned table,
      * <code>false</code> otherwise
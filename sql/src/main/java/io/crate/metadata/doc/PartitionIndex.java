@@ -0,0 +1,152 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.metadata.doc;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.types.DataType;
+import org.apache.lucene.util.BytesRef;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Index over the values of the partition columns of a partitioned table.
+ * <p>
+ * For every partition column the partitions are sorted by their value, so equality and range
+ * lookups are answered using a binary search instead of evaluating the partition values one by one.
+ * Lookups return the positions of the matching partitions within {@link #partitions()}.
+ * <p>
+ * Partitions with a <code>null</code> value never match a lookup.
+ */
+public final class PartitionIndex {
+
+    private final List<PartitionName> partitions;
+    private final List<ColumnIdent> columns;
+    private final ColumnValues[] columnValues;
+
+    PartitionIndex(List<Reference> partitionedByColumns, List<PartitionName> partitions) {
+        this.partitions = partitions;
+        this.columns = new ArrayList<>(partitionedByColumns.size());
+        this.columnValues = new ColumnValues[partitionedByColumns.size()];
+        for (int i = 0; i < partitionedByColumns.size(); i++) {
+            Reference column = partitionedByColumns.get(i);
+            columns.add(column.ident().columnIdent());
+            columnValues[i] = new ColumnValues(column.valueType(), partitions, i);
+        }
+    }
+
+    public List<PartitionName> partitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the position of the column within the partition columns or -1 if the table isn't partitioned by it
+     */
+    public int columnIndex(ColumnIdent column) {
+        return columns.indexOf(column);
+    }
+
+    public DataType columnType(int columnIndex) {
+        return columnValues[columnIndex].type;
+    }
+
+    /**
+     * @return all partitions whose value of the given partition column is equal to value
+     */
+    public BitSet matchEq(int columnIndex, Object value) {
+        return columnValues[columnIndex].match(value, true, value, true);
+    }
+
+    /**
+     * @return all partitions whose value of the given partition column is within the given bounds.
+     *         A <code>null</code> bound means the range is unbounded in that direction.
+     */
+    public BitSet matchRange(int columnIndex,
+                             @Nullable Object lower,
+                             boolean lowerInclusive,
+                             @Nullable Object upper,
+                             boolean upperInclusive) {
+        return columnValues[columnIndex].match(lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    private static class ColumnValues {
+
+        private final DataType type;
+        private final Object[] sortedValues;
+        private final int[] positions;
+
+        @SuppressWarnings("unchecked")
+        ColumnValues(DataType type, List<PartitionName> partitions, int valuesIndex) {
+            this.type = type;
+            Integer[] order = new Integer[partitions.size()];
+            Object[] values = new Object[partitions.size()];
+            int numValues = 0;
+            for (int i = 0; i < partitions.size(); i++) {
+                BytesRef value = partitions.get(i).values().get(valuesIndex);
+                values[i] = type.value(value);
+                if (values[i] != null) {
+                    order[numValues++] = i;
+                }
+            }
+            Arrays.sort(order, 0, numValues, (o1, o2) -> type.compareValueTo(values[o1], values[o2]));
+            sortedValues = new Object[numValues];
+            positions = new int[numValues];
+            for (int i = 0; i < numValues; i++) {
+                positions[i] = order[i];
+                sortedValues[i] = values[order[i]];
+            }
+        }
+
+        BitSet match(@Nullable Object lower, boolean lowerInclusive, @Nullable Object upper, boolean upperInclusive) {
+            int from = lower == null ? 0 : firstGreaterThan(lower, lowerInclusive);
+            int to = upper == null ? sortedValues.length : firstGreaterThan(upper, !upperInclusive);
+            BitSet matches = new BitSet(positions.length);
+            for (int i = from; i < to; i++) {
+                matches.set(positions[i]);
+            }
+            return matches;
+        }
+
+        /**
+         * @return the index of the first sorted value which is greater than value,
+         *         or greater than or equal to value if orEqual is true
+         */
+        @SuppressWarnings("unchecked")
+        private int firstGreaterThan(Object value, boolean orEqual) {
+            int low = 0;
+            int high = sortedValues.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = type.compareValueTo(sortedValues[mid], value);
+                if (cmp < 0 || (cmp == 0 && !orEqual)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
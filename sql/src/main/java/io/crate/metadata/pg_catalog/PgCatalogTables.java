@@ -26,18 +26,34 @@ import com.google.common.collect.ImmutableMap;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.RowContextCollectorExpression;
 import io.crate.metadata.expressions.RowCollectExpressionFactory;
+import io.crate.planner.TableStats;
+import io.crate.planner.statistics.ColumnStatsEntry;
 import io.crate.protocols.postgres.types.PGType;
 import io.crate.protocols.postgres.types.PGTypes;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.BytesRefs;
 
+import java.util.List;
 import java.util.Map;
 
 public class PgCatalogTables {
 
+    private final TableStats tableStats;
+
+    @Inject
+    public PgCatalogTables(TableStats tableStats) {
+        this.tableStats = tableStats;
+    }
+
     public Iterable<PGType> typesGetter() {
         return PGTypes.pgTypes();
     }
 
+    public Iterable<ColumnStatsEntry> statsGetter() {
+        return tableStats.columnStatsGetter();
+    }
+
     public static Map<ColumnIdent, RowCollectExpressionFactory> pgTypeExpressions() {
         return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory>builder()
             .put(PgTypeTable.Columns.OID, () -> new RowContextCollectorExpression<PGType, Integer>() {
@@ -66,4 +82,70 @@ public class PgCatalogTables {
             })
             .build();
     }
+
+    public static Map<ColumnIdent, RowCollectExpressionFactory> pgStatsExpressions() {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory>builder()
+            .put(PgStatsTable.Columns.SCHEMANAME, () -> new RowContextCollectorExpression<ColumnStatsEntry, BytesRef>() {
+                @Override
+                public BytesRef value() {
+                    return new BytesRef(row.tableIdent().schema());
+                }
+            })
+            .put(PgStatsTable.Columns.TABLENAME, () -> new RowContextCollectorExpression<ColumnStatsEntry, BytesRef>() {
+                @Override
+                public BytesRef value() {
+                    return new BytesRef(row.tableIdent().name());
+                }
+            })
+            .put(PgStatsTable.Columns.ATTNAME, () -> new RowContextCollectorExpression<ColumnStatsEntry, BytesRef>() {
+                @Override
+                public BytesRef value() {
+                    return new BytesRef(row.column().sqlFqn());
+                }
+            })
+            .put(PgStatsTable.Columns.NULL_FRAC, () -> new RowContextCollectorExpression<ColumnStatsEntry, Float>() {
+                @Override
+                public Float value() {
+                    return (float) row.stats().nullFraction();
+                }
+            })
+            .put(PgStatsTable.Columns.N_DISTINCT, () -> new RowContextCollectorExpression<ColumnStatsEntry, Float>() {
+                @Override
+                public Float value() {
+                    return (float) row.stats().approxDistinct();
+                }
+            })
+            .put(PgStatsTable.Columns.MOST_COMMON_VALS, () -> new RowContextCollectorExpression<ColumnStatsEntry, BytesRef[]>() {
+                @Override
+                public BytesRef[] value() {
+                    return toBytesRefs(row.stats().mostCommonValues());
+                }
+            })
+            .put(PgStatsTable.Columns.MOST_COMMON_FREQS, () -> new RowContextCollectorExpression<ColumnStatsEntry, Float[]>() {
+                @Override
+                public Float[] value() {
+                    double[] frequencies = row.stats().mostCommonFrequencies();
+                    Float[] values = new Float[frequencies.length];
+                    for (int i = 0; i < frequencies.length; i++) {
+                        values[i] = (float) frequencies[i];
+                    }
+                    return values;
+                }
+            })
+            .put(PgStatsTable.Columns.HISTOGRAM_BOUNDS, () -> new RowContextCollectorExpression<ColumnStatsEntry, BytesRef[]>() {
+                @Override
+                public BytesRef[] value() {
+                    return toBytesRefs(row.stats().histogramBounds());
+                }
+            })
+            .build();
+    }
+
+    private static BytesRef[] toBytesRefs(List<Object> values) {
+        BytesRef[] bytesRefs = new BytesRef[values.size()];
+        for (int i = 0; i < bytesRefs.length; i++) {
+            bytesRefs[i] = BytesRefs.toBytesRef(values.get(i));
+        }
+        return bytesRefs;
+    }
 }
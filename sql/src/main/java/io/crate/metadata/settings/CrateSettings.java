@@ -25,6 +25,8 @@ package io.crate.metadata.settings;
 import com.google.common.base.Joiner;
 import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.cluster.gracefulstop.DecommissioningService;
+import io.crate.executor.admission.AdmissionService;
+import io.crate.executor.admission.WorkloadClass;
 import io.crate.metadata.ReferenceImplementation;
 import io.crate.operation.collect.stats.JobsLogService;
 import io.crate.operation.reference.NestedObjectExpression;
@@ -72,7 +74,9 @@ public class CrateSettings implements ClusterStateListener {
             JobsLogService.STATS_JOBS_LOG_EXPIRATION_SETTING,
             JobsLogService.STATS_OPERATIONS_LOG_SIZE_SETTING,
             JobsLogService.STATS_OPERATIONS_LOG_EXPIRATION_SETTING,
+            JobsLogService.STATS_STATEMENT_STATS_SIZE_SETTING,
             TableStatsService.STATS_SERVICE_REFRESH_INTERVAL_SETTING,
+            TableStatsService.STATS_SERVICE_ANALYZE_INTERVAL_SETTING,
             CrateCircuitBreakerService.JOBS_LOG_CIRCUIT_BREAKER_LIMIT_SETTING,
             CrateCircuitBreakerService.JOBS_LOG_CIRCUIT_BREAKER_OVERHEAD_SETTING,
             CrateCircuitBreakerService.OPERATIONS_LOG_CIRCUIT_BREAKER_LIMIT_SETTING,
@@ -85,6 +89,22 @@ public class CrateSettings implements ClusterStateListener {
             // BULK
             BulkShardProcessor.BULK_REQUEST_TIMEOUT_SETTING,
 
+            // WORKLOAD
+            AdmissionService.MAX_CONCURRENT_SETTING,
+            AdmissionService.QUEUE_TIMEOUT_SETTING,
+            WorkloadClass.POINT_LOOKUP.maxConcurrentSetting(),
+            WorkloadClass.POINT_LOOKUP.maxQueuedSetting(),
+            WorkloadClass.POINT_LOOKUP.memoryShareSetting(),
+            WorkloadClass.POINT_LOOKUP.prioritySetting(),
+            WorkloadClass.WRITE.maxConcurrentSetting(),
+            WorkloadClass.WRITE.maxQueuedSetting(),
+            WorkloadClass.WRITE.memoryShareSetting(),
+            WorkloadClass.WRITE.prioritySetting(),
+            WorkloadClass.QUERY.maxConcurrentSetting(),
+            WorkloadClass.QUERY.maxQueuedSetting(),
+            WorkloadClass.QUERY.memoryShareSetting(),
+            WorkloadClass.QUERY.prioritySetting(),
+
             // GRACEFUL STOP
             DecommissioningService.DECOMMISSION_INTERNAL_SETTING_GROUP,
             DecommissioningService.GRACEFUL_STOP_MIN_AVAILABILITY_SETTING,
@@ -57,6 +57,7 @@ public class SysNodesTableInfo extends StaticTableInfo {
     public static final String SYS_COL_OS_INFO = "os_info";
     public static final String SYS_COL_PROCESS = "process";
     public static final String SYS_COL_FS = "fs";
+    public static final String SYS_COL_STATEMENT_CACHE = "statement_cache";
 
     private static final DataType OBJECT_ARRAY_TYPE = new ArrayType(DataTypes.OBJECT);
 
@@ -172,6 +173,12 @@ public class SysNodesTableInfo extends StaticTableInfo {
         public static final ColumnIdent FS_DATA = new ColumnIdent(SYS_COL_FS, ImmutableList.of("data"));
         public static final ColumnIdent FS_DATA_DEV = new ColumnIdent(SYS_COL_FS, ImmutableList.of("data", "dev"));
         public static final ColumnIdent FS_DATA_PATH = new ColumnIdent(SYS_COL_FS, ImmutableList.of("data", "path"));
+
+        public static final ColumnIdent STATEMENT_CACHE = new ColumnIdent(SYS_COL_STATEMENT_CACHE);
+        public static final ColumnIdent STATEMENT_CACHE_SIZE = new ColumnIdent(SYS_COL_STATEMENT_CACHE, ImmutableList.of("size"));
+        public static final ColumnIdent STATEMENT_CACHE_HITS = new ColumnIdent(SYS_COL_STATEMENT_CACHE, ImmutableList.of("hits"));
+        public static final ColumnIdent STATEMENT_CACHE_MISSES = new ColumnIdent(SYS_COL_STATEMENT_CACHE, ImmutableList.of("misses"));
+        public static final ColumnIdent STATEMENT_CACHE_EVICTIONS = new ColumnIdent(SYS_COL_STATEMENT_CACHE, ImmutableList.of("evictions"));
     }
 
     private final TableColumn tableColumn;
@@ -289,7 +296,13 @@ public class SysNodesTableInfo extends StaticTableInfo {
                 .register(Columns.FS_DISKS_BYTES_WRITTEN, DataTypes.LONG)
                 .register(Columns.FS_DATA, OBJECT_ARRAY_TYPE)
                 .register(Columns.FS_DATA_DEV, DataTypes.STRING)
-                .register(Columns.FS_DATA_PATH, DataTypes.STRING),
+                .register(Columns.FS_DATA_PATH, DataTypes.STRING)
+
+                .register(Columns.STATEMENT_CACHE, DataTypes.OBJECT)
+                .register(Columns.STATEMENT_CACHE_SIZE, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_HITS, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_MISSES, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_EVICTIONS, DataTypes.LONG),
             PRIMARY_KEY);
         this.clusterService = clusterService;
         this.tableColumn = new TableColumn(SYS_COL_IDENT, columnMap);
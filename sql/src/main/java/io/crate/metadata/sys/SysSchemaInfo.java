@@ -51,11 +51,13 @@ public class SysSchemaInfo implements SchemaInfo {
             .put(SysJobsLogTableInfo.IDENT.name(), new SysJobsLogTableInfo(clusterService))
             .put(SysOperationsTableInfo.IDENT.name(), new SysOperationsTableInfo(clusterService, sysNodesTableInfo))
             .put(SysOperationsLogTableInfo.IDENT.name(), new SysOperationsLogTableInfo(clusterService))
+            .put(SysStatementStatsTableInfo.IDENT.name(), new SysStatementStatsTableInfo(clusterService, sysNodesTableInfo))
             .put(SysChecksTableInfo.IDENT.name(), new SysChecksTableInfo(clusterService))
             .put(SysNodeChecksTableInfo.IDENT.name(), new SysNodeChecksTableInfo(clusterService))
             .put(SysRepositoriesTableInfo.IDENT.name(), new SysRepositoriesTableInfo(clusterService))
             .put(SysSnapshotsTableInfo.IDENT.name(), new SysSnapshotsTableInfo(clusterService))
             .put(SysSummitsTableInfo.IDENT.name(), new SysSummitsTableInfo(clusterService))
+            .put(SysWorkloadClassesTableInfo.IDENT.name(), new SysWorkloadClassesTableInfo(clusterService, sysNodesTableInfo))
             .build();
     }
 
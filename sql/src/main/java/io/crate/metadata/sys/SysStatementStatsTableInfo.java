@@ -0,0 +1,98 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.metadata.sys;
+
+import io.crate.analyze.WhereClause;
+import io.crate.metadata.*;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+
+@Singleton
+public class SysStatementStatsTableInfo extends StaticTableInfo {
+
+    public static final TableIdent IDENT = new TableIdent(SysSchemaInfo.NAME, "statement_stats");
+    private final ClusterService clusterService;
+
+    public static class Columns {
+        public final static ColumnIdent FINGERPRINT = new ColumnIdent("fingerprint");
+        public final static ColumnIdent CALLS = new ColumnIdent("calls");
+        public final static ColumnIdent ERRORS = new ColumnIdent("errors");
+        public final static ColumnIdent ROWS = new ColumnIdent("rows");
+        public final static ColumnIdent TOTAL_DURATION = new ColumnIdent("total_duration");
+        public final static ColumnIdent MEAN_DURATION = new ColumnIdent("mean_duration");
+        public final static ColumnIdent MAX_DURATION = new ColumnIdent("max_duration");
+        public final static ColumnIdent P50_DURATION = new ColumnIdent("p50_duration");
+        public final static ColumnIdent P99_DURATION = new ColumnIdent("p99_duration");
+        public final static ColumnIdent P999_DURATION = new ColumnIdent("p999_duration");
+        public final static ColumnIdent LAST_EXECUTED = new ColumnIdent("last_executed");
+    }
+
+    private final TableColumn nodesTableColumn;
+
+    @Inject
+    public SysStatementStatsTableInfo(ClusterService clusterService, SysNodesTableInfo sysNodesTableInfo) {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+                .register(Columns.FINGERPRINT, DataTypes.STRING)
+                .register(Columns.CALLS, DataTypes.LONG)
+                .register(Columns.ERRORS, DataTypes.LONG)
+                .register(Columns.ROWS, DataTypes.LONG)
+                .register(Columns.TOTAL_DURATION, DataTypes.DOUBLE)
+                .register(Columns.MEAN_DURATION, DataTypes.DOUBLE)
+                .register(Columns.MAX_DURATION, DataTypes.DOUBLE)
+                .register(Columns.P50_DURATION, DataTypes.DOUBLE)
+                .register(Columns.P99_DURATION, DataTypes.DOUBLE)
+                .register(Columns.P999_DURATION, DataTypes.DOUBLE)
+                .register(Columns.LAST_EXECUTED, DataTypes.TIMESTAMP)
+                .putInfoOnly(SysNodesTableInfo.SYS_COL_IDENT, SysNodesTableInfo.tableColumnInfo(IDENT)),
+            Collections.<ColumnIdent>emptyList());
+        this.clusterService = clusterService;
+        nodesTableColumn = sysNodesTableInfo.tableColumn();
+    }
+
+    @Nullable
+    @Override
+    public Reference getReference(ColumnIdent columnIdent) {
+        Reference info = super.getReference(columnIdent);
+        if (info == null) {
+            return nodesTableColumn.getReference(this.ident(), columnIdent);
+        }
+        return info;
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public Routing getRouting(WhereClause whereClause, @Nullable String preference) {
+        return Routing.forTableOnAllNodes(IDENT, clusterService.state().nodes());
+    }
+}
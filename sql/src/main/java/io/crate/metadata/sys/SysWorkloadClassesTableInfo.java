@@ -0,0 +1,100 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.metadata.sys;
+
+import io.crate.analyze.WhereClause;
+import io.crate.metadata.*;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+
+@Singleton
+public class SysWorkloadClassesTableInfo extends StaticTableInfo {
+
+    public static final TableIdent IDENT = new TableIdent(SysSchemaInfo.NAME, "workload_classes");
+    private final ClusterService clusterService;
+
+    public static class Columns {
+        public final static ColumnIdent NAME = new ColumnIdent("name");
+        public final static ColumnIdent PRIORITY = new ColumnIdent("priority");
+        public final static ColumnIdent MAX_CONCURRENT = new ColumnIdent("max_concurrent");
+        public final static ColumnIdent MAX_QUEUED = new ColumnIdent("max_queued");
+        public final static ColumnIdent MEMORY_SHARE = new ColumnIdent("memory_share");
+        public final static ColumnIdent RUNNING = new ColumnIdent("running");
+        public final static ColumnIdent QUEUED = new ColumnIdent("queued");
+        public final static ColumnIdent ADMITTED = new ColumnIdent("admitted");
+        public final static ColumnIdent REJECTED = new ColumnIdent("rejected");
+        public final static ColumnIdent TOTAL_WAIT_TIME = new ColumnIdent("total_wait_time");
+        public final static ColumnIdent MEAN_WAIT_TIME = new ColumnIdent("mean_wait_time");
+        public final static ColumnIdent MAX_WAIT_TIME = new ColumnIdent("max_wait_time");
+    }
+
+    private final TableColumn nodesTableColumn;
+
+    @Inject
+    public SysWorkloadClassesTableInfo(ClusterService clusterService, SysNodesTableInfo sysNodesTableInfo) {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+                .register(Columns.NAME, DataTypes.STRING)
+                .register(Columns.PRIORITY, DataTypes.INTEGER)
+                .register(Columns.MAX_CONCURRENT, DataTypes.INTEGER)
+                .register(Columns.MAX_QUEUED, DataTypes.INTEGER)
+                .register(Columns.MEMORY_SHARE, DataTypes.FLOAT)
+                .register(Columns.RUNNING, DataTypes.INTEGER)
+                .register(Columns.QUEUED, DataTypes.INTEGER)
+                .register(Columns.ADMITTED, DataTypes.LONG)
+                .register(Columns.REJECTED, DataTypes.LONG)
+                .register(Columns.TOTAL_WAIT_TIME, DataTypes.DOUBLE)
+                .register(Columns.MEAN_WAIT_TIME, DataTypes.DOUBLE)
+                .register(Columns.MAX_WAIT_TIME, DataTypes.DOUBLE)
+                .putInfoOnly(SysNodesTableInfo.SYS_COL_IDENT, SysNodesTableInfo.tableColumnInfo(IDENT)),
+            Collections.<ColumnIdent>emptyList());
+        this.clusterService = clusterService;
+        nodesTableColumn = sysNodesTableInfo.tableColumn();
+    }
+
+    @Nullable
+    @Override
+    public Reference getReference(ColumnIdent columnIdent) {
+        Reference info = super.getReference(columnIdent);
+        if (info == null) {
+            return nodesTableColumn.getReference(this.ident(), columnIdent);
+        }
+        return info;
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public Routing getRouting(WhereClause whereClause, @Nullable String preference) {
+        return Routing.forTableOnAllNodes(IDENT, clusterService.state().nodes());
+    }
+}
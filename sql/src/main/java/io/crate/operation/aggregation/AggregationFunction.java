@@ -23,6 +23,8 @@ package io.crate.operation.aggregation;
 
 import io.crate.breaker.RamAccountingContext;
 import io.crate.metadata.FunctionImplementation;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.operation.vector.NumericVector;
 import io.crate.data.Input;
 import io.crate.types.DataType;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
@@ -59,6 +61,45 @@ public abstract class AggregationFunction<TPartial, TFinal> implements FunctionI
     public abstract TPartial iterate(RamAccountingContext ramAccountingContext, TPartial state, Input... args)
         throws CircuitBreakingException;
 
+    /**
+     * Whether {@link #iterateBatch(RamAccountingContext, Object, int, NumericVector...)} is implemented.
+     */
+    public boolean supportsBatchIterate() {
+        return false;
+    }
+
+    /**
+     * Like {@link #iterate(RamAccountingContext, Object, Input[])}, but aggregates a batch of {@code count} rows at once.
+     *
+     * @param args one vector per argument, holding the argument values of all rows of the batch
+     * @return The new/changed state, see {@link #iterate(RamAccountingContext, Object, Input[])}
+     */
+    public TPartial iterateBatch(RamAccountingContext ramAccountingContext, TPartial state, int count, NumericVector... args)
+        throws CircuitBreakingException {
+        throw new UnsupportedOperationException(
+            "Aggregation " + info().ident().name() + " doesn't support batch iteration");
+    }
+
+    /**
+     * Whether {@link #iterateSegmentStats(RamAccountingContext, Object, SegmentColumnStats)} is implemented.
+     */
+    public boolean supportsSegmentStats() {
+        return false;
+    }
+
+    /**
+     * Aggregates all documents of a segment using only the statistics of the segment, without visiting the documents.
+     * This is only used for segments without deletions if all documents of the segment match.
+     *
+     * @param stats statistics of the column the aggregation is applied to,
+     *              or of the whole segment if the aggregation has no arguments
+     * @return The new/changed state, see {@link #iterate(RamAccountingContext, Object, Input[])}
+     */
+    public TPartial iterateSegmentStats(RamAccountingContext ramAccountingContext, TPartial state, SegmentColumnStats stats) {
+        throw new UnsupportedOperationException(
+            "Aggregation " + info().ident().name() + " can't be computed from segment statistics");
+    }
+
     /**
      * This function merges two aggregation states together and returns that merged state.
      * <p>
@@ -41,6 +41,14 @@ public class FunctionExpression<ReturnType, InputType> implements Input<ReturnTy
         return functionImplementation.evaluate(childInputs);
     }
 
+    public Scalar<ReturnType, InputType> functionImplementation() {
+        return functionImplementation;
+    }
+
+    public Input<InputType>[] childInputs() {
+        return childInputs;
+    }
+
     @Override
     public String toString() {
         return "FuncExpr{" +
@@ -28,6 +28,7 @@ import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.data.Input;
 import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypeFactory;
 import io.crate.types.DataTypes;
@@ -169,6 +170,28 @@ public class AverageAggregation extends AggregationFunction<AverageAggregation.A
         return state;
     }
 
+    @Override
+    public boolean supportsBatchIterate() {
+        return true;
+    }
+
+    @Override
+    public AverageState iterateBatch(RamAccountingContext ramAccountingContext,
+                                     AverageState state,
+                                     int count,
+                                     NumericVector... args) {
+        if (state != null) {
+            NumericVector values = args[0];
+            for (int i = 0; i < count; i++) {
+                if (values.isNull(i) == false) {
+                    state.count++;
+                    state.sum += values.getDouble(i);
+                }
+            }
+        }
+        return state;
+    }
+
     @Override
     public AverageState reduce(RamAccountingContext ramAccountingContext, AverageState state1, AverageState state2) {
         if (state1 == null) {
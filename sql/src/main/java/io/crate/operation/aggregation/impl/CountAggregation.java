@@ -31,6 +31,8 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.metadata.*;
 import io.crate.data.Input;
 import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypeFactory;
 import io.crate.types.DataTypes;
@@ -89,6 +91,29 @@ public class CountAggregation extends AggregationFunction<CountAggregation.LongS
         return state;
     }
 
+    @Override
+    public boolean supportsBatchIterate() {
+        return true;
+    }
+
+    @Override
+    public LongState iterateBatch(RamAccountingContext ramAccountingContext, LongState state, int count, NumericVector... args) {
+        if (hasArgs) {
+            return state.add(args[0].countNonNull());
+        }
+        return state.add(count);
+    }
+
+    @Override
+    public boolean supportsSegmentStats() {
+        return true;
+    }
+
+    @Override
+    public LongState iterateSegmentStats(RamAccountingContext ramAccountingContext, LongState state, SegmentColumnStats stats) {
+        return state.add(stats.docCount());
+    }
+
     @Override
     public LongState newState(RamAccountingContext ramAccountingContext) {
         ramAccountingContext.addBytes(LongStateType.INSTANCE.fixedSize());
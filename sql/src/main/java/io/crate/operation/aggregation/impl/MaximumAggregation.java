@@ -29,6 +29,10 @@ import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.data.Input;
 import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import io.crate.types.FixedWidthType;
@@ -68,6 +72,78 @@ public abstract class MaximumAggregation extends AggregationFunction<Comparable,
             return null;
         }
 
+        @Override
+        public boolean supportsBatchIterate() {
+            DataType type = partialType();
+            return DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(type) || type.equals(DataTypes.TIMESTAMP);
+        }
+
+        @Override
+        public boolean supportsSegmentStats() {
+            return supportsBatchIterate();
+        }
+
+        @Override
+        public Comparable iterateSegmentStats(RamAccountingContext ramAccountingContext,
+                                              Comparable state,
+                                              SegmentColumnStats stats) {
+            Number max = stats.max();
+            if (max == null) {
+                return state;
+            }
+            return reduce(ramAccountingContext, state, (Comparable) partialType().value(max));
+        }
+
+        @Override
+        public Comparable iterateBatch(RamAccountingContext ramAccountingContext,
+                                       Comparable state,
+                                       int count,
+                                       NumericVector... args) {
+            NumericVector values = args[0];
+            if (values.countNonNull() == 0) {
+                return state;
+            }
+            Object extreme;
+            if (values instanceof LongVector) {
+                extreme = batchMaximum((LongVector) values, count);
+            } else {
+                extreme = batchMaximum((DoubleVector) values, count);
+            }
+            return reduce(ramAccountingContext, state, (Comparable) partialType().value(extreme));
+        }
+
+        private static long batchMaximum(LongVector values, int count) {
+            long extreme = 0;
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                if (values.isNull(i)) {
+                    continue;
+                }
+                long value = values.get(i);
+                if (found == false || value > extreme) {
+                    extreme = value;
+                    found = true;
+                }
+            }
+            return extreme;
+        }
+
+        private static double batchMaximum(DoubleVector values, int count) {
+            double extreme = 0;
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                if (values.isNull(i)) {
+                    continue;
+                }
+                double value = values.get(i);
+                if (found == false || Double.compare(value, extreme) > 0) {
+                    extreme = value;
+                    found = true;
+                }
+            }
+            return extreme;
+        }
+
         @Override
         public Comparable reduce(RamAccountingContext ramAccountingContext, Comparable state1, Comparable state2) {
             if (state1 == null) {
@@ -30,6 +30,10 @@ import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.data.Input;
 import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import io.crate.types.FixedWidthType;
@@ -101,6 +105,78 @@ public abstract class MinimumAggregation extends AggregationFunction<Comparable,
             return null;
         }
 
+        @Override
+        public boolean supportsBatchIterate() {
+            DataType type = partialType();
+            return DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(type) || type.equals(DataTypes.TIMESTAMP);
+        }
+
+        @Override
+        public boolean supportsSegmentStats() {
+            return supportsBatchIterate();
+        }
+
+        @Override
+        public Comparable iterateSegmentStats(RamAccountingContext ramAccountingContext,
+                                              Comparable state,
+                                              SegmentColumnStats stats) {
+            Number min = stats.min();
+            if (min == null) {
+                return state;
+            }
+            return reduce(ramAccountingContext, state, (Comparable) partialType().value(min));
+        }
+
+        @Override
+        public Comparable iterateBatch(RamAccountingContext ramAccountingContext,
+                                       Comparable state,
+                                       int count,
+                                       NumericVector... args) {
+            NumericVector values = args[0];
+            if (values.countNonNull() == 0) {
+                return state;
+            }
+            Object extreme;
+            if (values instanceof LongVector) {
+                extreme = batchMinimum((LongVector) values, count);
+            } else {
+                extreme = batchMinimum((DoubleVector) values, count);
+            }
+            return reduce(ramAccountingContext, state, (Comparable) partialType().value(extreme));
+        }
+
+        private static long batchMinimum(LongVector values, int count) {
+            long extreme = 0;
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                if (values.isNull(i)) {
+                    continue;
+                }
+                long value = values.get(i);
+                if (found == false || value < extreme) {
+                    extreme = value;
+                    found = true;
+                }
+            }
+            return extreme;
+        }
+
+        private static double batchMinimum(DoubleVector values, int count) {
+            double extreme = 0;
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                if (values.isNull(i)) {
+                    continue;
+                }
+                double value = values.get(i);
+                if (found == false || Double.compare(value, extreme) < 0) {
+                    extreme = value;
+                    found = true;
+                }
+            }
+            return extreme;
+        }
+
         @Override
         public Comparable reduce(RamAccountingContext ramAccountingContext, Comparable state1, Comparable state2) {
             if (state1 == null) {
@@ -27,6 +27,7 @@ import io.crate.data.Input;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
@@ -59,6 +60,26 @@ public class SumAggregation extends AggregationFunction<Double, Double> {
         return reduce(ramAccountingContext, state, DataTypes.DOUBLE.value(args[0].value()));
     }
 
+    @Override
+    public boolean supportsBatchIterate() {
+        return true;
+    }
+
+    @Override
+    public Double iterateBatch(RamAccountingContext ramAccountingContext, Double state, int count, NumericVector... args) {
+        NumericVector values = args[0];
+        boolean hasValue = state != null;
+        double sum = hasValue ? state : 0d;
+        for (int i = 0; i < count; i++) {
+            if (values.isNull(i)) {
+                continue;
+            }
+            sum += values.getDouble(i);
+            hasValue = true;
+        }
+        return hasValue ? sum : null;
+    }
+
     @Override
     public Double reduce(RamAccountingContext ramAccountingContext, Double state1, Double state2) {
         if (state1 == null) {
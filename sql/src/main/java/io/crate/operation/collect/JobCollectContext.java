@@ -25,16 +25,21 @@ import com.carrotsearch.hppc.IntObjectHashMap;
 import com.carrotsearch.hppc.cursors.ObjectCursor;
 import com.google.common.annotations.VisibleForTesting;
 import io.crate.action.job.SharedShardContexts;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
 import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchConsumer;
 import io.crate.data.ListenableBatchConsumer;
 import io.crate.jobs.AbstractExecutionSubContext;
 import io.crate.metadata.RowGranularity;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.planner.node.dql.CollectPhase;
+import io.crate.planner.node.dql.FileUriCollectPhase;
 import io.crate.planner.node.dql.RoutedCollectPhase;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.lucene.BytesRefs;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -176,9 +181,23 @@ public class JobCollectContext extends AbstractExecutionSubContext {
                 // Node or Shard system table collector
                 return ThreadPool.Names.MANAGEMENT;
             }
+        } else if (phase instanceof FileUriCollectPhase && readsFromStdin((FileUriCollectPhase) phase)) {
+            // COPY FROM STDIN collector, blocks while waiting for the client to send more data
+            return ThreadPool.Names.GENERIC;
         }
 
         // Anything else like doc tables, INFORMATION_SCHEMA tables or sys.cluster table collector, partition collector
         return ThreadPool.Names.SEARCH;
     }
+
+    private static boolean readsFromStdin(FileUriCollectPhase phase) {
+        Symbol targetUri = phase.targetUri();
+        if (targetUri instanceof Literal) {
+            Object value = ((Literal) targetUri).value();
+            return value != null
+                   && !(value instanceof Object[])
+                   && StdinFileInputFactory.isStdinUri(BytesRefs.toString(value));
+        }
+        return false;
+    }
 }
@@ -34,6 +34,7 @@ import io.crate.metadata.shard.ShardReferenceResolver;
 import io.crate.operation.InputFactory;
 import io.crate.operation.collect.collectors.CollectorFieldsVisitor;
 import io.crate.operation.collect.collectors.CrateDocCollectorBuilder;
+import io.crate.operation.collect.collectors.LeafSlices;
 import io.crate.operation.collect.collectors.LuceneOrderedDocCollector;
 import io.crate.operation.collect.collectors.OrderedDocCollector;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
@@ -41,6 +42,9 @@ import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
 import io.crate.operation.reference.doc.lucene.LuceneReferenceResolver;
 import io.crate.planner.node.dql.RoutedCollectPhase;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
 import org.elasticsearch.action.bulk.BulkRetryCoordinatorPool;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -51,6 +55,9 @@ import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class LuceneShardCollectorProvider extends ShardCollectorProvider {
 
     private static final Logger LOGGER = Loggers.getLogger(LuceneShardCollectorProvider.class);
@@ -87,6 +94,14 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     protected CrateCollector.Builder getBuilder(RoutedCollectPhase collectPhase,
                                                 boolean requiresScroll,
                                                 JobCollectContext jobCollectContext) {
+        return getBuilders(collectPhase, requiresScroll, jobCollectContext, 1).get(0);
+    }
+
+    @Override
+    protected List<CrateCollector.Builder> getBuilders(RoutedCollectPhase collectPhase,
+                                                       boolean requiresScroll,
+                                                       JobCollectContext jobCollectContext,
+                                                       int maxSlices) {
         SharedShardContext sharedShardContext = jobCollectContext.sharedShardContexts().getOrCreateContext(indexShard.shardId());
         Engine.Searcher searcher = sharedShardContext.acquireSearcher();
         IndexShard indexShard = sharedShardContext.indexShard();
@@ -99,19 +114,28 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                 sharedShardContext.indexService().cache()
             );
             jobCollectContext.addSearcher(sharedShardContext.readerId(), searcher);
-            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
-                docInputFactory.extractImplementations(collectPhase);
-
-            return new CrateDocCollectorBuilder(
-                searcher.searcher(),
-                queryContext.query(),
-                queryContext.minScore(),
-                Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
-                getCollectorContext(sharedShardContext.readerId(), docCtx),
-                jobCollectContext.queryPhaseRamAccountingContext(),
-                docCtx.topLevelInputs(),
-                docCtx.expressions()
-            );
+            IndexSearcher indexSearcher = searcher.searcher();
+            Query query = queryContext.zoneMapQuery();
+            List<List<LeafReaderContext>> slices =
+                LeafSlices.slice(indexSearcher.getTopReaderContext().leaves(), maxSlices);
+            List<CrateCollector.Builder> builders = new ArrayList<>(slices.size());
+            for (List<LeafReaderContext> slice : slices) {
+                // expressions keep per-reader state, so each slice needs its own
+                InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
+                    docInputFactory.extractImplementations(collectPhase);
+                builders.add(new CrateDocCollectorBuilder(
+                    indexSearcher,
+                    slice,
+                    query,
+                    queryContext.minScore(),
+                    Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
+                    getCollectorContext(sharedShardContext.readerId(), docCtx),
+                    jobCollectContext.queryPhaseRamAccountingContext(),
+                    docCtx.topLevelInputs(),
+                    docCtx.expressions()
+                ));
+            }
+            return builders;
         } catch (Throwable t) {
             searcher.close();
             throw t;
@@ -158,7 +182,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         return new LuceneOrderedDocCollector(
             indexShard.shardId(),
             searcher.searcher(),
-            queryContext.query(),
+            queryContext.zoneMapQuery(),
             queryContext.minScore(),
             Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
             batchSize,
@@ -49,7 +49,9 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class ShardCollectorProvider {
@@ -122,23 +124,38 @@ public abstract class ShardCollectorProvider {
     public CrateCollector.Builder getCollectorBuilder(RoutedCollectPhase collectPhase,
                                                       boolean requiresScroll,
                                                       JobCollectContext jobCollectContext) throws Exception {
+        return getCollectorBuilders(collectPhase, requiresScroll, jobCollectContext, 1).get(0);
+    }
+
+    /**
+     * Like {@link #getCollectorBuilder(RoutedCollectPhase, boolean, JobCollectContext)}, but the shard may be split
+     * into up to {@code maxSlices} parts which are collected by different collectors, so that they can run concurrently.
+     * <p>
+     * Each of the returned builders creates its own shard-level projectors.
+     */
+    public List<CrateCollector.Builder> getCollectorBuilders(RoutedCollectPhase collectPhase,
+                                                             boolean requiresScroll,
+                                                             JobCollectContext jobCollectContext,
+                                                             int maxSlices) throws Exception {
         assert collectPhase.orderBy() ==
                null : "getDocCollector shouldn't be called if there is an orderBy on the collectPhase";
         RoutedCollectPhase normalizedCollectNode = collectPhase.normalize(shardNormalizer, null);
 
-        final CrateCollector.Builder builder;
+        final List<CrateCollector.Builder> builders;
         if (normalizedCollectNode.whereClause().noMatch()) {
-            builder = RowsCollector.emptyBuilder(collectPhase.toCollect().size());
+            builders = Collections.singletonList(RowsCollector.emptyBuilder(collectPhase.toCollect().size()));
         } else {
             assert normalizedCollectNode.maxRowGranularity() == RowGranularity.DOC : "granularity must be DOC";
-            builder = getBuilder(normalizedCollectNode, requiresScroll, jobCollectContext);
+            builders = getBuilders(normalizedCollectNode, requiresScroll, jobCollectContext, maxSlices);
         }
 
         Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
         if (shardProjections.isEmpty()) {
-            return builder;
-        } else {
-            return new CrateCollector.Builder() {
+            return builders;
+        }
+        List<CrateCollector.Builder> projectingBuilders = new ArrayList<>(builders.size());
+        for (CrateCollector.Builder builder : builders) {
+            projectingBuilders.add(new CrateCollector.Builder() {
                 @Override
                 public CrateCollector build(BatchConsumer batchConsumer) {
                     return builder.build(batchConsumer);
@@ -154,14 +171,26 @@ public abstract class ShardCollectorProvider {
                         projectorFactory
                     );
                 }
-            };
+            });
         }
+        return projectingBuilders;
     }
 
     protected abstract CrateCollector.Builder getBuilder(RoutedCollectPhase collectPhase,
                                                          boolean requiresScroll,
                                                          JobCollectContext jobCollectContext);
 
+    /**
+     * Create up to {@code maxSlices} builders which together collect all rows of the shard.
+     * The default implementation doesn't split the shard and returns a single builder.
+     */
+    protected List<CrateCollector.Builder> getBuilders(RoutedCollectPhase collectPhase,
+                                                       boolean requiresScroll,
+                                                       JobCollectContext jobCollectContext,
+                                                       int maxSlices) {
+        return Collections.singletonList(getBuilder(collectPhase, requiresScroll, jobCollectContext));
+    }
+
 
     public abstract OrderedDocCollector getOrderedCollector(RoutedCollectPhase collectPhase,
                                                             SharedShardContext sharedShardContext,
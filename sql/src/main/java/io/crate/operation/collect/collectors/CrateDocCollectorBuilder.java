@@ -29,6 +29,7 @@ import io.crate.operation.collect.BatchIteratorCollectorBridge;
 import io.crate.operation.collect.CrateCollector;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 
@@ -38,6 +39,7 @@ import java.util.List;
 public class CrateDocCollectorBuilder implements CrateCollector.Builder {
 
     private final IndexSearcher indexSearcher;
+    private final List<LeafReaderContext> leaves;
     private final Query query;
     private final Float minScore;
     private final boolean doScores;
@@ -46,7 +48,11 @@ public class CrateDocCollectorBuilder implements CrateCollector.Builder {
     private final List<Input<?>> inputs;
     private final Collection<? extends LuceneCollectorExpression<?>> expressions;
 
+    /**
+     * @param leaves the leaves of the {@code indexSearcher} which should be collected
+     */
     public CrateDocCollectorBuilder(IndexSearcher indexSearcher,
+                                    List<LeafReaderContext> leaves,
                                     Query query,
                                     Float minScore,
                                     boolean doScores,
@@ -55,6 +61,7 @@ public class CrateDocCollectorBuilder implements CrateCollector.Builder {
                                     List<Input<?>> inputs,
                                     Collection<? extends LuceneCollectorExpression<?>> expressions) {
         this.indexSearcher = indexSearcher;
+        this.leaves = leaves;
         this.query = query;
         this.minScore = minScore;
         this.doScores = doScores;
@@ -68,6 +75,7 @@ public class CrateDocCollectorBuilder implements CrateCollector.Builder {
     public CrateCollector build(BatchConsumer consumer) {
         LuceneBatchIterator batchIterator = new LuceneBatchIterator(
             indexSearcher,
+            leaves,
             query,
             minScore,
             doScores,
@@ -0,0 +1,74 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.collectors;
+
+import org.apache.lucene.index.LeafReaderContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits the leaves (segments) of an index into slices which can be collected concurrently.
+ */
+public final class LeafSlices {
+
+    private LeafSlices() {
+    }
+
+    /**
+     * Distribute the leaves onto at most {@code maxSlices} slices, so that each slice contains roughly the same
+     * number of documents. Slices are never empty, so there are less slices than {@code maxSlices}
+     * if there are less leaves.
+     * The leaves within a slice are ordered by their position in the index.
+     */
+    public static List<List<LeafReaderContext>> slice(List<LeafReaderContext> leaves, int maxSlices) {
+        int numSlices = Math.min(leaves.size(), maxSlices);
+        if (numSlices <= 1) {
+            return Collections.singletonList(leaves);
+        }
+        List<LeafReaderContext> largestFirst = new ArrayList<>(leaves);
+        largestFirst.sort(Comparator.comparingInt((LeafReaderContext leaf) -> leaf.reader().maxDoc()).reversed());
+
+        List<List<LeafReaderContext>> slices = new ArrayList<>(numSlices);
+        long[] numDocs = new long[numSlices];
+        for (int i = 0; i < numSlices; i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (LeafReaderContext leaf : largestFirst) {
+            int smallest = 0;
+            for (int i = 1; i < numSlices; i++) {
+                if (numDocs[i] < numDocs[smallest]) {
+                    smallest = i;
+                }
+            }
+            slices.get(smallest).add(leaf);
+            numDocs[smallest] += leaf.reader().maxDoc();
+        }
+        for (List<LeafReaderContext> slice : slices) {
+            slice.sort(Comparator.comparingInt(leaf -> leaf.ord));
+        }
+        return slices;
+    }
+}
@@ -31,6 +31,7 @@ import io.crate.data.Input;
 import io.crate.exceptions.Exceptions;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.operation.reference.doc.lucene.NumericDocValuesBatchReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.*;
@@ -50,6 +51,9 @@ import java.util.concurrent.CompletionStage;
  * It supports filtering the data using a lucene {@link Query} or via {@code minScore}.
  * <p>
  * Row data depends on {@code inputs} and {@code expressions}. The data is unordered.
+ * <p>
+ * Either all leaves of the index are collected or only a slice of them (see {@link LeafSlices}), so that
+ * multiple LuceneBatchIterators can collect a single shard concurrently.
  */
 public class LuceneBatchIterator implements BatchIterator {
 
@@ -80,6 +84,29 @@ public class LuceneBatchIterator implements BatchIterator {
                         RamAccountingContext ramAccountingContext,
                         List<? extends Input<?>> inputs,
                         Collection<? extends LuceneCollectorExpression<?>> expressions) {
+        this(indexSearcher,
+            indexSearcher.getTopReaderContext().leaves(),
+            query,
+            minScore,
+            doScores,
+            collectorContext,
+            ramAccountingContext,
+            inputs,
+            expressions);
+    }
+
+    /**
+     * @param leaves the leaves of the {@code indexSearcher} which should be collected
+     */
+    LuceneBatchIterator(IndexSearcher indexSearcher,
+                        List<LeafReaderContext> leaves,
+                        Query query,
+                        @Nullable Float minScore,
+                        boolean doScores,
+                        CollectorContext collectorContext,
+                        RamAccountingContext ramAccountingContext,
+                        List<? extends Input<?>> inputs,
+                        Collection<? extends LuceneCollectorExpression<?>> expressions) {
         this.indexSearcher = indexSearcher;
         this.query = query;
         this.doScores = doScores || minScore != null;
@@ -89,7 +116,7 @@ public class LuceneBatchIterator implements BatchIterator {
         this.ramAccountingContext = ramAccountingContext;
         this.inputs = Columns.wrap(inputs);
         this.expressions = expressions.toArray(new LuceneCollectorExpression[0]);
-        leaves = indexSearcher.getTopReaderContext().leaves();
+        this.leaves = leaves;
         leavesIt = leaves.iterator();
     }
 
@@ -140,6 +167,56 @@ public class LuceneBatchIterator implements BatchIterator {
         return false;
     }
 
+    /**
+     * Consumes all remaining documents, handing them to {@code consumer} in batches of up to
+     * {@code docIds.length} doc ids which all belong to the same leaf.
+     * <p>
+     * The collector expressions are positioned on the leaf of each batch, but not on the individual documents,
+     * so only expressions which can read the values of many documents at once
+     * (see {@link NumericDocValuesBatchReader}) can be used to evaluate a batch.
+     * <p>
+     * If the query matches all documents, the consumer may process a whole leaf without visiting its documents,
+     * see {@link DocIdBatchConsumer#tryConsumeLeaf(LeafReaderContext)}.
+     */
+    public void consumeDocIdBatches(int[] docIds, DocIdBatchConsumer consumer) throws IOException {
+        raiseIfClosedOrKilled();
+        if (weight == null) {
+            weight = createWeight();
+        }
+        boolean matchesAllDocs = query instanceof MatchAllDocsQuery && minScore == null;
+        while (tryAdvanceDocIdSetIterator()) {
+            if (matchesAllDocs && consumer.tryConsumeLeaf(currentLeaf)) {
+                currentDocIdSetIt = null;
+                continue;
+            }
+            Bits liveDocs = currentLeaf.reader().getLiveDocs();
+            int count = 0;
+            int doc;
+            while ((doc = currentDocIdSetIt.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+                if (docDeleted(liveDocs, doc) || belowMinScore(currentScorer)) {
+                    continue;
+                }
+                docIds[count] = doc;
+                count++;
+                if (count == docIds.length) {
+                    onDocIdBatch(docIds, count, consumer);
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                onDocIdBatch(docIds, count, consumer);
+            }
+            currentDocIdSetIt = null;
+        }
+        clearState();
+    }
+
+    private void onDocIdBatch(int[] docIds, int count, DocIdBatchConsumer consumer) throws IOException {
+        raiseIfClosedOrKilled();
+        checkCircuitBreaker();
+        consumer.accept(docIds, count);
+    }
+
     private boolean belowMinScore(Scorer currentScorer) throws IOException {
         return minScore != null && currentScorer.score() < minScore;
     }
@@ -239,4 +316,24 @@ public class LuceneBatchIterator implements BatchIterator {
     public void kill(@Nonnull Throwable throwable) {
         killed = throwable;
     }
+
+    @FunctionalInterface
+    public interface DocIdBatchConsumer {
+
+        /**
+         * @param docIds doc ids of the current leaf in ascending order, only the first {@code count} are valid
+         */
+        void accept(int[] docIds, int count) throws IOException;
+
+        /**
+         * Called for each leaf before its documents are visited, if the query matches all documents.
+         * The leaf may contain deleted documents.
+         *
+         * @return true if the consumer processed the leaf, e.g. by using its index statistics;
+         *         the documents of the leaf are skipped then.
+         */
+        default boolean tryConsumeLeaf(LeafReaderContext leaf) throws IOException {
+            return false;
+        }
+    }
 }
@@ -33,5 +33,6 @@ public class FileCollectModule extends AbstractModule {
 
         binder.addBinding(LocalFsFileInputFactory.NAME).to(LocalFsFileInputFactory.class).asEagerSingleton();
         binder.addBinding(S3FileInputFactory.NAME).to(S3FileInputFactory.class).asEagerSingleton();
+        binder.addBinding(StdinFileInputFactory.NAME).to(StdinFileInputFactory.class);
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.operation.collect.files;
+
+import org.elasticsearch.common.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Provides the rows a client sends with a COPY FROM STDIN statement to the file reading collector.
+ * <p>
+ * The stream of a statement is registered under its jobId and can be read once via {@code stdin:///<jobId>}.
+ */
+@Singleton
+public class StdinFileInputFactory implements FileInputFactory {
+
+    public static final String NAME = "stdin";
+
+    private final ConcurrentMap<UUID, InputStream> streams = new ConcurrentHashMap<>();
+
+    public static String uri(UUID jobId) {
+        return NAME + ":///" + jobId.toString();
+    }
+
+    public static boolean isStdinUri(String uri) {
+        return uri.toLowerCase(Locale.ENGLISH).startsWith(NAME + ":");
+    }
+
+    public void register(UUID jobId, InputStream inputStream) {
+        InputStream previous = streams.putIfAbsent(jobId, inputStream);
+        if (previous != null) {
+            throw new IllegalStateException("A COPY FROM STDIN stream is already registered for job " + jobId);
+        }
+    }
+
+    public void unregister(UUID jobId) {
+        streams.remove(jobId);
+    }
+
+    @Override
+    public FileInput create() throws IOException {
+        return new StdinFileInput();
+    }
+
+    private class StdinFileInput implements FileInput {
+
+        @Override
+        public List<URI> listUris(URI fileUri, Predicate<URI> uriPredicate) throws IOException {
+            return Collections.singletonList(fileUri);
+        }
+
+        @Override
+        public InputStream getStream(URI uri) throws IOException {
+            InputStream inputStream = null;
+            try {
+                inputStream = streams.remove(UUID.fromString(uri.getPath().substring(1)));
+            } catch (IllegalArgumentException ignored) {
+                // handled below
+            }
+            if (inputStream == null) {
+                throw new IOException("COPY FROM STDIN is only supported via the PostgreSQL simple query protocol");
+            }
+            return inputStream;
+        }
+
+        @Override
+        public boolean sharedStorageDefault() {
+            return false;
+        }
+    }
+}
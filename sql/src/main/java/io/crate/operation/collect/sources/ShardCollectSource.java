@@ -27,6 +27,7 @@ import io.crate.action.job.SharedShardContext;
 import io.crate.action.job.SharedShardContexts;
 import io.crate.analyze.EvaluatingNormalizer;
 import io.crate.analyze.OrderBy;
+import io.crate.analyze.symbol.AggregateMode;
 import io.crate.analyze.symbol.Symbols;
 import io.crate.blob.v2.BlobIndicesService;
 import io.crate.blob.v2.BlobShard;
@@ -51,6 +52,9 @@ import io.crate.operation.reference.sys.node.local.NodeSysReferenceResolver;
 import io.crate.planner.consumer.OrderByPositionVisitor;
 import io.crate.planner.node.dql.CollectPhase;
 import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.projection.AggregationProjection;
+import io.crate.planner.projection.GroupProjection;
+import io.crate.planner.projection.Projection;
 import io.crate.planner.projection.Projections;
 import io.crate.plugin.IndexEventListenerProxy;
 import org.elasticsearch.action.bulk.BulkRetryCoordinatorPool;
@@ -64,6 +68,7 @@ import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
@@ -149,7 +154,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
     private final Map<ShardId, ShardCollectorProvider> shards = new ConcurrentHashMap<>();
     private final Functions functions;
     private final LuceneQueryBuilder luceneQueryBuilder;
-
+    private final int numProcessors;
 
     @Inject
     public ShardCollectSource(Settings settings,
@@ -169,6 +174,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                               BlobIndicesService blobIndicesService) {
         super(settings);
         this.luceneQueryBuilder = luceneQueryBuilder;
+        this.numProcessors = EsExecutors.boundedNumberOfProcessors(settings);
         this.schemas = schemas;
         this.indexNameExpressionResolver = indexNameExpressionResolver;
         this.indicesService = indicesService;
@@ -307,8 +313,13 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
 
         Map<String, List<Integer>> indexShards = locations.get(localNodeId);
         if (indexShards != null) {
-            builders.addAll(
-                getDocCollectors(jobCollectContext, normalizedPhase, lastConsumer.requiresScroll(), indexShards));
+            int maxSlicesPerShard = 1;
+            if (maxNumShards > 0 && aggregatesOnShard(normalizedPhase.projections())) {
+                // fewer shards than processors: split shards into segment slices so that all processors are used
+                maxSlicesPerShard = Math.max(1, numProcessors / maxNumShards);
+            }
+            builders.addAll(getDocCollectors(
+                jobCollectContext, normalizedPhase, lastConsumer.requiresScroll(), indexShards, maxSlicesPerShard));
         }
 
         switch (builders.size()) {
@@ -395,10 +406,47 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
         return shardCollectorProvider;
     }
 
+    /**
+     * @return true if the shard projections only create partial aggregation states, which makes the result
+     *         independent of the order in which the documents of a shard are collected and allows to merge the
+     *         states of multiple segment slices later on.
+     *         Final aggregations on shard level (e.g. GROUP BY on the routing column) would emit one
+     *         (possibly filtered) result per slice instead of per shard, so they are never sliced.
+     */
+    private static boolean aggregatesOnShard(Collection<? extends Projection> projections) {
+        boolean aggregates = false;
+        for (Projection projection : Projections.shardProjections(projections)) {
+            switch (projection.projectionType()) {
+                case GROUP:
+                    if (((GroupProjection) projection).mode() != AggregateMode.ITER_PARTIAL) {
+                        return false;
+                    }
+                    aggregates = true;
+                    break;
+                case AGGREGATION:
+                    if (((AggregationProjection) projection).mode() != AggregateMode.ITER_PARTIAL) {
+                        return false;
+                    }
+                    aggregates = true;
+                    break;
+                case FILTER:
+                    if (aggregates) {
+                        // filtering partial states of a slice isn't the same as filtering the states of the shard
+                        return false;
+                    }
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return aggregates;
+    }
+
     private Collection<CrateCollector.Builder> getDocCollectors(JobCollectContext jobCollectContext,
                                                                 RoutedCollectPhase collectPhase,
                                                                 boolean requiresScroll,
-                                                                Map<String, List<Integer>> indexShards) {
+                                                                Map<String, List<Integer>> indexShards,
+                                                                int maxSlicesPerShard) {
 
         MetaData metaData = clusterService.state().metaData();
         List<CrateCollector.Builder> crateCollectors = new ArrayList<>();
@@ -424,12 +472,12 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                 ShardId shardId = new ShardId(index, shardNum);
                 try {
                     ShardCollectorProvider shardCollectorProvider = getCollectorProviderSafe(shardId);
-                    CrateCollector.Builder collector = shardCollectorProvider.getCollectorBuilder(
+                    crateCollectors.addAll(shardCollectorProvider.getCollectorBuilders(
                         collectPhase,
                         requiresScroll,
-                        jobCollectContext
-                    );
-                    crateCollectors.add(collector);
+                        jobCollectContext,
+                        maxSlicesPerShard
+                    ));
                 } catch (ShardNotFoundException | IllegalIndexShardStateException e) {
                     // If toCollect contains a docId it means that this is a QueryThenFetch operation.
                     // In such a case RemoteCollect cannot be used because on that node the FetchContext is missing
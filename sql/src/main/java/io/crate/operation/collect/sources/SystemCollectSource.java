@@ -29,12 +29,14 @@ import io.crate.analyze.EvaluatingNormalizer;
 import io.crate.data.BatchConsumer;
 import io.crate.data.Row;
 import io.crate.data.RowsBatchIterator;
+import io.crate.executor.admission.AdmissionService;
 import io.crate.metadata.Functions;
 import io.crate.metadata.ReplaceMode;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.TableIdent;
 import io.crate.metadata.information.*;
 import io.crate.metadata.pg_catalog.PgCatalogTables;
+import io.crate.metadata.pg_catalog.PgStatsTable;
 import io.crate.metadata.pg_catalog.PgTypeTable;
 import io.crate.metadata.sys.*;
 import io.crate.operation.InputFactory;
@@ -90,7 +92,8 @@ public class SystemCollectSource implements CollectSource {
                                SysNodeChecks sysNodeChecks,
                                SysRepositoriesService sysRepositoriesService,
                                SysSnapshots sysSnapshots,
-                               PgCatalogTables pgCatalogTables) {
+                               PgCatalogTables pgCatalogTables,
+                               AdmissionService admissionService) {
         this.clusterService = clusterService;
         inputFactory = new InputFactory(functions);
         this.functions = functions;
@@ -121,6 +124,8 @@ public class SystemCollectSource implements CollectSource {
                 () -> synchronousIterableGetter(jobsLogs.operationsGetter()))
             .put(SysOperationsLogTableInfo.IDENT.fqn(),
                 () -> synchronousIterableGetter(jobsLogs.operationsLogGetter()))
+            .put(SysStatementStatsTableInfo.IDENT.fqn(),
+                () -> synchronousIterableGetter(jobsLogs.statementStatsGetter()))
             .put(SysChecksTableInfo.IDENT.fqn(),
                 () -> new SysChecker<>(sysChecks).checksGetter())
             .put(SysNodeChecksTableInfo.IDENT.fqn(),
@@ -130,8 +135,12 @@ public class SystemCollectSource implements CollectSource {
             .put(SysSnapshotsTableInfo.IDENT.fqn(), snapshotSupplier(sysSnapshots))
             .put(SysSummitsTableInfo.IDENT.fqn(),
                 () -> synchronousIterableGetter(new SummitsIterable().summitsGetter()))
+            .put(SysWorkloadClassesTableInfo.IDENT.fqn(),
+                () -> synchronousIterableGetter(admissionService.stats()))
             .put(PgTypeTable.IDENT.fqn(),
                 () -> synchronousIterableGetter(pgCatalogTables.typesGetter()))
+            .put(PgStatsTable.IDENT.fqn(),
+                () -> synchronousIterableGetter(pgCatalogTables.statsGetter()))
             .build();
     }
 
@@ -70,6 +70,8 @@ public class JobsLogService extends AbstractLifecycleComponent implements Provid
     public static final CrateSetting<TimeValue> STATS_OPERATIONS_LOG_EXPIRATION_SETTING = CrateSetting.of(Setting.timeSetting(
         "stats.operations_log_expiration", TimeValue.timeValueSeconds(0L), Setting.Property.NodeScope, Setting.Property.Dynamic),
         DataTypes.STRING);
+    public static final CrateSetting<Integer> STATS_STATEMENT_STATS_SIZE_SETTING = CrateSetting.of(Setting.intSetting(
+        "stats.statement_stats_size", 1_000, 0, Setting.Property.NodeScope, Setting.Property.Dynamic), DataTypes.INTEGER);
 
     private static final JobContextLogSizeEstimator JOB_CONTEXT_LOG_ESTIMATOR = new JobContextLogSizeEstimator();
     private static final OperationContextLogSizeEstimator OPERATION_CONTEXT_LOG_SIZE_ESTIMATOR = new OperationContextLogSizeEstimator();
@@ -105,7 +107,7 @@ public class JobsLogService extends AbstractLifecycleComponent implements Provid
         this.breakerService = breakerService;
 
         isEnabled = STATS_ENABLED_SETTING.setting().get(settings);
-        jobsLogs = new JobsLogs(this::isEnabled);
+        jobsLogs = new JobsLogs(this::isEnabled, STATS_STATEMENT_STATS_SIZE_SETTING.setting().get(settings));
         setJobsLogSink(
             STATS_JOBS_LOG_SIZE_SETTING.setting().get(settings), STATS_JOBS_LOG_EXPIRATION_SETTING.setting().get(settings));
         setOperationsLogSink(
@@ -116,6 +118,8 @@ public class JobsLogService extends AbstractLifecycleComponent implements Provid
             STATS_JOBS_LOG_SIZE_SETTING.setting(), STATS_JOBS_LOG_EXPIRATION_SETTING.setting(), this::setJobsLogSink);
         clusterSettings.addSettingsUpdateConsumer(
             STATS_OPERATIONS_LOG_SIZE_SETTING.setting(), STATS_OPERATIONS_LOG_EXPIRATION_SETTING.setting(), this::setOperationsLogSink);
+        clusterSettings.addSettingsUpdateConsumer(
+            STATS_STATEMENT_STATS_SIZE_SETTING.setting(), size -> jobsLogs.updateStatementStatsSize(size));
     }
 
     private void setJobsLogSink(int size, TimeValue expiration) {
@@ -40,7 +40,7 @@ import java.util.function.BooleanSupplier;
 /**
  * JobsLogs is responsible for adding jobs and operations of that node.
  * It also provides the functionality to expose that data for system tables,
- * such as sys.jobs, sys.jobs_log, sys.operations and sys.operations_log;
+ * such as sys.jobs, sys.jobs_log, sys.operations, sys.operations_log and sys.statement_stats;
  */
 @ThreadSafe
 public class JobsLogs {
@@ -53,9 +53,15 @@ public class JobsLogs {
 
     private final LongAdder activeRequests = new LongAdder();
     private final BooleanSupplier enabled;
+    private final StatementStats statementStats;
 
     public JobsLogs(BooleanSupplier enabled) {
+        this(enabled, JobsLogService.STATS_STATEMENT_STATS_SIZE_SETTING.getDefault());
+    }
+
+    JobsLogs(BooleanSupplier enabled, int statementStatsSize) {
         this.enabled = enabled;
+        this.statementStats = new StatementStats(statementStatsSize);
     }
 
     /**
@@ -81,6 +87,7 @@ public class JobsLogs {
      */
     public void logExecutionStart(UUID jobId, String statement) {
         activeRequests.increment();
+        statementStats.onStart(jobId, statement);
         if (!isEnabled()) {
             return;
         }
@@ -93,7 +100,18 @@ public class JobsLogs {
      * If {@link #isEnabled()} is false this method won't do anything.
      */
     public void logExecutionEnd(UUID jobId, @Nullable String errorMessage) {
+        logExecutionEnd(jobId, errorMessage, 0L);
+    }
+
+    /**
+     * mark a job as finished.
+     * <p>
+     * {@code numRows} is the number of rows returned or affected by the statement and is
+     * accounted in the statement statistics, which are gathered even if {@link #isEnabled()} is false.
+     */
+    public void logExecutionEnd(UUID jobId, @Nullable String errorMessage, long numRows) {
         activeRequests.decrement();
+        statementStats.onEnd(jobId, errorMessage != null, numRows);
         JobContext jobContext = jobsTable.remove(jobId);
         if (!isEnabled() || jobContext == null) {
             return;
@@ -110,6 +128,7 @@ public class JobsLogs {
      * {@link #logExecutionStart(UUID, String)} is only called after a Plan has been created and execution starts.
      */
     public void logPreExecutionFailure(UUID jobId, String stmt, String errorMessage) {
+        statementStats.onPreExecutionFailure(stmt);
         LogSink<JobContextLog> jobContextLogs = jobsLog.get();
         JobContext jobContext = new JobContext(jobId, stmt, System.currentTimeMillis());
         jobContextLogs.add(new JobContextLog(jobContext, errorMessage));
@@ -154,6 +173,10 @@ public class JobsLogs {
         return operationsLog.get();
     }
 
+    public Iterable<StatementStatsEntry> statementStatsGetter() {
+        return statementStats.entries();
+    }
+
     public long activeRequests() {
         return activeRequests.longValue();
     }
@@ -166,4 +189,8 @@ public class JobsLogs {
         jobsLog.set(sink);
     }
 
+    void updateStatementStatsSize(int size) {
+        statementStats.setMaxEntries(size);
+    }
+
 }
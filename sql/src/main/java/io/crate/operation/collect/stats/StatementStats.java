@@ -0,0 +1,151 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.operation.collect.stats;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.crate.sql.parser.StatementFingerprint;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates call counts, rows, errors and latencies of all statements executed on this node,
+ * keyed by the {@link StatementFingerprint} of the statement.
+ *
+ * The number of distinct fingerprints is limited by {@link #maxEntries}. If a new fingerprint is added
+ * once the limit is reached, the (approximately) least recently executed entry is evicted, so statements
+ * which are no longer executed age out and new statements are not evicted right away.
+ */
+@ThreadSafe
+public class StatementStats {
+
+    private final Map<UUID, Running> running = new ConcurrentHashMap<>();
+    private volatile int maxEntries;
+
+    /**
+     * null if collecting the stats is disabled
+     */
+    @Nullable
+    private volatile LoadingCache<String, StatementStatsEntry> entries;
+
+    StatementStats(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = newEntries(maxEntries);
+    }
+
+    @Nullable
+    private static LoadingCache<String, StatementStatsEntry> newEntries(int maxEntries) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        return CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .build(new CacheLoader<String, StatementStatsEntry>() {
+                @Override
+                public StatementStatsEntry load(@Nonnull String fingerprint) {
+                    return new StatementStatsEntry(fingerprint);
+                }
+            });
+    }
+
+    void onStart(UUID jobId, String statement) {
+        if (entries == null) {
+            return;
+        }
+        running.put(jobId, new Running(StatementFingerprint.of(statement), System.nanoTime()));
+    }
+
+    void onEnd(UUID jobId, boolean failed, long numRows) {
+        Running statement = running.remove(jobId);
+        if (statement == null) {
+            return;
+        }
+        StatementStatsEntry entry = entry(statement.fingerprint);
+        if (entry != null) {
+            entry.recordExecution(System.nanoTime() - statement.startedNanos, numRows, failed);
+        }
+    }
+
+    void onPreExecutionFailure(String statement) {
+        if (entries == null) {
+            return;
+        }
+        StatementStatsEntry entry = entry(StatementFingerprint.of(statement));
+        if (entry != null) {
+            entry.recordFailure();
+        }
+    }
+
+    public Iterable<StatementStatsEntry> entries() {
+        LoadingCache<String, StatementStatsEntry> currentEntries = entries;
+        if (currentEntries == null) {
+            return Collections.emptyList();
+        }
+        return currentEntries.asMap().values();
+    }
+
+    synchronized void setMaxEntries(int maxEntries) {
+        if (maxEntries == this.maxEntries) {
+            return;
+        }
+        this.maxEntries = maxEntries;
+        // the size of a cache can't be changed, so the entries are copied into a new one.
+        // If it is smaller, the recency of the entries is lost and arbitrary entries are evicted.
+        LoadingCache<String, StatementStatsEntry> newEntries = newEntries(maxEntries);
+        LoadingCache<String, StatementStatsEntry> currentEntries = entries;
+        if (newEntries != null && currentEntries != null) {
+            newEntries.putAll(currentEntries.asMap());
+        }
+        entries = newEntries;
+        if (newEntries == null) {
+            running.clear();
+        }
+    }
+
+    @Nullable
+    private StatementStatsEntry entry(String fingerprint) {
+        LoadingCache<String, StatementStatsEntry> currentEntries = entries;
+        if (currentEntries == null) {
+            return null;
+        }
+        return currentEntries.getUnchecked(fingerprint);
+    }
+
+    private static class Running {
+
+        private final String fingerprint;
+        private final long startedNanos;
+
+        Running(String fingerprint, long startedNanos) {
+            this.fingerprint = fingerprint;
+            this.startedNanos = startedNanos;
+        }
+    }
+}
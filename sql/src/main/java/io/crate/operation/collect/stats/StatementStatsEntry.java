@@ -0,0 +1,122 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.operation.collect.stats;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated statistics of all executions of statements with the same {@link #fingerprint()}.
+ * Durations are exposed in milliseconds.
+ */
+@ThreadSafe
+public class StatementStatsEntry {
+
+    private final String fingerprint;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalDurationMicros = new LongAdder();
+    private final LongAccumulator maxDurationMicros = new LongAccumulator(Long::max, 0L);
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile long lastExecuted;
+
+    StatementStatsEntry(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    void recordExecution(long durationNanos, long numRows, boolean failed) {
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        calls.increment();
+        executions.increment();
+        if (failed) {
+            errors.increment();
+        }
+        if (numRows > 0) {
+            rows.add(numRows);
+        }
+        totalDurationMicros.add(durationMicros);
+        maxDurationMicros.accumulate(durationMicros);
+        histogram.record(durationMicros);
+        lastExecuted = System.currentTimeMillis();
+    }
+
+    /**
+     * Failure before the execution started, e.g. during analysis or planning. Doesn't contribute to the durations.
+     */
+    void recordFailure() {
+        calls.increment();
+        errors.increment();
+        lastExecuted = System.currentTimeMillis();
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+
+    public long lastExecuted() {
+        return lastExecuted;
+    }
+
+    public double totalDuration() {
+        return toMillis(totalDurationMicros.sum());
+    }
+
+    public double meanDuration() {
+        long numExecutions = executions.sum();
+        if (numExecutions == 0) {
+            return 0.0;
+        }
+        return toMillis(totalDurationMicros.sum()) / numExecutions;
+    }
+
+    public double maxDuration() {
+        return toMillis(maxDurationMicros.get());
+    }
+
+    /**
+     * @param percentile a value between 0 and 100
+     */
+    public double durationPercentile(double percentile) {
+        return toMillis(histogram.valueAtPercentile(percentile));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
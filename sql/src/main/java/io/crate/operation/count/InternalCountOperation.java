@@ -26,8 +26,10 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.crate.analyze.WhereClause;
 import io.crate.lucene.LuceneQueryBuilder;
+import io.crate.lucene.ZoneMapQuery;
 import io.crate.metadata.PartitionName;
 import io.crate.operation.ThreadPools;
+import org.apache.lucene.search.Query;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -122,7 +124,11 @@ public class InternalCountOperation implements CountOperation {
             if (Thread.interrupted()) {
                 throw new InterruptedException("thread interrupted during count-operation");
             }
-            return searcher.searcher().count(queryCtx.query());
+            Query query = queryCtx.zoneMapQuery();
+            if (query instanceof ZoneMapQuery) {
+                return ((ZoneMapQuery) query).count(searcher.searcher());
+            }
+            return searcher.searcher().count(query);
         }
     }
 
@@ -23,14 +23,17 @@ package io.crate.operation.join;
 
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.*;
+import io.crate.data.join.HashJoinBatchIterator;
 import io.crate.data.join.NestedLoopBatchIterator;
 import io.crate.planner.node.dql.join.JoinType;
 
 import javax.annotation.Nullable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 
 public class NestedLoopOperation implements CompletionListenable {
@@ -42,16 +45,45 @@ public class NestedLoopOperation implements CompletionListenable {
     public NestedLoopOperation(BatchConsumer nlResultConsumer,
                                Predicate<Row> joinPredicate,
                                JoinType joinType) {
+        this(nlResultConsumer, joinPredicate, joinType, new int[0], new int[0], row -> {});
+    }
+
+    /**
+     * @param leftJoinKeys  positions of the left columns used as equi-join keys.
+     *                      If not empty a hash join is used instead of a nested loop.
+     * @param rightJoinKeys positions of the right columns used as equi-join keys.
+     * @param buildRowAccounting called for each row of the right side which is kept in memory by the hash join
+     */
+    public NestedLoopOperation(BatchConsumer nlResultConsumer,
+                               Predicate<Row> joinPredicate,
+                               JoinType joinType,
+                               int[] leftJoinKeys,
+                               int[] rightJoinKeys,
+                               Consumer<Object[]> buildRowAccounting) {
 
         CompletableFuture.allOf(leftBatchIterator, rightBatchIterator)
             .whenComplete((result, failure) -> {
                 if (failure == null) {
-                    BatchIterator nlIterator = new ListenableBatchIterator(createNestedLoopIterator(
-                        leftBatchIterator.join(),
-                        rightBatchIterator.join(),
-                        joinType,
-                        joinPredicate
-                    ), completionFuture);
+                    BatchIterator joinIterator;
+                    if (leftJoinKeys.length > 0 && joinType != JoinType.CROSS) {
+                        joinIterator = createHashJoinIterator(
+                            leftBatchIterator.join(),
+                            rightBatchIterator.join(),
+                            joinType,
+                            joinPredicate,
+                            leftJoinKeys,
+                            rightJoinKeys,
+                            buildRowAccounting
+                        );
+                    } else {
+                        joinIterator = createNestedLoopIterator(
+                            leftBatchIterator.join(),
+                            rightBatchIterator.join(),
+                            joinType,
+                            joinPredicate
+                        );
+                    }
+                    BatchIterator nlIterator = new ListenableBatchIterator(joinIterator, completionFuture);
                     nlResultConsumer.accept(nlIterator, null);
                 } else {
                     nlResultConsumer.accept(null, failure);
@@ -83,6 +115,35 @@ public class NestedLoopOperation implements CompletionListenable {
         throw new AssertionError("Invalid joinType: " + joinType);
     }
 
+    private static BatchIterator createHashJoinIterator(BatchIterator left,
+                                                        BatchIterator right,
+                                                        JoinType joinType,
+                                                        Predicate<Row> joinCondition,
+                                                        int[] leftJoinKeys,
+                                                        int[] rightJoinKeys,
+                                                        Consumer<Object[]> buildRowAccounting) {
+        Function<Columns, Supplier<Object>> leftKey = HashJoinBatchIterator.columnsKey(leftJoinKeys);
+        Function<Columns, Supplier<Object>> rightKey = HashJoinBatchIterator.columnsKey(rightJoinKeys);
+        switch (joinType) {
+            case INNER:
+                return HashJoinBatchIterator.innerJoin(
+                    left, right, leftKey, rightKey, getJoinCondition(joinCondition), buildRowAccounting);
+
+            case LEFT:
+                return HashJoinBatchIterator.leftJoin(
+                    left, right, leftKey, rightKey, getJoinCondition(joinCondition), buildRowAccounting);
+
+            case RIGHT:
+                return HashJoinBatchIterator.rightJoin(
+                    left, right, leftKey, rightKey, getJoinCondition(joinCondition), buildRowAccounting);
+
+            case FULL:
+                return HashJoinBatchIterator.fullOuterJoin(
+                    left, right, leftKey, rightKey, getJoinCondition(joinCondition), buildRowAccounting);
+        }
+        throw new AssertionError("Invalid joinType for hash join: " + joinType);
+    }
+
     private static Function<Columns, BooleanSupplier> getJoinCondition(Predicate<Row> joinCondition) {
         return columns -> {
             final Row row = RowBridging.toRow(columns);
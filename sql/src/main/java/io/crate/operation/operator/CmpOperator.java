@@ -3,7 +3,13 @@ package io.crate.operation.operator;
 import io.crate.core.collections.MapComparator;
 import io.crate.metadata.FunctionInfo;
 import io.crate.data.Input;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.NumericVector;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -55,4 +61,44 @@ public abstract class CmpOperator extends Operator<Object> {
         }
     }
 
+    /**
+     * Numeric and timestamp arguments can be compared in batches.
+     * Both arguments have the same type, so they are either both integral or both floating point numbers.
+     */
+    @Override
+    public boolean supportsBatchEvaluate() {
+        List<DataType> argumentTypes = info.ident().argumentTypes();
+        for (DataType argumentType : argumentTypes) {
+            if (DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(argumentType) == false
+                && argumentType.equals(DataTypes.TIMESTAMP) == false) {
+                return false;
+            }
+        }
+        return argumentTypes.size() == 2;
+    }
+
+    @Override
+    public void evaluateBatch(NumericVector[] args, NumericVector result) {
+        assert args.length == 2 : "number of args must be 2";
+        NumericVector left = args[0];
+        NumericVector right = args[1];
+        boolean[] values = ((BooleanVector) result).values();
+        int size = left.size();
+        result.reset(size);
+        result.orNulls(left);
+        result.orNulls(right);
+        if (left instanceof LongVector && right instanceof LongVector) {
+            long[] leftValues = ((LongVector) left).values();
+            long[] rightValues = ((LongVector) right).values();
+            for (int i = 0; i < size; i++) {
+                values[i] = compare(Long.compare(leftValues[i], rightValues[i]));
+            }
+        } else {
+            // Double.compare has the same semantics as Double/Float.compareTo used by evaluate
+            for (int i = 0; i < size; i++) {
+                values[i] = compare(Double.compare(left.getDouble(i), right.getDouble(i)));
+            }
+        }
+    }
+
 }
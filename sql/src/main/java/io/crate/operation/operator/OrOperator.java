@@ -6,6 +6,8 @@ import io.crate.analyze.symbol.Symbol;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.TransactionContext;
 import io.crate.data.Input;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataTypes;
 
 public class OrOperator extends Operator<Boolean> {
@@ -95,4 +97,31 @@ public class OrOperator extends Operator<Boolean> {
         return left || right;
     }
 
+    @Override
+    public boolean supportsBatchEvaluate() {
+        return true;
+    }
+
+    @Override
+    public void evaluateBatch(NumericVector[] args, NumericVector result) {
+        assert args.length == 2 : "number of args must be 2";
+        // same three valued logic as evaluate
+        BooleanVector left = (BooleanVector) args[0];
+        BooleanVector right = (BooleanVector) args[1];
+        boolean[] values = ((BooleanVector) result).values();
+        int size = left.size();
+        result.reset(size);
+        for (int i = 0; i < size; i++) {
+            boolean leftIsNull = left.isNull(i);
+            boolean rightIsNull = right.isNull(i);
+            if ((leftIsNull == false && left.get(i)) || (rightIsNull == false && right.get(i))) {
+                values[i] = true;
+            } else if (leftIsNull || rightIsNull) {
+                result.setNull(i);
+            } else {
+                values[i] = false;
+            }
+        }
+    }
+
 }
@@ -36,14 +36,20 @@ public class AggregationPipe implements Projector {
 
     private final AggregateCollector collector;
     private final int numAggregations;
+    private final AggregateMode aggregateMode;
+    private final AggregationFunction[] functions;
+    private final Input[][] inputs;
+    private final RamAccountingContext ramAccountingContext;
 
     public AggregationPipe(List<CollectExpression<Row, ?>> expressions,
                            AggregateMode aggregateMode,
                            AggregationContext[] aggregations,
                            RamAccountingContext ramAccountingContext) {
         numAggregations = aggregations.length;
-        AggregationFunction[] functions = new AggregationFunction[aggregations.length];
-        Input[][] inputs = new Input[aggregations.length][];
+        this.aggregateMode = aggregateMode;
+        this.ramAccountingContext = ramAccountingContext;
+        functions = new AggregationFunction[aggregations.length];
+        inputs = new Input[aggregations.length][];
         for (int i = 0; i < aggregations.length; i++) {
             AggregationContext aggregation = aggregations[i];
             functions[i] = aggregation.function();
@@ -60,6 +66,16 @@ public class AggregationPipe implements Projector {
 
     @Override
     public BatchIterator apply(BatchIterator batchIterator) {
+        BatchAggregator batchAggregator = BatchAggregator.tryCreate(
+            batchIterator, aggregateMode, functions, inputs, ramAccountingContext);
+        if (batchAggregator != null) {
+            return CollectingBatchIterator.newInstance(
+                batchIterator,
+                () -> batchAggregator.aggregate(collector.supplier().get())
+                    .thenApply(collector.finisher())
+                    .thenApply(cells -> Collections.<Row>singletonList(new RowN(cells))),
+                numAggregations);
+        }
         return CollectingBatchIterator.newInstance(batchIterator,
             Collectors.collectingAndThen(
                 collector,
@@ -0,0 +1,194 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.concurrent.CompletableFutures;
+import io.crate.data.BatchIterator;
+import io.crate.data.Columns;
+import io.crate.data.Input;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.collect.collectors.LuceneBatchIterator;
+import io.crate.operation.reference.doc.lucene.NumericDocValuesBatchReader;
+import io.crate.operation.reference.doc.lucene.SegmentColumnStats;
+import io.crate.operation.vector.BatchInput;
+import io.crate.operation.vector.NumericVector;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Aggregates the documents of a {@link LuceneBatchIterator} in batches of {@link #BATCH_SIZE} documents,
+ * reading the doc values into primitive vectors and using {@link AggregationFunction#iterateBatch}
+ * instead of evaluating the inputs and aggregations row by row.
+ * <p>
+ * If the query matches all documents and all aggregations support it, segments without deletions are
+ * aggregated using {@link AggregationFunction#iterateSegmentStats} without visiting their documents.
+ */
+final class BatchAggregator {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final LuceneBatchIterator source;
+    private final RamAccountingContext ramAccounting;
+    private final AggregationFunction[] aggregations;
+    private final BatchInput[][] inputs;
+    private final NumericVector[][] args;
+    private final int[] docIds = new int[BATCH_SIZE];
+
+    /**
+     * The column of each aggregation used to read the segment statistics (null for aggregations without arguments),
+     * or null if not all aggregations can be computed from segment statistics.
+     */
+    @Nullable
+    private final NumericDocValuesBatchReader[] statsColumns;
+    private final SegmentColumnStats[] segmentStats;
+
+    /**
+     * @return a BatchAggregator or null if the source, the aggregations or their inputs don't support batch evaluation.
+     */
+    @Nullable
+    static BatchAggregator tryCreate(BatchIterator source,
+                                     AggregateMode mode,
+                                     AggregationFunction[] aggregations,
+                                     Input[][] inputs,
+                                     RamAccountingContext ramAccounting) {
+        if (mode == AggregateMode.PARTIAL_FINAL || (source instanceof LuceneBatchIterator) == false) {
+            return null;
+        }
+        Columns sourceColumns = source.rowData();
+        BatchInput[][] batchInputs = new BatchInput[aggregations.length][];
+        for (int i = 0; i < aggregations.length; i++) {
+            if (aggregations[i].supportsBatchIterate() == false) {
+                return null;
+            }
+            batchInputs[i] = new BatchInput[inputs[i].length];
+            for (int j = 0; j < inputs[i].length; j++) {
+                BatchInput batchInput = BatchInput.of(inputs[i][j], sourceColumns, BATCH_SIZE);
+                if (batchInput == null) {
+                    return null;
+                }
+                batchInputs[i][j] = batchInput;
+            }
+        }
+        return new BatchAggregator((LuceneBatchIterator) source, ramAccounting, aggregations, batchInputs);
+    }
+
+    private BatchAggregator(LuceneBatchIterator source,
+                            RamAccountingContext ramAccounting,
+                            AggregationFunction[] aggregations,
+                            BatchInput[][] inputs) {
+        this.source = source;
+        this.ramAccounting = ramAccounting;
+        this.aggregations = aggregations;
+        this.inputs = inputs;
+        this.args = new NumericVector[inputs.length][];
+        for (int i = 0; i < inputs.length; i++) {
+            args[i] = new NumericVector[inputs[i].length];
+        }
+        this.statsColumns = statsColumns(aggregations, inputs);
+        this.segmentStats = new SegmentColumnStats[aggregations.length];
+    }
+
+    @Nullable
+    private static NumericDocValuesBatchReader[] statsColumns(AggregationFunction[] aggregations, BatchInput[][] inputs) {
+        NumericDocValuesBatchReader[] columns = new NumericDocValuesBatchReader[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            if (aggregations[i].supportsSegmentStats() == false || inputs[i].length > 1) {
+                return null;
+            }
+            if (inputs[i].length == 1) {
+                NumericDocValuesBatchReader<?> column = inputs[i][0].docValuesReader();
+                if (column == null) {
+                    return null;
+                }
+                columns[i] = column;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Consumes the whole source, aggregating into {@code states}
+     */
+    CompletableFuture<Object[]> aggregate(Object[] states) {
+        try {
+            source.consumeDocIdBatches(docIds, new LuceneBatchIterator.DocIdBatchConsumer() {
+
+                @Override
+                public void accept(int[] docIds, int count) throws IOException {
+                    iterate(states, docIds, count);
+                }
+
+                @Override
+                public boolean tryConsumeLeaf(LeafReaderContext leaf) throws IOException {
+                    return iterateSegmentStats(states, leaf.reader());
+                }
+            });
+        } catch (Throwable t) {
+            return CompletableFutures.failedFuture(t);
+        }
+        return CompletableFuture.completedFuture(states);
+    }
+
+    /**
+     * @return true if the segment has been aggregated, false if its documents need to be visited
+     */
+    @SuppressWarnings("unchecked")
+    private boolean iterateSegmentStats(Object[] states, LeafReader reader) throws IOException {
+        if (statsColumns == null || reader.hasDeletions()) {
+            return false;
+        }
+        // read all statistics first, the states must not change unless all aggregations can use them
+        for (int i = 0; i < statsColumns.length; i++) {
+            NumericDocValuesBatchReader column = statsColumns[i];
+            SegmentColumnStats stats = column == null
+                ? SegmentColumnStats.forAllDocs(reader)
+                : column.segmentStats(reader);
+            if (stats == null) {
+                return false;
+            }
+            segmentStats[i] = stats;
+        }
+        for (int i = 0; i < aggregations.length; i++) {
+            states[i] = aggregations[i].iterateSegmentStats(ramAccounting, states[i], segmentStats[i]);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void iterate(Object[] states, int[] docIds, int count) throws IOException {
+        for (int i = 0; i < aggregations.length; i++) {
+            BatchInput[] aggInputs = inputs[i];
+            NumericVector[] aggArgs = args[i];
+            for (int j = 0; j < aggInputs.length; j++) {
+                aggArgs[j] = aggInputs[j].evaluate(docIds, count);
+            }
+            states[i] = aggregations[i].iterateBatch(ramAccounting, states[i], count, aggArgs);
+        }
+    }
+}
@@ -23,7 +23,7 @@ package io.crate.operation.projectors;
 
 import com.google.common.collect.Lists;
 import io.crate.Streamer;
-import io.crate.data.BatchConsumer;
+import io.crate.executor.transport.Transports;
 import io.crate.executor.transport.distributed.*;
 import io.crate.operation.NodeOperation;
 import io.crate.planner.distribution.DistributionInfo;
@@ -47,6 +47,7 @@ public class DistributingDownstreamFactory extends AbstractComponent {
     private final ClusterService clusterService;
     private final TransportDistributedResultAction transportDistributedResultAction;
     private final Logger distributingDownstreamLogger;
+    private final boolean compressResults;
 
     @Inject
     public DistributingDownstreamFactory(Settings settings,
@@ -56,12 +57,13 @@ public class DistributingDownstreamFactory extends AbstractComponent {
         this.clusterService = clusterService;
         this.transportDistributedResultAction = transportDistributedResultAction;
         distributingDownstreamLogger = Loggers.getLogger(DistributingConsumer.class, settings);
+        compressResults = Transports.COMPRESS_RESULTS_SETTING.get(settings);
     }
 
-    public BatchConsumer create(NodeOperation nodeOperation,
-                                DistributionInfo distributionInfo,
-                                UUID jobId,
-                                int pageSize) {
+    public DistributingConsumer create(NodeOperation nodeOperation,
+                                       DistributionInfo distributionInfo,
+                                       UUID jobId,
+                                       int pageSize) {
         Streamer<?>[] streamers = StreamerVisitor.streamersFromOutputs(nodeOperation.executionPhase());
         assert !ExecutionPhases.hasDirectResponseDownstream(nodeOperation.downstreamNodes())
             : "trying to build a DistributingDownstream but nodeOperation has a directResponse downstream";
@@ -99,7 +101,9 @@ public class DistributingDownstreamFactory extends AbstractComponent {
             nodeOperation.downstreamNodes(),
             transportDistributedResultAction,
             streamers,
-            pageSize
+            pageSize,
+            DistributingConsumer.DEFAULT_MAX_PAGES_IN_FLIGHT,
+            compressResults
         );
     }
 }
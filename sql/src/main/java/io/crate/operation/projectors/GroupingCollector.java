@@ -33,125 +33,186 @@ import io.crate.data.RowN;
 import io.crate.operation.aggregation.AggregationFunction;
 import io.crate.operation.collect.CollectExpression;
 import io.crate.types.DataType;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
- * Collector implementation which uses {@link Aggregator}s and {@code keyInputs}
+ * Collector implementation which uses {@link AggregationFunction}s and {@code keyInputs}
  * to group rows by key and aggregate the grouped values.
+ * <p>
+ * The data structure used to look up the aggregation states of a group depends on the key:
+ * single integral or floating point keys are grouped using {@link LongKeyGroupingCollector}, which avoids boxing
+ * the keys, all other keys are grouped using a {@link HashMap} in {@link ObjectKeyGroupingCollector}.
+ * <p>
+ * If the used memory approaches the limit of the circuit breaker, the groups are written to temporary files
+ * (see {@link SpilledGroups}) and removed from memory. Once all rows are consumed, the spilled groups are merged
+ * partition by partition. The temporary files are deleted on {@link #close()}.
+ * <p>
+ * A GroupingCollector must only be used for one collect operation at a time.
  *
- * @param <K> type of the key
+ * @param <A> the type of the container holding the aggregation states of all groups
  */
-public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>> {
+public abstract class GroupingCollector<A> implements Collector<Row, A, Iterable<Row>> {
+
+    private static final Logger LOGGER = Loggers.getLogger(GroupingCollector.class);
 
     private final CollectExpression<Row, ?>[] expressions;
     private final AggregationFunction[] aggregations;
     private final AggregateMode mode;
     private final Input[][] inputs;
-    private final RamAccountingContext ramAccountingContext;
-    private final BiConsumer<K, Object[]> applyKeyToCells;
-    private final int numKeyColumns;
-    private final SizeEstimator<K> keySizeEstimator;
-    private final Function<Row, K> keyExtractor;
-
-    static GroupingCollector<Object> singleKey(CollectExpression<Row, ?>[] expressions,
-                                               AggregateMode mode,
-                                               AggregationFunction[] aggregations,
-                                               Input[][] inputs,
-                                               RamAccountingContext ramAccountingContext,
-                                               Input<?> keyInput,
-                                               DataType keyType) {
-        return new GroupingCollector<>(
+    private final List<? extends DataType> keyTypes;
+    final RamAccountingContext ramAccountingContext;
+    final int numKeyColumns;
+    final SizeEstimator<Object> keySizeEstimator;
+
+    private final RamAccountingContext statesRamAccountingContext;
+
+    /**
+     * The bytes used by the groups or the merged partition which are currently held in memory.
+     * The context is shared with other projectors, so only these bytes are released once the data has been
+     * spilled to disk or emitted.
+     */
+    private long bytesInMemory = 0;
+    @Nullable
+    private SpilledGroups spilledGroups;
+
+    static GroupingCollector<?> singleKey(CollectExpression<Row, ?>[] expressions,
+                                          AggregateMode mode,
+                                          AggregationFunction[] aggregations,
+                                          Input[][] inputs,
+                                          RamAccountingContext ramAccountingContext,
+                                          Input<?> keyInput,
+                                          DataType keyType) {
+        if (LongKeyGroupingCollector.supportsType(keyType)) {
+            return new LongKeyGroupingCollector(
+                expressions,
+                aggregations,
+                mode,
+                inputs,
+                ramAccountingContext,
+                keyInput,
+                keyType
+            );
+        }
+        return new ObjectKeyGroupingCollector<>(
             expressions,
             aggregations,
             mode,
             inputs,
             ramAccountingContext,
             (key, cells) -> cells[0] = key,
-            1,
-            SizeEstimatorFactory.create(keyType),
-            row -> keyInput.value()
+            Collections.singletonList(keyType),
+            row -> keyInput.value(),
+            key -> key
         );
     }
 
-    static GroupingCollector<List<Object>> manyKeys(CollectExpression<Row, ?>[] expressions,
-                                                    AggregateMode mode,
-                                                    AggregationFunction[] aggregations,
-                                                    Input[][] inputs,
-                                                    RamAccountingContext ramAccountingContext,
-                                                    List<Input<?>> keyInputs,
-                                                    List<? extends DataType> keyTypes) {
-        return new GroupingCollector<>(
+    static GroupingCollector<?> manyKeys(CollectExpression<Row, ?>[] expressions,
+                                         AggregateMode mode,
+                                         AggregationFunction[] aggregations,
+                                         Input[][] inputs,
+                                         RamAccountingContext ramAccountingContext,
+                                         List<Input<?>> keyInputs,
+                                         List<? extends DataType> keyTypes) {
+        // the lookup key is re-used for every row and only copied if a new group is added
+        List<Object> lookupKey = new ArrayList<>(keyInputs.size());
+        return new ObjectKeyGroupingCollector<List<Object>>(
             expressions,
             aggregations,
             mode,
             inputs,
             ramAccountingContext,
             GroupingCollector::applyKeysToCells,
-            keyInputs.size(),
-            new MultiSizeEstimator(keyTypes),
-            row -> evalKeyInputs(keyInputs)
+            keyTypes,
+            row -> evalKeyInputs(keyInputs, lookupKey),
+            ArrayList::new
         );
     }
 
-    private static List<Object> evalKeyInputs(List<Input<?>> keyInputs) {
-        List<Object> key = new ArrayList<>(keyInputs.size());
+    private static List<Object> evalKeyInputs(List<Input<?>> keyInputs, List<Object> key) {
+        key.clear();
         for (Input<?> keyInput : keyInputs) {
             key.add(keyInput.value());
         }
         return key;
     }
 
-    private static void applyKeysToCells(List<Object> keys, Object[] cells) {
+    private static void applyKeysToCells(List<?> keys, Object[] cells) {
         for (int i = 0; i < keys.size(); i++) {
             cells[i] = keys.get(i);
         }
     }
 
-    private GroupingCollector(CollectExpression<Row, ?>[] expressions,
-                              AggregationFunction[] aggregations,
-                              AggregateMode mode,
-                              Input[][] inputs,
-                              RamAccountingContext ramAccountingContext,
-                              BiConsumer<K, Object[]> applyKeyToCells,
-                              int numKeyColumns,
-                              SizeEstimator<K> keySizeEstimator,
-                              Function<Row, K> keyExtractor) {
+    @SuppressWarnings("unchecked")
+    GroupingCollector(CollectExpression<Row, ?>[] expressions,
+                      AggregationFunction[] aggregations,
+                      AggregateMode mode,
+                      Input[][] inputs,
+                      RamAccountingContext ramAccountingContext,
+                      List<? extends DataType> keyTypes) {
         this.expressions = expressions;
         this.aggregations = aggregations;
         this.mode = mode;
         this.inputs = inputs;
         this.ramAccountingContext = ramAccountingContext;
-        this.applyKeyToCells = applyKeyToCells;
-        this.numKeyColumns = numKeyColumns;
-        this.keySizeEstimator = keySizeEstimator;
-        this.keyExtractor = keyExtractor;
+        this.statesRamAccountingContext = new StatesRamAccountingContext();
+        this.keyTypes = keyTypes;
+        this.numKeyColumns = keyTypes.size();
+        if (numKeyColumns == 1) {
+            keySizeEstimator = SizeEstimatorFactory.create(keyTypes.get(0));
+        } else {
+            keySizeEstimator = (SizeEstimator<Object>) (SizeEstimator) new MultiSizeEstimator(keyTypes);
+        }
     }
 
     @Override
-    public Supplier<Map<K, Object[]>> supplier() {
-        return HashMap::new;
+    public Supplier<A> supplier() {
+        return () -> {
+            close();
+            bytesInMemory = 0;
+            return newGroups();
+        };
     }
 
     @Override
-    public BiConsumer<Map<K, Object[]>, Row> accumulator() {
+    public BiConsumer<A, Row> accumulator() {
         return this::onNextRow;
     }
 
     @Override
-    public BinaryOperator<Map<K, Object[]>> combiner() {
-        return (state1, state2) -> { throw new UnsupportedOperationException("combine not supported"); };
+    public Function<A, Iterable<Row>> finisher() {
+        return groups -> {
+            if (spilledGroups == null) {
+                return mapToRows(groups);
+            }
+            spill(groups);
+            try {
+                spilledGroups.finishWriting();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return mergeSpilledGroups();
+        };
     }
 
     @Override
-    public Function<Map<K, Object[]>, Iterable<Row>> finisher() {
-        return this::mapToRows;
+    public BinaryOperator<A> combiner() {
+        return (state1, state2) -> { throw new UnsupportedOperationException("combine not supported"); };
     }
 
     @Override
@@ -159,61 +220,187 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         return Collections.emptySet();
     }
 
-    private void onNextRow(Map<K, Object[]> statesByKey, Row row) {
+    private void onNextRow(A groups, Row row) {
         for (CollectExpression<Row, ?> expression : expressions) {
             expression.setNextRow(row);
         }
-        K key = keyExtractor.apply(row);
-        Object[] states = statesByKey.get(key);
-        if (states == null) {
-            addNewEntry(statesByKey, key);
-        } else {
-            for (int i = 0; i < aggregations.length; i++) {
-                states[i] = mode.onRow(ramAccountingContext, aggregations[i], states[i], inputs[i]);
-            }
+        if (addRow(groups, row) &&
+            SpillThreshold.reached(ramAccountingContext, bytesInMemory)) {
+            spill(groups);
         }
     }
 
-    private void addNewEntry(Map<K, Object[]> statesByKey, K key) {
-        Object[] states;
-        states = new Object[aggregations.length];
-        for (int i = 0; i < aggregations.length; i++) {
-            AggregationFunction aggregation = aggregations[i];
-            states[i] = mode.onRow(
-                ramAccountingContext, aggregation, aggregation.newState(ramAccountingContext), inputs[i]);
-        }
-        ramAccountingContext.addBytes( // key size + 32 bytes for entry + 4 bytes for increased capacity
-            RamAccountingContext.roundUp(keySizeEstimator.estimateSize(key) + 36L));
-        statesByKey.put(key, states);
+    abstract A newGroups();
+
+    /**
+     * Account the memory used by a new group or its states.
+     */
+    void addGroupBytes(long bytes) {
+        // counted before adding them, the context keeps the bytes even if the breaker trips
+        bytesInMemory += bytes;
+        ramAccountingContext.addBytes(bytes);
     }
 
-    private Iterable<Row> mapToRows(Map<K, Object[]> statesByKey) {
-        return Iterables.transform(statesByKey.entrySet(), new com.google.common.base.Function<Map.Entry<K, Object[]>, Row>() {
+    /**
+     * Look up the states of the group the current row belongs to and either
+     * create them using {@link #newStates()} or update them using {@link #aggregate(Object[])}.
+     *
+     * @return true if a new group has been added
+     */
+    abstract boolean addRow(A groups, Row row);
+
+    /**
+     * Call the consumer for each group with the key in its output form:
+     * A single value if there is only one key column or a {@code List} with the values of all key columns.
+     */
+    abstract void forEachGroup(A groups, BiConsumer<Object, Object[]> consumer);
+
+    abstract void clear(A groups);
 
-            RowN row = new RowN(numKeyColumns + aggregations.length);
-            Object[] cells = new Object[row.numColumns()];
+    abstract Iterable<Row> mapToRows(A groups);
 
-            {
-                row.cells(cells);
+    private void spill(A groups) {
+        try {
+            if (spilledGroups == null) {
+                spilledGroups = new SpilledGroups(keyTypes, aggregations);
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("context: {} spilling groups using {} bytes to disk", ramAccountingContext.contextId(), bytesInMemory);
+        }
+        forEachGroup(groups, this::writeSpilledGroup);
+        clear(groups);
+        ramAccountingContext.releaseBytes(bytesInMemory);
+        bytesInMemory = 0;
+    }
 
-            @Nullable
-            @Override
-            public Row apply(@Nullable Map.Entry<K, Object[]> input) {
-                assert input != null : "input must not be null";
-
-                applyKeyToCells.accept(input.getKey(), cells);
-                int c = numKeyColumns;
-                Object[] states = input.getValue();
-                for (int i = 0; i < states.length; i++) {
-                    cells[c] = mode.finishCollect(ramAccountingContext, aggregations[i], states[i]);
-                    c++;
+    private void writeSpilledGroup(Object key, Object[] states) {
+        try {
+            spilledGroups.write(key, states);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Iterable<Row> mergeSpilledGroups() {
+        List<Integer> partitions = IntStream.range(0, SpilledGroups.NUM_PARTITIONS).boxed().collect(Collectors.toList());
+        return Iterables.concat(Iterables.transform(partitions, this::mergePartition));
+    }
+
+    private Iterable<Row> mergePartition(Integer partition) {
+        ramAccountingContext.releaseBytes(bytesInMemory);
+        bytesInMemory = 0;
+
+        Map<Object, Object[]> statesByKey = new HashMap<>();
+        try {
+            spilledGroups.readPartition(partition, (key, states) -> {
+                Object[] existingStates = statesByKey.get(key);
+                if (existingStates == null) {
+                    addGroupBytes(RamAccountingContext.roundUp(keySizeEstimator.estimateSize(key) + 36L));
+                    statesByKey.put(key, states);
+                } else {
+                    reduceStates(existingStates, states);
                 }
-                return row;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Object[] cells = newCells();
+        RowN row = new RowN(cells);
+        return Iterables.transform(statesByKey.entrySet(), entry -> {
+            Object key = entry.getKey();
+            if (numKeyColumns == 1) {
+                cells[0] = key;
+            } else {
+                applyKeysToCells((List<?>) key, cells);
             }
+            applyFinalStatesToCells(entry.getValue(), cells);
+            return row;
         });
     }
 
+    // the states at index i have been created by aggregations[i], so they match its partial type
+    @SuppressWarnings("unchecked")
+    private void reduceStates(Object[] existingStates, Object[] states) {
+        for (int i = 0; i < aggregations.length; i++) {
+            existingStates[i] = aggregations[i].reduce(statesRamAccountingContext, existingStates[i], states[i]);
+        }
+    }
+
+    /**
+     * Delete the groups which have been spilled to disk, if any.
+     */
+    public void close() {
+        if (spilledGroups != null) {
+            try {
+                spilledGroups.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                spilledGroups = null;
+                ramAccountingContext.releaseBytes(bytesInMemory);
+                bytesInMemory = 0;
+            }
+        }
+    }
+
+    /**
+     * Create the states for a new group, initialized with the values of the current row.
+     */
+    Object[] newStates() {
+        Object[] states = new Object[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            AggregationFunction aggregation = aggregations[i];
+            states[i] = mode.onRow(
+                statesRamAccountingContext, aggregation, aggregation.newState(statesRamAccountingContext), inputs[i]);
+        }
+        return states;
+    }
+
+    void aggregate(Object[] states) {
+        for (int i = 0; i < aggregations.length; i++) {
+            states[i] = mode.onRow(statesRamAccountingContext, aggregations[i], states[i], inputs[i]);
+        }
+    }
+
+    /**
+     * Create the cells of a result row, the key columns must be set by the caller.
+     */
+    Object[] newCells() {
+        return new Object[numKeyColumns + aggregations.length];
+    }
+
+    void applyFinalStatesToCells(Object[] states, Object[] cells) {
+        int c = numKeyColumns;
+        for (int i = 0; i < states.length; i++) {
+            cells[c] = mode.finishCollect(statesRamAccountingContext, aggregations[i], states[i]);
+            c++;
+        }
+    }
+
+    /**
+     * Passed to the aggregations instead of the shared context, so that the bytes used by the states
+     * are counted as bytes of the groups. The aggregations only add bytes to the context.
+     */
+    private final class StatesRamAccountingContext extends RamAccountingContext {
+
+        StatesRamAccountingContext() {
+            super(ramAccountingContext.contextId(), new NoopCircuitBreaker(CircuitBreaker.FIELDDATA));
+        }
+
+        @Override
+        public void addBytes(long bytes) throws CircuitBreakingException {
+            addGroupBytes(bytes);
+        }
+
+        @Override
+        public void addBytesWithoutBreaking(long bytes) {
+            bytesInMemory += bytes;
+            ramAccountingContext.addBytesWithoutBreaking(bytes);
+        }
+    }
 
     private static class MultiSizeEstimator extends SizeEstimator<List<Object>> {
 
@@ -31,10 +31,11 @@ import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class GroupingProjector implements Projector {
 
-    private final GroupingCollector<Object> collector;
+    private final GroupingCollector<?> collector;
     private final int numCols;
 
 
@@ -66,8 +67,7 @@ public class GroupingProjector implements Projector {
                 keyTypes.get(0)
             );
         } else {
-            //noinspection unchecked
-            collector = (GroupingCollector<Object>) (GroupingCollector) GroupingCollector.manyKeys(
+            collector = GroupingCollector.manyKeys(
                 collectExpressions,
                 mode,
                 functions,
@@ -86,7 +86,10 @@ public class GroupingProjector implements Projector {
 
     @Override
     public BatchIterator apply(BatchIterator batchIterator) {
-        return CollectingBatchIterator.newInstance(batchIterator, collector, numCols);
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        closed.thenRun(collector::close);
+        return new ListenableBatchIterator(
+            CollectingBatchIterator.newInstance(batchIterator, collector, numCols), closed);
     }
 
     @Override
@@ -0,0 +1,182 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * GroupingCollector for a single integral or floating point key.
+ * <p>
+ * The keys are stored as primitive longs in an open addressing hash map, which avoids boxing the key of each row and
+ * the per-entry objects of a {@link java.util.HashMap}. Floating point keys are stored as their raw bits, which
+ * matches the equality of {@link Double#equals(Object)} and {@link Float#equals(Object)}.
+ * The states of the {@code null} key are kept separately.
+ */
+class LongKeyGroupingCollector extends GroupingCollector<LongKeyGroupingCollector.Groups> {
+
+    private static final Set<DataType> SUPPORTED_TYPES = ImmutableSet.of(
+        DataTypes.BYTE,
+        DataTypes.SHORT,
+        DataTypes.INTEGER,
+        DataTypes.LONG,
+        DataTypes.TIMESTAMP,
+        DataTypes.FLOAT,
+        DataTypes.DOUBLE
+    );
+
+    // 8 bytes key + 8 bytes states reference, doubled to account for the unused capacity of the map
+    private static final long ENTRY_SIZE = 32L;
+
+    private final Input<?> keyInput;
+    private final DataType keyType;
+
+    static boolean supportsType(DataType keyType) {
+        return SUPPORTED_TYPES.contains(keyType);
+    }
+
+    static class Groups {
+        private final LongObjectHashMap<Object[]> statesByKey = new LongObjectHashMap<>();
+        private Object[] nullKeyStates = null;
+    }
+
+    LongKeyGroupingCollector(CollectExpression<Row, ?>[] expressions,
+                             AggregationFunction[] aggregations,
+                             AggregateMode mode,
+                             Input[][] inputs,
+                             RamAccountingContext ramAccountingContext,
+                             Input<?> keyInput,
+                             DataType keyType) {
+        super(expressions, aggregations, mode, inputs, ramAccountingContext, Collections.singletonList(keyType));
+        assert supportsType(keyType) : "keyType must be an integral or floating point type, got: " + keyType;
+        this.keyInput = keyInput;
+        this.keyType = keyType;
+    }
+
+    private long toLong(Number key) {
+        if (keyType.equals(DataTypes.DOUBLE)) {
+            return Double.doubleToLongBits(key.doubleValue());
+        }
+        if (keyType.equals(DataTypes.FLOAT)) {
+            return Float.floatToIntBits(key.floatValue());
+        }
+        return key.longValue();
+    }
+
+    private Object fromLong(long key) {
+        if (keyType.equals(DataTypes.DOUBLE)) {
+            return Double.longBitsToDouble(key);
+        }
+        if (keyType.equals(DataTypes.FLOAT)) {
+            return Float.intBitsToFloat((int) key);
+        }
+        return keyType.value(key);
+    }
+
+    @Override
+    Groups newGroups() {
+        return new Groups();
+    }
+
+    @Override
+    boolean addRow(Groups groups, Row row) {
+        Object key = keyInput.value();
+        if (key == null) {
+            if (groups.nullKeyStates == null) {
+                groups.nullKeyStates = newStates();
+                addGroupBytes(ENTRY_SIZE);
+                return true;
+            }
+            aggregate(groups.nullKeyStates);
+            return false;
+        }
+        long longKey = toLong((Number) key);
+        Object[] states = groups.statesByKey.get(longKey);
+        if (states == null) {
+            groups.statesByKey.put(longKey, newStates());
+            addGroupBytes(ENTRY_SIZE);
+            return true;
+        }
+        aggregate(states);
+        return false;
+    }
+
+    @Override
+    void forEachGroup(Groups groups, BiConsumer<Object, Object[]> consumer) {
+        for (LongObjectCursor<Object[]> cursor : groups.statesByKey) {
+            consumer.accept(fromLong(cursor.key), cursor.value);
+        }
+        if (groups.nullKeyStates != null) {
+            consumer.accept(null, groups.nullKeyStates);
+        }
+    }
+
+    @Override
+    void clear(Groups groups) {
+        // release the backing arrays; clear() would keep them at their current size
+        groups.statesByKey.release();
+        groups.nullKeyStates = null;
+    }
+
+    @Override
+    Iterable<Row> mapToRows(Groups groups) {
+        Iterable<Row> rows = Iterables.transform(groups.statesByKey, new com.google.common.base.Function<LongObjectCursor<Object[]>, Row>() {
+
+            Object[] cells = newCells();
+            RowN row = new RowN(cells);
+
+            @Override
+            public Row apply(LongObjectCursor<Object[]> input) {
+                assert input != null : "input must not be null";
+
+                cells[0] = fromLong(input.key);
+                applyFinalStatesToCells(input.value, cells);
+                return row;
+            }
+        });
+        if (groups.nullKeyStates == null) {
+            return rows;
+        }
+        Iterable<Row> nullKeyRow = Iterables.transform(Collections.singletonList(groups.nullKeyStates), states -> {
+            Object[] cells = newCells();
+            applyFinalStatesToCells(states, cells);
+            return new RowN(cells);
+        });
+        return Iterables.concat(rows, nullKeyRow);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.google.common.collect.Iterables;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.types.DataType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * GroupingCollector which uses a {@link HashMap} to look up the states of a group.
+ *
+ * @param <K> type of the key
+ */
+class ObjectKeyGroupingCollector<K> extends GroupingCollector<Map<K, Object[]>> {
+
+    private final BiConsumer<K, Object[]> applyKeyToCells;
+    private final Function<Row, K> keyExtractor;
+    private final Function<K, K> copyKey;
+
+    /**
+     * @param keyExtractor returns the key of the current row; The returned instance may be re-used between rows.
+     * @param copyKey used to copy the key returned by {@code keyExtractor} before it is added to the map.
+     */
+    ObjectKeyGroupingCollector(CollectExpression<Row, ?>[] expressions,
+                               AggregationFunction[] aggregations,
+                               AggregateMode mode,
+                               Input[][] inputs,
+                               RamAccountingContext ramAccountingContext,
+                               BiConsumer<K, Object[]> applyKeyToCells,
+                               List<? extends DataType> keyTypes,
+                               Function<Row, K> keyExtractor,
+                               Function<K, K> copyKey) {
+        super(expressions, aggregations, mode, inputs, ramAccountingContext, keyTypes);
+        this.applyKeyToCells = applyKeyToCells;
+        this.keyExtractor = keyExtractor;
+        this.copyKey = copyKey;
+    }
+
+    @Override
+    Map<K, Object[]> newGroups() {
+        return new HashMap<>();
+    }
+
+    @Override
+    boolean addRow(Map<K, Object[]> statesByKey, Row row) {
+        K key = keyExtractor.apply(row);
+        Object[] states = statesByKey.get(key);
+        if (states == null) {
+            addNewEntry(statesByKey, key);
+            return true;
+        }
+        aggregate(states);
+        return false;
+    }
+
+    private void addNewEntry(Map<K, Object[]> statesByKey, K key) {
+        Object[] states = newStates();
+        addGroupBytes( // key size + 32 bytes for entry + 4 bytes for increased capacity
+            RamAccountingContext.roundUp(keySizeEstimator.estimateSize(key) + 36L));
+        statesByKey.put(copyKey.apply(key), states);
+    }
+
+    @Override
+    void forEachGroup(Map<K, Object[]> statesByKey, BiConsumer<Object, Object[]> consumer) {
+        statesByKey.forEach(consumer);
+    }
+
+    @Override
+    void clear(Map<K, Object[]> statesByKey) {
+        statesByKey.clear();
+    }
+
+    @Override
+    Iterable<Row> mapToRows(Map<K, Object[]> statesByKey) {
+        return Iterables.transform(statesByKey.entrySet(), new com.google.common.base.Function<Map.Entry<K, Object[]>, Row>() {
+
+            Object[] cells = newCells();
+            RowN row = new RowN(cells);
+
+            @Override
+            public Row apply(Map.Entry<K, Object[]> input) {
+                assert input != null : "input must not be null";
+
+                applyKeyToCells.accept(input.getKey(), cells);
+                applyFinalStatesToCells(input.getValue(), cells);
+                return row;
+            }
+        });
+    }
+}
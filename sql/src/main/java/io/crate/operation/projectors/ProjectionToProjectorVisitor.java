@@ -29,12 +29,14 @@ import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.Symbols;
 import io.crate.analyze.symbol.ValueSymbolVisitor;
 import io.crate.breaker.RamAccountingContext;
+import io.crate.collections.Lists2;
 import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.executor.transport.ShardDeleteRequest;
 import io.crate.executor.transport.ShardUpsertRequest;
 import io.crate.executor.transport.TransportActionProvider;
+import io.crate.executor.transport.Transports;
 import io.crate.metadata.*;
 import io.crate.operation.AggregationContext;
 import io.crate.operation.InputFactory;
@@ -165,7 +167,9 @@ public class ProjectionToProjectorVisitor
             ctx.expressions(),
             numOutputs,
             OrderingByPosition.arrayOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
-            projection.offset()
+            projection.offset(),
+            Symbols.streamerArray(Lists2.concat(projection.outputs(), projection.orderBy())),
+            context.ramAccountingContext
         );
     }
 
@@ -436,7 +440,8 @@ public class ProjectionToProjectorVisitor
                 transportActionProvider.transportFetchNodeAction(),
                 projectorContext.nodeIdsToStreamers(),
                 context.jobId,
-                projection.collectPhaseId()
+                projection.collectPhaseId(),
+                Transports.COMPRESS_RESULTS_SETTING.get(settings)
             ),
             functions,
             projection.outputSymbols(),
@@ -0,0 +1,279 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.google.common.collect.Iterables;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowSizeEstimator;
+import io.crate.data.Buckets;
+import io.crate.data.CollectionBucket;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.merge.KeyIterable;
+import io.crate.operation.merge.SortedPagingIterator;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.logging.Loggers;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collector implementation which collects all rows in order to sort them and skips the first {@code offset} rows
+ * of the sorted result.
+ * <p>
+ * If the used memory approaches the limit of the circuit breaker, the rows in memory are sorted and written to a
+ * temporary file as a sorted run, using the {@link Streamer}s of the columns. The result is then created by merging
+ * all sorted runs and the rows which remained in memory. The temporary files are deleted on {@link #close()}.
+ */
+class SortingCollector implements Collector<Row, List<Object[]>, Iterable<Row>>, Closeable {
+
+    private static final Logger LOGGER = Loggers.getLogger(SortingCollector.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Collection<? extends Input<?>> inputs;
+    private final Iterable<? extends CollectExpression<Row, ?>> collectExpressions;
+    private final int numOutputs;
+    private final Comparator<Object[]> comparator;
+    private final int offset;
+    private final Streamer[] streamers;
+    private final RamAccountingContext ramAccountingContext;
+
+    private final List<SortedRun> sortedRuns = new ArrayList<>();
+    private long bytesInMemory = 0;
+    @Nullable
+    private Path directory;
+
+    /**
+     * @param inputs             contains output {@link Input}s and orderBy {@link Input}s
+     * @param collectExpressions gathered from outputs and orderBy inputs
+     * @param numOutputs         <code>inputs</code> contains this much output {@link Input}s starting form index 0
+     * @param comparator         used to sort the rows
+     * @param offset             the number of rows to skip (after sort)
+     * @param streamers          streamers for all <code>inputs</code>, used to write sorted runs to disk
+     */
+    SortingCollector(Collection<? extends Input<?>> inputs,
+                     Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                     int numOutputs,
+                     Comparator<Object[]> comparator,
+                     int offset,
+                     Streamer[] streamers,
+                     RamAccountingContext ramAccountingContext) {
+        assert streamers.length == inputs.size() : "must have a streamer for each input";
+        this.inputs = inputs;
+        this.collectExpressions = collectExpressions;
+        this.numOutputs = numOutputs;
+        this.comparator = comparator;
+        this.offset = offset;
+        this.streamers = streamers;
+        this.ramAccountingContext = ramAccountingContext;
+    }
+
+    @Override
+    public Supplier<List<Object[]>> supplier() {
+        return ArrayList::new;
+    }
+
+    @Override
+    public BiConsumer<List<Object[]>, Row> accumulator() {
+        return this::onNextRow;
+    }
+
+    @Override
+    public BinaryOperator<List<Object[]>> combiner() {
+        return (state1, state2) -> { throw new UnsupportedOperationException("combine not supported"); };
+    }
+
+    @Override
+    public Function<List<Object[]>, Iterable<Row>> finisher() {
+        return this::sortAndCreateResult;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    private void onNextRow(List<Object[]> rows, Row row) {
+        for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
+            collectExpression.setNextRow(row);
+        }
+        Object[] cells = new Object[inputs.size()];
+        int i = 0;
+        for (Input<?> input : inputs) {
+            cells[i++] = input.value();
+        }
+        long size = RowSizeEstimator.INSTANCE.estimateSize(cells);
+        ramAccountingContext.addBytes(size);
+        bytesInMemory += size;
+        rows.add(cells);
+
+        if (SpillThreshold.reached(ramAccountingContext, bytesInMemory)) {
+            spill(rows);
+        }
+    }
+
+    private void spill(List<Object[]> rows) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("context: {} spilling {} sorted rows using {} bytes to disk",
+                ramAccountingContext.contextId(), rows.size(), bytesInMemory);
+        }
+        rows.sort(comparator);
+        try {
+            if (directory == null) {
+                directory = Files.createTempDirectory("crate-sort");
+            }
+            Path file = directory.resolve("run-" + sortedRuns.size());
+            try (StreamOutput out = new OutputStreamStreamOutput(
+                new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+
+                for (Object[] cells : rows) {
+                    for (int i = 0; i < cells.length; i++) {
+                        streamers[i].writeValueTo(out, cells[i]);
+                    }
+                }
+            }
+            sortedRuns.add(new SortedRun(file, rows.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rows.clear();
+        ramAccountingContext.releaseBytes(bytesInMemory);
+        bytesInMemory = 0;
+    }
+
+    private Iterable<Row> sortAndCreateResult(List<Object[]> rows) {
+        rows.sort(comparator);
+        if (sortedRuns.isEmpty()) {
+            if (offset == 0) {
+                return new CollectionBucket(rows, numOutputs);
+            }
+            return new CollectionBucket(rows.subList(offset, rows.size()), numOutputs);
+        }
+        List<KeyIterable<Integer, Object[]>> iterables = new ArrayList<>(sortedRuns.size() + 1);
+        for (int i = 0; i < sortedRuns.size(); i++) {
+            iterables.add(new KeyIterable<>(i, sortedRuns.get(i)));
+        }
+        iterables.add(new KeyIterable<>(sortedRuns.size(), rows));
+        Iterable<Object[]> sortedRows = () -> {
+            SortedPagingIterator<Integer, Object[]> mergingIterator = new SortedPagingIterator<>(comparator, false);
+            mergingIterator.merge(iterables);
+            mergingIterator.finish();
+            return mergingIterator;
+        };
+        return Iterables.transform(Iterables.skip(sortedRows, offset), Buckets.arrayToRowFunction(numOutputs));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            IOUtils.close(sortedRuns);
+        } finally {
+            sortedRuns.clear();
+            if (directory != null) {
+                IOUtils.rm(directory);
+                directory = null;
+            }
+        }
+    }
+
+    /**
+     * Rows which have been sorted and written to a file.
+     */
+    private class SortedRun implements Iterable<Object[]>, Closeable {
+
+        private final Path file;
+        private final int numRows;
+        private final List<StreamInput> openInputs = new ArrayList<>();
+
+        SortedRun(Path file, int numRows) {
+            this.file = file;
+            this.numRows = numRows;
+        }
+
+        @Override
+        public Iterator<Object[]> iterator() {
+            StreamInput in;
+            try {
+                in = new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            openInputs.add(in);
+            return new Iterator<Object[]>() {
+
+                int remaining = numRows;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public Object[] next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException("sorted run is exhausted");
+                    }
+                    Object[] cells = new Object[streamers.length];
+                    try {
+                        for (int i = 0; i < cells.length; i++) {
+                            cells[i] = streamers[i].readValueFrom(in);
+                        }
+                        remaining--;
+                        if (remaining == 0) {
+                            openInputs.remove(in);
+                            in.close();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return cells;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(openInputs);
+            openInputs.clear();
+        }
+    }
+}
@@ -22,20 +22,24 @@
 package io.crate.operation.projectors;
 
 import com.google.common.base.Preconditions;
+import io.crate.Streamer;
+import io.crate.breaker.RamAccountingContext;
 import io.crate.data.*;
 import io.crate.operation.collect.CollectExpression;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Sort rows by ordering criteria and process given offset before emitting.
  * <p>
  * Compared to {@link SortingTopNProjector} this projector does not support limiting,
  * while the {@link SortingTopNProjector} does not work WITHOUT a limit.
+ * <p>
+ * If the rows don't fit into memory they're sorted using an external merge sort, see {@link SortingCollector}.
  */
 class SortingProjector implements Projector {
 
@@ -45,58 +49,61 @@ class SortingProjector implements Projector {
     private final Comparator<Object[]> comparator;
     private final int offset;
     private final int numOutputs;
+    private final Streamer[] streamers;
+    private final RamAccountingContext ramAccountingContext;
 
     /**
-     * @param inputs             contains output {@link Input}s and orderBy {@link Input}s
-     * @param collectExpressions gathered from outputs and orderBy inputs
-     * @param numOutputs         <code>inputs</code> contains this much output {@link Input}s starting form index 0
-     * @param comparator         ordering that is used to compare the rows
-     * @param offset             the initial offset, this number of rows are skipped
+     * @param inputs               contains output {@link Input}s and orderBy {@link Input}s
+     * @param collectExpressions   gathered from outputs and orderBy inputs
+     * @param numOutputs           <code>inputs</code> contains this much output {@link Input}s starting form index 0
+     * @param comparator           ordering that is used to compare the rows
+     * @param offset               the initial offset, this number of rows are skipped
+     * @param streamers            streamers for all <code>inputs</code>
+     * @param ramAccountingContext used to account the memory of the rows which are held in memory
      */
     SortingProjector(Collection<? extends Input<?>> inputs,
                      Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
                      int numOutputs,
                      Comparator<Object[]> comparator,
-                     int offset) {
+                     int offset,
+                     Streamer[] streamers,
+                     RamAccountingContext ramAccountingContext) {
         Preconditions.checkArgument(offset >= 0, "invalid offset %s", offset);
         this.numOutputs = numOutputs;
         this.inputs = inputs;
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
         this.offset = offset;
+        this.streamers = streamers;
+        this.ramAccountingContext = ramAccountingContext;
     }
 
 
     @Override
     public BatchIterator apply(BatchIterator batchIterator) {
-        Collector<Row, ?, Bucket> collector = Collectors.mapping(
-            this::getCells,
-            Collectors.collectingAndThen(Collectors.toList(), this::sortAndCreateBucket));
-        return CollectingBatchIterator.newInstance(batchIterator, collector, numOutputs);
+        SortingCollector collector = new SortingCollector(
+            inputs,
+            collectExpressions,
+            numOutputs,
+            comparator.reversed(),
+            offset,
+            streamers,
+            ramAccountingContext
+        );
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        closed.thenRun(() -> {
+            try {
+                collector.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return new ListenableBatchIterator(
+            CollectingBatchIterator.newInstance(batchIterator, collector, numOutputs), closed);
     }
 
     @Override
     public boolean providesIndependentScroll() {
         return true;
     }
-
-    private Object[] getCells(Row row) {
-        for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
-            collectExpression.setNextRow(row);
-        }
-        Object[] newRow = new Object[inputs.size()];
-        int i = 0;
-        for (Input<?> input : inputs) {
-            newRow[i++] = input.value();
-        }
-        return newRow;
-    }
-
-    private Bucket sortAndCreateBucket(List<Object[]> rows) {
-        rows.sort(comparator.reversed());
-        if (offset == 0) {
-            return new CollectionBucket(rows, numOutputs);
-        }
-        return new CollectionBucket(rows.subList(offset, rows.size()), numOutputs);
-    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import io.crate.breaker.RamAccountingContext;
+
+/**
+ * Decides if a projector should write the data it holds in memory to disk.
+ */
+final class SpillThreshold {
+
+    /**
+     * Data is spilled if the used bytes of the breaker exceed this ratio of the breaker limit ...
+     */
+    private static final double LIMIT_RATIO = 0.8;
+
+    /**
+     * ... and the data in memory uses at least this ratio of the breaker limit.
+     * This prevents spilling only a few entries at a time if the memory is used by someone else.
+     */
+    private static final double MIN_RATIO = 0.1;
+
+    private SpillThreshold() {
+    }
+
+    /**
+     * @param bytesInMemory the bytes used by the data which would be spilled
+     */
+    static boolean reached(RamAccountingContext ramAccountingContext, long bytesInMemory) {
+        return ramAccountingContext.exceedsLimit(LIMIT_RATIO) &&
+               bytesInMemory >= ramAccountingContext.limit() * MIN_RATIO;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.carrotsearch.hppc.BitMixer;
+import io.crate.Streamer;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.types.DataType;
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Groups and their aggregation states which have been written to temporary files by a {@link GroupingCollector}.
+ * <p>
+ * The groups are hash partitioned by key, so that all states of a key end up in the same partition
+ * and each partition can be merged on its own.
+ * <p>
+ * Keys are written using the streamer of the key types; states using the streamer of the
+ * {@link AggregationFunction#partialType()}, the same way partial aggregation states are sent to other nodes.
+ */
+class SpilledGroups implements Closeable {
+
+    static final int NUM_PARTITIONS = 16;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Streamer[] keyStreamers;
+    private final Streamer[] stateStreamers;
+    private final Path directory;
+    private final Path[] files = new Path[NUM_PARTITIONS];
+    private final StreamOutput[] outputs = new StreamOutput[NUM_PARTITIONS];
+    private final int[] numGroups = new int[NUM_PARTITIONS];
+    private boolean writing = true;
+
+    SpilledGroups(List<? extends DataType> keyTypes, AggregationFunction[] aggregations) throws IOException {
+        keyStreamers = new Streamer[keyTypes.size()];
+        for (int i = 0; i < keyStreamers.length; i++) {
+            keyStreamers[i] = keyTypes.get(i).streamer();
+        }
+        stateStreamers = new Streamer[aggregations.length];
+        for (int i = 0; i < stateStreamers.length; i++) {
+            stateStreamers[i] = aggregations[i].partialType().streamer();
+        }
+        directory = Files.createTempDirectory("crate-group-by");
+        try {
+            for (int i = 0; i < NUM_PARTITIONS; i++) {
+                files[i] = directory.resolve("partition-" + i);
+                outputs[i] = new OutputStreamStreamOutput(
+                    new BufferedOutputStream(Files.newOutputStream(files[i]), BUFFER_SIZE));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param key a single key value or a {@code List} with the values of all keys
+     */
+    void write(Object key, Object[] states) throws IOException {
+        assert writing : "must not write after finishWriting() has been called";
+        int partition = partition(key);
+        StreamOutput out = outputs[partition];
+        if (keyStreamers.length == 1) {
+            keyStreamers[0].writeValueTo(out, key);
+        } else {
+            List<?> keys = (List<?>) key;
+            for (int i = 0; i < keyStreamers.length; i++) {
+                keyStreamers[i].writeValueTo(out, keys.get(i));
+            }
+        }
+        for (int i = 0; i < stateStreamers.length; i++) {
+            stateStreamers[i].writeValueTo(out, states[i]);
+        }
+        numGroups[partition]++;
+    }
+
+    private static int partition(Object key) {
+        return BitMixer.mix32(Objects.hashCode(key)) & (NUM_PARTITIONS - 1);
+    }
+
+    void finishWriting() throws IOException {
+        if (writing) {
+            writing = false;
+            IOUtils.close(outputs);
+        }
+    }
+
+    /**
+     * Read all groups of a partition. A key may be read multiple times if it has been spilled more than once.
+     */
+    void readPartition(int partition, BiConsumer<Object, Object[]> consumer) throws IOException {
+        assert !writing : "finishWriting() must be called before reading";
+        try (StreamInput in = new InputStreamStreamInput(
+            new BufferedInputStream(Files.newInputStream(files[partition]), BUFFER_SIZE))) {
+
+            for (int g = 0; g < numGroups[partition]; g++) {
+                Object key;
+                if (keyStreamers.length == 1) {
+                    key = keyStreamers[0].readValueFrom(in);
+                } else {
+                    List<Object> keys = new ArrayList<>(keyStreamers.length);
+                    for (Streamer keyStreamer : keyStreamers) {
+                        keys.add(keyStreamer.readValueFrom(in));
+                    }
+                    key = keys;
+                }
+                Object[] states = new Object[stateStreamers.length];
+                for (int i = 0; i < stateStreamers.length; i++) {
+                    states[i] = stateStreamers[i].readValueFrom(in);
+                }
+                consumer.accept(key, states);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            IOUtils.closeWhileHandlingException(outputs);
+        } finally {
+            IOUtils.rm(directory);
+        }
+    }
+}
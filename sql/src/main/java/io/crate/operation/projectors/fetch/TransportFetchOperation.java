@@ -43,15 +43,18 @@ public class TransportFetchOperation implements FetchOperation {
     private final Map<String, ? extends IntObjectMap<Streamer[]>> nodeIdToReaderIdToStreamers;
     private final UUID jobId;
     private final int executionPhaseId;
+    private final boolean columnarResponses;
 
     public TransportFetchOperation(TransportFetchNodeAction transportFetchNodeAction,
                                    Map<String, ? extends IntObjectMap<Streamer[]>> nodeIdToReaderIdToStreamers,
                                    UUID jobId,
-                                   int executionPhaseId) {
+                                   int executionPhaseId,
+                                   boolean columnarResponses) {
         this.transportFetchNodeAction = transportFetchNodeAction;
         this.nodeIdToReaderIdToStreamers = nodeIdToReaderIdToStreamers;
         this.jobId = jobId;
         this.executionPhaseId = executionPhaseId;
+        this.columnarResponses = columnarResponses;
     }
 
     @Override
@@ -62,7 +65,7 @@ public class TransportFetchOperation implements FetchOperation {
         transportFetchNodeAction.execute(
             nodeId,
             nodeIdToReaderIdToStreamers.get(nodeId),
-            new NodeFetchRequest(jobId, executionPhaseId, closeContext, toFetch),
+            new NodeFetchRequest(jobId, executionPhaseId, closeContext, toFetch, columnarResponses),
             listener);
         return listener;
     }
@@ -22,14 +22,19 @@
 package io.crate.operation.reference.doc.lucene;
 
 import io.crate.exceptions.GroupByOnArrayUnsupportedException;
+import io.crate.operation.vector.DoubleVector;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.index.mapper.MappedFieldType;
 
 import java.io.IOException;
 
-public class DoubleColumnReference extends FieldCacheExpression<IndexNumericFieldData, Double> {
+public class DoubleColumnReference extends FieldCacheExpression<IndexNumericFieldData, Double>
+    implements NumericDocValuesBatchReader<DoubleVector> {
 
     private SortedNumericDoubleValues values;
     private Double value;
@@ -65,6 +70,40 @@ public class DoubleColumnReference extends FieldCacheExpression<IndexNumericFiel
         values = indexFieldData.load(context).getDoubleValues();
     }
 
+    @Override
+    public DoubleVector newVector(int capacity) {
+        return new DoubleVector(capacity);
+    }
+
+    @Override
+    public void readValues(int[] docIds, int count, DoubleVector vector) {
+        vector.reset(count);
+        for (int i = 0; i < count; i++) {
+            values.setDocument(docIds[i]);
+            switch (values.count()) {
+                case 0:
+                    vector.setNull(i);
+                    break;
+                case 1:
+                    vector.set(i, values.valueAt(0));
+                    break;
+                default:
+                    throw new GroupByOnArrayUnsupportedException(columnName);
+            }
+        }
+    }
+
+    @Override
+    public SegmentColumnStats segmentStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromPoints(
+            reader, columnName, Double.BYTES, packedValue -> DoublePoint.decodeDimension(packedValue, 0));
+    }
+
+    @Override
+    public SegmentColumnStats docValuesStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromDocValues(reader, columnName, NumericUtils::sortableLongToDouble);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
@@ -22,14 +22,19 @@
 package io.crate.operation.reference.doc.lucene;
 
 import io.crate.exceptions.GroupByOnArrayUnsupportedException;
+import io.crate.operation.vector.DoubleVector;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.index.mapper.MappedFieldType;
 
 import java.io.IOException;
 
-public class FloatColumnReference extends FieldCacheExpression<IndexNumericFieldData, Float> {
+public class FloatColumnReference extends FieldCacheExpression<IndexNumericFieldData, Float>
+    implements NumericDocValuesBatchReader<DoubleVector> {
 
     private SortedNumericDoubleValues values;
     private Float value;
@@ -65,6 +70,40 @@ public class FloatColumnReference extends FieldCacheExpression<IndexNumericField
         values = indexFieldData.load(context).getDoubleValues();
     }
 
+    @Override
+    public DoubleVector newVector(int capacity) {
+        return new DoubleVector(capacity);
+    }
+
+    @Override
+    public void readValues(int[] docIds, int count, DoubleVector vector) {
+        vector.reset(count);
+        for (int i = 0; i < count; i++) {
+            values.setDocument(docIds[i]);
+            switch (values.count()) {
+                case 0:
+                    vector.setNull(i);
+                    break;
+                case 1:
+                    vector.set(i, (float) values.valueAt(0));
+                    break;
+                default:
+                    throw new GroupByOnArrayUnsupportedException(columnName);
+            }
+        }
+    }
+
+    @Override
+    public SegmentColumnStats segmentStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromPoints(
+            reader, columnName, Float.BYTES, packedValue -> FloatPoint.decodeDimension(packedValue, 0));
+    }
+
+    @Override
+    public SegmentColumnStats docValuesStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromDocValues(reader, columnName, value -> NumericUtils.sortableIntToFloat((int) value));
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
@@ -22,13 +22,17 @@
 package io.crate.operation.reference.doc.lucene;
 
 import io.crate.exceptions.GroupByOnArrayUnsupportedException;
+import io.crate.operation.vector.LongVector;
+import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedNumericDocValues;
 
 import java.io.IOException;
 
-public class IntegerColumnReference extends LuceneCollectorExpression<Integer> {
+public class IntegerColumnReference extends LuceneCollectorExpression<Integer>
+    implements NumericDocValuesBatchReader<LongVector> {
 
     private SortedNumericDocValues values;
     private Integer value;
@@ -64,6 +68,40 @@ public class IntegerColumnReference extends LuceneCollectorExpression<Integer> {
         values = DocValues.getSortedNumeric(context.reader(), columnName);
     }
 
+    @Override
+    public LongVector newVector(int capacity) {
+        return new LongVector(capacity);
+    }
+
+    @Override
+    public void readValues(int[] docIds, int count, LongVector vector) {
+        vector.reset(count);
+        for (int i = 0; i < count; i++) {
+            values.setDocument(docIds[i]);
+            switch (values.count()) {
+                case 0:
+                    vector.setNull(i);
+                    break;
+                case 1:
+                    vector.set(i, values.valueAt(0));
+                    break;
+                default:
+                    throw new GroupByOnArrayUnsupportedException(columnName);
+            }
+        }
+    }
+
+    @Override
+    public SegmentColumnStats segmentStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromPoints(
+            reader, columnName, Integer.BYTES, packedValue -> IntPoint.decodeDimension(packedValue, 0));
+    }
+
+    @Override
+    public SegmentColumnStats docValuesStats(LeafReader reader) throws IOException {
+        return SegmentColumnStats.fromDocValues(reader, columnName, value -> value);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null)
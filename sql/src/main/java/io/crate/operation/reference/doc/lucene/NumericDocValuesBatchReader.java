@@ -0,0 +1,64 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.doc.lucene;
+
+import io.crate.operation.vector.NumericVector;
+import org.apache.lucene.index.LeafReader;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * Implemented by {@link LuceneCollectorExpression}s of numeric columns which can read the doc values
+ * of many documents of the current reader at once, instead of being positioned on each document
+ * using {@link LuceneCollectorExpression#setNextDocId(int)}.
+ *
+ * @param <V> the type of vector the values are read into
+ */
+public interface NumericDocValuesBatchReader<V extends NumericVector> {
+
+    V newVector(int capacity);
+
+    /**
+     * Read the values of the first {@code count} documents of {@code docIds} into {@code vector}.
+     * The doc ids must be in ascending order and belong to the reader passed to
+     * {@link LuceneCollectorExpression#setNextReader(org.apache.lucene.index.LeafReaderContext)}.
+     */
+    void readValues(int[] docIds, int count, V vector) throws IOException;
+
+    /**
+     * @return the statistics of the column in the segment of {@code reader}, or null if they are not available
+     */
+    @Nullable
+    SegmentColumnStats segmentStats(LeafReader reader) throws IOException;
+
+    /**
+     * Computes the statistics of the column in the segment of {@code reader} by reading the doc values
+     * of all its documents. In contrast to {@link #segmentStats(LeafReader)} this is expensive,
+     * so the result should be cached per segment.
+     *
+     * @return the statistics, or null if the column doesn't have doc values
+     */
+    @Nullable
+    SegmentColumnStats docValuesStats(LeafReader reader) throws IOException;
+}
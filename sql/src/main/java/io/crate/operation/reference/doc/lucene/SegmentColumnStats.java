@@ -0,0 +1,150 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.doc.lucene;
+
+import org.apache.lucene.index.*;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Statistics of a column within a single segment, taken from the index metadata instead of the documents.
+ * <p>
+ * The statistics include the values of deleted documents,
+ * so they only describe the live documents of segments without deletions.
+ */
+public final class SegmentColumnStats {
+
+    private final long docCount;
+    @Nullable
+    private final Number min;
+    @Nullable
+    private final Number max;
+
+    /**
+     * Statistics for aggregations without a column, like {@code count(*)}
+     */
+    public static SegmentColumnStats forAllDocs(LeafReader reader) {
+        return new SegmentColumnStats(reader.numDocs(), null, null);
+    }
+
+    /**
+     * Reads the statistics of a numeric column from the point values of the segment.
+     *
+     * @param bytesPerDim the number of bytes of a point of the column
+     * @param decoder     decodes the packed value of a point
+     * @return the statistics or null if the column isn't indexed as one dimensional points
+     */
+    @Nullable
+    static SegmentColumnStats fromPoints(LeafReader reader,
+                                         String columnName,
+                                         int bytesPerDim,
+                                         Function<byte[], Number> decoder) throws IOException {
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(columnName);
+        if (fieldInfo == null) {
+            // none of the documents of the segment has a value
+            return new SegmentColumnStats(0L, null, null);
+        }
+        if (fieldInfo.getPointDimensionCount() != 1 || fieldInfo.getPointNumBytes() != bytesPerDim) {
+            return null;
+        }
+        PointValues pointValues = reader.getPointValues();
+        if (pointValues == null) {
+            return null;
+        }
+        byte[] minPackedValue = pointValues.getMinPackedValue(columnName);
+        byte[] maxPackedValue = pointValues.getMaxPackedValue(columnName);
+        if (minPackedValue == null || maxPackedValue == null) {
+            return new SegmentColumnStats(0L, null, null);
+        }
+        return new SegmentColumnStats(
+            pointValues.getDocCount(columnName),
+            decoder.apply(minPackedValue),
+            decoder.apply(maxPackedValue)
+        );
+    }
+
+    /**
+     * Computes the statistics of a numeric column by reading the doc values of every document of the segment.
+     *
+     * @param decoder decodes the sortable long representation of a value, as stored in the doc values
+     * @return the statistics or null if the column doesn't have numeric doc values
+     */
+    @Nullable
+    static SegmentColumnStats fromDocValues(LeafReader reader,
+                                            String columnName,
+                                            LongFunction<Number> decoder) throws IOException {
+        FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(columnName);
+        if (fieldInfo == null) {
+            return new SegmentColumnStats(0L, null, null);
+        }
+        DocValuesType docValuesType = fieldInfo.getDocValuesType();
+        if (docValuesType != DocValuesType.SORTED_NUMERIC && docValuesType != DocValuesType.NUMERIC) {
+            return null;
+        }
+        SortedNumericDocValues values = DocValues.getSortedNumeric(reader, columnName);
+        long docCount = 0L;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int maxDoc = reader.maxDoc();
+        for (int doc = 0; doc < maxDoc; doc++) {
+            values.setDocument(doc);
+            int count = values.count();
+            if (count > 0) {
+                docCount++;
+                // the values of a document are sorted
+                min = Math.min(min, values.valueAt(0));
+                max = Math.max(max, values.valueAt(count - 1));
+            }
+        }
+        if (docCount == 0L) {
+            return new SegmentColumnStats(0L, null, null);
+        }
+        return new SegmentColumnStats(docCount, decoder.apply(min), decoder.apply(max));
+    }
+
+    private SegmentColumnStats(long docCount, @Nullable Number min, @Nullable Number max) {
+        this.docCount = docCount;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return the number of documents which have a value for the column
+     */
+    public long docCount() {
+        return docCount;
+    }
+
+    @Nullable
+    public Number min() {
+        return min;
+    }
+
+    @Nullable
+    public Number max() {
+        return max;
+    }
+}
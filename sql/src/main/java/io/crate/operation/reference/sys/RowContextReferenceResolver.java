@@ -24,14 +24,17 @@ package io.crate.operation.reference.sys;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import io.crate.executor.admission.WorkloadClassStats;
 import io.crate.metadata.*;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.expressions.RowCollectExpressionFactory;
 import io.crate.metadata.information.*;
 import io.crate.metadata.pg_catalog.PgCatalogTables;
+import io.crate.metadata.pg_catalog.PgStatsTable;
 import io.crate.metadata.pg_catalog.PgTypeTable;
 import io.crate.metadata.sys.*;
 import io.crate.operation.collect.files.SummitsContext;
+import io.crate.operation.collect.stats.StatementStatsEntry;
 import io.crate.operation.reference.ReferenceResolver;
 import io.crate.operation.reference.information.InformationSchemaExpressionFactories;
 import io.crate.operation.reference.sys.check.SysCheck;
@@ -72,6 +75,8 @@ public class RowContextReferenceResolver implements ReferenceResolver<RowCollect
         tableFactories.put(SysRepositoriesTableInfo.IDENT, getSysRepositoriesExpressions());
         tableFactories.put(SysSnapshotsTableInfo.IDENT, getSysSnapshotsExpressions());
         tableFactories.put(SysSummitsTableInfo.IDENT, getSummitsExpressions());
+        tableFactories.put(SysStatementStatsTableInfo.IDENT, getSysStatementStatsExpressions());
+        tableFactories.put(SysWorkloadClassesTableInfo.IDENT, getSysWorkloadClassesExpressions());
 
         tableFactories.put(InformationSchemataTableInfo.IDENT, InformationSchemaExpressionFactories.schemataFactories());
         tableFactories.put(InformationRoutinesTableInfo.IDENT, InformationSchemaExpressionFactories.routineFactories());
@@ -85,6 +90,155 @@ public class RowContextReferenceResolver implements ReferenceResolver<RowCollect
         tableFactories.put(SysShardsTableInfo.IDENT, UnassignedShardsExpressionFactories.getSysShardsTableInfoFactories());
 
         tableFactories.put(PgTypeTable.IDENT, PgCatalogTables.pgTypeExpressions());
+        tableFactories.put(PgStatsTable.IDENT, PgCatalogTables.pgStatsExpressions());
+    }
+
+    private Map<ColumnIdent, RowCollectExpressionFactory> getSysStatementStatsExpressions() {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory>builder()
+            .put(SysStatementStatsTableInfo.Columns.FINGERPRINT, () -> new RowContextCollectorExpression<StatementStatsEntry, BytesRef>() {
+                @Override
+                public BytesRef value() {
+                    return new BytesRef(row.fingerprint());
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.CALLS, () -> new RowContextCollectorExpression<StatementStatsEntry, Long>() {
+                @Override
+                public Long value() {
+                    return row.calls();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.ERRORS, () -> new RowContextCollectorExpression<StatementStatsEntry, Long>() {
+                @Override
+                public Long value() {
+                    return row.errors();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.ROWS, () -> new RowContextCollectorExpression<StatementStatsEntry, Long>() {
+                @Override
+                public Long value() {
+                    return row.rows();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.TOTAL_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.totalDuration();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.MEAN_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.meanDuration();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.MAX_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.maxDuration();
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.P50_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.durationPercentile(50.0);
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.P99_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.durationPercentile(99.0);
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.P999_DURATION, () -> new RowContextCollectorExpression<StatementStatsEntry, Double>() {
+                @Override
+                public Double value() {
+                    return row.durationPercentile(99.9);
+                }
+            })
+            .put(SysStatementStatsTableInfo.Columns.LAST_EXECUTED, () -> new RowContextCollectorExpression<StatementStatsEntry, Long>() {
+                @Override
+                public Long value() {
+                    return row.lastExecuted();
+                }
+            })
+            .build();
+    }
+
+    private Map<ColumnIdent, RowCollectExpressionFactory> getSysWorkloadClassesExpressions() {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory>builder()
+            .put(SysWorkloadClassesTableInfo.Columns.NAME, () -> new RowContextCollectorExpression<WorkloadClassStats, BytesRef>() {
+                @Override
+                public BytesRef value() {
+                    return new BytesRef(row.name());
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.PRIORITY, () -> new RowContextCollectorExpression<WorkloadClassStats, Integer>() {
+                @Override
+                public Integer value() {
+                    return row.priority();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.MAX_CONCURRENT, () -> new RowContextCollectorExpression<WorkloadClassStats, Integer>() {
+                @Override
+                public Integer value() {
+                    return row.maxConcurrent();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.MAX_QUEUED, () -> new RowContextCollectorExpression<WorkloadClassStats, Integer>() {
+                @Override
+                public Integer value() {
+                    return row.maxQueued();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.MEMORY_SHARE, () -> new RowContextCollectorExpression<WorkloadClassStats, Float>() {
+                @Override
+                public Float value() {
+                    return row.memoryShare();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.RUNNING, () -> new RowContextCollectorExpression<WorkloadClassStats, Integer>() {
+                @Override
+                public Integer value() {
+                    return row.running();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.QUEUED, () -> new RowContextCollectorExpression<WorkloadClassStats, Integer>() {
+                @Override
+                public Integer value() {
+                    return row.queued();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.ADMITTED, () -> new RowContextCollectorExpression<WorkloadClassStats, Long>() {
+                @Override
+                public Long value() {
+                    return row.admitted();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.REJECTED, () -> new RowContextCollectorExpression<WorkloadClassStats, Long>() {
+                @Override
+                public Long value() {
+                    return row.rejected();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.TOTAL_WAIT_TIME, () -> new RowContextCollectorExpression<WorkloadClassStats, Double>() {
+                @Override
+                public Double value() {
+                    return row.totalWaitTime();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.MEAN_WAIT_TIME, () -> new RowContextCollectorExpression<WorkloadClassStats, Double>() {
+                @Override
+                public Double value() {
+                    return row.meanWaitTime();
+                }
+            })
+            .put(SysWorkloadClassesTableInfo.Columns.MAX_WAIT_TIME, () -> new RowContextCollectorExpression<WorkloadClassStats, Double>() {
+                @Override
+                public Double value() {
+                    return row.maxWaitTime();
+                }
+            })
+            .build();
     }
 
     private Map<ColumnIdent, RowCollectExpressionFactory> getSysOperationLogExpressions() {
@@ -0,0 +1,60 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.sys.node;
+
+import io.crate.action.sql.StatementCacheStats;
+
+import java.util.function.ToLongFunction;
+
+class NodeStatementCacheStatsExpression extends NestedNodeStatsExpression {
+
+    private static final String SIZE = "size";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    private static final String EVICTIONS = "evictions";
+
+    NodeStatementCacheStatsExpression() {
+        childImplementations.put(SIZE, new StatementCacheStatsExpression(StatementCacheStats::size));
+        childImplementations.put(HITS, new StatementCacheStatsExpression(StatementCacheStats::hits));
+        childImplementations.put(MISSES, new StatementCacheStatsExpression(StatementCacheStats::misses));
+        childImplementations.put(EVICTIONS, new StatementCacheStatsExpression(StatementCacheStats::evictions));
+    }
+
+    private static class StatementCacheStatsExpression extends SimpleNodeStatsExpression<Long> {
+
+        private final ToLongFunction<StatementCacheStats> getter;
+
+        StatementCacheStatsExpression(ToLongFunction<StatementCacheStats> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Long innerValue() {
+            StatementCacheStats stats = this.row.statementCacheStats();
+            if (stats == null) {
+                return null;
+            }
+            return getter.applyAsLong(stats);
+        }
+    }
+}
@@ -24,6 +24,7 @@ package io.crate.operation.reference.sys.node;
 
 import io.crate.Build;
 import io.crate.Version;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.monitor.*;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
@@ -62,6 +63,7 @@ public class NodeStatsContext implements Streamable {
     private ExtendedProcessCpuStats extendedProcessCpuStats;
     private ExtendedFsStats extendedFsStats;
     private ThreadPools threadPools;
+    private StatementCacheStats statementCacheStats;
 
     private BytesRef osName;
     private BytesRef osArch;
@@ -163,6 +165,10 @@ public class NodeStatsContext implements Streamable {
         return threadPools;
     }
 
+    public StatementCacheStats statementCacheStats() {
+        return statementCacheStats;
+    }
+
     public BytesRef osName() {
         return osName;
     }
@@ -259,6 +265,10 @@ public class NodeStatsContext implements Streamable {
         this.threadPools = threadPools;
     }
 
+    public void statementCacheStats(StatementCacheStats statementCacheStats) {
+        this.statementCacheStats = statementCacheStats;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         id = DataTypes.STRING.readValueFrom(in);
@@ -286,6 +296,7 @@ public class NodeStatsContext implements Streamable {
         extendedProcessCpuStats = in.readBoolean() ? ExtendedProcessCpuStats.readExtendedProcessCpuStats(in) : null;
         extendedFsStats = in.readBoolean() ? ExtendedFsStats.readExtendedFsStats(in) : null;
         threadPools = in.readBoolean() ? ThreadPools.readThreadPools(in) : null;
+        statementCacheStats = in.readOptionalWriteable(StatementCacheStats::new);
 
         osName = DataTypes.STRING.readValueFrom(in);
         osArch = DataTypes.STRING.readValueFrom(in);
@@ -328,6 +339,7 @@ public class NodeStatsContext implements Streamable {
         out.writeOptionalStreamable(extendedProcessCpuStats);
         out.writeOptionalStreamable(extendedFsStats);
         out.writeOptionalStreamable(threadPools);
+        out.writeOptionalWriteable(statementCacheStats);
 
         DataTypes.STRING.writeValueTo(out, osName);
         DataTypes.STRING.writeValueTo(out, osArch);
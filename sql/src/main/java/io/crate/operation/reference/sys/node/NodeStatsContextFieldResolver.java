@@ -26,6 +26,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import io.crate.Build;
 import io.crate.Version;
+import io.crate.action.sql.StatementCache;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.sys.SysNodesTableInfo;
 import io.crate.monitor.ExtendedNodeInfo;
@@ -70,6 +71,7 @@ public class NodeStatsContextFieldResolver {
     private final ProcessService processService;
     private final OsService osService;
     private final JvmService jvmService;
+    private final StatementCache statementCache;
 
     @Inject
     public NodeStatsContextFieldResolver(ClusterService clusterService,
@@ -77,14 +79,16 @@ public class NodeStatsContextFieldResolver {
                                          @Nullable HttpServer httpServer,
                                          ThreadPool threadPool,
                                          ExtendedNodeInfo extendedNodeInfo,
-                                         PostgresNetty postgresNetty) {
+                                         PostgresNetty postgresNetty,
+                                         StatementCache statementCache) {
         this(
             clusterService::localNode,
             monitorService,
             () -> httpServer == null ? null : httpServer.info().getAddress().publishAddress(),
             threadPool,
             extendedNodeInfo,
-            () -> postgresNetty.boundAddress().publishAddress()
+            () -> postgresNetty.boundAddress().publishAddress(),
+            statementCache
         );
     }
 
@@ -94,7 +98,8 @@ public class NodeStatsContextFieldResolver {
                                   Supplier<TransportAddress> boundHttpAddress,
                                   ThreadPool threadPool,
                                   ExtendedNodeInfo extendedNodeInfo,
-                                  Supplier<TransportAddress> boundPostgresAddress) {
+                                  Supplier<TransportAddress> boundPostgresAddress,
+                                  StatementCache statementCache) {
         this.localNode = localNode;
         processService = monitorService.processService();
         osService = monitorService.osService();
@@ -103,6 +108,7 @@ public class NodeStatsContextFieldResolver {
         this.threadPool = threadPool;
         this.extendedNodeInfo = extendedNodeInfo;
         this.boundPostgresAddress = boundPostgresAddress;
+        this.statementCache = statementCache;
     }
 
     public NodeStatsContext forTopColumnIdents(Collection<ColumnIdent> topColumnIdents) {
@@ -230,5 +236,11 @@ public class NodeStatsContextFieldResolver {
                 public void accept(NodeStatsContext context) {
                     context.extendedFsStats(extendedNodeInfo.fsStats());
                 }
+            })
+            .put(SysNodesTableInfo.Columns.STATEMENT_CACHE, new Consumer<NodeStatsContext>() {
+                @Override
+                public void accept(NodeStatsContext context) {
+                    context.statementCacheStats(statementCache.stats());
+                }
             }).build();
 }
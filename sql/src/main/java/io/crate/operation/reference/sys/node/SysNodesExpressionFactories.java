@@ -120,6 +120,7 @@ public class SysNodesExpressionFactories {
         .put(SysNodesTableInfo.Columns.OS_INFO, NodeOsInfoStatsExpression::new)
         .put(SysNodesTableInfo.Columns.PROCESS, NodeProcessStatsExpression::new)
         .put(SysNodesTableInfo.Columns.FS, NodeFsStatsExpression::new)
+        .put(SysNodesTableInfo.Columns.STATEMENT_CACHE, NodeStatementCacheStatsExpression::new)
         .put(SysNodesTableInfo.Columns.FS_TOTAL, NodeFsTotalStatsExpression::new)
         .put(SysNodesTableInfo.Columns.FS_TOTAL_SIZE, new RowCollectExpressionFactory<NodeStatsContext>() {
             @Override
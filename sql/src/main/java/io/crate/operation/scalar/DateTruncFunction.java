@@ -166,7 +166,10 @@ public class DateTruncFunction extends Scalar<Long, Object> {
         return truncate(tzRounding, TimestampType.INSTANCE.value(value));
     }
 
-    private Rounding rounding(BytesRef interval, BytesRef timeZoneString) {
+    /**
+     * Returns the rounding used to truncate timestamps to the given <code>interval</code> within the given time zone.
+     */
+    public static Rounding rounding(BytesRef interval, BytesRef timeZoneString) {
         DateTimeUnit intervalAsUnit = intervalAsUnit(interval);
         DateTimeZone timeZone = TimeZoneParser.parseTimeZone(timeZoneString);
 
@@ -184,7 +187,7 @@ public class DateTruncFunction extends Scalar<Long, Object> {
         return rounding.round(ts);
     }
 
-    private DateTimeUnit intervalAsUnit(BytesRef interval) {
+    private static DateTimeUnit intervalAsUnit(BytesRef interval) {
         if (interval == null) {
             throw new IllegalArgumentException(String.format(Locale.ENGLISH,
                 "invalid interval NULL for scalar '%s'", NAME));
@@ -24,9 +24,12 @@ package io.crate.operation.scalar.arithmetic;
 import io.crate.analyze.symbol.Function;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.format.OperatorFormatSpec;
-import io.crate.metadata.*;
 import io.crate.data.Input;
+import io.crate.metadata.*;
 import io.crate.operation.scalar.ScalarFunctionModule;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 
 import java.util.Arrays;
@@ -82,6 +85,23 @@ public abstract class AddFunction extends ArithmeticFunction implements Operator
             }
             return ((Number) arg0Value).doubleValue() + ((Number) arg1Value).doubleValue();
         }
+
+        @Override
+        public boolean supportsBatchEvaluate() {
+            return true;
+        }
+
+        @Override
+        public void evaluateBatch(NumericVector[] args, NumericVector result) {
+            assert args.length == 2 : "number of args must be 2";
+            NumericVector left = args[0];
+            NumericVector right = args[1];
+            double[] values = ((DoubleVector) result).values();
+            int size = prepareBatchResult(args, result);
+            for (int i = 0; i < size; i++) {
+                values[i] = left.getDouble(i) + right.getDouble(i);
+            }
+        }
     }
 
     private static class LongAddFunction extends AddFunction {
@@ -104,6 +124,23 @@ public abstract class AddFunction extends ArithmeticFunction implements Operator
             }
             return ((Number) arg0Value).longValue() + ((Number) arg1Value).longValue();
         }
+
+        @Override
+        public boolean supportsBatchEvaluate() {
+            return true;
+        }
+
+        @Override
+        public void evaluateBatch(NumericVector[] args, NumericVector result) {
+            assert args.length == 2 : "number of args must be 2";
+            long[] left = ((LongVector) args[0]).values();
+            long[] right = ((LongVector) args[1]).values();
+            long[] values = ((LongVector) result).values();
+            int size = prepareBatchResult(args, result);
+            for (int i = 0; i < size; i++) {
+                values[i] = left[i] + right[i];
+            }
+        }
     }
 
     private static class Resolver extends ArithmeticFunctionResolver {
@@ -23,6 +23,7 @@ package io.crate.operation.scalar.arithmetic;
 
 import com.google.common.collect.Sets;
 import io.crate.metadata.*;
+import io.crate.operation.vector.NumericVector;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 
@@ -69,6 +70,21 @@ abstract class ArithmeticFunction extends Scalar<Number, Number> {
         return false;
     }
 
+    /**
+     * Resets {@code result} to the size of the argument vectors and marks every row as null
+     * for which one of the arguments is null.
+     *
+     * @return the number of rows of the batch
+     */
+    static int prepareBatchResult(NumericVector[] args, NumericVector result) {
+        int size = args[0].size();
+        result.reset(size);
+        for (NumericVector arg : args) {
+            result.orNulls(arg);
+        }
+        return size;
+    }
+
     static abstract class ArithmeticFunctionResolver extends BaseFunctionResolver {
 
         private static final Signature.ArgMatcher ARITHMETIC_TYPE = Signature.ArgMatcher.of(
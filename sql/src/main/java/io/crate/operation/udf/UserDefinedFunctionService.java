@@ -24,9 +24,12 @@ package io.crate.operation.udf;
 import com.google.common.annotations.VisibleForTesting;
 import io.crate.exceptions.UserDefinedFunctionAlreadyExistsException;
 import io.crate.exceptions.UserDefinedFunctionUnknownException;
+import io.crate.metadata.Scalar;
 import io.crate.types.DataType;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.ClusterStateUpdateTask;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -35,15 +38,18 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.unit.TimeValue;
 
+import javax.script.ScriptException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.crate.operation.udf.UserDefinedFunctionsMetaData.PROTO;
 
 @Singleton
-public class UserDefinedFunctionService {
+public class UserDefinedFunctionService implements ClusterStateListener {
 
     static {
         // register non plugin custom metadata
@@ -53,9 +59,16 @@ public class UserDefinedFunctionService {
     private final ClusterService clusterService;
     private Map<String, UDFLanguage> languageRegistry = new HashMap<>();
 
+    /**
+     * The implementations are keyed by the whole meta data, so a function which is replaced
+     * with a new definition gets a new implementation.
+     */
+    private final Map<UserDefinedFunctionMetaData, Scalar> implementations = new ConcurrentHashMap<>();
+
     @Inject
     public UserDefinedFunctionService(ClusterService clusterService) {
         this.clusterService = clusterService;
+        clusterService.add(this);
     }
 
     public UDFLanguage getLanguage(String languageName) throws IllegalArgumentException {
@@ -70,6 +83,36 @@ public class UserDefinedFunctionService {
         languageRegistry.put(language.name(), language);
     }
 
+    /**
+     * Returns the implementation of a function, which is only created once by its language
+     * and then re-used until the function is dropped or replaced.
+     */
+    public Scalar getFunctionImplementation(UserDefinedFunctionMetaData metaData) throws ScriptException {
+        Scalar implementation = implementations.get(metaData);
+        if (implementation == null) {
+            implementation = getLanguage(metaData.language()).createFunctionImplementation(metaData);
+            Scalar existing = implementations.putIfAbsent(metaData, implementation);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return implementation;
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        UserDefinedFunctionsMetaData oldFunctions = event.previousState().metaData().custom(UserDefinedFunctionsMetaData.TYPE);
+        UserDefinedFunctionsMetaData newFunctions = event.state().metaData().custom(UserDefinedFunctionsMetaData.TYPE);
+        if (oldFunctions != newFunctions) {
+            // CREATE OR REPLACE or DROP FUNCTION, the implementations of functions which don't exist anymore are discarded
+            if (newFunctions == null) {
+                implementations.clear();
+            } else {
+                implementations.keySet().retainAll(new HashSet<>(newFunctions.functionsMetaData()));
+            }
+        }
+    }
+
     void registerFunction(final UserDefinedFunctionMetaData metaData,
                           final boolean replace,
                           final ActionListener<UserDefinedFunctionResponse> listener,
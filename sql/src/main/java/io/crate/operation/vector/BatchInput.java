@@ -0,0 +1,284 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.analyze.symbol.Literal;
+import io.crate.data.Columns;
+import io.crate.data.Input;
+import io.crate.metadata.Scalar;
+import io.crate.operation.aggregation.FunctionExpression;
+import io.crate.operation.collect.InputCollectExpression;
+import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.operation.reference.doc.lucene.NumericDocValuesBatchReader;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates an {@link Input} for a batch of documents at once, producing a {@link NumericVector}
+ * instead of a boxed value per document.
+ * <p>
+ * The documents belong to the leaf the collector expressions are currently positioned on,
+ * see {@link io.crate.operation.collect.collectors.LuceneBatchIterator#consumeDocIdBatches}.
+ */
+public abstract class BatchInput {
+
+    /**
+     * @return a vector holding the values for the first {@code count} documents of {@code docIds}.
+     * The vector is re-used and only valid until the next call.
+     */
+    public abstract NumericVector evaluate(int[] docIds, int count) throws IOException;
+
+    abstract boolean producesDoubles();
+
+    boolean producesBooleans() {
+        return false;
+    }
+
+    /**
+     * @return the reader if this input reads the values of a column, otherwise null
+     */
+    @Nullable
+    public NumericDocValuesBatchReader<?> docValuesReader() {
+        return null;
+    }
+
+    /**
+     * Creates a BatchInput for {@code input}, or returns null if the input can't be evaluated in batches.
+     *
+     * @param source   columns of the BatchIterator the documents are collected from,
+     *                 used to resolve {@link InputCollectExpression}s
+     * @param capacity the maximum number of documents of a batch
+     */
+    @Nullable
+    public static BatchInput of(Input<?> input, @Nullable Columns source, int capacity) {
+        if (input instanceof InputCollectExpression) {
+            if (source == null) {
+                return null;
+            }
+            return of(source.get(((InputCollectExpression) input).position()), source, capacity);
+        }
+        if (input instanceof NumericDocValuesBatchReader) {
+            return docValues((NumericDocValuesBatchReader<?>) input, capacity);
+        }
+        if (input instanceof Literal) {
+            return ConstantInput.of((Literal<?>) input, capacity);
+        }
+        if (input instanceof FunctionExpression) {
+            return FunctionInput.of((FunctionExpression<?, ?>) input, source, capacity);
+        }
+        return null;
+    }
+
+    /**
+     * Creates a BatchInput for a condition whose columns are read by {@link LuceneCollectorExpression}s,
+     * or returns null if the condition can't be evaluated in batches.
+     * The evaluated vectors are {@link BooleanVector}s.
+     */
+    @Nullable
+    public static BatchInput condition(Input<Boolean> condition, int capacity) {
+        BatchInput batchInput = of(condition, null, capacity);
+        if (batchInput == null || batchInput.producesBooleans() == false) {
+            return null;
+        }
+        return batchInput;
+    }
+
+    private static <V extends NumericVector> BatchInput docValues(NumericDocValuesBatchReader<V> reader, int capacity) {
+        return new DocValuesInput<>(reader, capacity);
+    }
+
+    private static boolean isIntegral(DataType type) {
+        return type.equals(DataTypes.LONG)
+               || type.equals(DataTypes.INTEGER)
+               || type.equals(DataTypes.SHORT)
+               || type.equals(DataTypes.BYTE)
+               || type.equals(DataTypes.TIMESTAMP);
+    }
+
+    private static boolean isDecimal(DataType type) {
+        return type.equals(DataTypes.DOUBLE) || type.equals(DataTypes.FLOAT);
+    }
+
+    private static class DocValuesInput<V extends NumericVector> extends BatchInput {
+
+        private final NumericDocValuesBatchReader<V> reader;
+        private final V vector;
+
+        DocValuesInput(NumericDocValuesBatchReader<V> reader, int capacity) {
+            this.reader = reader;
+            this.vector = reader.newVector(capacity);
+        }
+
+        @Override
+        public NumericVector evaluate(int[] docIds, int count) throws IOException {
+            reader.readValues(docIds, count, vector);
+            return vector;
+        }
+
+        @Override
+        boolean producesDoubles() {
+            return vector instanceof DoubleVector;
+        }
+
+        @Override
+        public NumericDocValuesBatchReader<?> docValuesReader() {
+            return reader;
+        }
+    }
+
+    private static class ConstantInput extends BatchInput {
+
+        private final NumericVector vector;
+        private final boolean isNull;
+
+        @Nullable
+        static BatchInput of(Literal<?> literal, int capacity) {
+            Object value = literal.value();
+            DataType type = literal.valueType();
+            if (type.equals(DataTypes.BOOLEAN)) {
+                BooleanVector vector = new BooleanVector(capacity);
+                if (value != null) {
+                    Arrays.fill(vector.values(), (Boolean) value);
+                }
+                return new ConstantInput(vector, value == null);
+            }
+            if (value == null) {
+                return new ConstantInput(new LongVector(capacity), true);
+            }
+            if (isIntegral(type)) {
+                LongVector vector = new LongVector(capacity);
+                Arrays.fill(vector.values(), ((Number) value).longValue());
+                return new ConstantInput(vector, false);
+            }
+            if (isDecimal(type)) {
+                DoubleVector vector = new DoubleVector(capacity);
+                Arrays.fill(vector.values(), ((Number) value).doubleValue());
+                return new ConstantInput(vector, false);
+            }
+            return null;
+        }
+
+        private ConstantInput(NumericVector vector, boolean isNull) {
+            this.vector = vector;
+            this.isNull = isNull;
+        }
+
+        @Override
+        public NumericVector evaluate(int[] docIds, int count) {
+            vector.reset(count);
+            if (isNull) {
+                for (int i = 0; i < count; i++) {
+                    vector.setNull(i);
+                }
+            }
+            return vector;
+        }
+
+        @Override
+        boolean producesDoubles() {
+            return vector instanceof DoubleVector;
+        }
+
+        @Override
+        boolean producesBooleans() {
+            return vector instanceof BooleanVector;
+        }
+    }
+
+    private static class FunctionInput extends BatchInput {
+
+        private final Scalar<?, ?> scalar;
+        private final BatchInput[] args;
+        private final NumericVector[] argValues;
+        private final NumericVector result;
+
+        @Nullable
+        static BatchInput of(FunctionExpression<?, ?> expression, Columns source, int capacity) {
+            Scalar<?, ?> scalar = expression.functionImplementation();
+            if (scalar.supportsBatchEvaluate() == false) {
+                return null;
+            }
+            DataType returnType = scalar.info().returnType();
+            boolean booleanResult = returnType.equals(DataTypes.BOOLEAN);
+            boolean decimalResult = isDecimal(returnType);
+            if (booleanResult == false && decimalResult == false && isIntegral(returnType) == false) {
+                return null;
+            }
+            List<DataType> argumentTypes = scalar.info().ident().argumentTypes();
+            Input<?>[] childInputs = expression.childInputs();
+            if (argumentTypes.size() != childInputs.length) {
+                return null;
+            }
+            BatchInput[] args = new BatchInput[childInputs.length];
+            for (int i = 0; i < childInputs.length; i++) {
+                BatchInput arg = of(childInputs[i], source, capacity);
+                if (arg == null
+                    || arg.producesBooleans() != argumentTypes.get(i).equals(DataTypes.BOOLEAN)
+                    || (booleanResult == false && decimalResult == false && arg.producesDoubles())) {
+                    return null;
+                }
+                args[i] = arg;
+            }
+            NumericVector result;
+            if (booleanResult) {
+                result = new BooleanVector(capacity);
+            } else if (decimalResult) {
+                result = new DoubleVector(capacity);
+            } else {
+                result = new LongVector(capacity);
+            }
+            return new FunctionInput(scalar, args, result);
+        }
+
+        private FunctionInput(Scalar<?, ?> scalar, BatchInput[] args, NumericVector result) {
+            this.scalar = scalar;
+            this.args = args;
+            this.argValues = new NumericVector[args.length];
+            this.result = result;
+        }
+
+        @Override
+        public NumericVector evaluate(int[] docIds, int count) throws IOException {
+            for (int i = 0; i < args.length; i++) {
+                argValues[i] = args[i].evaluate(docIds, count);
+            }
+            scalar.evaluateBatch(argValues, result);
+            return result;
+        }
+
+        @Override
+        boolean producesDoubles() {
+            return result instanceof DoubleVector;
+        }
+
+        @Override
+        boolean producesBooleans() {
+            return result instanceof BooleanVector;
+        }
+    }
+}
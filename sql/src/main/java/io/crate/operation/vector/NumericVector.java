@@ -0,0 +1,87 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.vector;
+
+import java.util.BitSet;
+
+/**
+ * A batch of numeric values of a single column, stored as primitives instead of boxed objects.
+ * <p>
+ * Null values are tracked in a bitmap; the primitive value of a null slot is undefined.
+ * Vectors are re-used between batches, {@link #reset(int)} must be called before a vector is filled.
+ */
+public abstract class NumericVector {
+
+    private final BitSet nulls;
+    int size = 0;
+
+    NumericVector(int capacity) {
+        nulls = new BitSet(capacity);
+    }
+
+    public abstract int capacity();
+
+    /**
+     * @return the value at {@code idx} as double. Must not be called for null slots.
+     */
+    public abstract double getDouble(int idx);
+
+    /**
+     * Clears the null bitmap and sets the number of values this vector holds.
+     */
+    public void reset(int size) {
+        assert size <= capacity() : "size must not exceed the capacity of the vector";
+        this.size = size;
+        nulls.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void setNull(int idx) {
+        nulls.set(idx);
+    }
+
+    public boolean isNull(int idx) {
+        return nulls.get(idx);
+    }
+
+    public boolean hasNulls() {
+        return nulls.isEmpty() == false;
+    }
+
+    /**
+     * @return the number of slots which are not null
+     */
+    public int countNonNull() {
+        return size - nulls.cardinality();
+    }
+
+    /**
+     * Marks every slot as null which is null in {@code other}
+     */
+    public void orNulls(NumericVector other) {
+        nulls.or(other.nulls);
+    }
+}
@@ -39,10 +39,7 @@ import io.crate.planner.projection.ProjectionVisitor;
 import io.crate.planner.projection.TopNProjection;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class PlanPrinter {
 
@@ -53,6 +50,34 @@ public class PlanPrinter {
         return Plan2MapVisitor.toMap(plan);
     }
 
+    /**
+     * Like {@link #objectMap(Plan)} but every execution phase additionally contains the "profile" of its execution
+     *
+     * @param profiles the execution statistics by phase id; phases without entry don't get a profile
+     */
+    public static Map<String, Object> objectMap(Plan plan, Map<Integer, ?> profiles) {
+        return withProfiles(objectMap(plan), profiles);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withProfiles(Map<String, Object> map, Map<Integer, ?> profiles) {
+        Map<String, Object> result = new LinkedHashMap<>(map.size() + 1);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                value = withProfiles((Map<String, Object>) value, profiles);
+            }
+            result.put(entry.getKey(), value);
+        }
+        if (map.containsKey("phaseType")) {
+            Object profile = profiles.get(map.get("id"));
+            if (profile != null) {
+                result.put("profile", profile);
+            }
+        }
+        return result;
+    }
+
     private static List<Object> refs(Collection<? extends Symbol> symbols) {
         List<Object> refs = new ArrayList<>(symbols.size());
         for (Symbol s : symbols) {
@@ -350,7 +350,8 @@ public class Planner extends AnalyzedStatementVisitor<Planner.Context, Plan> {
 
     @Override
     public Plan visitExplainStatement(ExplainAnalyzedStatement explainAnalyzedStatement, Context context) {
-        return new ExplainPlan(process(explainAnalyzedStatement.statement(), context));
+        return new ExplainPlan(
+            process(explainAnalyzedStatement.statement(), context), explainAnalyzedStatement.isAnalyze());
     }
 
     private UpsertById processInsertStatement(InsertFromValuesAnalyzedStatement analysis, Context context) {
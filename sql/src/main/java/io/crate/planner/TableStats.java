@@ -24,16 +24,30 @@ package io.crate.planner;
 
 import com.carrotsearch.hppc.ObjectLongHashMap;
 import com.carrotsearch.hppc.ObjectLongMap;
+import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.TableIdent;
+import io.crate.planner.statistics.ColumnStats;
+import io.crate.planner.statistics.ColumnStatsEntry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class TableStats {
 
     private volatile ObjectLongMap<TableIdent> tableStats = new ObjectLongHashMap<>(0);
+    private volatile Map<TableIdent, Map<ColumnIdent, ColumnStats>> columnStats = Collections.emptyMap();
 
     public void updateTableStats(ObjectLongMap<TableIdent> tableStats) {
         this.tableStats = tableStats;
     }
 
+    public void updateColumnStats(Map<TableIdent, Map<ColumnIdent, ColumnStats>> columnStats) {
+        this.columnStats = columnStats;
+    }
+
     /**
      * Returns the number of docs a table has.
      * <p>
@@ -45,4 +59,27 @@ public class TableStats {
     public long numDocs(TableIdent tableIdent) {
         return tableStats.getOrDefault(tableIdent, -1);
     }
+
+    /**
+     * Returns the statistics of a column as collected by {@code ANALYZE}
+     * or null if the table hasn't been analyzed yet or the column isn't covered by the statistics.
+     */
+    @Nullable
+    public ColumnStats columnStats(TableIdent tableIdent, ColumnIdent column) {
+        Map<ColumnIdent, ColumnStats> stats = columnStats.get(tableIdent);
+        if (stats == null) {
+            return null;
+        }
+        return stats.get(column);
+    }
+
+    public Iterable<ColumnStatsEntry> columnStatsGetter() {
+        List<ColumnStatsEntry> entries = new ArrayList<>();
+        for (Map.Entry<TableIdent, Map<ColumnIdent, ColumnStats>> tableEntry : columnStats.entrySet()) {
+            for (Map.Entry<ColumnIdent, ColumnStats> columnEntry : tableEntry.getValue().entrySet()) {
+                entries.add(new ColumnStatsEntry(tableEntry.getKey(), columnEntry.getKey(), columnEntry.getValue()));
+            }
+        }
+        return entries;
+    }
 }
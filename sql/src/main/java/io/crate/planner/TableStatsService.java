@@ -26,13 +26,30 @@ package io.crate.planner;
 import com.carrotsearch.hppc.ObjectLongHashMap;
 import com.carrotsearch.hppc.ObjectLongMap;
 import com.google.common.annotations.VisibleForTesting;
+import io.crate.action.FutureActionListener;
 import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.Option;
 import io.crate.action.sql.SQLOperations;
 import io.crate.data.Row;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.Schemas;
 import io.crate.metadata.TableIdent;
+import io.crate.metadata.doc.DocSchemaInfo;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.SchemaInfo;
+import io.crate.metadata.table.TableInfo;
+import io.crate.planner.statistics.ColumnStats;
+import io.crate.planner.statistics.ColumnStatsMetaData;
+import io.crate.planner.statistics.PublishColumnStatsRequest;
+import io.crate.planner.statistics.PublishColumnStatsResponse;
+import io.crate.planner.statistics.TransportPublishColumnStatsAction;
 import io.crate.settings.CrateSetting;
+import io.crate.sql.Identifiers;
 import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.component.AbstractComponent;
 import org.elasticsearch.common.inject.Inject;
@@ -45,23 +62,43 @@ import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Singleton
-public class TableStatsService extends AbstractComponent implements Runnable {
+public class TableStatsService extends AbstractComponent implements Runnable, ClusterStateListener {
 
     public static final CrateSetting<TimeValue> STATS_SERVICE_REFRESH_INTERVAL_SETTING = CrateSetting.of(Setting.timeSetting(
         "stats.service.interval", TimeValue.timeValueHours(1), Setting.Property.NodeScope, Setting.Property.Dynamic),
         DataTypes.STRING);
 
+    public static final CrateSetting<TimeValue> STATS_SERVICE_ANALYZE_INTERVAL_SETTING = CrateSetting.of(Setting.timeSetting(
+        "stats.service.analyze_interval", TimeValue.timeValueHours(24), Setting.Property.NodeScope, Setting.Property.Dynamic),
+        DataTypes.STRING);
+
     static final String TABLE_STATS = "table_stats";
     static final int DEFAULT_SOFT_LIMIT = 10_000;
     static final String STMT =
         "select cast(sum(num_docs) as long), schema_name, table_name from sys.shards group by 2, 3";
 
+    /**
+     * Number of rows sampled per table to compute the column statistics
+     */
+    static final int SAMPLE_SIZE = 30_000;
+
     private final ClusterService clusterService;
     private final ThreadPool threadPool;
+    private final TableStats tableStats;
+    private final SQLOperations sqlOperations;
+    private final Schemas schemas;
+    private final TransportPublishColumnStatsAction publishColumnStatsAction;
     private final TableStatsResultReceiver resultReceiver;
     private final SQLOperations.SQLDirectExecutor sqlDirectExecutor;
 
@@ -69,23 +106,48 @@ public class TableStatsService extends AbstractComponent implements Runnable {
     ThreadPool.Cancellable refreshScheduledTask = null;
     @VisibleForTesting
     TimeValue refreshInterval;
+    @VisibleForTesting
+    ThreadPool.Cancellable analyzeScheduledTask = null;
+    @VisibleForTesting
+    TimeValue analyzeInterval;
 
     @Inject
     public TableStatsService(Settings settings,
                              ThreadPool threadPool,
                              ClusterService clusterService,
                              TableStats tableStats,
-                             SQLOperations sqlOperations) {
+                             SQLOperations sqlOperations,
+                             Schemas schemas,
+                             TransportPublishColumnStatsAction publishColumnStatsAction) {
         super(settings);
         this.threadPool = threadPool;
         this.clusterService = clusterService;
+        this.tableStats = tableStats;
+        this.sqlOperations = sqlOperations;
+        this.schemas = schemas;
+        this.publishColumnStatsAction = publishColumnStatsAction;
         resultReceiver = new TableStatsResultReceiver(tableStats::updateTableStats);
         refreshInterval = STATS_SERVICE_REFRESH_INTERVAL_SETTING.setting().get(settings);
         refreshScheduledTask = scheduleRefresh(refreshInterval);
+        analyzeInterval = STATS_SERVICE_ANALYZE_INTERVAL_SETTING.setting().get(settings);
+        analyzeScheduledTask = scheduleAnalyze(analyzeInterval);
         sqlDirectExecutor = sqlOperations.createSQLDirectExecutor("sys", TABLE_STATS, STMT, DEFAULT_SOFT_LIMIT);
 
         clusterService.getClusterSettings().addSettingsUpdateConsumer(
             STATS_SERVICE_REFRESH_INTERVAL_SETTING.setting(), this::setRefreshInterval);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            STATS_SERVICE_ANALYZE_INTERVAL_SETTING.setting(), this::setAnalyzeInterval);
+        clusterService.add(this);
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged()) {
+            ColumnStatsMetaData columnStats = event.state().metaData().custom(ColumnStatsMetaData.TYPE);
+            if (columnStats != null) {
+                tableStats.updateColumnStats(columnStats.tableStats());
+            }
+        }
     }
 
     @Override
@@ -110,6 +172,118 @@ public class TableStatsService extends AbstractComponent implements Runnable {
         }
     }
 
+    /**
+     * Compute the column statistics of the given tables, or of all tables if the list is empty,
+     * and store them in the cluster state.
+     *
+     * @return a future returning the number of analyzed tables
+     */
+    public CompletableFuture<Long> analyze(List<DocTableInfo> tables) {
+        List<DocTableInfo> tablesToAnalyze = tables.isEmpty() ? docTables() : tables;
+        Map<TableIdent, Map<ColumnIdent, ColumnStats>> newStats = new ConcurrentHashMap<>();
+        // tables are sampled one after another to limit the load imposed on the cluster
+        CompletableFuture<?> sampled = CompletableFuture.completedFuture(null);
+        for (DocTableInfo table : tablesToAnalyze) {
+            sampled = sampled.thenCompose(
+                ignored -> sampleColumnStats(table).thenAccept(stats -> newStats.put(table.ident(), stats)));
+        }
+        return sampled.thenCompose(ignored -> {
+            FutureActionListener<PublishColumnStatsResponse, Long> listener = new FutureActionListener<>(r -> (long) newStats.size());
+            publishColumnStatsAction.execute(new PublishColumnStatsRequest(new HashMap<>(newStats)), listener);
+            return listener;
+        });
+    }
+
+    private List<DocTableInfo> docTables() {
+        List<DocTableInfo> tables = new ArrayList<>();
+        for (SchemaInfo schemaInfo : schemas) {
+            if (schemaInfo instanceof DocSchemaInfo) {
+                for (TableInfo tableInfo : schemaInfo) {
+                    if (tableInfo instanceof DocTableInfo && !((DocTableInfo) tableInfo).isAlias()) {
+                        tables.add((DocTableInfo) tableInfo);
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    private CompletableFuture<Map<ColumnIdent, ColumnStats>> sampleColumnStats(DocTableInfo table) {
+        List<Reference> columns = new ArrayList<>();
+        for (Reference reference : table.columns()) {
+            if (DataTypes.isPrimitive(reference.valueType())) {
+                columns.add(reference);
+            }
+        }
+        if (columns.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        long numDocs = tableStats.numDocs(table.ident());
+        SampleResultReceiver receiver = new SampleResultReceiver(columns.size());
+        SQLOperations.Session session = sqlOperations.createSession(null, Option.NONE, SAMPLE_SIZE);
+        try {
+            List<Object> params = numDocs > SAMPLE_SIZE
+                ? Collections.singletonList(SAMPLE_SIZE / (double) numDocs)
+                : Collections.emptyList();
+            session.parse(SQLOperations.Session.UNNAMED, sampleStatement(table.ident(), columns, numDocs),
+                Collections.emptyList());
+            session.bind(SQLOperations.Session.UNNAMED, SQLOperations.Session.UNNAMED, params, null);
+            session.execute(SQLOperations.Session.UNNAMED, 0, receiver);
+            session.sync();
+        } catch (Throwable t) {
+            CompletableFuture<Map<ColumnIdent, ColumnStats>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(t);
+            return failed;
+        }
+        return receiver.completionFuture().thenApply(ignored -> {
+            Map<ColumnIdent, ColumnStats> stats = new HashMap<>(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Reference column = columns.get(i);
+                stats.put(
+                    column.ident().columnIdent(),
+                    ColumnStats.fromSample(column.valueType(), receiver.samples.get(i), numDocs));
+            }
+            return stats;
+        });
+    }
+
+    /**
+     * Builds a statement selecting roughly {@link #SAMPLE_SIZE} random rows of a table.
+     * The rows are sampled on the shards by filtering with {@code random()} so that not all rows are transferred;
+     * the sampling fraction is the only parameter of the statement.
+     */
+    @VisibleForTesting
+    static String sampleStatement(TableIdent tableIdent, List<Reference> columns, long numDocs) {
+        String outputs = columns.stream()
+            .map(c -> Identifiers.quote(c.ident().columnIdent().name()))
+            .collect(Collectors.joining(", "));
+        String stmt = "select " + outputs + " from " + Identifiers.quote(tableIdent.schema()) + "." +
+                      Identifiers.quote(tableIdent.name());
+        if (numDocs > SAMPLE_SIZE) {
+            stmt += " where random() < ?";
+        }
+        return stmt + " limit " + SAMPLE_SIZE;
+    }
+
+    static class SampleResultReceiver extends BaseResultReceiver {
+
+        private final List<List<Object>> samples;
+
+        SampleResultReceiver(int numColumns) {
+            samples = new ArrayList<>(numColumns);
+            for (int i = 0; i < numColumns; i++) {
+                samples.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public void setNextRow(Row row) {
+            for (int i = 0; i < samples.size(); i++) {
+                samples.get(i).add(row.get(i));
+            }
+        }
+    }
+
     static class TableStatsResultReceiver extends BaseResultReceiver {
 
         private final static Logger LOGGER = Loggers.getLogger(TableStatsResultReceiver.class);
@@ -151,6 +325,40 @@ public class TableStatsService extends AbstractComponent implements Runnable {
         return null;
     }
 
+    private ThreadPool.Cancellable scheduleAnalyze(TimeValue newAnalyzeInterval) {
+        if (newAnalyzeInterval.millis() > 0) {
+            return threadPool.scheduleWithFixedDelay(
+                this::analyzeIfMaster,
+                newAnalyzeInterval,
+                ThreadPool.Names.GENERIC);
+        }
+        return null;
+    }
+
+    /**
+     * The statistics are stored cluster wide, so the periodic analyze only needs to run on one node.
+     */
+    private void analyzeIfMaster() {
+        if (clusterService.localNode() == null || !clusterService.state().nodes().isLocalNodeElectedMaster()) {
+            return;
+        }
+        analyze(Collections.emptyList()).whenComplete((numTables, t) -> {
+            if (t != null) {
+                logger.error("error collecting column statistics", t);
+            } else {
+                logger.debug("collected column statistics of {} tables", numTables);
+            }
+        });
+    }
+
+    private void setAnalyzeInterval(TimeValue newAnalyzeInterval) {
+        if (analyzeScheduledTask != null) {
+            analyzeScheduledTask.cancel();
+        }
+        analyzeScheduledTask = scheduleAnalyze(newAnalyzeInterval);
+        analyzeInterval = newAnalyzeInterval;
+    }
+
     private void setRefreshInterval(TimeValue newRefreshInterval) {
         if (refreshScheduledTask != null) {
             refreshScheduledTask.cancel();
@@ -0,0 +1,261 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.consumer;
+
+import io.crate.analyze.Analysis;
+import io.crate.analyze.symbol.Field;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.analyze.symbol.Symbols;
+import io.crate.analyze.where.DocKeys;
+import io.crate.data.Row;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.planner.Plan;
+import io.crate.planner.node.dql.ESGet;
+import io.crate.sql.tree.*;
+import io.crate.types.DataType;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A plan template for primary key lookups like {@code select a, b from t where pk = ?}.
+ *
+ * The template is derived from the {@link ESGet} plan of a first execution and can create
+ * the plan for other parameter values without analyzing and planning the statement again.
+ * Only statements whose parameters are used exclusively as the primary key values are supported;
+ * everything else in the plan doesn't depend on the parameter values.
+ */
+public final class ESGetTemplate {
+
+    private final DocTableInfo tableInfo;
+    private final List<Symbol> outputs;
+    private final List<DataType> outputTypes;
+    private final List<Field> fields;
+    private final int[] paramIdx;
+    private final DataType[] pkTypes;
+    private final int clusteredByIdx;
+    @Nullable
+    private final List<Integer> partitionIdx;
+    private final int limit;
+    private final int executionPhaseId;
+
+    private ESGetTemplate(DocTableInfo tableInfo,
+                          List<Symbol> outputs,
+                          List<Field> fields,
+                          int[] paramIdx,
+                          DataType[] pkTypes,
+                          int clusteredByIdx,
+                          @Nullable List<Integer> partitionIdx,
+                          int limit,
+                          int executionPhaseId) {
+        this.tableInfo = tableInfo;
+        this.outputs = outputs;
+        this.outputTypes = Symbols.extractTypes(outputs);
+        this.fields = fields;
+        this.paramIdx = paramIdx;
+        this.pkTypes = pkTypes;
+        this.clusteredByIdx = clusteredByIdx;
+        this.partitionIdx = partitionIdx;
+        this.limit = limit;
+        this.executionPhaseId = executionPhaseId;
+    }
+
+    /**
+     * Creates a template out of a statement and the plan created for it.
+     *
+     * @return the template or null if the statement isn't a plain primary key lookup
+     */
+    @Nullable
+    public static ESGetTemplate create(Statement statement, Analysis analysis, Plan plan, Row params) {
+        if (!(plan instanceof ESGet) || analysis.rootRelation() == null) {
+            return null;
+        }
+        ESGet esGet = (ESGet) plan;
+        DocKeys docKeys = esGet.docKeys();
+        if (docKeys.size() != 1 || docKeys.withVersions() || !esGet.sortSymbols().isEmpty() || esGet.offset() != 0) {
+            return null;
+        }
+        Map<String, Integer> paramIdxByColumn = paramIdxByColumn(statement);
+        if (paramIdxByColumn == null || paramIdxByColumn.size() != params.numColumns()) {
+            return null;
+        }
+        DocTableInfo tableInfo = esGet.tableInfo();
+        List<ColumnIdent> primaryKey = tableInfo.primaryKey();
+        if (primaryKey.size() != paramIdxByColumn.size()) {
+            return null;
+        }
+        List<Symbol> keyValues = docKeys.getOnlyKey().values();
+        int[] paramIdx = new int[primaryKey.size()];
+        DataType[] pkTypes = new DataType[primaryKey.size()];
+        for (int i = 0; i < primaryKey.size(); i++) {
+            ColumnIdent pkColumn = primaryKey.get(i);
+            Integer idx = pkColumn.isColumn() ? paramIdxByColumn.get(pkColumn.name()) : null;
+            if (idx == null) {
+                return null;
+            }
+            DataType pkType = tableInfo.getReference(pkColumn).valueType();
+            Symbol keyValue = keyValues.get(i);
+            // make sure the key of the plan is exactly the parameter value, converted to the column type
+            if (!(keyValue instanceof Literal) ||
+                !Objects.equals(((Literal) keyValue).value(), convert(pkType, params.get(idx)))) {
+                return null;
+            }
+            paramIdx[i] = idx;
+            pkTypes[i] = pkType;
+        }
+        int clusteredByIdx = tableInfo.clusteredBy() == null ? -1 : primaryKey.indexOf(tableInfo.clusteredBy());
+        List<Integer> partitionIdx = null;
+        if (tableInfo.isPartitioned()) {
+            partitionIdx = new ArrayList<>(tableInfo.partitionedBy().size());
+            for (ColumnIdent partitionColumn : tableInfo.partitionedBy()) {
+                int pos = primaryKey.indexOf(partitionColumn);
+                if (pos >= 0) {
+                    partitionIdx.add(pos);
+                }
+            }
+        }
+        return new ESGetTemplate(
+            tableInfo,
+            esGet.outputs(),
+            analysis.rootRelation().fields(),
+            paramIdx,
+            pkTypes,
+            clusteredByIdx,
+            partitionIdx,
+            esGet.limit(),
+            esGet.executionPhaseId()
+        );
+    }
+
+    /**
+     * Creates the plan for the given parameter values.
+     *
+     * @return the plan or null if a parameter can't be used as primary key value;
+     *         the statement has to be analyzed to get a proper error or result in that case.
+     */
+    @Nullable
+    public ESGet bind(Row params, UUID jobId) {
+        List<Symbol> key = new ArrayList<>(paramIdx.length);
+        for (int i = 0; i < paramIdx.length; i++) {
+            Object value = convert(pkTypes[i], params.get(paramIdx[i]));
+            if (value == null) {
+                return null;
+            }
+            key.add(Literal.of(pkTypes[i], value));
+        }
+        DocKeys docKeys = new DocKeys(Collections.singletonList(key), false, clusteredByIdx, partitionIdx);
+        return new ESGet(executionPhaseId, tableInfo, outputs, docKeys, Optional.empty(), limit, 0, jobId);
+    }
+
+    public List<Field> fields() {
+        return fields;
+    }
+
+    public List<DataType> outputTypes() {
+        return outputTypes;
+    }
+
+    @Nullable
+    private static Object convert(DataType type, Object value) {
+        try {
+            return type.value(value);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the parameter index for each column of a {@code col1 = ? AND col2 = ?} where clause
+     * or null if the statement has another shape.
+     */
+    @Nullable
+    private static Map<String, Integer> paramIdxByColumn(Statement statement) {
+        if (!(statement instanceof Query)) {
+            return null;
+        }
+        Query query = (Query) statement;
+        if (query.getWith().isPresent() || !query.getOrderBy().isEmpty() ||
+            query.getLimit().isPresent() || query.getOffset().isPresent() ||
+            !(query.getQueryBody() instanceof QuerySpecification)) {
+            return null;
+        }
+        QuerySpecification querySpec = (QuerySpecification) query.getQueryBody();
+        if (querySpec.getSelect().isDistinct() ||
+            querySpec.getFrom().size() != 1 ||
+            !(querySpec.getFrom().get(0) instanceof Table) ||
+            !querySpec.getGroupBy().isEmpty() ||
+            querySpec.getHaving().isPresent() ||
+            !querySpec.getOrderBy().isEmpty() ||
+            querySpec.getLimit().isPresent() ||
+            querySpec.getOffset().isPresent() ||
+            !querySpec.getWhere().isPresent()) {
+            return null;
+        }
+        for (SelectItem selectItem : querySpec.getSelect().getSelectItems()) {
+            if (!(selectItem instanceof AllColumns) &&
+                !(selectItem instanceof SingleColumn &&
+                  ((SingleColumn) selectItem).getExpression() instanceof QualifiedNameReference)) {
+                return null;
+            }
+        }
+        Map<String, Integer> paramIdxByColumn = new HashMap<>();
+        Set<Integer> usedParams = new HashSet<>();
+        if (!collectEqualities(querySpec.getWhere().get(), paramIdxByColumn, usedParams)) {
+            return null;
+        }
+        return paramIdxByColumn;
+    }
+
+    private static boolean collectEqualities(Expression expression,
+                                             Map<String, Integer> paramIdxByColumn,
+                                             Set<Integer> usedParams) {
+        if (expression instanceof LogicalBinaryExpression) {
+            LogicalBinaryExpression and = (LogicalBinaryExpression) expression;
+            return and.getType() == LogicalBinaryExpression.Type.AND &&
+                   collectEqualities(and.getLeft(), paramIdxByColumn, usedParams) &&
+                   collectEqualities(and.getRight(), paramIdxByColumn, usedParams);
+        }
+        if (!(expression instanceof ComparisonExpression)) {
+            return false;
+        }
+        ComparisonExpression comparison = (ComparisonExpression) expression;
+        if (comparison.getType() != ComparisonExpression.Type.EQUAL) {
+            return false;
+        }
+        Expression left = comparison.getLeft();
+        Expression right = comparison.getRight();
+        if (left instanceof ParameterExpression) {
+            Expression tmp = left;
+            left = right;
+            right = tmp;
+        }
+        if (!(left instanceof QualifiedNameReference) || !(right instanceof ParameterExpression)) {
+            return false;
+        }
+        String column = ((QualifiedNameReference) left).getName().getSuffix();
+        int idx = ((ParameterExpression) right).index();
+        return paramIdxByColumn.put(column, idx) == null && usedParams.add(idx);
+    }
+}
@@ -29,9 +29,13 @@ import io.crate.analyze.symbol.*;
 import io.crate.exceptions.ValidationException;
 import io.crate.metadata.Functions;
 import io.crate.metadata.TableIdent;
+import io.crate.operation.operator.AndOperator;
+import io.crate.operation.operator.EqOperator;
 import io.crate.operation.projectors.TopN;
 import io.crate.planner.*;
 import io.crate.planner.distribution.DistributionInfo;
+import io.crate.planner.distribution.DistributionType;
+import io.crate.planner.node.dql.Collect;
 import io.crate.planner.node.dql.MergePhase;
 import io.crate.planner.node.dql.join.JoinType;
 import io.crate.planner.node.dql.join.NestedLoop;
@@ -39,7 +43,10 @@ import io.crate.planner.node.dql.join.NestedLoopPhase;
 import io.crate.planner.projection.Projection;
 import io.crate.planner.projection.builder.InputColumns;
 import io.crate.planner.projection.builder.ProjectionBuilder;
+import io.crate.planner.statistics.SelectivityEstimator;
 import io.crate.sql.tree.QualifiedName;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.Loggers;
@@ -103,6 +110,8 @@ class NestedLoopConsumer implements Consumer {
                 return null;
             }
 
+            int numLeftOutputs = left.querySpec().outputs().size();
+
             // for nested loops we are fine to remove pushed down orders
             OrderBy orderByBeforeSplit = querySpec.orderBy().orElse(null);
 
@@ -116,10 +125,18 @@ class NestedLoopConsumer implements Consumer {
             JoinPair joinPair = statement.joinPair();
             JoinType joinType = joinPair.joinType();
             Symbol joinCondition = joinPair.condition();
+            List<Symbol> leftJoinKeys = new ArrayList<>();
+            List<Symbol> rightJoinKeys = new ArrayList<>();
             if (joinCondition != null) {
                 // replace all fields of the join condition
                 MappingSymbolVisitor.inPlace().process(joinCondition, symbolMap);
+                joinCondition = InputColumns.create(joinCondition, nlOutputs);
+                assert joinCondition instanceof Function : "Only function symbols are valid join conditions";
+                boolean hasRelCol = SymbolVisitors.any(s -> s instanceof RelationColumn, joinCondition);
+                assert  !hasRelCol : "RelationColumns are not valid join condition arguments";
+                extractEquiJoinKeys(joinCondition, numLeftOutputs, leftJoinKeys, rightJoinKeys);
             }
+            boolean isHashJoin = !leftJoinKeys.isEmpty();
 
             WhereClause where = querySpec.where();
             /*
@@ -168,88 +185,113 @@ class NestedLoopConsumer implements Consumer {
             ResultDescription rightResultDesc = rightPlan.resultDescription();
             isDistributed = isDistributed &&
                             (!leftResultDesc.nodeIds().isEmpty() && !rightResultDesc.nodeIds().isEmpty());
-            boolean broadcastLeftTable = false;
-            if (isDistributed) {
-                broadcastLeftTable = isLeftSmallerThanRight(left, right);
-                if (broadcastLeftTable) {
-                    Plan tmpPlan = leftPlan;
-                    leftPlan = rightPlan;
-                    rightPlan = tmpPlan;
-
-                    QueriedRelation tmpRelation = left;
-                    left = right;
-                    right = tmpRelation;
-                    joinType = joinType.invert();
-                    leftResultDesc = leftPlan.resultDescription();
-                    rightResultDesc = rightPlan.resultDescription();
+            /*
+             * Hash joins of two distributed tables are executed on all nodes which hold data of one of the tables.
+             * Both sides are re-distributed (MODULO) by their first join key, so that each node receives all rows
+             * of a partition of the join key space and joins them locally.
+             */
+            boolean isShuffled = isHashJoin
+                                 && !isDistributed
+                                 && left instanceof QueriedDocTable
+                                 && right instanceof QueriedDocTable
+                                 && leftPlan instanceof Collect
+                                 && rightPlan instanceof Collect
+                                 && !leftResultDesc.nodeIds().isEmpty()
+                                 && !rightResultDesc.nodeIds().isEmpty();
+            Collection<String> nlExecutionNodes = ImmutableSet.of(clusterService.localNode().getId());
+            if (isShuffled) {
+                Set<String> shuffleNodes = new TreeSet<>(leftResultDesc.nodeIds());
+                shuffleNodes.addAll(rightResultDesc.nodeIds());
+                isShuffled = shuffleNodes.size() > 1;
+                if (isShuffled) {
+                    nlExecutionNodes = shuffleNodes;
+                    isDistributed = true;
                 }
             }
-            Collection<String> nlExecutionNodes = ImmutableSet.of(clusterService.localNode().getId());
 
+            boolean broadcastLeftTable = false;
             MergePhase leftMerge = null;
             MergePhase rightMerge = null;
-            if (isDistributed) {
-                leftPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
-                nlExecutionNodes = leftResultDesc.nodeIds();
+            if (isShuffled) {
+                leftPlan.setDistributionInfo(
+                    new DistributionInfo(DistributionType.MODULO, ((InputColumn) leftJoinKeys.get(0)).index()));
+                rightPlan.setDistributionInfo(
+                    new DistributionInfo(DistributionType.MODULO, ((InputColumn) rightJoinKeys.get(0)).index()));
+                leftMerge = shuffleMergePhase(context, leftResultDesc, nlExecutionNodes);
+                rightMerge = shuffleMergePhase(context, rightResultDesc, nlExecutionNodes);
             } else {
-                if (isMergePhaseNeeded(nlExecutionNodes, leftResultDesc.nodeIds(), false)) {
-                    leftMerge = new MergePhase(
-                        context.plannerContext().jobId(),
-                        context.plannerContext().nextExecutionPhaseId(),
-                        "nl-merge",
-                        leftResultDesc.nodeIds().size(),
-                        nlExecutionNodes,
-                        leftResultDesc.streamOutputs(),
-                        Collections.emptyList(),
-                        DistributionInfo.DEFAULT_SAME_NODE,
-                        PositionalOrderBy.of(left.querySpec().orderBy().orElse(null), left.querySpec().outputs())
-                    );
+                if (isDistributed) {
+                    broadcastLeftTable = isLeftSmallerThanRight(left, right);
+                    if (broadcastLeftTable) {
+                        Plan tmpPlan = leftPlan;
+                        leftPlan = rightPlan;
+                        rightPlan = tmpPlan;
+
+                        QueriedRelation tmpRelation = left;
+                        left = right;
+                        right = tmpRelation;
+                        joinType = joinType.invert();
+                        leftResultDesc = leftPlan.resultDescription();
+                        rightResultDesc = rightPlan.resultDescription();
+                    }
                 }
-            }
-            if (nlExecutionNodes.size() == 1
-                && nlExecutionNodes.equals(rightResultDesc.nodeIds())) {
-                // if the left and the right plan are executed on the same single node the mergePhase
-                // should be omitted. This is the case if the left and right table have only one shards which
-                // are on the same node
-                rightPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
-            } else {
-                if (isMergePhaseNeeded(nlExecutionNodes, rightResultDesc.nodeIds(), isDistributed)) {
-                    rightMerge = new MergePhase(
-                        context.plannerContext().jobId(),
-                        context.plannerContext().nextExecutionPhaseId(),
-                        "nl-merge",
-                        rightResultDesc.nodeIds().size(),
-                        nlExecutionNodes,
-                        rightResultDesc.streamOutputs(),
-                        Collections.emptyList(),
-                        DistributionInfo.DEFAULT_SAME_NODE,
-                        PositionalOrderBy.of(right.querySpec().orderBy().orElse(null), right.querySpec().outputs())
-                    );
+                if (isDistributed) {
+                    leftPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+                    nlExecutionNodes = leftResultDesc.nodeIds();
+                } else {
+                    if (isMergePhaseNeeded(nlExecutionNodes, leftResultDesc.nodeIds(), false)) {
+                        leftMerge = new MergePhase(
+                            context.plannerContext().jobId(),
+                            context.plannerContext().nextExecutionPhaseId(),
+                            "nl-merge",
+                            leftResultDesc.nodeIds().size(),
+                            nlExecutionNodes,
+                            leftResultDesc.streamOutputs(),
+                            Collections.emptyList(),
+                            DistributionInfo.DEFAULT_SAME_NODE,
+                            PositionalOrderBy.of(left.querySpec().orderBy().orElse(null), left.querySpec().outputs())
+                        );
+                    }
+                }
+                if (nlExecutionNodes.size() == 1
+                    && nlExecutionNodes.equals(rightResultDesc.nodeIds())) {
+                    // if the left and the right plan are executed on the same single node the mergePhase
+                    // should be omitted. This is the case if the left and right table have only one shards which
+                    // are on the same node
+                    rightPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+                } else {
+                    if (isMergePhaseNeeded(nlExecutionNodes, rightResultDesc.nodeIds(), isDistributed)) {
+                        rightMerge = new MergePhase(
+                            context.plannerContext().jobId(),
+                            context.plannerContext().nextExecutionPhaseId(),
+                            "nl-merge",
+                            rightResultDesc.nodeIds().size(),
+                            nlExecutionNodes,
+                            rightResultDesc.streamOutputs(),
+                            Collections.emptyList(),
+                            DistributionInfo.DEFAULT_SAME_NODE,
+                            PositionalOrderBy.of(right.querySpec().orderBy().orElse(null), right.querySpec().outputs())
+                        );
+                    }
+                    rightPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
                 }
-                rightPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
-            }
 
 
-            if (broadcastLeftTable) {
-                Plan tmpPlan = leftPlan;
-                leftPlan = rightPlan;
-                rightPlan = tmpPlan;
-                leftMerge = rightMerge;
-                rightMerge = null;
-                leftResultDesc = leftPlan.resultDescription();
-                rightResultDesc = rightPlan.resultDescription();
+                if (broadcastLeftTable) {
+                    Plan tmpPlan = leftPlan;
+                    leftPlan = rightPlan;
+                    rightPlan = tmpPlan;
+                    leftMerge = rightMerge;
+                    rightMerge = null;
+                    leftResultDesc = leftPlan.resultDescription();
+                    rightResultDesc = rightPlan.resultDescription();
+                }
             }
             List<Projection> projections = new ArrayList<>();
 
             if (filterNeeded) {
                 projections.add(ProjectionBuilder.filterProjection(nlOutputs, where));
             }
-            if (joinCondition != null) {
-                joinCondition = InputColumns.create(joinCondition, nlOutputs);
-                assert joinCondition instanceof Function : "Only function symbols are valid join conditions";
-                boolean hasRelCol = SymbolVisitors.any(s -> s instanceof RelationColumn, joinCondition);
-                assert  !hasRelCol : "RelationColumns are not valid join condition arguments";
-            }
 
             List<Symbol> postNLOutputs = Lists.newArrayList(querySpec.outputs());
             if (orderByBeforeSplit != null && isDistributed) {
@@ -261,7 +303,8 @@ class NestedLoopConsumer implements Consumer {
             }
 
             OrderBy orderBy = statement.remainingOrderBy().orElse(null);
-            if (orderBy == null && joinType.isOuter()) {
+            if (orderBy == null && (joinType.isOuter() || isShuffled)) {
+                // the order of the left side isn't preserved if the join is outer or the inputs are re-distributed
                 orderBy = orderByBeforeSplit;
             }
 
@@ -278,7 +321,9 @@ class NestedLoopConsumer implements Consumer {
             NestedLoopPhase nl = new NestedLoopPhase(
                 context.plannerContext().jobId(),
                 context.plannerContext().nextExecutionPhaseId(),
-                isDistributed ? "distributed-nested-loop" : "nested-loop",
+                isHashJoin
+                    ? (isDistributed ? "distributed-hash-join" : "hash-join")
+                    : (isDistributed ? "distributed-nested-loop" : "nested-loop"),
                 projections,
                 leftMerge,
                 rightMerge,
@@ -286,7 +331,9 @@ class NestedLoopConsumer implements Consumer {
                 joinType,
                 joinCondition,
                 left.querySpec().outputs().size(),
-                right.querySpec().outputs().size()
+                right.querySpec().outputs().size(),
+                leftJoinKeys,
+                rightJoinKeys
             );
             if (isDistributed) {
                 return new NestedLoop(
@@ -303,6 +350,71 @@ class NestedLoopConsumer implements Consumer {
             }
         }
 
+        /**
+         * Collects the {@code leftCol = rightCol} terms of the (conjunctive) joinCondition as hash join keys.
+         * The keys are converted to InputColumns relative to the outputs of their side.
+         *
+         * Only columns of the same type are used, and floating point types are excluded because their
+         * {@code equals} semantics differ from SQL equality (e.g. {@code 0.0 = -0.0}).
+         */
+        private static void extractEquiJoinKeys(Symbol joinCondition,
+                                                int numLeftOutputs,
+                                                List<Symbol> leftJoinKeys,
+                                                List<Symbol> rightJoinKeys) {
+            if (!(joinCondition instanceof Function)) {
+                return;
+            }
+            Function function = (Function) joinCondition;
+            String name = function.info().ident().name();
+            if (name.equals(AndOperator.NAME)) {
+                for (Symbol arg : function.arguments()) {
+                    extractEquiJoinKeys(arg, numLeftOutputs, leftJoinKeys, rightJoinKeys);
+                }
+                return;
+            }
+            if (!name.equals(EqOperator.NAME)) {
+                return;
+            }
+            Symbol first = function.arguments().get(0);
+            Symbol second = function.arguments().get(1);
+            if (!(first instanceof InputColumn && second instanceof InputColumn)) {
+                return;
+            }
+            InputColumn leftCol = (InputColumn) first;
+            InputColumn rightCol = (InputColumn) second;
+            if (leftCol.index() >= numLeftOutputs) {
+                leftCol = (InputColumn) second;
+                rightCol = (InputColumn) first;
+            }
+            DataType type = leftCol.valueType();
+            if (leftCol.index() >= numLeftOutputs
+                || rightCol.index() < numLeftOutputs
+                || !type.equals(rightCol.valueType())
+                || !DataTypes.isPrimitive(type)
+                || type.equals(DataTypes.DOUBLE)
+                || type.equals(DataTypes.FLOAT)) {
+                return;
+            }
+            leftJoinKeys.add(leftCol);
+            rightJoinKeys.add(new InputColumn(rightCol.index() - numLeftOutputs, rightCol.valueType()));
+        }
+
+        private static MergePhase shuffleMergePhase(ConsumerContext context,
+                                                    ResultDescription upstreamResultDesc,
+                                                    Collection<String> executionNodes) {
+            return new MergePhase(
+                context.plannerContext().jobId(),
+                context.plannerContext().nextExecutionPhaseId(),
+                "hash-join-merge",
+                upstreamResultDesc.nodeIds().size(),
+                executionNodes,
+                upstreamResultDesc.streamOutputs(),
+                Collections.emptyList(),
+                DistributionInfo.DEFAULT_SAME_NODE,
+                null
+            );
+        }
+
         private void addOutputsAndSymbolMap(Iterable<? extends Symbol> outputs,
                                             QualifiedName name,
                                             List<RelationColumn> nlOutputs,
@@ -319,19 +431,25 @@ class NestedLoopConsumer implements Consumer {
             if (qrLeft instanceof QueriedTableRelation && qrRight instanceof QueriedTableRelation) {
                 return isLeftSmallerThanRight(
                     ((QueriedTableRelation) qrLeft).tableRelation().tableInfo().ident(),
-                    ((QueriedTableRelation) qrRight).tableRelation().tableInfo().ident()
+                    qrLeft.querySpec().where(),
+                    ((QueriedTableRelation) qrRight).tableRelation().tableInfo().ident(),
+                    qrRight.querySpec().where()
                 );
             }
             return false;
         }
 
-        private boolean isLeftSmallerThanRight(TableIdent leftIdent, TableIdent rightIdent) {
-            long leftNumDocs = tableStats.numDocs(leftIdent);
-            long rightNumDocs = tableStats.numDocs(rightIdent);
-
-            if (leftNumDocs < rightNumDocs) {
-                LOGGER.debug("Right table is larger with {} docs (left has {}. Will change left plan to broadcast its result",
-                    rightNumDocs, leftNumDocs);
+        private boolean isLeftSmallerThanRight(TableIdent leftIdent,
+                                               WhereClause leftWhere,
+                                               TableIdent rightIdent,
+                                               WhereClause rightWhere) {
+            long leftNumRows = SelectivityEstimator.estimatedNumRows(tableStats, leftIdent, leftWhere);
+            long rightNumRows = SelectivityEstimator.estimatedNumRows(tableStats, rightIdent, rightWhere);
+
+            if (leftNumRows < rightNumRows) {
+                LOGGER.debug("Right table is larger with an estimated {} rows (left has {}). " +
+                             "Will change left plan to broadcast its result",
+                    rightNumRows, leftNumRows);
                 return true;
             }
             return false;
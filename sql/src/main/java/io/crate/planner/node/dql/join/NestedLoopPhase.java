@@ -38,6 +38,7 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
@@ -57,6 +58,13 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
     private int numLeftOutputs;
     private int numRightOutputs;
 
+    /**
+     * Equi-join keys, relative to the left and right outputs respectively.
+     * If present the join is executed as hash join using the right side as build side.
+     */
+    private List<Symbol> leftJoinKeys = Collections.emptyList();
+    private List<Symbol> rightJoinKeys = Collections.emptyList();
+
     public NestedLoopPhase() {
     }
 
@@ -70,7 +78,9 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
                            JoinType joinType,
                            @Nullable Symbol joinCondition,
                            int numLeftOutputs,
-                           int numRightOutputs) {
+                           int numRightOutputs,
+                           List<Symbol> leftJoinKeys,
+                           List<Symbol> rightJoinKeys) {
         super(jobId, executionNodeId, name, projections);
         Projection lastProjection = Iterables.getLast(projections, null);
         assert lastProjection != null : "lastProjection must not be null";
@@ -82,6 +92,9 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
         this.joinCondition = joinCondition;
         this.numLeftOutputs = numLeftOutputs;
         this.numRightOutputs = numRightOutputs;
+        assert leftJoinKeys.size() == rightJoinKeys.size() : "must have the same number of left and right join keys";
+        this.leftJoinKeys = leftJoinKeys;
+        this.rightJoinKeys = rightJoinKeys;
     }
 
     @Override
@@ -125,6 +138,21 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
         return numRightOutputs;
     }
 
+    public List<Symbol> leftJoinKeys() {
+        return leftJoinKeys;
+    }
+
+    public List<Symbol> rightJoinKeys() {
+        return rightJoinKeys;
+    }
+
+    /**
+     * @return true if the join can be executed as hash join because the join condition contains equi-join terms.
+     */
+    public boolean isHashJoin() {
+        return leftJoinKeys.isEmpty() == false;
+    }
+
     @Override
     public <C, R> R accept(ExecutionPhaseVisitor<C, R> visitor, C context) {
         return visitor.visitNestedLoopPhase(this, context);
@@ -158,6 +186,8 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
         joinType = JoinType.values()[in.readVInt()];
         numLeftOutputs = in.readVInt();
         numRightOutputs = in.readVInt();
+        leftJoinKeys = Symbols.listFromStream(in);
+        rightJoinKeys = Symbols.listFromStream(in);
     }
 
     @Override
@@ -198,6 +228,8 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
         out.writeVInt(joinType.ordinal());
         out.writeVInt(numLeftOutputs);
         out.writeVInt(numRightOutputs);
+        Symbols.toStream(leftJoinKeys, out);
+        Symbols.toStream(rightJoinKeys, out);
     }
 
     @Override
@@ -207,6 +239,8 @@ public class NestedLoopPhase extends AbstractProjectionsPhase implements Upstrea
             .add("name", name())
             .add("joinType", joinType)
             .add("joinCondition", joinCondition)
+            .add("leftJoinKeys", leftJoinKeys)
+            .add("rightJoinKeys", rightJoinKeys)
             .add("outputTypes", outputTypes)
             .add("jobId", jobId())
             .add("executionNodes", executionNodes);
@@ -27,6 +27,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import io.crate.analyze.CopyFromAnalyzedStatement;
 import io.crate.analyze.CopyToAnalyzedStatement;
+import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.GeneratedReference;
@@ -34,6 +35,7 @@ import io.crate.metadata.PartitionName;
 import io.crate.metadata.Reference;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.operation.projectors.TopN;
 import io.crate.planner.Merge;
 import io.crate.planner.Plan;
@@ -158,18 +160,34 @@ public class CopyStatementPlanner {
             }
         }
 
-        DiscoveryNodes allNodes = clusterService.state().nodes();
-        FileUriCollectPhase collectPhase = new FileUriCollectPhase(
-            context.jobId(),
-            context.nextExecutionPhaseId(),
-            "copyFrom",
-            getExecutionNodes(allNodes, analysis.settings().getAsInt("num_readers", allNodes.getSize()), analysis.nodePredicate()),
-            analysis.uri(),
-            toCollect,
-            projections,
-            analysis.settings().get("compression", null),
-            analysis.settings().getAsBoolean("shared", null)
-        );
+        FileUriCollectPhase collectPhase;
+        if (analysis.fromStdin()) {
+            // the rows are sent by the client to the handler node, so they are read and indexed from there
+            collectPhase = new FileUriCollectPhase(
+                context.jobId(),
+                context.nextExecutionPhaseId(),
+                "copyFromStdin",
+                Collections.singletonList(clusterService.localNode().getId()),
+                Literal.of(StdinFileInputFactory.uri(context.jobId())),
+                toCollect,
+                projections,
+                null,
+                false
+            );
+        } else {
+            DiscoveryNodes allNodes = clusterService.state().nodes();
+            collectPhase = new FileUriCollectPhase(
+                context.jobId(),
+                context.nextExecutionPhaseId(),
+                "copyFrom",
+                getExecutionNodes(allNodes, analysis.settings().getAsInt("num_readers", allNodes.getSize()), analysis.nodePredicate()),
+                analysis.uri(),
+                toCollect,
+                projections,
+                analysis.settings().get("compression", null),
+                analysis.settings().getAsBoolean("shared", null)
+            );
+        }
 
         Collect collect = new Collect(collectPhase, TopN.NO_LIMIT, 0, 1, 1, null);
         return Merge.ensureOnHandler(collect, context, Collections.singletonList(MergeCountProjection.INSTANCE));
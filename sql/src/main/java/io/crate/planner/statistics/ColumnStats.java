@@ -0,0 +1,338 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import io.crate.Streamer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Statistics about the values of a single column, computed from a sample of the rows of a table.
+ * <p>
+ * Modelled after the statistics of the PostgreSQL <code>pg_stats</code> view:
+ * <ul>
+ *     <li>the fraction of rows where the column is null</li>
+ *     <li>an estimate of the number of distinct non-null values</li>
+ *     <li>the most common values together with their frequencies</li>
+ *     <li>the bounds of an equi-depth histogram over all remaining values</li>
+ * </ul>
+ */
+public final class ColumnStats implements Writeable {
+
+    static final int MAX_MOST_COMMON_VALUES = 100;
+    static final int MAX_HISTOGRAM_BUCKETS = 100;
+
+    private final DataType type;
+    private final double nullFraction;
+    private final double approxDistinct;
+    private final List<Object> mostCommonValues;
+    private final double[] mostCommonFrequencies;
+    private final List<Object> histogramBounds;
+
+    public ColumnStats(DataType type,
+                       double nullFraction,
+                       double approxDistinct,
+                       List<Object> mostCommonValues,
+                       double[] mostCommonFrequencies,
+                       List<Object> histogramBounds) {
+        assert mostCommonValues.size() == mostCommonFrequencies.length
+            : "mostCommonValues and mostCommonFrequencies must have the same size";
+        this.type = type;
+        this.nullFraction = nullFraction;
+        this.approxDistinct = approxDistinct;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonFrequencies = mostCommonFrequencies;
+        this.histogramBounds = histogramBounds;
+    }
+
+    public ColumnStats(StreamInput in) throws IOException {
+        type = DataTypes.fromStream(in);
+        nullFraction = in.readDouble();
+        approxDistinct = in.readDouble();
+        Streamer<?> streamer = type.streamer();
+        int numMostCommonValues = in.readVInt();
+        mostCommonValues = new ArrayList<>(numMostCommonValues);
+        mostCommonFrequencies = new double[numMostCommonValues];
+        for (int i = 0; i < numMostCommonValues; i++) {
+            mostCommonValues.add(streamer.readValueFrom(in));
+            mostCommonFrequencies[i] = in.readDouble();
+        }
+        int numBounds = in.readVInt();
+        histogramBounds = new ArrayList<>(numBounds);
+        for (int i = 0; i < numBounds; i++) {
+            histogramBounds.add(streamer.readValueFrom(in));
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        DataTypes.toStream(type, out);
+        out.writeDouble(nullFraction);
+        out.writeDouble(approxDistinct);
+        Streamer<?> streamer = type.streamer();
+        out.writeVInt(mostCommonValues.size());
+        for (int i = 0; i < mostCommonValues.size(); i++) {
+            streamer.writeValueTo(out, mostCommonValues.get(i));
+            out.writeDouble(mostCommonFrequencies[i]);
+        }
+        out.writeVInt(histogramBounds.size());
+        for (Object bound : histogramBounds) {
+            streamer.writeValueTo(out, bound);
+        }
+    }
+
+    /**
+     * Compute the statistics of a column out of a random sample of its values.
+     *
+     * @param type the type of the column
+     * @param samples the sampled values, may contain nulls
+     * @param totalRows the (approximate) number of rows in the table the sample was taken from
+     *                  or -1 if unknown, in which case the sample is assumed to contain all rows.
+     */
+    public static ColumnStats fromSample(DataType type, List<?> samples, long totalRows) {
+        int numSamples = samples.size();
+        if (numSamples == 0) {
+            return new ColumnStats(type, 0.0, 0.0, Collections.emptyList(), new double[0], Collections.emptyList());
+        }
+        Map<Object, Integer> counts = new HashMap<>();
+        int numNulls = 0;
+        for (Object sample : samples) {
+            if (sample == null) {
+                numNulls++;
+            } else {
+                counts.merge(type.value(sample), 1, Integer::sum);
+            }
+        }
+        double nullFraction = numNulls / (double) numSamples;
+        int numNonNull = numSamples - numNulls;
+        if (numNonNull == 0) {
+            return new ColumnStats(type, nullFraction, 0.0, Collections.emptyList(), new double[0], Collections.emptyList());
+        }
+        double totalNonNull = totalRows < numSamples ? numNonNull : totalRows * (1.0 - nullFraction);
+        double approxDistinct = estimateDistinct(counts, numNonNull, totalNonNull);
+
+        List<Map.Entry<Object, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<Object, Integer>comparingByValue().reversed());
+
+        // a value is considered "common" if it occurs notably more often than the average value;
+        // if all distinct values fit into the list, all of them are kept and there is no histogram.
+        double minCount = Math.max(2.0, 1.25 * numNonNull / (double) counts.size());
+        boolean keepAll = counts.size() <= MAX_MOST_COMMON_VALUES && approxDistinct <= counts.size();
+        List<Object> mostCommonValues = new ArrayList<>();
+        List<Double> frequencies = new ArrayList<>();
+        for (Map.Entry<Object, Integer> entry : entries) {
+            if (mostCommonValues.size() == MAX_MOST_COMMON_VALUES || (!keepAll && entry.getValue() < minCount)) {
+                break;
+            }
+            mostCommonValues.add(entry.getKey());
+            frequencies.add(entry.getValue() / (double) numSamples);
+        }
+        double[] mostCommonFrequencies = new double[frequencies.size()];
+        for (int i = 0; i < mostCommonFrequencies.length; i++) {
+            mostCommonFrequencies[i] = frequencies.get(i);
+        }
+
+        List<Object> remaining = new ArrayList<>(numNonNull);
+        for (int i = mostCommonValues.size(); i < entries.size(); i++) {
+            Map.Entry<Object, Integer> entry = entries.get(i);
+            for (int j = 0; j < entry.getValue(); j++) {
+                remaining.add(entry.getKey());
+            }
+        }
+        return new ColumnStats(
+            type,
+            nullFraction,
+            approxDistinct,
+            mostCommonValues,
+            mostCommonFrequencies,
+            histogramBounds(type, remaining)
+        );
+    }
+
+    /**
+     * Estimate the number of distinct values using the "Duj1" estimator of Haas and Stokes:
+     * <pre>
+     *     n * d / (n - f1 + f1 * n / N)
+     * </pre>
+     * where n is the number of sampled values, d the number of distinct values within the sample,
+     * f1 the number of values which occurred exactly once in the sample and N the total number of values.
+     */
+    private static double estimateDistinct(Map<Object, Integer> counts, int numSamples, double total) {
+        int distinct = counts.size();
+        if (numSamples >= total) {
+            return distinct;
+        }
+        int singletons = 0;
+        for (Integer count : counts.values()) {
+            if (count == 1) {
+                singletons++;
+            }
+        }
+        double estimate = (numSamples * (double) distinct) /
+                          ((numSamples - singletons) + singletons * numSamples / total);
+        return Math.max(distinct, Math.min(estimate, total));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> histogramBounds(DataType type, List<Object> values) {
+        if (values.size() < 2) {
+            return Collections.emptyList();
+        }
+        Comparator<Object> comparator = type::compareValueTo;
+        values.sort(comparator);
+        int numBuckets = Math.min(MAX_HISTOGRAM_BUCKETS, values.size() - 1);
+        List<Object> bounds = new ArrayList<>(numBuckets + 1);
+        int lastIdx = values.size() - 1;
+        for (int i = 0; i <= numBuckets; i++) {
+            bounds.add(values.get((int) ((long) i * lastIdx / numBuckets)));
+        }
+        return bounds;
+    }
+
+    public DataType type() {
+        return type;
+    }
+
+    public double nullFraction() {
+        return nullFraction;
+    }
+
+    public double approxDistinct() {
+        return approxDistinct;
+    }
+
+    public List<Object> mostCommonValues() {
+        return mostCommonValues;
+    }
+
+    public double[] mostCommonFrequencies() {
+        return mostCommonFrequencies;
+    }
+
+    public List<Object> histogramBounds() {
+        return histogramBounds;
+    }
+
+    /**
+     * @return the estimated fraction of rows for which {@code column = value} holds
+     */
+    public double eqSelectivity(@Nullable Object value) {
+        if (value == null) {
+            return 0.0;
+        }
+        Object val = type.value(value);
+        for (int i = 0; i < mostCommonValues.size(); i++) {
+            if (mostCommonValues.get(i).equals(val)) {
+                return mostCommonFrequencies[i];
+            }
+        }
+        double otherDistinct = approxDistinct - mostCommonValues.size();
+        if (otherDistinct < 1.0) {
+            // the value is neither a common value nor are there any other values
+            return 0.0;
+        }
+        return otherFraction() / otherDistinct;
+    }
+
+    /**
+     * @return the estimated fraction of rows for which {@code column < value} holds
+     */
+    @SuppressWarnings("unchecked")
+    public double lessThanSelectivity(@Nullable Object value) {
+        if (value == null) {
+            return 0.0;
+        }
+        Object val = type.value(value);
+        double selectivity = 0.0;
+        for (int i = 0; i < mostCommonValues.size(); i++) {
+            if (type.compareValueTo(mostCommonValues.get(i), val) < 0) {
+                selectivity += mostCommonFrequencies[i];
+            }
+        }
+        if (histogramBounds.size() < 2) {
+            return selectivity;
+        }
+        int numBuckets = histogramBounds.size() - 1;
+        int idx = Collections.binarySearch(histogramBounds, val, type::compareValueTo);
+        // number of bounds lower than the value
+        int lower = idx >= 0 ? idx : -(idx + 1);
+        double histogramFraction = Math.max(0.0, Math.min(numBuckets, lower - 0.5)) / numBuckets;
+        return selectivity + histogramFraction * otherFraction();
+    }
+
+    /**
+     * @return the fraction of rows that are neither null nor one of the most common values
+     */
+    private double otherFraction() {
+        double sum = nullFraction;
+        for (double frequency : mostCommonFrequencies) {
+            sum += frequency;
+        }
+        return Math.max(0.0, 1.0 - sum);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnStats that = (ColumnStats) o;
+        return Double.compare(that.nullFraction, nullFraction) == 0 &&
+               Double.compare(that.approxDistinct, approxDistinct) == 0 &&
+               Objects.equals(type, that.type) &&
+               Objects.equals(mostCommonValues, that.mostCommonValues) &&
+               Arrays.equals(mostCommonFrequencies, that.mostCommonFrequencies) &&
+               Objects.equals(histogramBounds, that.histogramBounds);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(type, nullFraction, approxDistinct, mostCommonValues, histogramBounds);
+        result = 31 * result + Arrays.hashCode(mostCommonFrequencies);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStats{" +
+               "type=" + type +
+               ", nullFraction=" + nullFraction +
+               ", approxDistinct=" + approxDistinct +
+               ", mostCommonValues=" + mostCommonValues +
+               ", histogramBounds=" + histogramBounds +
+               '}';
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.TableIdent;
+
+/**
+ * The {@link ColumnStats} of a single column together with the identity of the column; a row of {@code pg_stats}
+ */
+public class ColumnStatsEntry {
+
+    private final TableIdent tableIdent;
+    private final ColumnIdent column;
+    private final ColumnStats stats;
+
+    public ColumnStatsEntry(TableIdent tableIdent, ColumnIdent column, ColumnStats stats) {
+        this.tableIdent = tableIdent;
+        this.column = column;
+        this.stats = stats;
+    }
+
+    public TableIdent tableIdent() {
+        return tableIdent;
+    }
+
+    public ColumnIdent column() {
+        return column;
+    }
+
+    public ColumnStats stats() {
+        return stats;
+    }
+}
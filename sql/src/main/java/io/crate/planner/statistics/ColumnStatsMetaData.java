@@ -0,0 +1,151 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.TableIdent;
+import org.elasticsearch.cluster.AbstractDiffable;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cluster state custom metadata holding the {@link ColumnStats} of all analyzed tables.
+ */
+public class ColumnStatsMetaData extends AbstractDiffable<MetaData.Custom> implements MetaData.Custom {
+
+    public static final String TYPE = "column_stats";
+
+    static final ColumnStatsMetaData PROTO = new ColumnStatsMetaData(Collections.emptyMap());
+
+    static {
+        // register non plugin custom metadata
+        MetaData.registerPrototype(TYPE, PROTO);
+    }
+
+    private final Map<TableIdent, Map<ColumnIdent, ColumnStats>> tableStats;
+
+    public ColumnStatsMetaData(Map<TableIdent, Map<ColumnIdent, ColumnStats>> tableStats) {
+        this.tableStats = tableStats;
+    }
+
+    public Map<TableIdent, Map<ColumnIdent, ColumnStats>> tableStats() {
+        return tableStats;
+    }
+
+    /**
+     * @return a new instance containing the stats of this instance, with the stats of the given tables replaced.
+     */
+    public ColumnStatsMetaData merge(Map<TableIdent, Map<ColumnIdent, ColumnStats>> newTableStats) {
+        Map<TableIdent, Map<ColumnIdent, ColumnStats>> merged = new HashMap<>(tableStats);
+        merged.putAll(newTableStats);
+        return new ColumnStatsMetaData(merged);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(tableStats.size());
+        for (Map.Entry<TableIdent, Map<ColumnIdent, ColumnStats>> tableEntry : tableStats.entrySet()) {
+            tableEntry.getKey().writeTo(out);
+            Map<ColumnIdent, ColumnStats> columnStats = tableEntry.getValue();
+            out.writeVInt(columnStats.size());
+            for (Map.Entry<ColumnIdent, ColumnStats> columnEntry : columnStats.entrySet()) {
+                columnEntry.getKey().writeTo(out);
+                columnEntry.getValue().writeTo(out);
+            }
+        }
+    }
+
+    @Override
+    public MetaData.Custom readFrom(StreamInput in) throws IOException {
+        int numTables = in.readVInt();
+        Map<TableIdent, Map<ColumnIdent, ColumnStats>> tableStats = new HashMap<>(numTables);
+        for (int i = 0; i < numTables; i++) {
+            TableIdent tableIdent = new TableIdent(in);
+            int numColumns = in.readVInt();
+            Map<ColumnIdent, ColumnStats> columnStats = new HashMap<>(numColumns);
+            for (int j = 0; j < numColumns; j++) {
+                columnStats.put(new ColumnIdent(in), new ColumnStats(in));
+            }
+            tableStats.put(tableIdent, columnStats);
+        }
+        return new ColumnStatsMetaData(tableStats);
+    }
+
+    /**
+     * The stats contain arbitrary typed values, they're persisted in their stream representation
+     */
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            writeTo(out);
+            builder.field("stats", BytesReference.toBytes(out.bytes()));
+        }
+        return builder;
+    }
+
+    @Override
+    public MetaData.Custom fromXContent(XContentParser parser) throws IOException {
+        if (parser.nextToken() == XContentParser.Token.FIELD_NAME && Objects.equals(parser.currentName(), "stats")) {
+            parser.nextToken();
+            byte[] bytes = parser.binaryValue();
+            return PROTO.readFrom(new BytesArray(bytes).streamInput());
+        }
+        return PROTO;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public EnumSet<MetaData.XContentContext> context() {
+        return EnumSet.of(MetaData.XContentContext.GATEWAY);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnStatsMetaData that = (ColumnStatsMetaData) o;
+        return tableStats.equals(that.tableStats);
+    }
+
+    @Override
+    public int hashCode() {
+        return tableStats.hashCode();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import io.crate.analyze.WhereClause;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.analyze.symbol.SymbolVisitor;
+import io.crate.metadata.Reference;
+import io.crate.metadata.TableIdent;
+import io.crate.operation.operator.AndOperator;
+import io.crate.operation.operator.EqOperator;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.operator.GteOperator;
+import io.crate.operation.operator.LtOperator;
+import io.crate.operation.operator.LteOperator;
+import io.crate.operation.operator.OrOperator;
+import io.crate.operation.predicate.IsNullPredicate;
+import io.crate.operation.predicate.NotPredicate;
+import io.crate.planner.TableStats;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Estimates the fraction of rows of a table matching a where clause using the {@link ColumnStats} of the table.
+ * <p>
+ * Predicates on columns without statistics or which can't be estimated are assumed to match all rows,
+ * so that tables which haven't been analyzed are treated as before.
+ * </p>
+ */
+public final class SelectivityEstimator {
+
+    private static final Visitor VISITOR = new Visitor();
+
+    private SelectivityEstimator() {
+    }
+
+    public static double selectivity(TableStats tableStats, TableIdent tableIdent, WhereClause whereClause) {
+        if (whereClause.noMatch()) {
+            return 0.0;
+        }
+        if (!whereClause.hasQuery()) {
+            return 1.0;
+        }
+        return VISITOR.process(whereClause.query(), new Context(tableStats, tableIdent));
+    }
+
+    /**
+     * @return the estimated number of rows of a table matching the where clause or -1 if the size of the table is unknown
+     */
+    public static long estimatedNumRows(TableStats tableStats, TableIdent tableIdent, WhereClause whereClause) {
+        long numDocs = tableStats.numDocs(tableIdent);
+        if (numDocs < 0) {
+            return numDocs;
+        }
+        return (long) Math.ceil(numDocs * selectivity(tableStats, tableIdent, whereClause));
+    }
+
+    private static class Context {
+
+        private final TableStats tableStats;
+        private final TableIdent tableIdent;
+
+        Context(TableStats tableStats, TableIdent tableIdent) {
+            this.tableStats = tableStats;
+            this.tableIdent = tableIdent;
+        }
+
+        @Nullable
+        ColumnStats columnStats(Symbol symbol) {
+            if (symbol instanceof Reference) {
+                Reference ref = (Reference) symbol;
+                if (ref.ident().tableIdent().equals(tableIdent)) {
+                    return tableStats.columnStats(tableIdent, ref.ident().columnIdent());
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Visitor extends SymbolVisitor<Context, Double> {
+
+        @Override
+        protected Double visitSymbol(Symbol symbol, Context context) {
+            return 1.0;
+        }
+
+        @Override
+        public Double visitLiteral(Literal symbol, Context context) {
+            Object value = symbol.value();
+            if (value instanceof Boolean) {
+                return (Boolean) value ? 1.0 : 0.0;
+            }
+            return 1.0;
+        }
+
+        @Override
+        public Double visitFunction(Function function, Context context) {
+            List<Symbol> args = function.arguments();
+            switch (function.info().ident().name()) {
+                case AndOperator.NAME:
+                    return process(args.get(0), context) * process(args.get(1), context);
+
+                case OrOperator.NAME:
+                    double left = process(args.get(0), context);
+                    double right = process(args.get(1), context);
+                    return left + right - left * right;
+
+                case NotPredicate.NAME:
+                    double selectivity = process(args.get(0), context);
+                    // an estimate of 1.0 usually means there was nothing to estimate, so the negation is unknown too
+                    return selectivity >= 1.0 ? 1.0 : 1.0 - selectivity;
+
+                case IsNullPredicate.NAME: {
+                    ColumnStats stats = context.columnStats(args.get(0));
+                    return stats == null ? 1.0 : stats.nullFraction();
+                }
+
+                case EqOperator.NAME:
+                case LtOperator.NAME:
+                case LteOperator.NAME:
+                case GtOperator.NAME:
+                case GteOperator.NAME:
+                    return comparison(function.info().ident().name(), args, context);
+
+                default:
+                    return 1.0;
+            }
+        }
+
+        /**
+         * Estimates comparisons of the form {@code column op literal}.
+         * Returns 1.0 if the arguments are of a different form or there are no statistics for the column.
+         */
+        private static double comparison(String operator, List<Symbol> args, Context context) {
+            ColumnStats stats = context.columnStats(args.get(0));
+            if (stats == null || !(args.get(1) instanceof Literal)) {
+                return 1.0;
+            }
+            Object value = ((Literal) args.get(1)).value();
+            if (operator.equals(EqOperator.NAME)) {
+                return stats.eqSelectivity(value);
+            }
+            double nonNull = 1.0 - stats.nullFraction();
+            double lessThan = stats.lessThanSelectivity(value);
+            switch (operator) {
+                case LtOperator.NAME:
+                    return lessThan;
+                case LteOperator.NAME:
+                    return Math.min(nonNull, lessThan + stats.eqSelectivity(value));
+                case GtOperator.NAME:
+                    return Math.max(0.0, nonNull - lessThan - stats.eqSelectivity(value));
+                case GteOperator.NAME:
+                    return Math.max(0.0, nonNull - lessThan);
+                default:
+                    return 1.0;
+            }
+        }
+    }
+}
@@ -30,6 +30,7 @@ import io.crate.operation.udf.TransportDropUserDefinedFunctionAction;
 import io.crate.planner.Planner;
 import io.crate.planner.TableStats;
 import io.crate.planner.TableStatsService;
+import io.crate.planner.statistics.TransportPublishColumnStatsAction;
 import io.crate.protocols.postgres.PostgresNetty;
 import org.elasticsearch.common.inject.AbstractModule;
 
@@ -45,6 +46,7 @@ public class SQLModule extends AbstractModule {
         bind(Planner.class).asEagerSingleton();
         bind(TableStats.class).asEagerSingleton();
         bind(TableStatsService.class).asEagerSingleton();
+        bind(TransportPublishColumnStatsAction.class).asEagerSingleton();
         bind(UserDefinedFunctionService.class).asEagerSingleton();
         bind(TransportCreateUserDefinedFunctionAction.class).asEagerSingleton();
         bind(TransportDropUserDefinedFunctionAction.class).asEagerSingleton();
@@ -23,11 +23,13 @@ package io.crate.plugin;
 
 import com.google.common.collect.ImmutableList;
 import io.crate.action.sql.SQLOperations;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.repositories.RepositorySettingsModule;
 import io.crate.breaker.CircuitBreakerModule;
 import io.crate.cluster.gracefulstop.DecommissionAllocationDecider;
 import io.crate.cluster.gracefulstop.DecommissioningService;
 import io.crate.executor.transport.TransportExecutorModule;
+import io.crate.executor.transport.Transports;
 import io.crate.jobs.JobContextService;
 import io.crate.jobs.JobModule;
 import io.crate.jobs.transport.NodeDisconnectJobMonitorService;
@@ -104,6 +106,8 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
         List<org.elasticsearch.common.settings.Setting<?>> settings = new ArrayList<>();
         settings.add(AnalyzerSettings.CUSTOM_ANALYSIS_SETTING_GROUP);
         settings.add(SQLOperations.NODE_READ_ONLY_SETTING);
+        settings.add(Transports.COMPRESS_RESULTS_SETTING);
+        settings.add(StatementCache.STATEMENT_CACHE_SIZE_SETTING);
         settings.add(MonitorModule.NODE_INFO_EXTENDED_TYPE_SETTING);
 
         for (CrateSetting crateSetting : CrateSettings.CRATE_CLUSTER_SETTINGS) {
@@ -23,8 +23,10 @@
 package io.crate.protocols.postgres;
 
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.Analyzer;
 import io.crate.executor.Executor;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 
 abstract class AbstractPortal implements Portal {
 
@@ -33,10 +35,17 @@ abstract class AbstractPortal implements Portal {
     final SessionContext sessionContext;
     boolean synced = false;
 
-    AbstractPortal(String name, Analyzer analyzer, Executor executor, boolean isReadOnly, SessionContext sessionContext) {
+    AbstractPortal(String name,
+                   Analyzer analyzer,
+                   Executor executor,
+                   boolean isReadOnly,
+                   SessionContext sessionContext,
+                   StdinFileInputFactory stdinFileInputFactory,
+                   Cursors cursors,
+                   StatementCache statementCache) {
         this.name = name;
         this.sessionContext = sessionContext;
-        portalContext = new PortalContext(analyzer, executor, isReadOnly);
+        portalContext = new PortalContext(analyzer, executor, isReadOnly, stdinFileInputFactory, cursors, statementCache);
     }
 
     AbstractPortal(String name, SessionContext sessionContext, PortalContext portalContext) {
@@ -64,11 +73,22 @@ abstract class AbstractPortal implements Portal {
         private final Analyzer analyzer;
         private final Executor executor;
         private final boolean isReadOnly;
+        private final StdinFileInputFactory stdinFileInputFactory;
+        private final Cursors cursors;
+        private final StatementCache statementCache;
 
-        private PortalContext(Analyzer analyzer, Executor executor, boolean isReadOnly) {
+        private PortalContext(Analyzer analyzer,
+                              Executor executor,
+                              boolean isReadOnly,
+                              StdinFileInputFactory stdinFileInputFactory,
+                              Cursors cursors,
+                              StatementCache statementCache) {
             this.analyzer = analyzer;
             this.executor = executor;
             this.isReadOnly = isReadOnly;
+            this.stdinFileInputFactory = stdinFileInputFactory;
+            this.cursors = cursors;
+            this.statementCache = statementCache;
         }
 
         Analyzer getAnalyzer() {
@@ -82,5 +102,17 @@ abstract class AbstractPortal implements Portal {
         boolean isReadOnly() {
             return isReadOnly;
         }
+
+        StdinFileInputFactory getStdinFileInputFactory() {
+            return stdinFileInputFactory;
+        }
+
+        Cursors getCursors() {
+            return cursors;
+        }
+
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
     }
 }
@@ -135,9 +135,10 @@ class BatchPortal extends AbstractPortal {
                 jobsLogs.logPreExecutionFailure(jobId, stmt, SQLExceptions.messageOf(t));
                 throw t;
             }
-            ResultReceiver resultReceiver = resultReceivers.get(i);
+            RowCountingResultReceiver resultReceiver = new RowCountingResultReceiver(resultReceivers.get(i), true);
             jobsLogs.logExecutionStart(jobId, stmt);
-            JobsLogsUpdateListener jobsLogsUpdateListener = new JobsLogsUpdateListener(jobId, jobsLogs);
+            JobsLogsUpdateListener jobsLogsUpdateListener =
+                new JobsLogsUpdateListener(jobId, jobsLogs, resultReceiver::numRows);
 
             resultReceiver.completionFuture()
                 .whenComplete(jobsLogsUpdateListener)
@@ -145,18 +145,22 @@ class BulkPortal extends AbstractPortal {
 
         Long[] cells = new Long[1];
         RowN row = new RowN(cells);
+        long numRows = 0;
         for (int i = 0; i < completedResultFutures.size(); i++) {
             CompletableFuture<Long> completedResultFuture = completedResultFutures.get(i);
             ResultReceiver resultReceiver = resultReceivers.get(i);
             try {
                 Long rowCount = completedResultFuture.join();
                 cells[0] = rowCount == null ? Executor.ROWCOUNT_ERROR : rowCount;
+                if (rowCount != null && rowCount > 0) {
+                    numRows += rowCount;
+                }
             } catch (Throwable t) {
                 cells[0] = Executor.ROWCOUNT_ERROR;
             }
             resultReceiver.setNextRow(row);
             resultReceiver.allFinished(false);
         }
-        jobsLogs.logExecutionEnd(jobId, null);
+        jobsLogs.logExecutionEnd(jobId, null, numRows);
     }
 }
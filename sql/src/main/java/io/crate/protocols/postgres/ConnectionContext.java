@@ -100,6 +100,28 @@ import static io.crate.protocols.postgres.FormatCodes.getFormatCode;
  *          |     ReadyForQuery                |
  *          |<---------------------------------|
  *
+ * COPY FROM STDIN (simple query only):
+ *
+ *          +                                  +
+ *          |   Q (COPY ... FROM STDIN)        |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyInResponse               |
+ *          |<---------------------------------|
+ *          |                                  |
+ *          |   CopyData                       |
+ *          |--------------------------------->|
+ *          |   CopyData                       |
+ *          |--------------------------------->|
+ *          |   CopyDone | CopyFail            |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CommandComplete              |
+ *          |     | ErrorResponse              |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
+ *
  * Extended Query
  *
  *          +                                  +
@@ -154,6 +176,12 @@ class ConnectionContext {
     private byte msgType;
     private SQLOperations.Session session;
     private boolean ignoreTillSync = false;
+    /**
+     * Set while the rows of a COPY FROM STDIN statement are received; accessed by the network thread and the
+     * thread completing the COPY job.
+     */
+    @Nullable
+    private volatile CopyInStream copyIn = null;
 
     enum State {
         SSL_NEG,
@@ -280,6 +308,11 @@ class ConnectionContext {
                         buffer.readBytes(msgLength);
                         return;
                     }
+                    if (copyIn != null && (msgType == 'H' || msgType == 'S')) {
+                        // Flush and Sync are ignored during copy-in
+                        buffer.skipBytes(msgLength);
+                        return;
+                    }
                     dispatchMessage(buffer, channel);
                     return;
             }
@@ -312,6 +345,15 @@ class ConnectionContext {
                 case 'C':
                     handleClose(buffer, channel);
                     return;
+                case 'd':
+                    handleCopyData(buffer);
+                    return;
+                case 'c':
+                    handleCopyDone(buffer);
+                    return;
+                case 'f':
+                    handleCopyFail(buffer);
+                    return;
                 case 'X': // Terminate (called when jdbc connection is closed)
                     closeSession();
                     channel.close();
@@ -337,6 +379,10 @@ class ConnectionContext {
         @Override
         public void channelDisconnected(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
             LOGGER.trace("channelDisconnected");
+            CopyInStream copyInStream = copyIn;
+            if (copyInStream != null) {
+                copyInStream.fail("Client disconnected during COPY FROM STDIN");
+            }
             closeSession();
             super.channelDisconnected(ctx, e);
         }
@@ -350,6 +396,8 @@ class ConnectionContext {
         Messages.sendParameterStatus(channel, "server_encoding", "UTF8");
         Messages.sendParameterStatus(channel, "client_encoding", "UTF8");
         Messages.sendParameterStatus(channel, "datestyle", "ISO");
+        // timestamps are transferred as float8 seconds in the binary format
+        Messages.sendParameterStatus(channel, "integer_datetimes", "off");
         Messages.sendReadyForQuery(channel);
     }
 
@@ -570,6 +618,11 @@ class ConnectionContext {
             session.parse("", query, Collections.<DataType>emptyList());
             session.bind("", "", Collections.emptyList(), null);
             List<Field> fields = session.describe('P', "");
+            CopyInStream copyInStream = null;
+            if (session.isCopyFromStdin("")) {
+                copyInStream = new CopyInStream(channel);
+                session.copyIn("", copyInStream);
+            }
             if (fields == null) {
                 RowCountReceiver rowCountReceiver = new RowCountReceiver(query, channel);
                 session.execute("", 0, rowCountReceiver);
@@ -579,8 +632,19 @@ class ConnectionContext {
                 session.execute("", 0, resultSetReceiver);
             }
             ReadyForQueryCallback readyForQueryCallback = new ReadyForQueryCallback(channel);
-            session.sync().whenComplete(readyForQueryCallback);
+            if (copyInStream == null) {
+                session.sync().whenComplete(readyForQueryCallback);
+            } else {
+                // the client starts sending the rows after the CopyInResponse, they're read by the job started on sync
+                Messages.sendCopyInResponse(channel);
+                copyIn = copyInStream;
+                final CopyInStream stream = copyInStream;
+                session.sync()
+                    .whenComplete((r, t) -> finishCopyIn(stream))
+                    .whenComplete(readyForQueryCallback);
+            }
         } catch (Throwable t) {
+            finishCopyIn(copyIn);
             session.clearState();
             Messages.sendErrorResponse(channel, t);
             Messages.sendReadyForQuery(channel);
@@ -588,6 +652,54 @@ class ConnectionContext {
     }
 
 
+    /**
+     * CopyData
+     * | 'd' | int32 len | byte<n> data
+     */
+    private void handleCopyData(ChannelBuffer buffer) {
+        CopyInStream copyInStream = copyIn;
+        if (copyInStream == null) {
+            // the COPY statement has already failed, data that was sent afterwards is discarded
+            buffer.skipBytes(msgLength);
+            return;
+        }
+        copyInStream.write(buffer, msgLength);
+    }
+
+    /**
+     * CopyDone
+     * | 'c' | int32 len
+     */
+    private void handleCopyDone(ChannelBuffer buffer) {
+        buffer.skipBytes(msgLength);
+        CopyInStream copyInStream = copyIn;
+        if (copyInStream != null) {
+            copyInStream.finish();
+        }
+    }
+
+    /**
+     * CopyFail
+     * | 'f' | int32 len | str errorMessage
+     */
+    private void handleCopyFail(ChannelBuffer buffer) {
+        String errorMessage = readCString(buffer);
+        CopyInStream copyInStream = copyIn;
+        if (copyInStream != null) {
+            copyInStream.fail("COPY FROM STDIN failed: " + errorMessage);
+        }
+    }
+
+    private void finishCopyIn(@Nullable CopyInStream copyInStream) {
+        if (copyInStream != null) {
+            // discard data that hasn't been read and resume reading from the channel if it was paused
+            copyInStream.close();
+            if (copyIn == copyInStream) {
+                copyIn = null;
+            }
+        }
+    }
+
     /**
      * FrameDecoder that makes sure that a full message is in the buffer before delegating work to the MessageHandler
      */
@@ -0,0 +1,333 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.analyze.CopyFromAnalyzedStatement;
+import io.crate.metadata.Reference;
+import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.types.*;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Converts the rows a client sends with COPY FROM STDIN in the PostgreSQL text or csv format
+ * into the JSON lines which are consumed by the file reading collector.
+ *
+ * <pre>
+ * text: values are separated by a tab, NULL is written as \N and special characters are escaped with a backslash
+ * csv:  values are separated by a comma and may be quoted, an unquoted empty value is NULL
+ * </pre>
+ *
+ * A line containing only {@code \.} marks the end of the data.
+ */
+class CopyDataDecoder extends InputStream {
+
+    private static final String END_OF_DATA = "\\.";
+
+    private final BufferedReader reader;
+    private final List<Reference> columns;
+    private final boolean csv;
+    private final char delimiter;
+    private final String nullString;
+    private boolean skipHeader;
+
+    private byte[] buffer = new byte[0];
+    private int position = 0;
+    private long lineNumber = 0;
+    private boolean endOfData = false;
+
+    /**
+     * @return a stream of JSON lines for the rows read from {@code in}
+     */
+    static InputStream create(InputStream in, CopyFromAnalyzedStatement statement) {
+        assert statement.fromStdin() : "statement must be a COPY FROM STDIN statement";
+        if (statement.stdinFormat() == CopyFromAnalyzedStatement.InputFormat.JSON) {
+            return in;
+        }
+        return new CopyDataDecoder(
+            in,
+            statement.stdinColumns(),
+            statement.stdinFormat() == CopyFromAnalyzedStatement.InputFormat.CSV,
+            statement.settings());
+    }
+
+    CopyDataDecoder(InputStream in, List<Reference> columns, boolean csv, Settings settings) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.columns = columns;
+        this.csv = csv;
+        this.delimiter = settings.get(CopyFromAnalyzedStatement.DELIMITER_SETTING, csv ? "," : "\t").charAt(0);
+        this.nullString = settings.get(CopyFromAnalyzedStatement.NULL_SETTING, csv ? "" : "\\N");
+        this.skipHeader = csv && settings.getAsBoolean(CopyFromAnalyzedStatement.HEADER_SETTING, false);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == buffer.length && fill() == false) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == buffer.length && fill() == false) {
+            return -1;
+        }
+        int numBytes = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, numBytes);
+        position += numBytes;
+        return numBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean fill() throws IOException {
+        while (endOfData == false) {
+            String line = reader.readLine();
+            lineNumber++;
+            if (line == null || line.equals(END_OF_DATA)) {
+                endOfData = true;
+                return false;
+            }
+            if (skipHeader) {
+                skipHeader = false;
+                continue;
+            }
+            long rowLineNumber = lineNumber;
+            List<String> values = csv ? parseCsv(line) : parseText(line);
+            buffer = toJson(values, rowLineNumber);
+            position = 0;
+            return true;
+        }
+        return false;
+    }
+
+    private List<String> parseText(String line) {
+        List<String> values = new ArrayList<>(columns.size());
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == delimiter) {
+                String value = line.substring(start, i);
+                values.add(value.equals(nullString) ? null : unescapeText(value));
+                start = i + 1;
+            } else if (line.charAt(i) == '\\') {
+                i++;
+            }
+        }
+        return values;
+    }
+
+    private static String unescapeText(String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                sb.append(c);
+                continue;
+            }
+            c = value.charAt(++i);
+            switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'v':
+                    sb.append('\u000B');
+                    break;
+                case 'x':
+                    int hexEnd = i + 1;
+                    while (hexEnd < value.length() && hexEnd < i + 3 && Character.digit(value.charAt(hexEnd), 16) != -1) {
+                        hexEnd++;
+                    }
+                    if (hexEnd == i + 1) {
+                        sb.append(c);
+                    } else {
+                        sb.append((char) Integer.parseInt(value.substring(i + 1, hexEnd), 16));
+                        i = hexEnd - 1;
+                    }
+                    break;
+                default:
+                    if (c >= '0' && c <= '7') {
+                        int octalEnd = i + 1;
+                        while (octalEnd < value.length() && octalEnd < i + 3 &&
+                               value.charAt(octalEnd) >= '0' && value.charAt(octalEnd) <= '7') {
+                            octalEnd++;
+                        }
+                        sb.append((char) Integer.parseInt(value.substring(i, octalEnd), 8));
+                        i = octalEnd - 1;
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<String> parseCsv(String line) throws IOException {
+        List<String> values = new ArrayList<>(columns.size());
+        StringBuilder value = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (inQuotes) {
+                    // quoted values may contain line breaks
+                    line = reader.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        throw new IOException(String.format(Locale.ENGLISH,
+                            "unterminated CSV quoted field in line %d of COPY data", lineNumber - 1));
+                    }
+                    value.append('\n');
+                    i = 0;
+                    continue;
+                }
+                values.add(quoted == false && value.toString().equals(nullString) ? null : value.toString());
+                return values;
+            }
+            char c = line.charAt(i++);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(quoted == false && value.toString().equals(nullString) ? null : value.toString());
+                value.setLength(0);
+                quoted = false;
+            } else {
+                value.append(c);
+            }
+        }
+    }
+
+    private byte[] toJson(List<String> values, long rowLineNumber) throws IOException {
+        if (values.size() < columns.size()) {
+            throw new IOException(String.format(Locale.ENGLISH,
+                "missing data for column \"%s\" in line %d of COPY data",
+                columns.get(values.size()).ident().columnIdent().sqlFqn(), rowLineNumber));
+        }
+        if (values.size() > columns.size()) {
+            throw new IOException(String.format(Locale.ENGLISH,
+                "extra data after last expected column in line %d of COPY data", rowLineNumber));
+        }
+        XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.startObject();
+        for (int i = 0; i < columns.size(); i++) {
+            Reference column = columns.get(i);
+            String value = values.get(i);
+            Object jsonValue;
+            try {
+                jsonValue = value == null ? null : toJsonValue(convert(column.valueType(), value));
+            } catch (Exception e) {
+                throw new IOException(String.format(Locale.ENGLISH,
+                    "invalid value \"%s\" for column \"%s\" in line %d of COPY data: %s",
+                    value, column.ident().columnIdent().sqlFqn(), rowLineNumber, e.getMessage()), e);
+            }
+            builder.field(column.ident().columnIdent().name(), jsonValue);
+        }
+        builder.endObject();
+        BytesReference bytes = builder.bytes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length() + 1);
+        bytes.writeTo(out);
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    private static Object convert(DataType type, String value) {
+        if (type instanceof StringType || type instanceof IpType) {
+            return value;
+        }
+        if (type instanceof ObjectType || (type instanceof GeoShapeType && value.startsWith("{"))) {
+            return parseJson(value);
+        }
+        if (type instanceof CollectionType || (type instanceof GeoPointType && value.startsWith("{"))) {
+            if (value.startsWith("[")) {
+                return parseJson(value);
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            return PGTypes.get(type).readTextValue(ChannelBuffers.wrappedBuffer(bytes), bytes.length);
+        }
+        return type.value(value);
+    }
+
+    private static Object parseJson(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return PGTypes.get(DataTypes.OBJECT).readTextValue(ChannelBuffers.wrappedBuffer(bytes), bytes.length);
+    }
+
+    private static Object toJsonValue(Object value) {
+        if (value instanceof BytesRef) {
+            return ((BytesRef) value).utf8ToString();
+        }
+        if (value instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            Object[] jsonValues = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                jsonValues[i] = toJsonValue(values[i]);
+            }
+            return jsonValues;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+
+/**
+ * Stream of the CopyData messages a client sends after a COPY FROM STDIN statement.
+ * <p>
+ * The stream is written by the network thread and read by the collector of the COPY job.
+ * If the collector falls behind, reading from the channel is paused until enough of the buffered data has been consumed.
+ * If the client is slower than the collector, {@link #read(byte[], int, int)} blocks until more data arrives,
+ * which is why these collectors run on the generic thread pool instead of the search thread pool.
+ */
+class CopyInStream extends InputStream {
+
+    static final int PAUSE_READING_THRESHOLD = 4 * 1024 * 1024;
+    static final int RESUME_READING_THRESHOLD = 1024 * 1024;
+
+    private final Channel channel;
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    private byte[] currentChunk = null;
+    private int position = 0;
+    private int bufferedBytes = 0;
+    private boolean paused = false;
+    private boolean finished = false;
+    private boolean closed = false;
+    private String failure = null;
+
+    CopyInStream(Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Add the payload of a CopyData message
+     */
+    void write(ChannelBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.readBytes(bytes);
+        boolean pause = false;
+        synchronized (this) {
+            if (closed || finished || failure != null) {
+                return;
+            }
+            chunks.add(bytes);
+            bufferedBytes += length;
+            if (paused == false && bufferedBytes > PAUSE_READING_THRESHOLD) {
+                paused = pause = true;
+            }
+            notifyAll();
+        }
+        if (pause) {
+            channel.setReadable(false);
+        }
+    }
+
+    /**
+     * The client sent CopyDone, no more data will follow
+     */
+    synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * The client sent CopyFail or disconnected, reading from the stream will result in an error
+     */
+    synchronized void fail(String message) {
+        failure = message;
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] bytes = new byte[1];
+        int numBytes = read(bytes, 0, 1);
+        return numBytes == -1 ? -1 : bytes[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int numBytes;
+        boolean resume = false;
+        synchronized (this) {
+            while (currentChunk == null) {
+                if (failure != null) {
+                    throw new IOException(failure);
+                }
+                if (closed) {
+                    return -1;
+                }
+                currentChunk = chunks.poll();
+                if (currentChunk != null) {
+                    position = 0;
+                } else if (finished) {
+                    return -1;
+                } else {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for COPY data");
+                    }
+                }
+            }
+            numBytes = Math.min(len, currentChunk.length - position);
+            System.arraycopy(currentChunk, position, b, off, numBytes);
+            position += numBytes;
+            bufferedBytes -= numBytes;
+            if (position == currentChunk.length) {
+                currentChunk = null;
+            }
+            if (paused && bufferedBytes < RESUME_READING_THRESHOLD) {
+                paused = false;
+                resume = true;
+            }
+        }
+        if (resume) {
+            channel.setReadable(true);
+        }
+        return numBytes;
+    }
+
+    /**
+     * Discard all buffered data and any data sent afterwards
+     */
+    @Override
+    public void close() {
+        boolean resume;
+        synchronized (this) {
+            closed = true;
+            chunks.clear();
+            currentChunk = null;
+            bufferedBytes = 0;
+            resume = paused;
+            paused = false;
+            notifyAll();
+        }
+        if (resume) {
+            channel.setReadable(true);
+        }
+    }
+}
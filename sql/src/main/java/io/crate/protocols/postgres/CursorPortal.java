@@ -0,0 +1,195 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.symbol.Field;
+import io.crate.data.Row;
+import io.crate.operation.collect.stats.JobsLogs;
+import io.crate.planner.Planner;
+import io.crate.sql.tree.CloseCursor;
+import io.crate.sql.tree.DeclareCursor;
+import io.crate.sql.tree.Fetch;
+import io.crate.sql.tree.Statement;
+import io.crate.types.DataType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Portal for the {@code DECLARE}, {@code FETCH} and {@code CLOSE} statements.
+ * <p>
+ * {@code DECLARE} binds the query to a new {@link SimplePortal} which is registered in the {@link Cursors} of the
+ * session without executing it. {@code FETCH} executes that portal with a row limit, the underlying
+ * {@link io.crate.data.BatchIterator} is suspended once the limit is reached and the next {@code FETCH} resumes it.
+ */
+class CursorPortal extends AbstractPortal {
+
+    private String query;
+    private Statement statement;
+    @Nullable
+    private FormatCodes.FormatCode[] resultFormatCodes;
+    @Nullable
+    private SimplePortal declaredPortal;
+    @Nullable
+    private Cursors.Cursor fetchCursor;
+    private ResultReceiver resultReceiver;
+
+    CursorPortal(String name, SessionContext sessionContext, PortalContext portalContext) {
+        super(name, sessionContext, portalContext);
+    }
+
+    static boolean isCursorStatement(Statement statement) {
+        return statement instanceof DeclareCursor || statement instanceof Fetch || statement instanceof CloseCursor;
+    }
+
+    @Override
+    @Nullable
+    public FormatCodes.FormatCode[] getLastResultFormatCodes() {
+        return resultFormatCodes;
+    }
+
+    @Override
+    public List<? extends DataType> getLastOutputTypes() {
+        if (fetchCursor == null) {
+            return null;
+        }
+        return fetchCursor.portal.getLastOutputTypes();
+    }
+
+    @Override
+    public String getLastQuery() {
+        return query;
+    }
+
+    @Override
+    public Portal bind(String statementName,
+                       String query,
+                       Statement statement,
+                       List<Object> params,
+                       @Nullable FormatCodes.FormatCode[] resultFormatCodes) {
+        this.query = query;
+        this.statement = statement;
+        this.resultFormatCodes = resultFormatCodes;
+        this.declaredPortal = null;
+        this.fetchCursor = null;
+        Cursors cursors = portalContext.getCursors();
+        if (statement instanceof DeclareCursor) {
+            // analyze the query right away so that errors are reported by the DECLARE statement
+            DeclareCursor declareCursor = (DeclareCursor) statement;
+            SimplePortal portal = new SimplePortal(declareCursor.cursorName(), sessionContext, portalContext);
+            portal.bind(statementName, query, declareCursor.query(), params, null);
+            declaredPortal = portal;
+        } else if (statement instanceof Fetch) {
+            fetchCursor = cursors.get(((Fetch) statement).cursorName());
+        } else {
+            ((CloseCursor) statement).cursorName().ifPresent(cursors::get);
+        }
+        return this;
+    }
+
+    @Override
+    public List<Field> describe() {
+        if (fetchCursor == null) {
+            return null;
+        }
+        return fetchCursor.portal.describe();
+    }
+
+    @Override
+    public void execute(ResultReceiver resultReceiver, int maxRows) {
+        this.resultReceiver = resultReceiver;
+    }
+
+    @Override
+    public CompletableFuture<?> sync(Planner planner, JobsLogs jobsLogs) {
+        synced = true;
+        Cursors cursors = portalContext.getCursors();
+        if (statement instanceof DeclareCursor) {
+            assert declaredPortal != null : "DECLARE must have been bound to a portal";
+            cursors.declare(((DeclareCursor) statement).cursorName(), declaredPortal);
+        } else if (statement instanceof Fetch) {
+            assert fetchCursor != null : "FETCH must have been bound to a cursor";
+            if (!fetchCursor.exhausted) {
+                long count = ((Fetch) statement).count();
+                int maxRows = count == Fetch.ALL || count > Integer.MAX_VALUE ? 0 : (int) count;
+                fetchCursor.portal.execute(new FetchResultReceiver(resultReceiver, fetchCursor), maxRows);
+                return fetchCursor.portal.sync(planner, jobsLogs);
+            }
+        } else {
+            CloseCursor closeCursor = (CloseCursor) statement;
+            if (closeCursor.cursorName().isPresent()) {
+                cursors.close(closeCursor.cursorName().get());
+            } else {
+                cursors.closeAll();
+            }
+        }
+        resultReceiver.allFinished(false);
+        return resultReceiver.completionFuture();
+    }
+
+    /**
+     * Completes the FETCH statement once the requested number of rows has been received, while the execution
+     * of the cursor stays suspended.
+     */
+    private static class FetchResultReceiver implements ResultReceiver {
+
+        private final ResultReceiver delegate;
+        private final Cursors.Cursor cursor;
+
+        FetchResultReceiver(ResultReceiver delegate, Cursors.Cursor cursor) {
+            this.delegate = delegate;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void setNextRow(Row row) {
+            delegate.setNextRow(row);
+        }
+
+        @Override
+        public void batchFinished() {
+            delegate.allFinished(false);
+        }
+
+        @Override
+        public void allFinished(boolean interrupted) {
+            cursor.exhausted = true;
+            delegate.allFinished(interrupted);
+        }
+
+        @Override
+        public void fail(@Nonnull Throwable t) {
+            cursor.exhausted = true;
+            delegate.fail(t);
+        }
+
+        @Override
+        public CompletableFuture<?> completionFuture() {
+            return delegate.completionFuture();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The cursors declared within a session using {@code DECLARE}.
+ * <p>
+ * Each cursor is backed by a {@link SimplePortal}. The execution of the portal is started by the first
+ * {@code FETCH} and suspended once the requested number of rows has been sent,
+ * subsequent {@code FETCH} statements resume it.
+ */
+public class Cursors {
+
+    private final Map<String, Cursor> cursors = new HashMap<>();
+
+    void declare(String name, Portal portal) {
+        if (cursors.containsKey(name)) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH, "Cursor \"%s\" already exists", name));
+        }
+        cursors.put(name, new Cursor(portal));
+    }
+
+    Cursor get(String name) {
+        Cursor cursor = cursors.get(name);
+        if (cursor == null) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH, "Cursor \"%s\" does not exist", name));
+        }
+        return cursor;
+    }
+
+    void close(String name) {
+        get(name);
+        cursors.remove(name).portal.close();
+    }
+
+    public void closeAll() {
+        List<Cursor> toClose = new ArrayList<>(cursors.values());
+        cursors.clear();
+        for (Cursor cursor : toClose) {
+            cursor.portal.close();
+        }
+    }
+
+    static class Cursor {
+
+        final Portal portal;
+
+        /**
+         * Set once all rows have been fetched or the execution failed. Further FETCH statements return no rows.
+         */
+        volatile boolean exhausted = false;
+
+        private Cursor(Portal portal) {
+            this.portal = portal;
+        }
+    }
+}
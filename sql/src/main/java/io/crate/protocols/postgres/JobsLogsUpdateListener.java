@@ -27,23 +27,30 @@ import io.crate.operation.collect.stats.JobsLogs;
 
 import java.util.UUID;
 import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
 
 public class JobsLogsUpdateListener implements BiConsumer<Object, Throwable> {
 
     private final UUID jobId;
     private final JobsLogs jobsLogs;
+    private final LongSupplier numRows;
 
     public JobsLogsUpdateListener(UUID jobId, JobsLogs jobsLogs) {
+        this(jobId, jobsLogs, () -> 0L);
+    }
+
+    public JobsLogsUpdateListener(UUID jobId, JobsLogs jobsLogs, LongSupplier numRows) {
         this.jobId = jobId;
         this.jobsLogs = jobsLogs;
+        this.numRows = numRows;
     }
 
     @Override
     public void accept(Object o, Throwable t) {
         if (t == null) {
-            jobsLogs.logExecutionEnd(jobId, null);
+            jobsLogs.logExecutionEnd(jobId, null, numRows.getAsLong());
         } else {
-            jobsLogs.logExecutionEnd(jobId, SQLExceptions.messageOf(t));
+            jobsLogs.logExecutionEnd(jobId, SQLExceptions.messageOf(t), numRows.getAsLong());
         }
     }
 }
@@ -93,6 +93,8 @@ class Messages {
          */
         if ("BEGIN".equals(query)) {
             commandTag = "BEGIN";
+        } else if ("DECLARE".equals(query) || "CLOSE".equals(query)) {
+            commandTag = query + " CURSOR";
         } else if ("INSERT".equals(query)) {
             commandTag = "INSERT 0 " + rowCount;
         } else {
@@ -287,40 +289,66 @@ class Messages {
      * The value of the column, in the format indicated by the associated format code. n is the above length.
      */
     static void sendDataRow(Channel channel, Row row, List<? extends DataType> columnTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
-        int length = 4 + 2;
         assert columnTypes.size() == row.numColumns()
             : "Number of columns in the row must match number of columnTypes. Row: " + row + " types: " + columnTypes;
 
         ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        writeDataRow(buffer, row, pgTypes(columnTypes), formatCodes);
+        channel.write(buffer);
+    }
+
+    /**
+     * Appends a DataRow message to the buffer. This allows to encode multiple rows into the same buffer
+     * and flush them with a single write.
+     * If a value can't be encoded the buffer is left as it was before the call.
+     */
+    static void writeDataRow(ChannelBuffer buffer, Row row, PGType[] pgTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
+        int length = 4 + 2;
+        assert pgTypes.length == row.numColumns()
+            : "Number of columns in the row must match number of pgTypes. Row: " + row + " types: " + pgTypes.length;
+
+        int startIdx = buffer.writerIndex();
         buffer.writeByte('D');
         buffer.writeInt(0); // will be set at the end
         buffer.writeShort(row.numColumns());
 
-        for (int i = 0; i < row.numColumns(); i++) {
-            DataType dataType = columnTypes.get(i);
-            PGType pgType = PGTypes.get(dataType);
-            Object value = row.get(i);
-            if (value == null) {
-                buffer.writeInt(-1);
-                length += 4;
-            } else {
-                FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
-                switch (formatCode) {
-                    case TEXT:
-                        length += pgType.writeAsText(buffer, value);
-                        break;
-                    case BINARY:
-                        length += pgType.writeAsBinary(buffer, value);
-                        break;
-
-                    default:
-                        throw new AssertionError("Unrecognized formatCode: " + formatCode);
+        try {
+            for (int i = 0; i < row.numColumns(); i++) {
+                PGType pgType = pgTypes[i];
+                Object value = row.get(i);
+                if (value == null) {
+                    buffer.writeInt(-1);
+                    length += 4;
+                } else {
+                    FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
+                    switch (formatCode) {
+                        case TEXT:
+                            length += pgType.writeAsText(buffer, value);
+                            break;
+                        case BINARY:
+                            length += pgType.writeAsBinary(buffer, value);
+                            break;
+
+                        default:
+                            throw new AssertionError("Unrecognized formatCode: " + formatCode);
+                    }
                 }
             }
+        } catch (Throwable t) {
+            // drop the partially written row, the buffer may already contain complete rows
+            buffer.writerIndex(startIdx);
+            throw t;
         }
 
-        buffer.setInt(1, length);
-        channel.write(buffer);
+        buffer.setInt(startIdx + 1, length);
+    }
+
+    static PGType[] pgTypes(List<? extends DataType> columnTypes) {
+        PGType[] pgTypes = new PGType[columnTypes.size()];
+        for (int i = 0; i < pgTypes.length; i++) {
+            pgTypes[i] = PGTypes.get(columnTypes.get(i));
+        }
+        return pgTypes;
     }
 
     static void writeCString(ChannelBuffer buffer, byte[] valBytes) {
@@ -442,4 +470,28 @@ class Messages {
     static void sendCloseComplete(Channel channel) {
         sendShortMsg(channel, '3', "sentCloseComplete");
     }
+
+    /**
+     * CopyInResponse
+     * | 'G' | int32 len | int8 format | int16 numColumns | int16 format [, int16 format, ...]
+     * <p>
+     * The rows are always sent in a textual format (text, csv or json) which is decoded by the server,
+     * so no column formats are announced.
+     */
+    static void sendCopyInResponse(Channel channel) {
+        ChannelBuffer buffer = ChannelBuffers.buffer(8);
+        buffer.writeByte('G');
+        buffer.writeInt(7);
+        buffer.writeByte(0);
+        buffer.writeShort(0);
+        ChannelFuture channelFuture = channel.write(buffer);
+        if (LOGGER.isTraceEnabled()) {
+            channelFuture.addListener(new ChannelFutureListener() {
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    LOGGER.trace("sentCopyInResponse");
+                }
+            });
+        }
+    }
 }
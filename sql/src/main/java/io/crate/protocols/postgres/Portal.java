@@ -30,6 +30,7 @@ import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 
 import javax.annotation.Nullable;
+import java.io.InputStream;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -54,6 +55,20 @@ public interface Portal {
 
     CompletableFuture<?> sync(Planner planner, JobsLogs jobsLogs);
 
+    /**
+     * @return true if the bound statement is a COPY FROM STDIN statement which reads the rows sent by the client.
+     */
+    default boolean isCopyFromStdin() {
+        return false;
+    }
+
+    /**
+     * Provide the rows sent by the client for a COPY FROM STDIN statement. Must be called before {@link #sync}.
+     */
+    default void copyIn(InputStream inputStream) {
+        throw new UnsupportedOperationException("COPY FROM STDIN is not supported in batch or bulk operations");
+    }
+
     void close();
 
     /**
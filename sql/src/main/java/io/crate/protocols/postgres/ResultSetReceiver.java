@@ -25,7 +25,10 @@ package io.crate.protocols.postgres;
 import io.crate.action.sql.BaseResultReceiver;
 import io.crate.data.Row;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.protocols.postgres.types.PGType;
 import io.crate.types.DataType;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 
 import javax.annotation.Nonnull;
@@ -34,39 +37,63 @@ import java.util.List;
 
 class ResultSetReceiver extends BaseResultReceiver {
 
+    /**
+     * DataRow messages are accumulated in a buffer which is written to the channel once it exceeds this size
+     * or once the result (or the current batch) is complete.
+     */
+    static final int FLUSH_THRESHOLD = 32 * 1024;
+
     private final String query;
     private final Channel channel;
-    private final List<? extends DataType> columnTypes;
+    private final PGType[] pgTypes;
 
     @Nullable
     private final FormatCodes.FormatCode[] formatCodes;
 
     private long rowCount = 0;
 
+    @Nullable
+    private ChannelBuffer pendingRows;
+
     ResultSetReceiver(String query,
                       Channel channel,
                       List<? extends DataType> columnTypes,
                       @Nullable FormatCodes.FormatCode[] formatCodes) {
         this.query = query;
         this.channel = channel;
-        this.columnTypes = columnTypes;
+        this.pgTypes = Messages.pgTypes(columnTypes);
         this.formatCodes = formatCodes;
     }
 
     @Override
     public void setNextRow(Row row) {
+        if (pendingRows == null) {
+            pendingRows = ChannelBuffers.dynamicBuffer(1024);
+        }
+        Messages.writeDataRow(pendingRows, row, pgTypes, formatCodes);
         rowCount++;
-        Messages.sendDataRow(channel, row, columnTypes, formatCodes);
+        if (pendingRows.readableBytes() >= FLUSH_THRESHOLD) {
+            flushRows();
+        }
+    }
+
+    private void flushRows() {
+        if (pendingRows != null) {
+            channel.write(pendingRows);
+            pendingRows = null;
+        }
     }
 
     @Override
     public void batchFinished() {
+        flushRows();
         Messages.sendPortalSuspended(channel);
         Messages.sendReadyForQuery(channel);
     }
 
     @Override
     public void allFinished(boolean interrupted) {
+        flushRows();
         if (!interrupted) {
             Messages.sendCommandComplete(channel, query, rowCount);
         }
@@ -75,6 +102,7 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     @Override
     public void fail(@Nonnull Throwable throwable) {
+        flushRows();
         Messages.sendErrorResponse(channel, SQLExceptions.createSQLActionException(throwable));
         super.fail(throwable);
     }
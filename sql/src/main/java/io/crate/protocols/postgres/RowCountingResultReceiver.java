@@ -0,0 +1,109 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.data.Row;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Counts the rows passed on to the delegate so that they can be recorded in the statement statistics.
+ * For write operations the receiver gets a single row containing the row count, in which case that
+ * count is used instead.
+ */
+class RowCountingResultReceiver implements ResultReceiver {
+
+    private final boolean isRowCount;
+    private ResultReceiver delegate;
+    private long numRows = 0;
+    @Nullable
+    private BiConsumer<Object, Throwable> onFinish;
+
+    RowCountingResultReceiver(ResultReceiver delegate, boolean isRowCount) {
+        this.delegate = delegate;
+        this.isRowCount = isRowCount;
+    }
+
+    long numRows() {
+        return numRows;
+    }
+
+    /**
+     * Replaces the receiver the rows are passed on to, used if a suspended execution is resumed.
+     * The row count continues to include the rows passed to the previous receivers.
+     */
+    void replaceDelegate(ResultReceiver delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Registers a callback which is invoked once the execution has finished,
+     * before the delegate is notified.
+     */
+    void onFinish(BiConsumer<Object, Throwable> onFinish) {
+        this.onFinish = onFinish;
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        if (isRowCount) {
+            Object rowCount = row.get(0);
+            if (rowCount instanceof Number && ((Number) rowCount).longValue() > 0) {
+                numRows += ((Number) rowCount).longValue();
+            }
+        } else {
+            numRows++;
+        }
+        delegate.setNextRow(row);
+    }
+
+    @Override
+    public void batchFinished() {
+        delegate.batchFinished();
+    }
+
+    @Override
+    public void allFinished(boolean interrupted) {
+        if (onFinish != null) {
+            onFinish.accept(interrupted, null);
+        }
+        delegate.allFinished(interrupted);
+    }
+
+    @Override
+    public void fail(@Nonnull Throwable t) {
+        if (onFinish != null) {
+            onFinish.accept(null, t);
+        }
+        delegate.fail(t);
+    }
+
+    @Override
+    public CompletableFuture<?> completionFuture() {
+        return delegate.completionFuture();
+    }
+}
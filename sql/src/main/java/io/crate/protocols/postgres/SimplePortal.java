@@ -26,8 +26,10 @@ import io.crate.Constants;
 import io.crate.action.sql.BatchConsumerToResultReceiver;
 import io.crate.action.sql.ResultReceiver;
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.Analysis;
 import io.crate.analyze.Analyzer;
+import io.crate.analyze.CopyFromAnalyzedStatement;
 import io.crate.analyze.ParameterContext;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.symbol.Field;
@@ -37,9 +39,12 @@ import io.crate.data.RowN;
 import io.crate.exceptions.ReadOnlyException;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.executor.Executor;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.operation.collect.stats.JobsLogs;
 import io.crate.planner.Plan;
 import io.crate.planner.Planner;
+import io.crate.planner.consumer.ESGetTemplate;
+import io.crate.planner.node.dql.ESGet;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import org.apache.logging.log4j.Logger;
@@ -47,6 +52,7 @@ import org.elasticsearch.common.logging.Loggers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -62,20 +68,34 @@ public class SimplePortal extends AbstractPortal {
     private Statement statement;
     private Analysis analysis;
     @Nullable
+    private ESGetTemplate lookupTemplate;
+    private long schemaVersion;
+    @Nullable
     private FormatCodes.FormatCode[] resultFormatCodes;
     private List<? extends DataType> outputTypes;
     private ResultReceiver resultReceiver;
     private BatchConsumerToResultReceiver consumer = null;
+    private RowCountingResultReceiver rowCountingReceiver;
     private int maxRows = 0;
     private int defaultLimit;
     private Row rowParams;
+    @Nullable
+    private InputStream copyInStream;
 
     public SimplePortal(String name,
                         Analyzer analyzer,
                         Executor executor,
                         boolean isReadOnly,
-                        SessionContext sessionContext) {
-        super(name, analyzer, executor, isReadOnly, sessionContext);
+                        SessionContext sessionContext,
+                        StdinFileInputFactory stdinFileInputFactory,
+                        Cursors cursors,
+                        StatementCache statementCache) {
+        super(name, analyzer, executor, isReadOnly, sessionContext, stdinFileInputFactory, cursors, statementCache);
+        this.defaultLimit = sessionContext.defaultLimit();
+    }
+
+    SimplePortal(String name, SessionContext sessionContext, PortalContext portalContext) {
+        super(name, sessionContext, portalContext);
         this.defaultLimit = sessionContext.defaultLimit();
     }
 
@@ -121,7 +141,12 @@ public class SimplePortal extends AbstractPortal {
                 throw new ReadOnlyException();
             }
             BatchPortal portal = new BatchPortal(
-                name, this.query, analysis, outputTypes, resultReceiver, this.params, sessionContext, portalContext);
+                name, this.query, analysis(), outputTypes, resultReceiver, this.params, sessionContext, portalContext);
+            return portal.bind(statementName, query, statement, params, resultFormatCodes);
+        }
+
+        if (CursorPortal.isCursorStatement(statement)) {
+            CursorPortal portal = new CursorPortal(name, sessionContext, portalContext);
             return portal.bind(statementName, query, statement, params, resultFormatCodes);
         }
 
@@ -130,14 +155,18 @@ public class SimplePortal extends AbstractPortal {
         this.params = params;
         this.rowParams = new RowN(params.toArray());
         this.resultFormatCodes = resultFormatCodes;
-        if (analysis == null) {
-            analysis = portalContext.getAnalyzer().boundAnalyze(
-                statement,
-                sessionContext,
-                new ParameterContext(this.rowParams, Collections.<Row>emptyList()));
-            AnalyzedRelation rootRelation = analysis.rootRelation();
-            if (rootRelation != null) {
-                this.outputTypes = new ArrayList<>(Symbols.extractTypes(rootRelation.fields()));
+        if (analysis == null && lookupTemplate == null) {
+            StatementCache statementCache = portalContext.getStatementCache();
+            // primary key lookups re-use the plan of a previous execution, so they don't need to be analyzed
+            lookupTemplate = statementCache.primaryKeyLookup(query, sessionContext.defaultSchema());
+            if (lookupTemplate == null) {
+                schemaVersion = statementCache.schemaVersion();
+                AnalyzedRelation rootRelation = analysis().rootRelation();
+                if (rootRelation != null) {
+                    this.outputTypes = new ArrayList<>(Symbols.extractTypes(rootRelation.fields()));
+                }
+            } else {
+                this.outputTypes = lookupTemplate.outputTypes();
             }
         }
         return this;
@@ -155,20 +184,53 @@ public class SimplePortal extends AbstractPortal {
         this.maxRows = maxRows;
     }
 
+    @Override
+    public boolean isCopyFromStdin() {
+        return analysis != null &&
+               analysis.analyzedStatement() instanceof CopyFromAnalyzedStatement &&
+               ((CopyFromAnalyzedStatement) analysis.analyzedStatement()).fromStdin();
+    }
+
+    @Override
+    public void copyIn(InputStream inputStream) {
+        assert isCopyFromStdin() : "copyIn must only be called for COPY FROM STDIN statements";
+        this.copyInStream = inputStream;
+    }
+
     @Override
     public CompletableFuture<?> sync(Planner planner, JobsLogs jobsLogs) {
+        if (resumeIfSuspended()) {
+            synced = true;
+            return resultReceiver.completionFuture();
+        }
         UUID jobId = UUID.randomUUID();
-        Plan plan;
+        if (isCopyFromStdin() && copyInStream == null) {
+            UnsupportedOperationException e =
+                new UnsupportedOperationException("COPY FROM STDIN is only supported via the PostgreSQL simple query protocol");
+            jobsLogs.logPreExecutionFailure(jobId, query, SQLExceptions.messageOf(e));
+            throw e;
+        }
+        Plan plan = null;
         try {
-            plan = planner.plan(analysis, jobId, defaultLimit, maxRows);
+            if (lookupTemplate != null) {
+                plan = lookupTemplate.bind(rowParams, jobId);
+            }
+            if (plan == null) {
+                plan = planner.plan(analysis(), jobId, defaultLimit, maxRows);
+                cachePrimaryKeyLookup(plan);
+            }
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(jobId, query, SQLExceptions.messageOf(t));
             throw t;
         }
 
-        if (!analysis.analyzedStatement().isWriteOperation()) {
-            resultReceiver = new ResultReceiverRetryWrapper(
-                resultReceiver,
+        CompletableFuture<?> completableFuture = resultReceiver.completionFuture();
+        boolean isWriteOperation = analysis != null && analysis.analyzedStatement().isWriteOperation();
+        rowCountingReceiver = new RowCountingResultReceiver(resultReceiver, isWriteOperation);
+        ResultReceiver receiver = rowCountingReceiver;
+        if (!isWriteOperation) {
+            receiver = new ResultReceiverRetryWrapper(
+                receiver,
                 this,
                 portalContext.getAnalyzer(),
                 planner,
@@ -178,13 +240,18 @@ public class SimplePortal extends AbstractPortal {
         }
 
         jobsLogs.logExecutionStart(jobId, query);
-        JobsLogsUpdateListener jobsLogsUpdateListener = new JobsLogsUpdateListener(jobId, jobsLogs);
-        CompletableFuture completableFuture = resultReceiver.completionFuture().whenComplete(jobsLogsUpdateListener);
-
-        if (!resumeIfSuspended()) {
-            consumer = new BatchConsumerToResultReceiver(resultReceiver, maxRows);
-            portalContext.getExecutor().execute(plan, consumer, this.rowParams);
+        // the job spans all Execute messages of a suspended portal, so it ends with the last receiver
+        rowCountingReceiver.onFinish(new JobsLogsUpdateListener(jobId, jobsLogs, rowCountingReceiver::numRows));
+        if (copyInStream != null) {
+            StdinFileInputFactory stdinFileInputFactory = portalContext.getStdinFileInputFactory();
+            stdinFileInputFactory.register(
+                jobId, CopyDataDecoder.create(copyInStream, (CopyFromAnalyzedStatement) analysis.analyzedStatement()));
+            completableFuture = completableFuture.whenComplete((r, t) -> stdinFileInputFactory.unregister(jobId));
+            copyInStream = null;
         }
+
+        consumer = new BatchConsumerToResultReceiver(receiver, maxRows);
+        portalContext.getExecutor().execute(plan, consumer, this.rowParams);
         synced = true;
         return completableFuture;
     }
@@ -196,18 +263,40 @@ public class SimplePortal extends AbstractPortal {
         }
     }
 
+    /**
+     * Resumes a suspended execution with the receiver and maxRows of the current Execute message.
+     * The statement is neither planned nor executed again and the rows are still recorded for the same job.
+     */
     private boolean resumeIfSuspended() {
         LOGGER.trace("method=resumeIfSuspended");
-        if (consumer == null) {
+        if (consumer == null || !consumer.suspended()) {
             return false;
         }
-        if (consumer.suspended()) {
-            consumer.replaceResultReceiver(resultReceiver, maxRows);
-            LOGGER.trace("Resuming {}", consumer);
-            consumer.resume();
-            return true;
-        } else {
-            return false;
+        rowCountingReceiver.replaceDelegate(resultReceiver);
+        consumer.setMaxRows(maxRows);
+        LOGGER.trace("Resuming {}", consumer);
+        consumer.resume();
+        return true;
+    }
+
+    private Analysis analysis() {
+        if (analysis == null) {
+            analysis = portalContext.getAnalyzer().boundAnalyze(
+                statement,
+                sessionContext,
+                new ParameterContext(this.rowParams, Collections.<Row>emptyList()));
+        }
+        return analysis;
+    }
+
+    private void cachePrimaryKeyLookup(Plan plan) {
+        // templates only bind parameters, statements without any are cheap to plan and differ by their literals
+        if (lookupTemplate == null && plan instanceof ESGet && rowParams.numColumns() > 0) {
+            portalContext.getStatementCache().cachePrimaryKeyLookup(
+                query,
+                sessionContext.defaultSchema(),
+                schemaVersion,
+                () -> ESGetTemplate.create(statement, analysis, plan, rowParams));
         }
     }
 
@@ -218,6 +307,9 @@ public class SimplePortal extends AbstractPortal {
     }
 
     private List<Field> fields() {
+        if (lookupTemplate != null) {
+            return lookupTemplate.fields();
+        }
         if (analysis.rootRelation() == null) {
             return null;
         }
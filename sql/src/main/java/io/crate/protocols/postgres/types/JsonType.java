@@ -28,6 +28,7 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferOutputStream;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -47,33 +48,52 @@ class JsonType extends PGType {
 
     @Override
     public int writeAsBinary(ChannelBuffer buffer, @Nonnull Object value) {
-        byte[] bytes = encodeAsUTF8Text(value);
-        buffer.writeInt(bytes.length);
-        buffer.writeBytes(bytes);
-        return INT32_BYTE_SIZE + bytes.length;
+        return writeAsText(buffer, value);
+    }
+
+    /**
+     * Serializes the value straight into the buffer; the length prefix is written once the size is known.
+     */
+    @Override
+    public int writeAsText(ChannelBuffer buffer, @Nonnull Object value) {
+        int lenIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        try {
+            XContentBuilder builder = new XContentBuilder(JsonXContent.jsonXContent, new ChannelBufferOutputStream(buffer));
+            writeValue(builder, value);
+        } catch (IOException e) {
+            throw Throwables.propagate(e);
+        }
+        int len = buffer.writerIndex() - lenIndex - INT32_BYTE_SIZE;
+        buffer.setInt(lenIndex, len);
+        return INT32_BYTE_SIZE + len;
     }
 
     @Override
     protected byte[] encodeAsUTF8Text(@Nonnull Object value) {
         try {
             XContentBuilder builder = JsonXContent.contentBuilder();
-            if (value.getClass().isArray()) {
-                Object[] values = ((Object[]) value);
-                builder.startArray();
-                for (Object o : values) {
-                    builder.value(o);
-                }
-                builder.endArray();
-            } else {
-                builder.map((Map) value);
-            }
-            builder.close();
+            writeValue(builder, value);
             return BytesReference.toBytes(builder.bytes());
         } catch (IOException e) {
             throw Throwables.propagate(e);
         }
     }
 
+    private static void writeValue(XContentBuilder builder, Object value) throws IOException {
+        if (value.getClass().isArray()) {
+            Object[] values = ((Object[]) value);
+            builder.startArray();
+            for (Object o : values) {
+                builder.value(o);
+            }
+            builder.endArray();
+        } else {
+            builder.map((Map) value);
+        }
+        builder.close();
+    }
+
     @Override
     public Object readBinaryValue(ChannelBuffer buffer, int valueLength) {
         byte[] bytes = new byte[valueLength];
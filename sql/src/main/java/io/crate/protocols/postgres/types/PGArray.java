@@ -24,8 +24,10 @@ package io.crate.protocols.postgres.types;
 
 import com.google.common.primitives.Bytes;
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 
 import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -121,55 +123,53 @@ class PGArray extends PGType {
         return array;
     }
 
+    /**
+     * Writes the text representation directly into the buffer instead of encoding it into an intermediate byte array.
+     */
+    @Override
+    public int writeAsText(ChannelBuffer buffer, @Nonnull Object value) {
+        int lenIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        writeArrayAsText(buffer, (Object[]) value);
+        int len = buffer.writerIndex() - lenIndex - INT32_BYTE_SIZE;
+        buffer.setInt(lenIndex, len);
+        return INT32_BYTE_SIZE + len;
+    }
+
     @Override
     byte[] encodeAsUTF8Text(@Nonnull Object array) {
-        boolean isJson = JsonType.OID == innerType.oid();
-        Object[] values = (Object[]) array;
-        List<Byte> encodedValues = new ArrayList<>();
-        encodedValues.add((byte) '{');
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        writeArrayAsText(buffer, (Object[]) array);
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+
+    private void writeArrayAsText(ChannelBuffer buffer, Object[] values) {
+        buffer.writeByte('{');
         for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.writeByte(',');
+            }
             Object o = values[i];
             if (o instanceof Object[]) { // Nested Array -> recursive call
-                byte[] bytes = encodeAsUTF8Text(o);
-                for (byte b : bytes) {
-                    encodedValues.add(b);
-                }
-                if (i == 0) {
-                    encodedValues.add((byte) ',');
-                }
+                writeArrayAsText(buffer, (Object[]) o);
+            } else if (o == null) {
+                buffer.writeBytes(NULL_BYTES);
             } else {
-                if (i > 0) {
-                    encodedValues.add((byte) ',');
-                }
-                byte[] bytes;
-                if (o == null) {
-                    bytes = NULL_BYTES;
-                    for (byte aByte : bytes) {
-                        encodedValues.add(aByte);
-                    }
-                } else {
-                    bytes = innerType.encodeAsUTF8Text(o);
-
-                    encodedValues.add((byte) '"');
-                    if (isJson) {
-                        for (byte aByte : bytes) {
-                            // Escape double quotes with backslash for json
-                            if ((char) aByte == '"') {
-                                encodedValues.add((byte) '\\');
-                            }
-                            encodedValues.add(aByte);
-                        }
-                    } else {
-                        for (byte aByte : bytes) {
-                            encodedValues.add(aByte);
-                        }
+                byte[] bytes = innerType.encodeAsUTF8Text(o);
+                buffer.writeByte('"');
+                for (byte aByte : bytes) {
+                    // Escape double quotes and backslashes within quoted values
+                    if (aByte == '"' || aByte == '\\') {
+                        buffer.writeByte('\\');
                     }
-                    encodedValues.add((byte) '"');
+                    buffer.writeByte(aByte);
                 }
+                buffer.writeByte('"');
             }
         }
-        encodedValues.add((byte) '}');
-        return Bytes.toArray(encodedValues);
+        buffer.writeByte('}');
     }
 
     @Override
@@ -244,9 +244,12 @@ class PGArray extends PGType {
 
     // Decode individual inner object
     private void addObject(byte[] bytes, int startIdx, int endIdx, List<Object> objects) {
-        if (endIdx > startIdx) {
-            byte firstValueByte = bytes[startIdx];
-            if (firstValueByte == '"') {
+        if (endIdx < startIdx) {
+            return;
+        }
+        byte firstValueByte = bytes[startIdx];
+        if (firstValueByte == '"') {
+            if (endIdx > startIdx) {
                 List<Byte> innerBytes = new ArrayList<>(endIdx - (startIdx + 1));
                 for (int i = startIdx + 1; i < endIdx; i++) {
                     if (i < (endIdx - 1) && (char) bytes[i] == '\\' &&
@@ -256,8 +259,14 @@ class PGArray extends PGType {
                     innerBytes.add(bytes[i]);
                 }
                 objects.add(innerType.decodeUTF8Text(Bytes.toArray(innerBytes)));
-            } else if (firstValueByte == 'N') {
+            }
+        } else if (firstValueByte != '}') {
+            // unquoted value, e.g. {1,2,NULL}
+            String value = new String(bytes, startIdx, endIdx - startIdx + 1, StandardCharsets.UTF_8).trim();
+            if (value.equals("NULL")) {
                 objects.add(null);
+            } else if (!value.isEmpty()) {
+                objects.add(innerType.decodeUTF8Text(value.getBytes(StandardCharsets.UTF_8)));
             }
         }
     }
@@ -58,6 +58,8 @@ public class PGTypes {
         .put(new ArrayType(DataTypes.BOOLEAN), PGArray.BOOL_ARRAY)
         .put(new ArrayType(DataTypes.TIMESTAMP), PGArray.TIMESTAMPZ_ARRAY)
         .put(new ArrayType(DataTypes.STRING), PGArray.VARCHAR_ARRAY)
+        .put(new ArrayType(DataTypes.IP), PGArray.VARCHAR_ARRAY)
+        .put(new ArrayType(DataTypes.UNDEFINED), PGArray.VARCHAR_ARRAY)
         .put(new ArrayType(DataTypes.GEO_POINT), PGArray.FLOAT8_ARRAY)
         .put(new ArrayType(DataTypes.GEO_SHAPE), PGArray.JSON_ARRAY)
         .put(new ArrayType(DataTypes.OBJECT), JsonType.INSTANCE)
@@ -70,6 +72,7 @@ public class PGTypes {
         .put(new SetType(DataTypes.BOOLEAN), PGArray.BOOL_ARRAY)
         .put(new SetType(DataTypes.TIMESTAMP), PGArray.TIMESTAMPZ_ARRAY)
         .put(new SetType(DataTypes.STRING), PGArray.VARCHAR_ARRAY)
+        .put(new SetType(DataTypes.IP), PGArray.VARCHAR_ARRAY)
         .put(new SetType(DataTypes.GEO_POINT), PGArray.FLOAT8_ARRAY)
         .put(new SetType(DataTypes.GEO_SHAPE), PGArray.JSON_ARRAY)
         .put(new SetType(DataTypes.OBJECT), JsonType.INSTANCE)
@@ -32,10 +32,15 @@ import io.crate.action.sql.parser.SQLXContentSourceParser;
 import io.crate.analyze.symbol.Field;
 import io.crate.exceptions.SQLParseException;
 import org.elasticsearch.client.node.NodeClient;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.http.netty3.Netty3HttpRequest;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.rest.*;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.jboss.netty.handler.codec.http.HttpVersion;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -51,13 +56,22 @@ public class RestSQLAction extends BaseRestHandler {
     private static final String REQUEST_HEADER_USER = "User";
     private static final String REQUEST_HEADER_SCHEMA = "Default-Schema";
     private static final int DEFAULT_SOFT_LIMIT = 10_000;
+    private static final String STREAM_PORTAL = "stream";
 
     private final SQLOperations sqlOperations;
+    private final ThreadPool threadPool;
+    private final CircuitBreakerService circuitBreakerService;
 
     @Inject
-    public RestSQLAction(Settings settings, RestController controller, SQLOperations sqlOperations) {
+    public RestSQLAction(Settings settings,
+                         RestController controller,
+                         SQLOperations sqlOperations,
+                         ThreadPool threadPool,
+                         CircuitBreakerService circuitBreakerService) {
         super(settings);
         this.sqlOperations = sqlOperations;
+        this.threadPool = threadPool;
+        this.circuitBreakerService = circuitBreakerService;
 
         controller.registerHandler(RestRequest.Method.POST, "/_sql", this);
     }
@@ -103,7 +117,17 @@ public class RestSQLAction extends BaseRestHandler {
 
     @Override
     protected Set<String> responseParams() {
-        return ImmutableSet.of("types");
+        return ImmutableSet.of("types", "stream");
+    }
+
+    /**
+     * Result sets can only be streamed using chunked transfer encoding, which requires HTTP/1.1
+     * and access to the underlying Netty channel.
+     */
+    private static boolean isStreamingRequested(RestRequest request) {
+        return request.paramAsBoolean("stream", false)
+               && request instanceof Netty3HttpRequest
+               && HttpVersion.HTTP_1_1.equals(((Netty3HttpRequest) request).request().getProtocolVersion());
     }
 
     private static Set<Option> toOptions(RestRequest request) {
@@ -123,20 +147,25 @@ public class RestSQLAction extends BaseRestHandler {
             final long startTime = System.nanoTime();
             session.parse(UNNAMED, context.stmt(), Collections.emptyList());
             List<Object> args = context.args() == null ? Collections.emptyList() : Arrays.asList(context.args());
-            session.bind(UNNAMED, UNNAMED, args, null);
-            List<Field> outputFields = session.describe('P', UNNAMED);
+            // a suspended portal must outlive sync(), which clears the unnamed portal
+            String portalName = isStreamingRequested(request) ? STREAM_PORTAL : UNNAMED;
+            session.bind(portalName, UNNAMED, args, null);
+            List<Field> outputFields = session.describe('P', portalName);
             if (outputFields == null) {
                 return channel -> {
                     try {
                         ResultReceiver resultReceiver
                             = new RestRowCountReceiver(channel, startTime, request.paramAsBoolean("types", false));
-                        session.execute(UNNAMED, 0, resultReceiver);
+                        session.execute(portalName, 0, resultReceiver);
                         session.sync();
                     } catch (Throwable t) {
                         errorResponse(channel, t);
                     }
                 };
             }
+            if (portalName.equals(STREAM_PORTAL)) {
+                return channel -> streamResultSet(session, (Netty3HttpRequest) request, channel, outputFields, startTime);
+            }
             return channel -> {
                 try {
                     ResultReceiver resultReceiver =
@@ -152,6 +181,33 @@ public class RestSQLAction extends BaseRestHandler {
         }
     }
 
+    private void streamResultSet(SQLOperations.Session session,
+                                 Netty3HttpRequest request,
+                                 RestChannel channel,
+                                 List<Field> outputFields,
+                                 long startTime) {
+        // the in-flight request bytes are usually released by sending the response via the RestChannel
+        int contentLength = request.content().length();
+        Runnable releaseInFlightBytes = () -> circuitBreakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS)
+            .addWithoutBreaking(-contentLength);
+        try {
+            RestStreamingResultSetReceiver resultReceiver = new RestStreamingResultSetReceiver(
+                request.getChannel(),
+                channel,
+                outputFields,
+                startTime,
+                request.paramAsBoolean("types", false),
+                session,
+                STREAM_PORTAL,
+                threadPool.executor(ThreadPool.Names.SEARCH),
+                releaseInFlightBytes
+            );
+            resultReceiver.execute();
+        } catch (Throwable t) {
+            errorResponse(channel, t);
+        }
+    }
+
     private RestChannelConsumer executeBulkRequest(SQLXContentSourceContext context, final RestRequest request) {
         SQLOperations.Session session = sqlOperations.createSession(
             request.header(REQUEST_HEADER_SCHEMA),
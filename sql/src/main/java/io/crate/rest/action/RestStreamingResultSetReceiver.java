@@ -0,0 +1,264 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.rest.action;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.SQLOperations;
+import io.crate.analyze.symbol.Field;
+import io.crate.data.Row;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.rest.RestChannel;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.handler.codec.http.*;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static io.crate.exceptions.SQLExceptions.createSQLActionException;
+
+/**
+ * Streams a result set as chunked HTTP response instead of building the whole response in memory.
+ * <p>
+ * The response has the same format as the one created by {@link RestResultSetReceiver}.
+ * Rows are written to the Netty channel in chunks of about {@link #CHUNK_SIZE} bytes.
+ * The execution suspends itself every {@link #BATCH_SIZE} rows and is only resumed once all chunks of
+ * the batch have been written, so the memory used for a response doesn't grow with the size of the result set.
+ * <p>
+ * Failures which occur before the first chunk is sent result in a regular error response.
+ * Later failures are appended to the response as {@code error} object, as the status has already been sent.
+ * The connection is closed once the response is complete, because the chunks bypass the HTTP pipelining
+ * of the REST layer.
+ */
+class RestStreamingResultSetReceiver extends BaseResultReceiver {
+
+    static final int CHUNK_SIZE = 32 * 1024;
+    static final int BATCH_SIZE = 10_000;
+
+    private static final Logger LOGGER = Loggers.getLogger(RestStreamingResultSetReceiver.class);
+
+    private final Channel channel;
+    private final RestChannel restChannel;
+    private final int numCols;
+    private final long startTime;
+    private final SQLOperations.Session session;
+    private final String portalName;
+    private final Executor executor;
+    private final ChunkOutputStream out = new ChunkOutputStream();
+    private final ResultToXContentBuilder builder;
+    private volatile boolean headerSent = false;
+    private long rowCount;
+
+    /**
+     * @param releaseResources invoked once a streamed response is complete.
+     *                         Responses sent via the {@link RestChannel} release their resources on their own.
+     */
+    RestStreamingResultSetReceiver(Channel channel,
+                                   RestChannel restChannel,
+                                   List<Field> outputFields,
+                                   long startTime,
+                                   boolean includeTypesOnResponse,
+                                   SQLOperations.Session session,
+                                   String portalName,
+                                   Executor executor,
+                                   Runnable releaseResources) throws IOException {
+        this.channel = channel;
+        this.restChannel = restChannel;
+        this.numCols = outputFields.size();
+        this.startTime = startTime;
+        this.session = session;
+        this.portalName = portalName;
+        this.executor = executor;
+        builder = ResultToXContentBuilder.builder(new XContentBuilder(JsonXContent.jsonXContent, out));
+        builder.cols(outputFields);
+        if (includeTypesOnResponse) {
+            builder.colTypes(outputFields);
+        }
+        builder.startRows();
+        completionFuture().whenComplete((r, t) -> {
+            if (headerSent) {
+                releaseResources.run();
+            }
+        });
+    }
+
+    /**
+     * Starts the execution of the statement bound to the portal, or resumes it if it's suspended.
+     */
+    void execute() {
+        try {
+            session.execute(portalName, BATCH_SIZE, this);
+            session.sync();
+        } catch (Throwable t) {
+            fail(t);
+            // kills a suspended execution, allFinished is a no-op after fail
+            session.close();
+        }
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        try {
+            builder.addRow(row, numCols);
+            rowCount++;
+            if (out.size() >= CHUNK_SIZE) {
+                writeChunk();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void batchFinished() {
+        ChannelFuture chunkWritten;
+        try {
+            builder.flush();
+            chunkWritten = writeChunk();
+        } catch (Throwable t) {
+            fail(t);
+            session.close();
+            return;
+        }
+        chunkWritten.addListener(future -> {
+            if (future.isSuccess()) {
+                // resume on another thread; the listener may be invoked by a Netty I/O thread
+                executor.execute(this::execute);
+            } else {
+                LOGGER.debug("Failed to write chunk, closing the suspended execution", future.getCause());
+                session.close();
+            }
+        });
+    }
+
+    @Override
+    public void allFinished(boolean interrupted) {
+        if (completionFuture().isDone()) {
+            return;
+        }
+        if (interrupted) {
+            channel.close();
+            super.allFinished(true);
+            return;
+        }
+        try {
+            builder.finishRows()
+                .rowCount(rowCount)
+                .duration(startTime)
+                .build()
+                .flush();
+            writeLastChunk();
+        } catch (Throwable t) {
+            fail(t);
+            return;
+        }
+        super.allFinished(false);
+    }
+
+    @Override
+    public void fail(@Nonnull Throwable t) {
+        if (completionFuture().isDone()) {
+            return;
+        }
+        try {
+            if (headerSent) {
+                builder.finishRows()
+                    .error(createSQLActionException(t))
+                    .build()
+                    .flush();
+                writeLastChunk();
+            } else {
+                restChannel.sendResponse(new CrateThrowableRestResponse(restChannel, createSQLActionException(t)));
+            }
+        } catch (Throwable e) {
+            LOGGER.error("failed to send failure response", e);
+            channel.close();
+        } finally {
+            super.fail(t);
+        }
+    }
+
+    private ChannelFuture writeChunk() {
+        if (!headerSent) {
+            HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+            response.headers().set(HttpHeaders.Names.CONTENT_TYPE, JsonXContent.jsonXContent.type().mediaType());
+            response.headers().set(HttpHeaders.Names.TRANSFER_ENCODING, HttpHeaders.Values.CHUNKED);
+            response.headers().set(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.CLOSE);
+            response.setChunked(true);
+            channel.write(response);
+            headerSent = true;
+        }
+        if (out.size() == 0) {
+            return Channels.succeededFuture(channel);
+        }
+        return channel.write(new DefaultHttpChunk(out.takeBuffer()));
+    }
+
+    private void writeLastChunk() {
+        writeChunk();
+        channel.write(HttpChunk.LAST_CHUNK).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * OutputStream which collects the written bytes in a buffer that is handed over as chunk once it's big enough.
+     */
+    private static class ChunkOutputStream extends OutputStream {
+
+        private ChannelBuffer buffer = newBuffer();
+
+        private static ChannelBuffer newBuffer() {
+            return ChannelBuffers.dynamicBuffer(CHUNK_SIZE + CHUNK_SIZE / 4);
+        }
+
+        int size() {
+            return buffer.readableBytes();
+        }
+
+        ChannelBuffer takeBuffer() {
+            ChannelBuffer chunk = buffer;
+            buffer = newBuffer();
+            return chunk;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.writeByte(b);
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) {
+            buffer.writeBytes(b, off, len);
+        }
+    }
+}
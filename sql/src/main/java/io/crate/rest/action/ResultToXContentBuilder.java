@@ -22,6 +22,7 @@
 
 package io.crate.rest.action;
 
+import io.crate.action.sql.SQLActionException;
 import io.crate.analyze.symbol.Field;
 import io.crate.data.Row;
 import io.crate.types.CollectionType;
@@ -43,17 +44,24 @@ class ResultToXContentBuilder {
         static final String ROW_COUNT = "rowcount";
         static final String DURATION = "duration";
         static final String ERROR_MESSAGE = "error_message";
+        static final String ERROR = "error";
+        static final String MESSAGE = "message";
+        static final String CODE = "code";
     }
 
     private final XContentBuilder builder;
 
-    private ResultToXContentBuilder(RestChannel channel) throws IOException {
-        builder = channel.newBuilder();
+    private ResultToXContentBuilder(XContentBuilder builder) throws IOException {
+        this.builder = builder;
         builder.startObject();
     }
 
     static ResultToXContentBuilder builder(RestChannel channel) throws IOException {
-        return new ResultToXContentBuilder(channel);
+        return new ResultToXContentBuilder(channel.newBuilder());
+    }
+
+    static ResultToXContentBuilder builder(XContentBuilder builder) throws IOException {
+        return new ResultToXContentBuilder(builder);
     }
 
     ResultToXContentBuilder cols(List<Field> fields) throws IOException {
@@ -144,6 +152,25 @@ class ResultToXContentBuilder {
         return this;
     }
 
+    /**
+     * error() is used if a streamed response fails after parts of it have already been sent
+     */
+    ResultToXContentBuilder error(SQLActionException e) throws IOException {
+        builder.startObject(FIELDS.ERROR)
+            .field(FIELDS.MESSAGE, e.getMessage())
+            .field(FIELDS.CODE, e.errorCode())
+            .endObject();
+        return this;
+    }
+
+    /**
+     * writes everything that has been added so far to the underlying output stream
+     */
+    ResultToXContentBuilder flush() throws IOException {
+        builder.flush();
+        return this;
+    }
+
     XContentBuilder build() throws IOException {
         builder.endObject();
         return builder;
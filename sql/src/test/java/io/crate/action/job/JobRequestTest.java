@@ -37,7 +37,7 @@ public class JobRequestTest {
 
     @Test
     public void testJobRequestStreaming() throws Exception {
-        JobRequest r1 = new JobRequest(UUID.randomUUID(), "n1", Collections.<NodeOperation>emptyList());
+        JobRequest r1 = new JobRequest(UUID.randomUUID(), "n1", Collections.<NodeOperation>emptyList(), true);
 
         BytesStreamOutput out = new BytesStreamOutput();
         r1.writeTo(out);
@@ -48,5 +48,6 @@ public class JobRequestTest {
         assertThat(r1.coordinatorNodeId(), is(r2.coordinatorNodeId()));
         assertThat(r1.jobId(), is(r2.jobId()));
         assertThat(r1.nodeOperations().isEmpty(), is(true));
+        assertThat(r2.profiling(), is(true));
     }
 }
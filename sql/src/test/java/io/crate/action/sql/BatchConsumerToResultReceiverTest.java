@@ -68,4 +68,45 @@ public class BatchConsumerToResultReceiverTest {
         assertThat(collectedRows.size(), is(10));
         assertThat(collectedRows, Matchers.contains(expectedResult.toArray(new Object[0])));
     }
+
+    @Test
+    public void testSuspendAndResumeWithDifferentMaxRows() throws Exception {
+        CollectingResultReceiver firstReceiver = new CollectingResultReceiver();
+        BatchConsumerToResultReceiver batchConsumer = new BatchConsumerToResultReceiver(firstReceiver, 3);
+        batchConsumer.accept(TestingBatchIterators.range(0, 10), null);
+
+        assertThat(firstReceiver.rows.size(), is(3));
+        assertThat(firstReceiver.batchFinished, is(true));
+        assertThat(batchConsumer.suspended(), is(true));
+
+        CollectingResultReceiver secondReceiver = new CollectingResultReceiver();
+        batchConsumer.replaceResultReceiver(secondReceiver, 5);
+        batchConsumer.resume();
+        assertThat(secondReceiver.rows.size(), is(5));
+        assertThat(secondReceiver.rows.get(0)[0], is(3));
+        assertThat(batchConsumer.suspended(), is(true));
+
+        CollectingResultReceiver thirdReceiver = new CollectingResultReceiver();
+        batchConsumer.replaceResultReceiver(thirdReceiver, 0);
+        batchConsumer.resume();
+        assertThat(thirdReceiver.rows.size(), is(2));
+        assertThat(thirdReceiver.completionFuture().get(10, TimeUnit.SECONDS), is(false));
+        assertThat(batchConsumer.suspended(), is(false));
+    }
+
+    private static class CollectingResultReceiver extends BaseResultReceiver {
+
+        private final List<Object[]> rows = new ArrayList<>();
+        private boolean batchFinished = false;
+
+        @Override
+        public void setNextRow(Row row) {
+            rows.add(row.materialize());
+        }
+
+        @Override
+        public void batchFinished() {
+            batchFinished = true;
+        }
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.sql.parser.ParsingException;
+import io.crate.sql.tree.Statement;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ClusterServiceUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class StatementCacheTest extends CrateDummyClusterServiceUnitTest {
+
+    private static final List<DataType> PARAM_TYPES = Collections.singletonList(DataTypes.INTEGER);
+
+    private StatementCache cache;
+    private AtomicInteger numAnalyzed;
+
+    @Before
+    public void setUpCache() throws Exception {
+        cache = new StatementCache(Settings.EMPTY, clusterService);
+        numAnalyzed = new AtomicInteger(0);
+    }
+
+    private void unboundRelation(String query, List<DataType> paramTypes, String defaultSchema) {
+        cache.unboundRelation(query, paramTypes, defaultSchema, () -> {
+            numAnalyzed.incrementAndGet();
+            return null;
+        });
+    }
+
+    @Test
+    public void testParsedStatementIsReused() throws Exception {
+        Statement first = cache.parse("select name from users where id = ?");
+        Statement second = cache.parse("select name from users where id = ?");
+
+        assertThat(second, sameInstance(first));
+        StatementCacheStats stats = cache.stats();
+        assertThat(stats.size(), is(1L));
+        assertThat(stats.hits(), is(1L));
+        assertThat(stats.misses(), is(1L));
+    }
+
+    @Test
+    public void testParseErrorIsNotCached() throws Exception {
+        try {
+            cache.parse("select from");
+            fail("parse should have failed");
+        } catch (ParsingException e) {
+            assertThat(cache.stats().size(), is(0L));
+        }
+    }
+
+    @Test
+    public void testUnboundRelationIsReusedForSameParamTypesAndSchema() throws Exception {
+        unboundRelation("select name from users where id = ?", PARAM_TYPES, "doc");
+        unboundRelation("select name from users where id = ?", PARAM_TYPES, "doc");
+        assertThat(numAnalyzed.get(), is(1));
+
+        unboundRelation("select name from users where id = ?", Collections.singletonList(DataTypes.LONG), "doc");
+        unboundRelation("select name from users where id = ?", PARAM_TYPES, "custom");
+        assertThat(numAnalyzed.get(), is(3));
+    }
+
+    @Test
+    public void testUnboundRelationIsInvalidatedOnSchemaChange() throws Exception {
+        unboundRelation("select name from users", Collections.emptyList(), "doc");
+
+        ClusterState state = clusterService.state();
+        ClusterServiceUtils.setState(clusterService, ClusterState.builder(state)
+            .metaData(MetaData.builder(state.metaData()).version(state.metaData().version() + 1)));
+
+        unboundRelation("select name from users", Collections.emptyList(), "doc");
+        unboundRelation("select name from users", Collections.emptyList(), "doc");
+        assertThat(numAnalyzed.get(), is(2));
+        assertThat(cache.stats().hits(), is(1L));
+        assertThat(cache.stats().misses(), is(2L));
+    }
+
+    private void cachePrimaryKeyLookup(String query, long schemaVersion) {
+        cache.cachePrimaryKeyLookup(query, "doc", schemaVersion, () -> {
+            numAnalyzed.incrementAndGet();
+            return null;
+        });
+    }
+
+    @Test
+    public void testNoPrimaryKeyLookupIsOnlyCheckedOncePerSchemaVersion() throws Exception {
+        long schemaVersion = cache.schemaVersion();
+        cachePrimaryKeyLookup("select name from users where name = ?", schemaVersion);
+        cachePrimaryKeyLookup("select name from users where name = ?", schemaVersion);
+        assertThat(numAnalyzed.get(), is(1));
+        assertThat(cache.primaryKeyLookup("select name from users where name = ?", "doc"), nullValue());
+        assertThat(cache.stats().misses(), is(0L));
+
+        cachePrimaryKeyLookup("select name from users where name = ?", schemaVersion + 1);
+        assertThat(numAnalyzed.get(), is(2));
+    }
+
+    @Test
+    public void testCacheCanBeDisabled() throws Exception {
+        cache = new StatementCache(
+            Settings.builder().put(StatementCache.STATEMENT_CACHE_SIZE_SETTING.getKey(), 0).build(), clusterService);
+
+        Statement first = cache.parse("select 1");
+        assertThat(cache.parse("select 1"), not(sameInstance(first)));
+        unboundRelation("select 1", Collections.emptyList(), "doc");
+        unboundRelation("select 1", Collections.emptyList(), "doc");
+        assertThat(numAnalyzed.get(), is(2));
+        assertThat(cache.stats().size(), is(0L));
+        assertThat(cache.stats().misses(), is(0L));
+    }
+}
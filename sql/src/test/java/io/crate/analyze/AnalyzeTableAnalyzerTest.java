@@ -0,0 +1,76 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze;
+
+import io.crate.metadata.TableIdent;
+import io.crate.metadata.blob.BlobSchemaInfo;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class AnalyzeTableAnalyzerTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void prepare() {
+        TableIdent myBlobsIdent = new TableIdent(BlobSchemaInfo.NAME, "blobs");
+        TestingBlobTableInfo myBlobsTableInfo = TableDefinitions.createBlobTable(myBlobsIdent, clusterService);
+        e = SQLExecutor.builder(clusterService).enableDefaultTables().addBlobTable(myBlobsTableInfo).build();
+    }
+
+    @Test
+    public void testAnalyzeWithoutTablesAnalyzesAllTables() throws Exception {
+        AnalyzeTableAnalyzedStatement analysis = e.analyze("analyze");
+        assertThat(analysis.tables(), is(empty()));
+    }
+
+    @Test
+    public void testAnalyzeTables() throws Exception {
+        AnalyzeTableAnalyzedStatement analysis = e.analyze("analyze users, doc.parted");
+        assertThat(
+            analysis.tables().stream().map(DocTableInfo::ident).map(TableIdent::fqn).collect(Collectors.toList()),
+            contains("doc.users", "doc.parted"));
+    }
+
+    @Test
+    public void testAnalyzeSystemTable() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("operation cannot be performed on system and blob tables: table 'sys.shards'");
+        e.analyze("analyze sys.shards");
+    }
+
+    @Test
+    public void testAnalyzeBlobTable() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        e.analyze("analyze blob.blobs");
+    }
+}
@@ -23,6 +23,7 @@ package io.crate.analyze;
 
 import io.crate.analyze.relations.QueriedDocTable;
 import io.crate.analyze.symbol.Literal;
+import io.crate.exceptions.ColumnUnknownException;
 import io.crate.exceptions.PartitionUnknownException;
 import io.crate.exceptions.SchemaUnknownException;
 import io.crate.exceptions.TableUnknownException;
@@ -300,4 +301,70 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         expectedException.expectMessage("node_filters argument 'name' must be a String, not 20 (Long)");
         e.analyze("copy users from '/' with (node_filters={name=20})");
     }
+
+    @Test
+    public void testCopyFromStdinUsesAllColumnsAndTextFormatByDefault() throws Exception {
+        CopyFromAnalyzedStatement analysis = e.analyze("copy users from stdin");
+        assertThat(analysis.fromStdin(), is(true));
+        assertThat(analysis.stdinFormat(), is(CopyFromAnalyzedStatement.InputFormat.TEXT));
+        assertThat(analysis.stdinColumns().size(), is(analysis.table().columns().size()));
+    }
+
+    @Test
+    public void testCopyFromStdinWithColumnListAndCsvFormat() throws Exception {
+        CopyFromAnalyzedStatement analysis = e.analyze(
+            "copy users (name, id) from stdin with (format='csv', header=true)");
+        assertThat(analysis.stdinFormat(), is(CopyFromAnalyzedStatement.InputFormat.CSV));
+        assertThat(analysis.stdinColumns(), contains(isReference("name"), isReference("id")));
+    }
+
+    @Test
+    public void testCopyFromFileIsNotFromStdin() throws Exception {
+        CopyFromAnalyzedStatement analysis = e.analyze("copy users from '/some/distant/file.ext'");
+        assertThat(analysis.fromStdin(), is(false));
+        assertThat(analysis.stdinColumns(), nullValue());
+    }
+
+    @Test
+    public void testCopyFromStdinWithUnknownColumn() throws Exception {
+        expectedException.expect(ColumnUnknownException.class);
+        expectedException.expectMessage("Column unknown_column unknown");
+        e.analyze("copy users (id, unknown_column) from stdin");
+    }
+
+    @Test
+    public void testCopyFromStdinWithDuplicateColumn() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("column \"id\" specified more than once");
+        e.analyze("copy users (id, name, id) from stdin");
+    }
+
+    @Test
+    public void testCopyFromStdinWithInvalidFormat() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+            "Invalid format \"xml\" for COPY FROM STDIN, supported formats are: text, csv, json");
+        e.analyze("copy users from stdin with (format='xml')");
+    }
+
+    @Test
+    public void testCopyFromStdinWithInvalidDelimiter() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("COPY delimiter must be a single character");
+        e.analyze("copy users from stdin with (delimiter='||')");
+    }
+
+    @Test
+    public void testCopyFromFileWithColumnListIsNotSupported() throws Exception {
+        expectedException.expect(UnsupportedFeatureException.class);
+        expectedException.expectMessage("A column list is only supported for COPY FROM STDIN");
+        e.analyze("copy users (id, name) from '/some/distant/file.ext'");
+    }
+
+    @Test
+    public void testCopyFromStdinUriIsNotAllowed() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("use COPY FROM STDIN instead");
+        e.analyze("copy users from ['/some/file', 'stdin:///c6a3b5a0-1d9f-4d8c-b6a6-3b2f5d8f1a2e']");
+    }
 }
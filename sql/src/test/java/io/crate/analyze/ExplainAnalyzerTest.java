@@ -55,6 +55,21 @@ public class ExplainAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(stmt.fields(), Matchers.contains(isField("EXPLAIN COPY \"users\" FROM '/tmp/*' WITH (\n   shared = true\n)")));
     }
 
+    @Test
+    public void testExplainAnalyze() throws Exception {
+        ExplainAnalyzedStatement stmt = e.analyze("explain analyze select id from sys.cluster");
+        assertThat(stmt.isAnalyze(), Matchers.is(true));
+        assertThat(stmt.statement(), instanceOf(SelectAnalyzedStatement.class));
+        assertThat(stmt.fields(), Matchers.contains(isField("EXPLAIN ANALYZE SELECT \"id\"\nFROM \"sys\".\"cluster\"\n")));
+    }
+
+    @Test
+    public void testExplainAnalyzeCopyFromUnsupported() throws Exception {
+        expectedException.expect(UnsupportedFeatureException.class);
+        expectedException.expectMessage("EXPLAIN ANALYZE is only supported for SELECT statements");
+        e.analyze("explain analyze copy users from '/tmp/*'");
+    }
+
     @Test
     public void testExplainRefreshUnsupported() throws Exception {
         expectedException.expect(UnsupportedFeatureException.class);
@@ -619,6 +619,27 @@ public class InsertFromValuesAnalyzerTest extends CrateDummyClusterServiceUnitTe
         assertThat((Long) analysis.sourceMaps().get(1)[0], is(2L));
     }
 
+    @Test
+    public void testInsertWithBulkArgsMixedWithExpressionsAndOnDuplicateKey() throws Exception {
+        InsertFromValuesAnalyzedStatement analysis = e.analyze(
+            "insert into users (id, name, other_id) values (?, ?, 2 * 5) " +
+            "on duplicate key update name = substr(values (name), 1, 1)",
+            new Object[][]{
+                new Object[]{1, "Arthur"},
+                new Object[]{2, "Trillian"}
+            });
+        assertThat(analysis.sourceMaps().size(), is(2));
+        assertThat(analysis.sourceMaps().get(0), is(new Object[]{1L, new BytesRef("Arthur"), 10L}));
+        assertThat(analysis.sourceMaps().get(1), is(new Object[]{2L, new BytesRef("Trillian"), 10L}));
+        assertThat(analysis.ids(), contains("1", "2"));
+        assertThat(analysis.bulkIndices(), contains(0, 1));
+
+        assertThat(analysis.onDuplicateKeyAssignments().size(), is(2));
+        assertThat(analysis.onDuplicateKeyAssignments().get(0)[0], isLiteral("A"));
+        assertThat(analysis.onDuplicateKeyAssignments().get(1)[0], isLiteral("T"));
+        assertThat(analysis.onDuplicateKeyAssignmentsColumns().get(1), is(new String[]{"name"}));
+    }
+
     @Test
     public void testInsertWithBulkArgsTypeMissMatch() throws Exception {
         expectedException.expect(ColumnValidationException.class);
@@ -171,7 +171,9 @@ public class SetAnalyzerTest extends CrateDummyClusterServiceUnitTest {
                 "stats.jobs_log_expiration",
                 "stats.operations_log_size",
                 "stats.operations_log_expiration",
-                "stats.service.interval")
+                "stats.statement_stats_size",
+                "stats.service.interval",
+                "stats.service.analyze_interval")
         );
     }
 
@@ -725,4 +725,15 @@ public class WhereClauseAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(whereClause.partitions().get(0), is(new PartitionName("generated_col", Arrays.asList(new BytesRef("1420070400000"), new BytesRef("-1"))).asIndexName()));
         assertThat(whereClause.partitions().get(1), is(new PartitionName("generated_col", Arrays.asList(new BytesRef("1420156800000"), new BytesRef("-2"))).asIndexName()));
     }
+
+    @Test
+    public void testPartitionsAreResolvedFromInAndRangeOnMultiplePartitionColumns() throws Exception {
+        WhereClause whereClause = analyzeSelectWhere(
+            "select * from double_gen_parted where x1 in (4, 6) and x2 <= 5");
+        assertThat(whereClause.hasQuery(), is(false));
+        assertThat(whereClause.partitions(), contains(".partitioned.double_gen_parted.081380hl"));
+
+        whereClause = analyzeSelectWhere("select * from double_gen_parted where x1 in (4, 6) and x2 > 5");
+        assertThat(whereClause.noMatch(), is(true));
+    }
 }
@@ -0,0 +1,320 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.action.sql.BatchConsumerToResultReceiver;
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row1;
+import io.crate.data.RowsBatchIterator;
+import io.crate.exceptions.WorkloadRejectedException;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.*;
+
+public class AdmissionServiceTest extends CrateUnitTest {
+
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+    private final CircuitBreaker breaker = new MemoryCircuitBreaker(
+        new ByteSizeValue(100), 1.0, Loggers.getLogger(AdmissionServiceTest.class));
+    private final AtomicInteger breakerLookups = new AtomicInteger(0);
+    private ClusterSettings clusterSettings;
+
+    @After
+    public void shutdownScheduler() throws Exception {
+        scheduler.shutdownNow();
+    }
+
+    private AdmissionService newService(Settings settings) {
+        Set<Setting<?>> registered = new HashSet<>();
+        registered.addAll(ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        registered.add(AdmissionService.MAX_CONCURRENT_SETTING.setting());
+        registered.add(AdmissionService.QUEUE_TIMEOUT_SETTING.setting());
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            registered.add(workloadClass.maxConcurrentSetting().setting());
+            registered.add(workloadClass.maxQueuedSetting().setting());
+            registered.add(workloadClass.memoryShareSetting().setting());
+            registered.add(workloadClass.prioritySetting().setting());
+        }
+        clusterSettings = new ClusterSettings(settings, registered);
+        return new AdmissionService(settings, clusterSettings, Runnable::run, scheduler, () -> {
+            breakerLookups.incrementAndGet();
+            return breaker;
+        });
+    }
+
+    private static WorkloadClassStats stats(AdmissionService service, WorkloadClass workloadClass) {
+        for (WorkloadClassStats stats : service.stats()) {
+            if (stats.name().equals(workloadClass.settingName())) {
+                return stats;
+            }
+        }
+        throw new AssertionError("no stats for " + workloadClass);
+    }
+
+    @Test
+    public void testStatementsAreAdmittedImmediatelyWithoutLimits() throws Exception {
+        AdmissionService service = newService(Settings.EMPTY);
+        for (int i = 0; i < 10; i++) {
+            assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+        }
+        WorkloadClassStats stats = stats(service, WorkloadClass.QUERY);
+        assertThat(stats.running(), is(10));
+        assertThat(stats.admitted(), is(10L));
+        assertThat(stats.queued(), is(0));
+    }
+
+    @Test
+    public void testStatementIsQueuedUntilSlotIsReleased() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1).build());
+
+        assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+        CompletableFuture<Void> second = service.admit(WorkloadClass.QUERY);
+        assertThat(second.isDone(), is(false));
+        assertThat(stats(service, WorkloadClass.QUERY).queued(), is(1));
+
+        // other classes aren't affected by the limit of the query class
+        assertThat(service.admit(WorkloadClass.POINT_LOOKUP).isDone(), is(true));
+
+        service.release(WorkloadClass.QUERY);
+        assertThat(second.isDone(), is(true));
+        WorkloadClassStats stats = stats(service, WorkloadClass.QUERY);
+        assertThat(stats.running(), is(1));
+        assertThat(stats.queued(), is(0));
+        assertThat(stats.admitted(), is(2L));
+    }
+
+    @Test
+    public void testStatementIsRejectedIfQueueIsFull() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.write.max_concurrent", 1)
+            .put("workload.write.max_queued", 1).build());
+
+        service.admit(WorkloadClass.WRITE);
+        service.admit(WorkloadClass.WRITE);
+        CompletableFuture<Void> rejected = service.admit(WorkloadClass.WRITE);
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(WorkloadRejectedException.class));
+        expectedException.expectMessage("the queue of the workload class 'write' is full (1 queued statements)");
+        try {
+            rejected.get();
+        } finally {
+            assertThat(stats(service, WorkloadClass.WRITE).rejected(), is(1L));
+        }
+    }
+
+    @Test
+    public void testQueuedStatementsAreAdmittedByPriority() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.max_concurrent", 1).build());
+
+        service.admit(WorkloadClass.QUERY);
+        CompletableFuture<Void> query = service.admit(WorkloadClass.QUERY);
+        CompletableFuture<Void> write = service.admit(WorkloadClass.WRITE);
+        CompletableFuture<Void> pointLookup = service.admit(WorkloadClass.POINT_LOOKUP);
+
+        service.release(WorkloadClass.QUERY);
+        assertThat(pointLookup.isDone(), is(true));
+        assertThat(write.isDone(), is(false));
+        assertThat(query.isDone(), is(false));
+
+        service.release(WorkloadClass.POINT_LOOKUP);
+        assertThat(write.isDone(), is(true));
+        assertThat(query.isDone(), is(false));
+
+        service.release(WorkloadClass.WRITE);
+        assertThat(query.isDone(), is(true));
+    }
+
+    @Test
+    public void testStatementIsNotAdmittedAheadOfHigherPriorityQueue() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.point_lookup.max_concurrent", 1).build());
+
+        service.admit(WorkloadClass.POINT_LOOKUP);
+        CompletableFuture<Void> pointLookup = service.admit(WorkloadClass.POINT_LOOKUP);
+        assertThat(pointLookup.isDone(), is(false));
+
+        // there is no global limit, so the lower priority classes don't have to wait
+        assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+    }
+
+    @Test
+    public void testMemoryShareDefersAdmission() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.memory_share", 0.5f).build());
+
+        breaker.addWithoutBreaking(60);
+        CompletableFuture<Void> query = service.admit(WorkloadClass.QUERY);
+        assertThat(query.isDone(), is(false));
+        assertThat(service.admit(WorkloadClass.WRITE).isDone(), is(true));
+
+        breaker.addWithoutBreaking(-60);
+        // memory isn't released through the admission service, the queue is re-checked periodically
+        assertBusy(() -> assertThat(query.isDone(), is(true)));
+    }
+
+    @Test
+    public void testReleaseWithoutQueuedStatementsDoesNotCheckLimits() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.memory_share", 0.5f).build());
+
+        assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+        int lookups = breakerLookups.get();
+        service.release(WorkloadClass.QUERY);
+        assertThat(breakerLookups.get(), is(lookups));
+        assertThat(stats(service, WorkloadClass.QUERY).running(), is(0));
+    }
+
+    @Test
+    public void testRaisedLimitAdmitsQueuedStatements() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1).build());
+
+        service.admit(WorkloadClass.QUERY);
+        CompletableFuture<Void> queued = service.admit(WorkloadClass.QUERY);
+        assertThat(queued.isDone(), is(false));
+
+        clusterSettings.applySettings(Settings.builder().put("workload.query.max_concurrent", 2).build());
+        assertThat(queued.isDone(), is(true));
+    }
+
+    @Test
+    public void testAdmitNowRejectsIfNoSlotIsFree() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.write.max_concurrent", 1).build());
+
+        service.admitNow(WorkloadClass.WRITE);
+        expectedException.expect(WorkloadRejectedException.class);
+        expectedException.expectMessage("the workload class 'write' has no free slot");
+        service.admitNow(WorkloadClass.WRITE);
+    }
+
+    @Test
+    public void testQueuedStatementIsRejectedAfterQueueTimeout() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1)
+            .put("workload.queue_timeout", "50ms").build());
+
+        assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+        CompletableFuture<Void> queued = service.admit(WorkloadClass.QUERY);
+
+        expectedException.expect(ExecutionException.class);
+        expectedException.expectCause(instanceOf(WorkloadRejectedException.class));
+        expectedException.expectMessage("wasn't admitted by the workload class 'query' within the queue timeout of 50ms");
+        try {
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            WorkloadClassStats stats = stats(service, WorkloadClass.QUERY);
+            assertThat(stats.queued(), is(0));
+            assertThat(stats.running(), is(1));
+            assertThat(stats.rejected(), is(1L));
+        }
+    }
+
+    @Test
+    public void testQueueTimeoutDoesNotAffectAdmittedStatement() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1)
+            .put("workload.queue_timeout", "50ms").build());
+
+        service.admit(WorkloadClass.QUERY);
+        CompletableFuture<Void> queued = service.admit(WorkloadClass.QUERY);
+        service.release(WorkloadClass.QUERY);
+        assertThat(queued.isDone(), is(true));
+
+        Thread.sleep(100);
+        assertThat(queued.isCompletedExceptionally(), is(false));
+        assertThat(stats(service, WorkloadClass.QUERY).rejected(), is(0L));
+    }
+
+    @Test
+    public void testSlotOfSuspendedResultIsReleased() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1).build());
+        service.admit(WorkloadClass.QUERY);
+
+        // like a FETCH of a cursor, the consumer suspends itself after each row
+        BatchConsumerToResultReceiver cursor = new BatchConsumerToResultReceiver(new BaseResultReceiver(), 1);
+        BatchConsumer consumer = new ReleasingBatchConsumer(cursor, service, WorkloadClass.QUERY);
+        consumer.accept(RowsBatchIterator.newInstance(Arrays.asList(new Row1(1), new Row1(2)), 1), null);
+        assertThat(cursor.suspended(), is(true));
+
+        assertThat(stats(service, WorkloadClass.QUERY).running(), is(0));
+        assertThat(service.admit(WorkloadClass.QUERY).isDone(), is(true));
+
+        cursor.closeAndFinishIfSuspended();
+        assertThat(stats(service, WorkloadClass.QUERY).running(), is(1));
+    }
+
+    @Test
+    public void testSlotIsReleasedOnceResultIsClosed() throws Exception {
+        AdmissionService service = newService(Settings.builder()
+            .put("workload.query.max_concurrent", 1).build());
+        service.admit(WorkloadClass.QUERY);
+
+        AtomicReference<BatchIterator> result = new AtomicReference<>();
+        BatchConsumer consumer = new ReleasingBatchConsumer((it, failure) -> result.set(it), service, WorkloadClass.QUERY);
+        consumer.accept(RowsBatchIterator.newInstance(new Row1(1)), null);
+        assertThat(stats(service, WorkloadClass.QUERY).running(), is(1));
+
+        result.get().close();
+        assertThat(stats(service, WorkloadClass.QUERY).running(), is(0));
+    }
+
+    @Test
+    public void testStatsContainAllClasses() throws Exception {
+        AdmissionService service = newService(Settings.EMPTY);
+        List<WorkloadClassStats> stats = service.stats();
+        assertThat(stats.size(), is(3));
+        WorkloadClassStats pointLookup = stats(service, WorkloadClass.POINT_LOOKUP);
+        assertThat(pointLookup.priority(), is(30));
+        assertThat(pointLookup.maxConcurrent(), is(0));
+        assertThat(pointLookup.maxQueued(), is(100));
+        assertThat(pointLookup.memoryShare(), is(1.0f));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.admission;
+
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class WorkloadClassifierTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void setUpExecutor() throws Exception {
+        e = SQLExecutor.builder(clusterService).enableDefaultTables().build();
+    }
+
+    private WorkloadClass classify(String statement) {
+        return WorkloadClassifier.classify(e.plan(statement));
+    }
+
+    @Test
+    public void testQueriesOnUserTablesAreClassifiedAsQuery() throws Exception {
+        assertThat(classify("select name from users"), is(WorkloadClass.QUERY));
+        assertThat(classify("select count(*), name from users group by name"), is(WorkloadClass.QUERY));
+    }
+
+    @Test
+    public void testPrimaryKeyLookupIsClassifiedAsPointLookup() throws Exception {
+        assertThat(classify("select name from users where id = 1"), is(WorkloadClass.POINT_LOOKUP));
+    }
+
+    @Test
+    public void testCollectsFromSystemTablesAreNotSubjectToAdmission() throws Exception {
+        assertThat(classify("select name from sys.cluster"), nullValue());
+        assertThat(classify("select id from sys.shards"), nullValue());
+        assertThat(classify("select name from sys.nodes"), nullValue());
+        assertThat(classify("select * from sys.jobs"), nullValue());
+        assertThat(classify("select table_name from information_schema.tables"), nullValue());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.transport;
+
+import io.crate.Streamer;
+import io.crate.data.ArrayBucket;
+import io.crate.data.Bucket;
+import io.crate.data.Row;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class StreamBucketTest {
+
+    private static final Streamer<?>[] STREAMERS = new Streamer[]{
+        DataTypes.STRING.streamer(),
+        DataTypes.LONG.streamer(),
+        DataTypes.INTEGER.streamer(),
+        DataTypes.STRING.streamer(),
+        DataTypes.DOUBLE.streamer()
+    };
+
+    private static Object[][] rows(int numRows) {
+        Object[][] rows = new Object[numRows][];
+        for (int i = 0; i < numRows; i++) {
+            rows[i] = new Object[]{
+                new BytesRef(i < numRows / 2 ? "run" : "other run"), // run-length
+                1490000000000L + i * 1000L,                          // delta
+                i % 3 == 0 ? null : i,                               // plain, contains nulls
+                new BytesRef("value" + i % 7),                       // dictionary
+                i * 0.5d                                             // plain
+            };
+        }
+        return rows;
+    }
+
+    private static StreamBucket streamed(Bucket bucket, boolean columnar) throws IOException {
+        return streamed(STREAMERS, bucket, columnar);
+    }
+
+    private static StreamBucket streamed(Streamer<?>[] streamers, Bucket bucket, boolean columnar) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        StreamBucket.writeBucket(out, streamers, bucket, columnar);
+        StreamBucket streamBucket = new StreamBucket(streamers);
+        streamBucket.readFrom(out.bytes().streamInput());
+        return streamBucket;
+    }
+
+    private static List<Object[]> materialize(Bucket bucket) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Row row : bucket) {
+            rows.add(row.materialize());
+        }
+        return rows;
+    }
+
+    @Test
+    public void testColumnarFormatContainsSameRows() throws Exception {
+        Object[][] rows = rows(100);
+        StreamBucket bucket = streamed(new ArrayBucket(rows), true);
+
+        assertThat(bucket.size(), is(100));
+        List<Object[]> received = materialize(bucket);
+        for (int i = 0; i < rows.length; i++) {
+            assertThat(Arrays.toString(received.get(i)), is(Arrays.toString(rows[i])));
+        }
+        // can be iterated more than once
+        assertThat(materialize(bucket).size(), is(100));
+    }
+
+    @Test
+    public void testColumnarFormatOfRowFormatBucket() throws Exception {
+        Object[][] rows = rows(10);
+        StreamBucket rowBucket = streamed(new ArrayBucket(rows), false);
+        StreamBucket columnarBucket = streamed(rowBucket, true);
+
+        List<Object[]> received = materialize(columnarBucket);
+        for (int i = 0; i < rows.length; i++) {
+            assertThat(Arrays.toString(received.get(i)), is(Arrays.toString(rows[i])));
+        }
+    }
+
+    @Test
+    public void testColumnarFormatIsSmallerForRepetitiveData() throws Exception {
+        Bucket bucket = new ArrayBucket(rows(1000));
+        BytesStreamOutput rowOut = new BytesStreamOutput();
+        StreamBucket.writeBucket(rowOut, STREAMERS, bucket, false);
+        BytesStreamOutput columnarOut = new BytesStreamOutput();
+        StreamBucket.writeBucket(columnarOut, STREAMERS, bucket, true);
+
+        assertThat(columnarOut.size(), lessThan(rowOut.size() / 2));
+    }
+
+    private static void assertColumnarFormatMatchesRowFormat(DataType<?> type, Object[][] rows) throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{type.streamer()};
+        List<Object[]> rowFormat = materialize(streamed(streamers, new ArrayBucket(rows), false));
+        List<Object[]> columnarFormat = materialize(streamed(streamers, new ArrayBucket(rows), true));
+
+        assertThat(columnarFormat.size(), is(rows.length));
+        for (int i = 0; i < rows.length; i++) {
+            // equals of the boxed values also compares their class
+            assertThat(type.getName(), columnarFormat.get(i)[0], is(rowFormat.get(i)[0]));
+        }
+    }
+
+    @Test
+    public void testDeltaEncodedColumnsMatchRowFormat() throws Exception {
+        for (DataType<?> type : Arrays.asList(
+            DataTypes.TIMESTAMP, DataTypes.SHORT, DataTypes.BYTE, DataTypes.INTEGER, DataTypes.LONG)) {
+            Object[][] rows = new Object[100][];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new Object[]{type.value(i % 2 == 0 ? i : -i)};
+            }
+            assertColumnarFormatMatchesRowFormat(type, rows);
+        }
+    }
+
+    @Test
+    public void testDeltaEncodedColumnWithValuesOfOtherClassesMatchesRowFormat() throws Exception {
+        Object[][] mixedRows = new Object[100][];
+        Object[][] integerRows = new Object[100][];
+        for (int i = 0; i < mixedRows.length; i++) {
+            mixedRows[i] = new Object[]{i % 2 == 0 ? (Object) i : (Object) (long) i};
+            integerRows[i] = new Object[]{i};
+        }
+        assertColumnarFormatMatchesRowFormat(DataTypes.INTEGER, mixedRows);
+        assertColumnarFormatMatchesRowFormat(DataTypes.LONG, mixedRows);
+        assertColumnarFormatMatchesRowFormat(DataTypes.LONG, integerRows);
+        assertColumnarFormatMatchesRowFormat(DataTypes.TIMESTAMP, integerRows);
+    }
+
+    @Test
+    public void testEmptyBucketInColumnarFormat() throws Exception {
+        StreamBucket bucket = streamed(Bucket.EMPTY, true);
+        assertThat(bucket.size(), is(0));
+        assertThat(bucket.iterator().hasNext(), is(false));
+    }
+}
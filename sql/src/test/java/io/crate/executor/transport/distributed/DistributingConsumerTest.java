@@ -40,6 +40,7 @@ import org.elasticsearch.common.logging.Loggers;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -105,6 +106,30 @@ public class DistributingConsumerTest extends CrateUnitTest {
         collectingConsumer.getResult();
     }
 
+    @Test
+    public void testPagesAreSentAheadUntilDownstreamHasNoCreditsLeft() throws Exception {
+        Streamer<?>[] streamers = { DataTypes.INTEGER.streamer() };
+        List<ActionListener<DistributedResultResponse>> listeners = new ArrayList<>();
+        TransportDistributedResultAction distributedResultAction = mock(TransportDistributedResultAction.class);
+        doAnswer((InvocationOnMock invocationOnMock) -> {
+            listeners.add((ActionListener<DistributedResultResponse>) invocationOnMock.getArguments()[2]);
+            return null;
+        }).when(distributedResultAction).pushResult(anyString(), any(), any());
+        DistributingConsumer distributingConsumer = createDistributingConsumer(streamers, distributedResultAction);
+
+        distributingConsumer.accept(TestingBatchIterators.range(0, 10), null);
+        // 2 pages are in flight without having received a response
+        verify(distributedResultAction, times(2)).pushResult(anyString(), any(), any());
+
+        listeners.get(0).onResponse(new DistributedResultResponse(true));
+        verify(distributedResultAction, times(3)).pushResult(anyString(), any(), any());
+
+        listeners.get(1).onResponse(new DistributedResultResponse(false));
+        listeners.get(2).onResponse(new DistributedResultResponse(false));
+        // downstream doesn't need more data
+        verify(distributedResultAction, times(3)).pushResult(anyString(), any(), any());
+    }
+
     private DistributingConsumer createDistributingConsumer(Streamer<?>[] streamers, TransportDistributedResultAction distributedResultAction) {
         return new DistributingConsumer(
                 logger,
@@ -116,7 +141,9 @@ public class DistributingConsumerTest extends CrateUnitTest {
                 Collections.singletonList("n1"),
                 distributedResultAction,
                 streamers,
-                2 // pageSize
+                2, // pageSize
+                2, // maxPagesInFlight
+                false
             );
     }
 
@@ -145,6 +172,7 @@ public class DistributingConsumerTest extends CrateUnitTest {
                 resultRequest.streamers(streamers);
                 pageDownstreamContext.setBucket(
                     resultRequest.bucketIdx(),
+                    resultRequest.pageIdx(),
                     resultRequest.rows(),
                     resultRequest.isLast(),
                     needMore -> listener.onResponse(new DistributedResultResponse(needMore)));
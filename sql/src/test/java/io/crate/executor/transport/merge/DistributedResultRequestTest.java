@@ -49,7 +49,7 @@ public class DistributedResultRequestTest extends CrateUnitTest {
         };
         UUID uuid = UUID.randomUUID();
 
-        DistributedResultRequest r1 = new DistributedResultRequest(uuid, 1, (byte) 3, 1, streamers, new ArrayBucket(rows), false);
+        DistributedResultRequest r1 = new DistributedResultRequest(uuid, 1, (byte) 3, 1, 4, streamers, new ArrayBucket(rows), false, false);
 
         BytesStreamOutput out = new BytesStreamOutput();
         r1.writeTo(out);
@@ -62,6 +62,26 @@ public class DistributedResultRequestTest extends CrateUnitTest {
         assertEquals(r1.rows().size(), r2.rows().size());
         assertThat(r1.isLast(), is(r2.isLast()));
         assertThat(r1.executionPhaseInputId(), is(r2.executionPhaseInputId()));
+        assertThat(r2.pageIdx(), is(4));
+
+        assertThat(r2.rows(), contains(isRow("ab"), isNullRow(), isRow("cd")));
+    }
+
+    @Test
+    public void testStreamingInColumnarFormat() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.STRING.streamer()};
+
+        Object[][] rows = new Object[][]{
+            {new BytesRef("ab")}, {null}, {new BytesRef("cd")}
+        };
+        DistributedResultRequest r1 = new DistributedResultRequest(
+            UUID.randomUUID(), 1, (byte) 3, 1, 0, streamers, new ArrayBucket(rows), true, true);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        r1.writeTo(out);
+        DistributedResultRequest r2 = new DistributedResultRequest();
+        r2.readFrom(out.bytes().streamInput());
+        r2.streamers(streamers);
 
         assertThat(r2.rows(), contains(isRow("ab"), isNullRow(), isRow("cd")));
     }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.executor.transport.task;
+
+import io.crate.executor.transport.ShardResponse;
+import io.crate.executor.transport.ShardUpsertRequest;
+import io.crate.jobs.JobContextService;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.TableIdent;
+import io.crate.operation.collect.stats.JobsLogs;
+import io.crate.planner.node.dml.UpsertById;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.types.DataTypes;
+import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
+import org.elasticsearch.action.admin.indices.create.TransportCreateIndexAction;
+import org.elasticsearch.action.bulk.BulkRequestExecutor;
+import org.elasticsearch.action.bulk.BulkRetryCoordinator;
+import org.elasticsearch.action.bulk.BulkRetryCoordinatorPool;
+import org.elasticsearch.action.bulk.BulkShardProcessor;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.routing.OperationRouting;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UpsertByIdTaskTest extends CrateDummyClusterServiceUnitTest {
+
+    private static final Reference ID_REF = new Reference(
+        new ReferenceIdent(new TableIdent(null, "t"), "id"), RowGranularity.DOC, DataTypes.INTEGER);
+
+    private UpsertByIdTask createTask(UpsertById upsertById,
+                                      BulkRequestExecutor<ShardUpsertRequest> shardUpsertExecutor) {
+        OperationRouting operationRouting = mock(OperationRouting.class);
+        ShardIterator shardIterator = mock(ShardIterator.class);
+        when(shardIterator.shardId()).thenReturn(new ShardId("t", UUIDs.randomBase64UUID(), 0));
+        when(operationRouting.indexShards(any(ClusterState.class), anyString(), anyString(), anyString()))
+            .thenReturn(shardIterator);
+        ClusterService routingClusterService = mock(ClusterService.class);
+        when(routingClusterService.operationRouting()).thenReturn(operationRouting);
+        when(routingClusterService.state()).thenReturn(clusterService.state());
+        when(routingClusterService.getClusterSettings()).thenReturn(clusterService.getClusterSettings());
+
+        BulkRetryCoordinatorPool coordinatorPool = mock(BulkRetryCoordinatorPool.class);
+        when(coordinatorPool.coordinator(any(ShardId.class)))
+            .thenReturn(new BulkRetryCoordinator(mock(ThreadPool.class)));
+
+        return new UpsertByIdTask(
+            upsertById,
+            routingClusterService,
+            new IndexNameExpressionResolver(Settings.EMPTY),
+            Settings.EMPTY,
+            shardUpsertExecutor,
+            mock(TransportCreateIndexAction.class),
+            mock(TransportBulkCreateIndicesAction.class),
+            coordinatorPool,
+            new JobContextService(Settings.EMPTY, clusterService, new JobsLogs(() -> true))
+        );
+    }
+
+    @Test
+    public void testShardRequestsAreSentWhileItemsAreAddedIfBulkSizeIsExceeded() throws Exception {
+        int numItems = BulkShardProcessor.DEFAULT_BULK_SIZE + 10;
+        List<Integer> bulkIndices = new ArrayList<>(numItems);
+        UpsertById upsertById = new UpsertById(
+            UUID.randomUUID(), 1, false, numItems, bulkIndices, null, new Reference[]{ID_REF});
+        for (int i = 0; i < numItems; i++) {
+            bulkIndices.add(i);
+            upsertById.add("t", String.valueOf(i), String.valueOf(i), null, null, new Object[]{i});
+        }
+
+        List<Integer> requestSizes = new ArrayList<>();
+        UpsertByIdTask task = createTask(upsertById, (request, listener) -> {
+            requestSizes.add(request.items().size());
+            ShardResponse response = new ShardResponse();
+            for (int i = 0; i < request.itemIndices().size(); i++) {
+                response.add(request.itemIndices().get(i));
+            }
+            listener.onResponse(response);
+        });
+        List<CompletableFuture<Long>> results = task.executeBulk();
+
+        // the first request is sent once the bulk size is reached, the remaining items on start
+        assertThat(requestSizes, contains(BulkShardProcessor.DEFAULT_BULK_SIZE, 10));
+        assertThat(results.size(), is(numItems));
+        for (CompletableFuture<Long> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), is(1L));
+        }
+    }
+}
@@ -1159,4 +1159,22 @@ public class GroupByAggregateTest extends SQLTransportIntegrationTest {
         assertEquals(2L, response.rowCount());
     }
 
+    @Test
+    public void testGroupByClusteredByColumnWithHavingOnShardWithManySegments() throws Exception {
+        execute("create table segments (id int, x int) clustered by (id) into 1 shards " +
+                "with (number_of_replicas = 0)");
+        ensureYellow();
+        // every refresh creates a new segment, each id is spread across all segments
+        for (int i = 0; i < 4; i++) {
+            execute("insert into segments (id, x) values (?, ?), (?, ?)", new Object[]{1, i, 2, i});
+            execute("refresh table segments");
+        }
+        execute("insert into segments (id, x) values (3, 0)");
+        execute("refresh table segments");
+
+        execute("select id, count(*), sum(x) from segments group by id having count(*) > 1 order by id");
+        assertThat(TestingHelpers.printedTable(response.rows()), is(
+            "1| 4| 6\n" +
+            "2| 4| 6\n"));
+    }
 }
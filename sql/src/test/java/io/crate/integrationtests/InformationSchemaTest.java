@@ -60,7 +60,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
     @Test
     public void testDefaultTables() throws Exception {
         execute("select * from information_schema.tables order by table_schema, table_name");
-        assertEquals(20L, response.rowCount());
+        assertEquals(23L, response.rowCount());
 
         assertThat(TestingHelpers.printedTable(response.rows()), is(
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| columns| information_schema| NULL\n" +
@@ -70,6 +70,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| table_constraints| information_schema| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| table_partitions| information_schema| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| tables| information_schema| NULL\n" +
+            "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| pg_stats| pg_catalog| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| pg_type| pg_catalog| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| checks| sys| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| cluster| sys| NULL\n" +
@@ -82,7 +83,9 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| repositories| sys| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| shards| sys| NULL\n" +
             "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| snapshots| sys| NULL\n" +
-            "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| summits| sys| NULL\n"));
+            "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| statement_stats| sys| NULL\n" +
+            "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| summits| sys| NULL\n" +
+            "NULL| NULL| strict| 0| 1| NULL| NULL| NULL| workload_classes| sys| NULL\n"));
     }
 
     @Test
@@ -118,13 +121,13 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
         serviceSetup();
 
         execute("select * from information_schema.tables");
-        assertEquals(23L, response.rowCount());
+        assertEquals(26L, response.rowCount());
 
         execute("create table t4 (col1 integer, col2 string) with (number_of_replicas=0)");
         ensureGreen("t4");
 
         execute("select * from information_schema.tables");
-        assertEquals(24L, response.rowCount());
+        assertEquals(27L, response.rowCount());
     }
 
     @Test
@@ -452,7 +455,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
     @Test
     public void testDefaultColumns() throws Exception {
         execute("select * from information_schema.columns order by table_schema, table_name");
-        assertEquals(387, response.rowCount());
+        assertEquals(437, response.rowCount());
     }
 
     @Test
@@ -541,7 +544,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
         execute("select max(ordinal_position) from information_schema.columns");
         assertEquals(1, response.rowCount());
 
-        short max_ordinal = 15;
+        short max_ordinal = 16;
         assertEquals(max_ordinal, response.rows()[0][0]);
 
         execute("create table t1 (id integer, col1 string)");
@@ -26,6 +26,7 @@ import io.crate.action.sql.SQLActionException;
 import io.crate.testing.SQLBulkResponse;
 import io.crate.testing.SQLResponse;
 import io.crate.testing.TestingHelpers;
+import org.elasticsearch.action.bulk.BulkShardProcessor;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.common.collect.MapBuilder;
 import org.hamcrest.core.IsNull;
@@ -803,6 +804,26 @@ public class InsertIntoIntegrationTest extends SQLTransportIntegrationTest {
         }
     }
 
+    @Test
+    public void testBulkInsertWithMoreRowsThanTheBulkSize() throws Exception {
+        execute("create table t (id int primary key, x int)");
+        ensureYellow();
+        int numRows = BulkShardProcessor.DEFAULT_BULK_SIZE + 10;
+        Object[][] bulkArgs = new Object[numRows][];
+        for (int i = 0; i < numRows; i++) {
+            bulkArgs[i] = new Object[]{i, i};
+        }
+        SQLBulkResponse bulkResponse = execute("insert into t (id, x) values (?, ?)", bulkArgs);
+        assertThat(bulkResponse.results().length, is(numRows));
+        for (SQLBulkResponse.Result result : bulkResponse.results()) {
+            assertThat(result.rowCount(), is(1L));
+        }
+
+        refresh();
+        execute("select count(*), sum(x) from t");
+        assertThat(TestingHelpers.printedTable(response.rows()), is(numRows + "| " + ((long) numRows * (numRows - 1) / 2) + "\n"));
+    }
+
     @Test
     public void testBulkInsertWithMultiValueFailing() throws Exception {
         execute("create table t (x int primary key)");
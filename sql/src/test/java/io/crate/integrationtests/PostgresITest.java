@@ -298,6 +298,45 @@ public class PostgresITest extends SQLTransportIntegrationTest {
         }
     }
 
+    @Test
+    public void testDeclareFetchAndCloseCursor() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_CRATE_URL, properties)) {
+            conn.createStatement().executeUpdate("create table t (x int) with (number_of_replicas = 0)");
+            ensureGreen();
+
+            PreparedStatement preparedStatement = conn.prepareStatement("insert into t (x) values (?)");
+            for (int i = 0; i < 10; i++) {
+                preparedStatement.setInt(1, i);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            conn.createStatement().executeUpdate("refresh table t");
+
+            try (Statement st = conn.createStatement()) {
+                st.execute("declare c cursor for select x from t order by x");
+                assertThat(fetchIntegers(st, "fetch 3 from c"), contains(0, 1, 2));
+                assertThat(fetchIntegers(st, "fetch next from c"), contains(3));
+                assertThat(fetchIntegers(st, "fetch all from c"), contains(4, 5, 6, 7, 8, 9));
+                assertThat(fetchIntegers(st, "fetch from c"), empty());
+                st.execute("close c");
+
+                expectedException.expect(PSQLException.class);
+                expectedException.expectMessage("Cursor \"c\" does not exist");
+                st.executeQuery("fetch from c");
+            }
+        }
+    }
+
+    private static List<Integer> fetchIntegers(Statement statement, String fetchStmt) throws SQLException {
+        List<Integer> result = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(fetchStmt)) {
+            while (resultSet.next()) {
+                result.add(resultSet.getInt(1));
+            }
+        }
+        return result;
+    }
+
     @Test
     public void testCloseConnectionWithUnfinishedResultSetDoesNotLeaveAnyPendingOperations() throws Exception {
         try (Connection conn = DriverManager.getConnection(JDBC_CRATE_URL, properties);
@@ -26,9 +26,16 @@ import org.apache.http.Header;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.util.EntityUtils;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.xcontent.XContentHelper;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.core.Is.is;
@@ -87,4 +94,29 @@ public class RestSQLActionIntegrationTest extends SQLHttpIntegrationTest {
         String bodyAsString = EntityUtils.toString(resp.getEntity());
         assertThat(bodyAsString, containsString("DivideFunction.java"));
     }
+
+    @Test
+    public void testStreamedResultSetContainsAllRows() throws Exception {
+        // more rows than fit into a single batch of the streamed execution
+        int numRows = 25_000;
+        String values = IntStream.range(0, numRows).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        CloseableHttpResponse response = postWithParams(
+            "{\"stmt\": \"select col1 from unnest([" + values + "]) order by col1\"}", "stream=true");
+        assertThat(response.getStatusLine().getStatusCode(), is(200));
+        assertThat(response.getFirstHeader("Transfer-Encoding").getValue(), is("chunked"));
+
+        Map<String, Object> result = XContentHelper.convertToMap(
+            new BytesArray(EntityUtils.toByteArray(response.getEntity())), false).v2();
+        List<?> rows = (List<?>) result.get("rows");
+        assertThat(rows.size(), is(numRows));
+        assertThat(rows.get(numRows - 1), is(Collections.singletonList(numRows - 1)));
+        assertThat(result.get("rowcount"), is(numRows));
+    }
+
+    @Test
+    public void testStreamedResultSetWithErrorBeforeFirstRowReturnsErrorResponse() throws Exception {
+        CloseableHttpResponse response = postWithParams("{\"stmt\": \"select * from unknown_table\"}", "stream=true");
+        assertThat(response.getStatusLine().getStatusCode(), is(404));
+        assertThat(EntityUtils.toString(response.getEntity()), containsString("TableUnknownException"));
+    }
 }
@@ -81,6 +81,13 @@ public abstract class SQLHttpIntegrationTest extends SQLTransportIntegrationTest
         return post(body, null);
     }
 
+    protected CloseableHttpResponse postWithParams(String body, String params) throws IOException {
+        HttpPost post = new HttpPost(String.format(Locale.ENGLISH, "http://%s:%s/_sql?error_trace&%s",
+            address.getHostName(), address.getPort(), params));
+        post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return httpClient.execute(post);
+    }
+
     protected String upload(String table, String content) throws IOException {
         String digest = blobDigest(content);
         String url = Blobs.url(address, table, digest);
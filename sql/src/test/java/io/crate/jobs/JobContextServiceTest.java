@@ -31,15 +31,20 @@ import org.junit.Test;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 public class JobContextServiceTest extends CrateDummyClusterServiceUnitTest {
 
@@ -101,6 +106,36 @@ public class JobContextServiceTest extends CrateDummyClusterServiceUnitTest {
         jobContextService.createContext(builder2);
     }
 
+    @Test
+    public void testProfilesOfFinishedContextAreReturnedOnce() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        JobExecutionContext.Builder builder = jobContextService.newBuilder(
+            jobId, "otherNode", Collections.emptyList(), true);
+        builder.addSubContext(new DummySubContext(1));
+        JobExecutionContext context = jobContextService.createContext(builder);
+        context.kill();
+
+        assertThat(jobContextService.profiles(jobId).get(5L, TimeUnit.SECONDS), not(empty()));
+        assertThat(jobContextService.profiles(jobId).get(5L, TimeUnit.SECONDS), empty());
+    }
+
+    @Test
+    public void testProfilesRequestedBeforeTheContextIsFinishedAreNotKept() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        JobExecutionContext.Builder builder = jobContextService.newBuilder(
+            jobId, "otherNode", Collections.emptyList(), true);
+        builder.addSubContext(new DummySubContext(1));
+        JobExecutionContext context = jobContextService.createContext(builder);
+
+        CompletableFuture<List<SubContextProfile>> profiles = jobContextService.profiles(jobId);
+        assertThat(profiles.isDone(), is(false));
+        context.kill();
+
+        assertThat(profiles.get(5L, TimeUnit.SECONDS), not(empty()));
+        // the profiles have been handed to the first request, they must not be kept until the next one
+        assertThat(jobContextService.profiles(jobId).get(5L, TimeUnit.SECONDS), empty());
+    }
+
     @Test
     public void testCreateCallWithEmptyBuilderThrowsAnError() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -40,9 +40,12 @@ import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.*;
 
@@ -81,6 +84,46 @@ public class JobExecutionContextTest extends CrateUnitTest {
         assertThat(ctx2.numKill.get(), is(1));
     }
 
+    @Test
+    public void testProfileIsRecordedForEverySubContextIfProfilingIsEnabled() throws Throwable {
+        JobExecutionContext.Builder builder = new JobExecutionContext.Builder(
+            UUID.randomUUID(), coordinatorNode, Collections.emptyList(), mock(JobsLogs.class), true);
+        DummySubContext ctx1 = new DummySubContext(1);
+        DummySubContext ctx2 = new DummySubContext(2);
+        builder.addSubContext(ctx1);
+        builder.addSubContext(ctx2);
+        JobExecutionContext jobExecutionContext = builder.build();
+        assertThat(jobExecutionContext.isProfiling(), is(true));
+
+        jobExecutionContext.start();
+        ctx1.close();
+        ctx2.kill(new IllegalStateException("dummy failure"));
+
+        List<SubContextProfile> profiles = jobExecutionContext.profiles();
+        assertThat(profiles.size(), is(2));
+        profiles.sort(Comparator.comparingInt(SubContextProfile::phaseId));
+        assertThat(profiles.get(0).name(), is("dummy 1"));
+        assertThat(profiles.get(0).toMap().containsKey("duration"), is(true));
+        assertThat(profiles.get(0).toMap().containsKey("error"), is(false));
+        assertThat(profiles.get(1).name(), is("dummy 2"));
+        assertThat(profiles.get(1).toMap().get("error"), is("dummy failure"));
+    }
+
+    @Test
+    public void testNoProfileIsRecordedIfProfilingIsDisabled() throws Throwable {
+        JobExecutionContext.Builder builder =
+            new JobExecutionContext.Builder(UUID.randomUUID(), coordinatorNode, Collections.emptyList(), mock(JobsLogs.class));
+        assertThat(builder.profiler(1, "dummy"), nullValue());
+        DummySubContext ctx = new DummySubContext(1);
+        builder.addSubContext(ctx);
+        JobExecutionContext jobExecutionContext = builder.build();
+        jobExecutionContext.start();
+        ctx.close();
+
+        assertThat(jobExecutionContext.isProfiling(), is(false));
+        assertThat(jobExecutionContext.profiles().isEmpty(), is(true));
+    }
+
     @Test
     public void testErrorMessageIsIncludedInStatsTableOnFailure() throws Exception {
         JobsLogs jobsLogs = mock(JobsLogs.class);
@@ -87,6 +87,27 @@ public class PageDownstreamContextTest extends CrateUnitTest {
         batchConsumer.getResult();
     }
 
+    @Test
+    public void testPagesReceivedAheadAreBufferedAndProcessedInOrder() throws Throwable {
+        TestingBatchConsumer batchConsumer = new TestingBatchConsumer();
+        PageDownstreamContext ctx = getPageDownstreamContext(batchConsumer, PassThroughPagingIterator.oneShot(), 1);
+
+        Bucket page0 = new ArrayBucket(new Object[][] { new Object[] { 1 } });
+        Bucket page1 = new ArrayBucket(new Object[][] { new Object[] { 2 } });
+        Bucket page2 = new ArrayBucket(new Object[][] { new Object[] { 3 } });
+        PageResultListener listener = mock(PageResultListener.class);
+        ctx.setBucket(0, 2, page2, true, listener);
+        ctx.setBucket(0, 1, page1, false, listener);
+        ctx.setBucket(0, 0, page0, false, listener);
+
+        List<Object[]> result = batchConsumer.getResult();
+        assertThat(TestingHelpers.printedTable(new CollectionBucket(result)),
+            is("1\n" +
+               "2\n" +
+               "3\n"));
+        verify(listener, times(2)).needMore(true);
+    }
+
     @Test
     public void testKillCallsDownstream() throws Throwable {
         TestingBatchConsumer batchConsumer = new TestingBatchConsumer();
@@ -0,0 +1,158 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.data.Input;
+import io.crate.metadata.Functions;
+import io.crate.metadata.Scalar;
+import io.crate.operation.aggregation.FunctionExpression;
+import io.crate.operation.collect.collectors.CollectorFieldsVisitor;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.reference.doc.lucene.CollectorContext;
+import io.crate.operation.reference.doc.lucene.LongColumnReference;
+import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.operation.vector.BatchInput;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingHelpers;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+
+public class GenericFunctionQueryTest extends CrateUnitTest {
+
+    private static final int NUM_DOCS = 3000;
+
+    private RAMDirectory directory;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void prepareIndex() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()));
+        for (int i = 0; i < NUM_DOCS; i++) {
+            Document doc = new Document();
+            doc.add(new SortedNumericDocValuesField("x", i));
+            if (i % 10 != 0) {
+                doc.add(new SortedNumericDocValuesField("y", y(i)));
+            }
+            doc.add(new StringField("even", i % 2 == 0 ? "t" : "f", Field.Store.NO));
+            doc.add(new StringField("first_half", i < NUM_DOCS / 2 ? "t" : "f", Field.Store.NO));
+            writer.addDocument(doc);
+        }
+        writer.forceMerge(1);
+        reader = DirectoryReader.open(writer);
+        searcher = new IndexSearcher(reader);
+        searcher.setQueryCache(null);
+    }
+
+    @After
+    public void closeIndex() throws Exception {
+        reader.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static long y(int i) {
+        return (i % 100) * 30L;
+    }
+
+    /**
+     * @return whether {@code x > y} matches the document {@code i}, a null y doesn't match
+     */
+    private static boolean xGtY(int i) {
+        return i % 10 != 0 && i > y(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GenericFunctionQuery xGtYQuery() {
+        Functions functions = TestingHelpers.getFunctions();
+        Scalar<Boolean, Object> gt = (Scalar<Boolean, Object>) functions.getBuiltin(
+            GtOperator.NAME, ImmutableList.of(DataTypes.LONG, DataTypes.LONG));
+        LongColumnReference x = new LongColumnReference("x");
+        LongColumnReference y = new LongColumnReference("y");
+        Input<Boolean> condition = new FunctionExpression<>(gt, new Input[] { x, y });
+        List<? extends LuceneCollectorExpression<?>> expressions = Arrays.asList(x, y);
+        Function function = new Function(gt.info(), Arrays.<Symbol>asList(
+            TestingHelpers.createReference("x", DataTypes.LONG),
+            TestingHelpers.createReference("y", DataTypes.LONG)));
+        assertThat(BatchInput.condition(condition, GenericFunctionQuery.BATCH_SIZE), notNullValue());
+        return new GenericFunctionQuery(
+            function,
+            expressions,
+            new CollectorContext(null, new CollectorFieldsVisitor(0)),
+            condition,
+            GenericFunctionQuery.DOC_VALUES_MATCH_COST);
+    }
+
+    private static int expectedCount(java.util.function.IntPredicate filter) {
+        int count = 0;
+        for (int i = 0; i < NUM_DOCS; i++) {
+            if (filter.test(i) && xGtY(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testConditionIsEvaluatedInBatchesIfUsedOnItsOwn() throws Exception {
+        assertThat(searcher.count(xGtYQuery()), is(expectedCount(i -> true)));
+    }
+
+    @Test
+    public void testConditionIsEvaluatedPerDocForSparseCandidates() throws Exception {
+        BooleanQuery query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("even", "t")), BooleanClause.Occur.FILTER)
+            .add(xGtYQuery(), BooleanClause.Occur.FILTER)
+            .build();
+        assertThat(searcher.count(query), is(expectedCount(i -> i % 2 == 0)));
+    }
+
+    @Test
+    public void testConditionIsEvaluatedInBatchesForDenseCandidates() throws Exception {
+        BooleanQuery query = new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("first_half", "t")), BooleanClause.Occur.FILTER)
+            .add(xGtYQuery(), BooleanClause.Occur.FILTER)
+            .build();
+        assertThat(searcher.count(query), is(expectedCount(i -> i < NUM_DOCS / 2)));
+    }
+}
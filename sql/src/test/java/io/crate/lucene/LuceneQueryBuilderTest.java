@@ -98,6 +98,7 @@ public class LuceneQueryBuilderTest extends CrateUnitTest {
             .add("name", DataTypes.STRING)
             .add("x", DataTypes.INTEGER, null, ColumnPolicy.DYNAMIC, Reference.IndexType.NOT_ANALYZED, false, false)
             .add("d", DataTypes.DOUBLE)
+            .add("ts", DataTypes.TIMESTAMP)
             .add("d_array", new ArrayType(DataTypes.DOUBLE))
             .add("y_array", new ArrayType(DataTypes.LONG))
             .add("shape", DataTypes.GEO_SHAPE)
@@ -126,6 +127,7 @@ public class LuceneQueryBuilderTest extends CrateUnitTest {
                     .startObject("name").field("type", "keyword").endObject()
                     .startObject("x").field("type", "integer").endObject()
                     .startObject("d").field("type", "double").endObject()
+                    .startObject("ts").field("type", "date").endObject()
                     .startObject("point").field("type", "geo_point").endObject()
                     .startObject("shape").field("type", "geo_shape").endObject()
                     .startObject("d_array")
@@ -513,4 +515,62 @@ public class LuceneQueryBuilderTest extends CrateUnitTest {
         expectedException.expectMessage("queryTerm must be a literal");
         convert("match(name, name)");
     }
+
+    @Test
+    public void testGenericFunctionQueryReadsDocValues() throws Exception {
+        Query query = convert("substr(name, 0, 1) = 'a'");
+        assertThat(query, instanceOf(GenericFunctionQuery.class));
+        assertThat(((GenericFunctionQuery) query).matchCost(), is(GenericFunctionQuery.DOC_VALUES_MATCH_COST));
+    }
+
+    @Test
+    public void testGenericFunctionQueryOnArrayUsesSourceLookup() throws Exception {
+        Query query = convert("d_array[1] = d");
+        assertThat(query, instanceOf(GenericFunctionQuery.class));
+        assertThat(((GenericFunctionQuery) query).matchCost(), is(GenericFunctionQuery.SOURCE_LOOKUP_MATCH_COST));
+    }
+
+    @Test
+    public void testAddWithConstantIsRewrittenToRangeQuery() throws Exception {
+        Query query = convert("x + 10 > 20");
+        assertThat(query.toString(), is("x:[11 TO 2147483647]"));
+    }
+
+    @Test
+    public void testConstantMinusColumnIsRewrittenToRangeQuery() throws Exception {
+        Query query = convert("100 - x <= 40");
+        assertThat(query.toString(), is("x:[60 TO 2147483647]"));
+    }
+
+    @Test
+    public void testMultiplyWithConstantIsRewrittenToRangeQuery() throws Exception {
+        Query query = convert("x * 4 = 10");
+        assertThat(query, instanceOf(MatchNoDocsQuery.class));
+
+        query = convert("x * 4 < 10");
+        assertThat(query.toString(), is("x:[-2147483648 TO 2]"));
+    }
+
+    @Test
+    public void testDateTruncIsRewrittenToRangeQuery() throws Exception {
+        // 2017-02-16T00:00:00Z
+        Query query = convert("date_trunc('day', ts) = 1487203200000");
+        assertThat(query.toString(), is("ts:[1487203200000 TO 1487289599999]"));
+
+        // 2017-02-16T10:00:00Z -> everything from 2017-02-17
+        query = convert("date_trunc('day', ts) > 1487239200000");
+        assertThat(query.toString(), is("ts:[1487289600000 TO 9223372036854775807]"));
+    }
+
+    @Test
+    public void testWideningCastIsRewrittenToRangeQuery() throws Exception {
+        Query query = convert("to_long(x) >= 5");
+        assertThat(query.toString(), is("x:[5 TO 2147483647]"));
+    }
+
+    @Test
+    public void testNonMonotonicFunctionIsNotRewritten() throws Exception {
+        Query query = convert("x % 3 = 1");
+        assertThat(query, instanceOf(GenericFunctionQuery.class));
+    }
 }
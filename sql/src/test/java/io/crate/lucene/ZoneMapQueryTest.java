@@ -0,0 +1,231 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Literal;
+import io.crate.metadata.*;
+import io.crate.operation.operator.AndOperator;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.reference.ReferenceResolver;
+import io.crate.operation.reference.doc.lucene.LongColumnReference;
+import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+
+public class ZoneMapQueryTest extends CrateUnitTest {
+
+    private static final TableIdent TABLE_IDENT = new TableIdent(null, "events");
+
+    private final SegmentStatsCache statsCache = new SegmentStatsCache();
+    private RAMDirectory directory;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void prepareIndex() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer())
+            .setMergePolicy(NoMergePolicy.INSTANCE));
+        // segment 1: ts is indexed as points and has doc values
+        for (long i = 1; i <= 100; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", "a" + i, Field.Store.NO));
+            doc.add(new LongPoint("ts", i));
+            doc.add(new SortedNumericDocValuesField("ts", i));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+        // segment 2
+        for (long i = 200; i <= 300; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", "b" + i, Field.Store.NO));
+            doc.add(new LongPoint("ts", i));
+            doc.add(new SortedNumericDocValuesField("ts", i));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+        // segment 3: ts_not_indexed only has doc values
+        for (long i = 500; i <= 600; i++) {
+            Document doc = new Document();
+            doc.add(new SortedNumericDocValuesField("ts_not_indexed", i));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+        openReader();
+    }
+
+    private void openReader() throws Exception {
+        reader = DirectoryReader.open(writer);
+        searcher = new IndexSearcher(reader);
+        searcher.setQueryCache(null);
+        assertThat(reader.leaves().size(), is(3));
+    }
+
+    @After
+    public void closeIndex() throws Exception {
+        reader.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static ZoneMapQuery.ColumnRange range(String column, Long lower, boolean includeLower, Long upper, boolean includeUpper) {
+        return new ZoneMapQuery.ColumnRange(
+            column, new LongColumnReference(column), false, lower, includeLower, upper, includeUpper);
+    }
+
+    private ZoneMapQuery zoneMapQuery(Query query, boolean rangesOnly, ZoneMapQuery.ColumnRange... ranges) {
+        return new ZoneMapQuery(query, Arrays.asList(ranges), rangesOnly, statsCache);
+    }
+
+    private List<Scorer> scorers(Query query) throws Exception {
+        Weight weight = searcher.createNormalizedWeight(query, false);
+        Scorer[] scorers = new Scorer[reader.leaves().size()];
+        for (LeafReaderContext leaf : reader.leaves()) {
+            scorers[leaf.ord] = weight.scorer(leaf);
+        }
+        return Arrays.asList(scorers);
+    }
+
+    @Test
+    public void testSegmentsOutsideOfTheRangeAreSkipped() throws Exception {
+        Query query = zoneMapQuery(
+            LongPoint.newRangeQuery("ts", 251L, Long.MAX_VALUE), false, range("ts", 250L, false, null, false));
+
+        List<Scorer> scorers = scorers(query);
+        assertThat(scorers.get(0), nullValue());
+        assertThat(scorers.get(1), notNullValue());
+        // the column doesn't exist in the last segment
+        assertThat(scorers.get(2), nullValue());
+
+        assertThat(searcher.count(query), is(50));
+        assertThat(((ZoneMapQuery) query).count(searcher), is(50));
+    }
+
+    @Test
+    public void testSegmentsWithinTheRangeAreMatchedCompletely() throws Exception {
+        Query rangeQuery = LongPoint.newRangeQuery("ts", 50L, 250L);
+        ZoneMapQuery query = zoneMapQuery(rangeQuery, true,
+            range("ts", 50L, true, null, false),
+            range("ts", null, false, 250L, true));
+
+        List<Scorer> scorers = scorers(query);
+        assertThat(scorers.get(0).getWeight().getQuery(), is(rangeQuery));
+        assertThat(scorers.get(1).getWeight().getQuery(), is(rangeQuery));
+        assertThat(scorers.get(2), nullValue());
+
+        query = zoneMapQuery(LongPoint.newRangeQuery("ts", 1L, 300L), true, range("ts", 1L, true, 300L, true));
+        scorers = scorers(query);
+        assertThat(scorers.get(0).getWeight().getQuery(), is(query));
+        assertThat(scorers.get(1).getWeight().getQuery(), is(query));
+        assertThat(query.count(searcher), is(201));
+    }
+
+    @Test
+    public void testSegmentsAreNotMatchedCompletelyIfTheQueryContainsOtherConditions() throws Exception {
+        Query termQuery = new TermQuery(new Term("id", "a1"));
+        ZoneMapQuery query = zoneMapQuery(termQuery, false, range("ts", 1L, true, 300L, true));
+
+        List<Scorer> scorers = scorers(query);
+        assertThat(scorers.get(0).getWeight().getQuery(), is(termQuery));
+        assertThat(query.count(searcher), is(1));
+    }
+
+    @Test
+    public void testNotIndexedColumnUsesDocValues() throws Exception {
+        ZoneMapQuery query = zoneMapQuery(
+            new MatchAllDocsQuery(), false, range("ts_not_indexed", 550L, false, null, false));
+
+        List<Scorer> scorers = scorers(query);
+        assertThat(scorers.get(0), nullValue());
+        assertThat(scorers.get(1), nullValue());
+        assertThat(scorers.get(2), notNullValue());
+
+        query = zoneMapQuery(new MatchAllDocsQuery(), false, range("ts_not_indexed", null, false, 500L, false));
+        assertThat(query.count(searcher), is(0));
+    }
+
+    @Test
+    public void testCountOfCompletelyMatchedSegmentExcludesDeletedDocuments() throws Exception {
+        writer.deleteDocuments(new Term("id", "a1"), new Term("id", "b200"));
+        reader.close();
+        openReader();
+
+        ZoneMapQuery query = zoneMapQuery(LongPoint.newRangeQuery("ts", 1L, 300L), true, range("ts", 1L, true, 300L, true));
+        assertThat(query.count(searcher), is(199));
+        assertThat(searcher.count(query), is(199));
+    }
+
+    @Test
+    public void testStatsAreRemovedWhenTheSegmentIsClosed() throws Exception {
+        try (DirectoryReader directoryReader = DirectoryReader.open(directory)) {
+            ZoneMapQuery query = zoneMapQuery(new MatchAllDocsQuery(), false, range("ts", 1L, true, null, false));
+            query.count(new IndexSearcher(directoryReader));
+            assertThat(statsCache.size(), is(3));
+        }
+        assertThat(statsCache.size(), is(0));
+    }
+
+    @Test
+    public void testWrapUsesComparisonsOfNumericColumnsWithLiterals() throws Exception {
+        Reference ts = new Reference(new ReferenceIdent(TABLE_IDENT, "ts"), RowGranularity.DOC, DataTypes.TIMESTAMP);
+        Reference name = new Reference(new ReferenceIdent(TABLE_IDENT, "name"), RowGranularity.DOC, DataTypes.STRING);
+        ReferenceResolver<LuceneCollectorExpression<?>> referenceResolver =
+            ref -> new LongColumnReference(ref.ident().columnIdent().fqn());
+        Query query = new MatchAllDocsQuery();
+
+        Function tsGt = new Function(
+            new FunctionInfo(new FunctionIdent(GtOperator.NAME, ImmutableList.of(DataTypes.TIMESTAMP, DataTypes.TIMESTAMP)), DataTypes.BOOLEAN),
+            Arrays.asList(ts, Literal.of(DataTypes.TIMESTAMP, 250L)));
+        Query wrapped = ZoneMapQuery.wrap(query, tsGt, referenceResolver, statsCache);
+        assertThat(wrapped, instanceOf(ZoneMapQuery.class));
+        assertThat(wrapped, is(zoneMapQuery(query, true, range("ts", 250L, false, null, false))));
+
+        Function nameGt = new Function(
+            new FunctionInfo(new FunctionIdent(GtOperator.NAME, ImmutableList.of(DataTypes.STRING, DataTypes.STRING)), DataTypes.BOOLEAN),
+            Arrays.asList(name, Literal.of("foo")));
+        assertThat(ZoneMapQuery.wrap(query, nameGt, referenceResolver, statsCache), sameInstance(query));
+
+        wrapped = ZoneMapQuery.wrap(query, AndOperator.of(nameGt, tsGt), referenceResolver, statsCache);
+        assertThat(wrapped, is(zoneMapQuery(query, false, range("ts", 250L, false, null, false))));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.doc;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.metadata.*;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+
+public class PartitionIndexTest extends CrateUnitTest {
+
+    private static final TableIdent TABLE_IDENT = new TableIdent(null, "parted");
+
+    private PartitionIndex index;
+
+    @Before
+    public void prepareIndex() throws Exception {
+        List<Reference> columns = ImmutableList.of(
+            new Reference(new ReferenceIdent(TABLE_IDENT, "day"), RowGranularity.PARTITION, DataTypes.LONG),
+            new Reference(new ReferenceIdent(TABLE_IDENT, "tenant"), RowGranularity.PARTITION, DataTypes.STRING)
+        );
+        List<PartitionName> partitions = ImmutableList.of(
+            partition("30", "b"),
+            partition("10", "a"),
+            partition(null, "c"),
+            partition("20", "a"),
+            partition("10", null),
+            partition("40", "b")
+        );
+        index = new PartitionIndex(columns, partitions);
+    }
+
+    private static PartitionName partition(String day, String tenant) {
+        List<BytesRef> values = new ArrayList<>(2);
+        values.add(day == null ? null : new BytesRef(day));
+        values.add(tenant == null ? null : new BytesRef(tenant));
+        return new PartitionName(TABLE_IDENT, values);
+    }
+
+    private static BitSet positions(int... positions) {
+        BitSet bitSet = new BitSet();
+        for (int position : positions) {
+            bitSet.set(position);
+        }
+        return bitSet;
+    }
+
+    @Test
+    public void testColumnIndex() throws Exception {
+        assertThat(index.columnIndex(new ColumnIdent("day")), is(0));
+        assertThat(index.columnIndex(new ColumnIdent("tenant")), is(1));
+        assertThat(index.columnIndex(new ColumnIdent("x")), is(-1));
+        assertThat(index.columnType(0), is(DataTypes.LONG));
+    }
+
+    @Test
+    public void testMatchEq() throws Exception {
+        assertThat(index.matchEq(0, 10L), is(positions(1, 4)));
+        assertThat(index.matchEq(0, 40L), is(positions(5)));
+        assertThat(index.matchEq(0, 15L), is(positions()));
+        assertThat(index.matchEq(1, new BytesRef("a")), is(positions(1, 3)));
+        assertThat(index.matchEq(1, new BytesRef("d")), is(positions()));
+    }
+
+    @Test
+    public void testMatchRange() throws Exception {
+        assertThat(index.matchRange(0, 10L, false, null, false), is(positions(0, 3, 5)));
+        assertThat(index.matchRange(0, 10L, true, null, false), is(positions(0, 1, 3, 4, 5)));
+        assertThat(index.matchRange(0, null, false, 30L, false), is(positions(1, 3, 4)));
+        assertThat(index.matchRange(0, null, false, 30L, true), is(positions(0, 1, 3, 4)));
+        assertThat(index.matchRange(0, 15L, true, 35L, true), is(positions(0, 3)));
+        assertThat(index.matchRange(0, 30L, false, 20L, false), is(positions()));
+        assertThat(index.matchRange(0, 50L, false, null, false), is(positions()));
+        assertThat(index.matchRange(1, new BytesRef("b"), true, null, false), is(positions(0, 2, 5)));
+    }
+
+    @Test
+    public void testIndexWithoutPartitions() throws Exception {
+        PartitionIndex emptyIndex = new PartitionIndex(
+            Arrays.asList(new Reference(new ReferenceIdent(TABLE_IDENT, "day"), RowGranularity.PARTITION, DataTypes.LONG)),
+            ImmutableList.of());
+        assertThat(emptyIndex.matchEq(0, 10L).isEmpty(), is(true));
+        assertThat(emptyIndex.matchRange(0, 10L, true, null, false).isEmpty(), is(true));
+    }
+}
@@ -23,9 +23,12 @@ package io.crate.operation.collect;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import io.crate.action.job.SharedShardContexts;
+import io.crate.analyze.symbol.Literal;
 import io.crate.breaker.RamAccountingContext;
 import io.crate.metadata.Routing;
 import io.crate.metadata.RowGranularity;
+import io.crate.operation.collect.files.StdinFileInputFactory;
+import io.crate.planner.node.dql.FileUriCollectPhase;
 import io.crate.planner.node.dql.RoutedCollectPhase;
 import io.crate.testing.TestingBatchConsumer;
 import org.elasticsearch.index.engine.Engine;
@@ -34,6 +37,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.UUID;
+
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
@@ -161,4 +166,15 @@ public class JobCollectContextTest extends RandomizedTest {
         threadPoolExecutorName = JobCollectContext.threadPoolName(collectPhase);
         assertThat(threadPoolExecutorName, is(ThreadPool.Names.SEARCH));
     }
+
+    @Test
+    public void testThreadPoolNameForFileUriCollectPhases() throws Exception {
+        FileUriCollectPhase stdinPhase = Mockito.mock(FileUriCollectPhase.class);
+        when(stdinPhase.targetUri()).thenReturn(Literal.of(StdinFileInputFactory.uri(UUID.randomUUID())));
+        assertThat(JobCollectContext.threadPoolName(stdinPhase), is(ThreadPool.Names.GENERIC));
+
+        FileUriCollectPhase filePhase = Mockito.mock(FileUriCollectPhase.class);
+        when(filePhase.targetUri()).thenReturn(Literal.of("file:///tmp/data.json"));
+        assertThat(JobCollectContext.threadPoolName(filePhase), is(ThreadPool.Names.SEARCH));
+    }
 }
@@ -27,12 +27,15 @@ import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LongColumnReference;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.TestingBatchConsumer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.RAMDirectory;
@@ -45,6 +48,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 
 public class LuceneBatchIteratorTest extends CrateUnitTest {
@@ -91,4 +96,46 @@ public class LuceneBatchIteratorTest extends CrateUnitTest {
         );
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
+
+    @Test
+    public void testSlicesOfSegmentsContainAllDocuments() throws Exception {
+        IndexWriter iw = new IndexWriter(new RAMDirectory(),
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+        for (long i = 0; i < 20; i++) {
+            Document doc = new Document();
+            doc.add(new NumericDocValuesField("x", i));
+            iw.addDocument(doc);
+            if (i % 4 == 3) {
+                iw.commit();
+            }
+        }
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+        List<LeafReaderContext> leaves = searcher.getTopReaderContext().leaves();
+        assertThat(leaves.size(), is(5));
+
+        List<List<LeafReaderContext>> slices = LeafSlices.slice(leaves, 3);
+        assertThat(slices.size(), is(3));
+
+        List<Object[]> result = new ArrayList<>();
+        for (List<LeafReaderContext> slice : slices) {
+            List<LongColumnReference> refs = Collections.singletonList(new LongColumnReference("x"));
+            TestingBatchConsumer consumer = new TestingBatchConsumer();
+            consumer.accept(new LuceneBatchIterator(
+                searcher,
+                slice,
+                new MatchAllDocsQuery(),
+                null,
+                false,
+                new CollectorContext(
+                    mock(IndexFieldDataService.class),
+                    new CollectorFieldsVisitor(0)
+                ),
+                new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy")),
+                refs,
+                refs
+            ), null);
+            result.addAll(consumer.getResult());
+        }
+        assertThat(result, containsInAnyOrder(expectedResult.toArray()));
+    }
 }
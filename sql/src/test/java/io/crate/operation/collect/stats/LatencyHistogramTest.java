@@ -0,0 +1,79 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest extends CrateUnitTest {
+
+    @Test
+    public void testEmptyHistogramReturnsZero() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.valueAtPercentile(50.0), is(0L));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.valueAtPercentile(50.0), is(10L));
+        assertThat(histogram.valueAtPercentile(100.0), is(20L));
+    }
+
+    @Test
+    public void testBucketBoundariesAreWithinRelativeError() throws Exception {
+        for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 1) {
+            long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+            assertThat(highest, greaterThanOrEqualTo(value));
+            assertThat((double) (highest - value), lessThanOrEqualTo(value / 16.0));
+        }
+    }
+
+    @Test
+    public void testPercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000L);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000_000L);
+        }
+        assertThat(histogram.valueAtPercentile(50.0), allOf(greaterThanOrEqualTo(1_000L), lessThan(1_070L)));
+        assertThat(histogram.valueAtPercentile(99.0), allOf(greaterThanOrEqualTo(1_000L), lessThan(1_070L)));
+        assertThat(histogram.valueAtPercentile(99.9), allOf(greaterThanOrEqualTo(1_000_000L), lessThan(1_070_000L)));
+    }
+
+    @Test
+    public void testValuesAboveMaxAreClamped() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5L);
+        assertThat(histogram.valueAtPercentile(100.0), is(LatencyHistogram.MAX_VALUE));
+        assertThat(histogram.valueAtPercentile(10.0), is(0L));
+    }
+}
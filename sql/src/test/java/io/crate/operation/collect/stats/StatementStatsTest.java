@@ -0,0 +1,109 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import com.google.common.collect.Iterables;
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+
+public class StatementStatsTest extends CrateUnitTest {
+
+    @Test
+    public void testStatementsWithDifferentLiteralsShareAnEntry() throws Exception {
+        StatementStats stats = new StatementStats(10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        stats.onStart(first, "select * from t where x = 1");
+        stats.onStart(second, "SELECT * FROM t WHERE x = 'foo'");
+        stats.onEnd(first, false, 3L);
+        stats.onEnd(second, true, 0L);
+
+        StatementStatsEntry entry = Iterables.getOnlyElement(stats.entries());
+        assertThat(entry.fingerprint(), is("SELECT * FROM t WHERE x = ?"));
+        assertThat(entry.calls(), is(2L));
+        assertThat(entry.errors(), is(1L));
+        assertThat(entry.rows(), is(3L));
+        assertThat(entry.lastExecuted(), greaterThan(0L));
+        assertThat(entry.maxDuration(), greaterThanOrEqualTo(entry.meanDuration()));
+    }
+
+    @Test
+    public void testPreExecutionFailureCountsAsCallWithoutDuration() throws Exception {
+        StatementStats stats = new StatementStats(10);
+        stats.onPreExecutionFailure("select * from unknown");
+
+        StatementStatsEntry entry = Iterables.getOnlyElement(stats.entries());
+        assertThat(entry.calls(), is(1L));
+        assertThat(entry.errors(), is(1L));
+        assertThat(entry.totalDuration(), is(0.0));
+        assertThat(entry.meanDuration(), is(0.0));
+    }
+
+    @Test
+    public void testLeastRecentlyExecutedEntryIsEvicted() throws Exception {
+        StatementStats stats = new StatementStats(2);
+        execute(stats, "select 1");
+        execute(stats, "select 1");
+        execute(stats, "select x from t");
+        execute(stats, "select 2");
+        execute(stats, "delete from t");
+
+        assertThat(Iterables.size(stats.entries()), is(2));
+        assertThat(fingerprints(stats), containsInAnyOrder("SELECT ?", "DELETE FROM t"));
+
+        // a new statement isn't evicted by the next new statement, even though it has fewer calls
+        execute(stats, "select y from t");
+        execute(stats, "select z from t");
+        assertThat(fingerprints(stats), containsInAnyOrder("SELECT y FROM t", "SELECT z FROM t"));
+    }
+
+    @Test
+    public void testShrinkingAndDisabling() throws Exception {
+        StatementStats stats = new StatementStats(10);
+        execute(stats, "select 1");
+        execute(stats, "select 1");
+        execute(stats, "select x from t");
+
+        stats.setMaxEntries(1);
+        assertThat(Iterables.size(stats.entries()), is(1));
+
+        stats.setMaxEntries(0);
+        assertThat(Iterables.size(stats.entries()), is(0));
+        execute(stats, "select 1");
+        assertThat(Iterables.size(stats.entries()), is(0));
+    }
+
+    private static void execute(StatementStats stats, String statement) {
+        UUID jobId = UUID.randomUUID();
+        stats.onStart(jobId, statement);
+        stats.onEnd(jobId, false, 1L);
+    }
+
+    private static Iterable<String> fingerprints(StatementStats stats) {
+        return Iterables.transform(stats.entries(), StatementStatsEntry::fingerprint);
+    }
+}
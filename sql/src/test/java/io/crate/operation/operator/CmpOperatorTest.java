@@ -2,10 +2,16 @@ package io.crate.operation.operator;
 
 import io.crate.analyze.symbol.Literal;
 import io.crate.operation.scalar.AbstractScalarFunctionsTest;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.NumericVector;
+import io.crate.types.DataTypes;
 import org.junit.Test;
 
 import static io.crate.testing.SymbolMatchers.isFunction;
 import static io.crate.testing.SymbolMatchers.isLiteral;
+import static org.hamcrest.Matchers.is;
 
 public class CmpOperatorTest extends AbstractScalarFunctionsTest {
 
@@ -70,4 +76,62 @@ public class CmpOperatorTest extends AbstractScalarFunctionsTest {
         assertEvaluate("null between null and 10", null);
         assertEvaluate("null between null and null", null);
     }
+
+    @Test
+    public void testEvaluateBatchOnIntegralValues() {
+        CmpOperator gt = getFunction(GtOperator.NAME, DataTypes.LONG, DataTypes.LONG);
+        assertThat(gt.supportsBatchEvaluate(), is(true));
+
+        LongVector left = new LongVector(4);
+        left.reset(4);
+        left.set(0, 1L);
+        left.set(1, 2L);
+        left.set(2, 3L);
+        left.setNull(3);
+        LongVector right = new LongVector(4);
+        right.reset(4);
+        for (int i = 0; i < 4; i++) {
+            right.set(i, 2L);
+        }
+        BooleanVector result = new BooleanVector(4);
+        gt.evaluateBatch(new NumericVector[] { left, right }, result);
+        assertThat(toArray(result), is(new Boolean[] { false, false, true, null }));
+    }
+
+    @Test
+    public void testEvaluateBatchOnFloatingPointValues() {
+        CmpOperator lte = getFunction(LteOperator.NAME, DataTypes.DOUBLE, DataTypes.DOUBLE);
+        assertThat(lte.supportsBatchEvaluate(), is(true));
+
+        DoubleVector left = new DoubleVector(4);
+        left.reset(4);
+        left.set(0, 0.1);
+        left.set(1, Double.NaN);
+        left.set(2, -0.0);
+        left.set(3, 2.0);
+        DoubleVector right = new DoubleVector(4);
+        right.reset(4);
+        right.set(0, 0.2);
+        right.set(1, 1.0);
+        right.set(2, 0.0);
+        right.setNull(3);
+        BooleanVector result = new BooleanVector(4);
+        lte.evaluateBatch(new NumericVector[] { left, right }, result);
+        // same results as the row based evaluation, which uses Double.compareTo
+        assertThat(toArray(result), is(new Boolean[] { true, false, true, null }));
+    }
+
+    @Test
+    public void testBatchEvaluateIsOnlySupportedForNumericArguments() {
+        CmpOperator gt = getFunction(GtOperator.NAME, DataTypes.STRING, DataTypes.STRING);
+        assertThat(gt.supportsBatchEvaluate(), is(false));
+    }
+
+    private static Boolean[] toArray(BooleanVector vector) {
+        Boolean[] values = new Boolean[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.isNull(i) ? null : vector.get(i);
+        }
+        return values;
+    }
 }
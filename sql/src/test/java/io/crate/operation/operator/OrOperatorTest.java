@@ -1,9 +1,13 @@
 package io.crate.operation.operator;
 
 import io.crate.operation.scalar.AbstractScalarFunctionsTest;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.NumericVector;
+import io.crate.types.DataTypes;
 import org.junit.Test;
 
 import static io.crate.testing.SymbolMatchers.*;
+import static org.hamcrest.Matchers.is;
 
 public class OrOperatorTest extends AbstractScalarFunctionsTest {
 
@@ -30,4 +34,37 @@ public class OrOperatorTest extends AbstractScalarFunctionsTest {
         assertEvaluate("null or false", null);
         assertEvaluate("null or null", null);
     }
+
+    @Test
+    public void testEvaluateBatch() throws Exception {
+        OrOperator op = getFunction(OrOperator.NAME, DataTypes.BOOLEAN, DataTypes.BOOLEAN);
+        assertThat(op.supportsBatchEvaluate(), is(true));
+
+        BooleanVector left = booleans(true, true, true, false, false, false, null, null, null);
+        BooleanVector right = booleans(true, false, null, true, false, null, true, false, null);
+        BooleanVector result = new BooleanVector(9);
+        op.evaluateBatch(new NumericVector[] { left, right }, result);
+        assertThat(toArray(result), is(new Boolean[] { true, true, true, true, false, null, true, null, null }));
+    }
+
+    private static BooleanVector booleans(Boolean... values) {
+        BooleanVector vector = new BooleanVector(values.length);
+        vector.reset(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                vector.setNull(i);
+            } else {
+                vector.set(i, values[i]);
+            }
+        }
+        return vector;
+    }
+
+    private static Boolean[] toArray(BooleanVector vector) {
+        Boolean[] values = new Boolean[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.isNull(i) ? null : vector.get(i);
+        }
+        return values;
+    }
 }
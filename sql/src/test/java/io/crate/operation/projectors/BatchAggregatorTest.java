@@ -0,0 +1,300 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.analyze.symbol.Literal;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchIterator;
+import io.crate.data.CollectionBucket;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowsBatchIterator;
+import io.crate.metadata.Functions;
+import io.crate.metadata.Scalar;
+import io.crate.operation.AggregationContext;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.aggregation.FunctionExpression;
+import io.crate.operation.aggregation.impl.ArbitraryAggregation;
+import io.crate.operation.aggregation.impl.AverageAggregation;
+import io.crate.operation.aggregation.impl.CountAggregation;
+import io.crate.operation.aggregation.impl.MaximumAggregation;
+import io.crate.operation.aggregation.impl.MinimumAggregation;
+import io.crate.operation.aggregation.impl.SumAggregation;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.collect.InputCollectExpression;
+import io.crate.operation.collect.collectors.CollectorFieldsVisitor;
+import io.crate.operation.collect.collectors.CrateDocCollectorBuilder;
+import io.crate.operation.reference.doc.lucene.CollectorContext;
+import io.crate.operation.reference.doc.lucene.LongColumnReference;
+import io.crate.operation.scalar.arithmetic.AddFunction;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.index.fielddata.IndexFieldDataService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+public class BatchAggregatorTest extends CrateUnitTest {
+
+    private static final RamAccountingContext RAM_ACCOUNTING_CONTEXT =
+        new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+
+    private static final int NUM_DOCS = 3000;
+
+    private Functions functions;
+    private IndexSearcher searcher;
+
+    @Before
+    public void prepareSearcher() throws Exception {
+        functions = getFunctions();
+        IndexWriter iw = new IndexWriter(new RAMDirectory(),
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+        for (long i = 0; i < NUM_DOCS; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            // every 10th document has no value for x
+            if (i % 10 != 0) {
+                doc.add(new NumericDocValuesField("x", i));
+            }
+            iw.addDocument(doc);
+            if (i % 1000 == 999) {
+                iw.commit();
+            }
+        }
+        iw.deleteDocuments(new Term("id", "5"));
+        iw.commit();
+        searcher = new IndexSearcher(DirectoryReader.open(iw));
+    }
+
+    private BatchIterator luceneBatchIterator(LongColumnReference column) {
+        return luceneBatchIterator(searcher, column, column);
+    }
+
+    private static BatchIterator luceneBatchIterator(IndexSearcher searcher, Input<?> input, LongColumnReference column) {
+        AtomicReference<BatchIterator> batchIterator = new AtomicReference<>();
+        CrateDocCollectorBuilder builder = new CrateDocCollectorBuilder(
+            searcher,
+            searcher.getTopReaderContext().leaves(),
+            new MatchAllDocsQuery(),
+            null,
+            false,
+            new CollectorContext(mock(IndexFieldDataService.class), new CollectorFieldsVisitor(0)),
+            RAM_ACCOUNTING_CONTEXT,
+            Collections.singletonList(input),
+            Collections.singletonList(column)
+        );
+        builder.build((it, failure) -> batchIterator.set(it)).doCollect();
+        return batchIterator.get();
+    }
+
+    private AggregationContext[] minMaxAndCounts(InputCollectExpression input) {
+        List<DataType> longArg = Collections.singletonList(DataTypes.LONG);
+        return new AggregationContext[] {
+            aggregation(MinimumAggregation.NAME, longArg, input),
+            aggregation(MaximumAggregation.NAME, longArg, input),
+            aggregation(CountAggregation.NAME, longArg, input),
+            aggregation(CountAggregation.NAME, Collections.emptyList())
+        };
+    }
+
+    private AggregationContext aggregation(String name, List<DataType> argumentTypes, Input<?>... inputs) {
+        AggregationContext aggregation = new AggregationContext(
+            (AggregationFunction) functions.getBuiltin(name, argumentTypes));
+        for (Input<?> input : inputs) {
+            aggregation.addInput(input);
+        }
+        return aggregation;
+    }
+
+    private static Object[] aggregate(BatchIterator source,
+                                      List<CollectExpression<Row, ?>> expressions,
+                                      AggregationContext... aggregations) throws Exception {
+        AggregationPipe pipe = new AggregationPipe(
+            expressions,
+            AggregateMode.ITER_FINAL,
+            aggregations,
+            RAM_ACCOUNTING_CONTEXT
+        );
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(pipe.apply(source), null);
+        List<Object[]> result = consumer.getResult();
+        assertThat(result.size(), is(1));
+        return result.get(0);
+    }
+
+    @Test
+    public void testAggregateDocValuesInBatches() throws Exception {
+        InputCollectExpression x = new InputCollectExpression(0);
+        List<DataType> longArg = Collections.singletonList(DataTypes.LONG);
+        AggregationContext[] aggregations = new AggregationContext[] {
+            aggregation(SumAggregation.NAME, longArg, x),
+            aggregation(AverageAggregation.NAME, longArg, x),
+            aggregation(CountAggregation.NAME, longArg, x),
+            aggregation(CountAggregation.NAME, Collections.emptyList()),
+            aggregation(MinimumAggregation.NAME, longArg, x),
+            aggregation(MaximumAggregation.NAME, longArg, x)
+        };
+        BatchIterator source = luceneBatchIterator(new LongColumnReference("x"));
+        AggregationFunction[] functions = new AggregationFunction[aggregations.length];
+        Input[][] inputs = new Input[aggregations.length][];
+        for (int i = 0; i < aggregations.length; i++) {
+            functions[i] = aggregations[i].function();
+            inputs[i] = aggregations[i].inputs();
+        }
+        assertThat(BatchAggregator.tryCreate(
+            source, AggregateMode.ITER_FINAL, functions, inputs, RAM_ACCOUNTING_CONTEXT), notNullValue());
+
+        Object[] result = aggregate(source, Collections.singletonList(x), aggregations);
+
+        // 0 + 1 + .. + 2999, without the multiples of 10 (missing values) and 5 (deleted)
+        double expectedSum = 4_498_500 - 448_500 - 5;
+        long expectedCount = NUM_DOCS - NUM_DOCS / 10 - 1;
+        assertThat(result, is(new Object[] {
+            expectedSum,
+            expectedSum / expectedCount,
+            expectedCount,
+            (long) NUM_DOCS - 1,
+            1L,
+            2999L
+        }));
+    }
+
+    @Test
+    public void testAggregateScalarInputInBatches() throws Exception {
+        List<DataType> argumentTypes = Arrays.asList(DataTypes.LONG, DataTypes.LONG);
+        @SuppressWarnings("unchecked")
+        Scalar<Number, Number> add = (Scalar<Number, Number>) functions.getBuiltin(AddFunction.NAME, argumentTypes);
+        LongColumnReference column = new LongColumnReference("x");
+        FunctionExpression<Number, Number> xPlusOne = new FunctionExpression<>(
+            add, new Input[] { column, Literal.of(1L) });
+
+        InputCollectExpression input = new InputCollectExpression(0);
+        Object[] result = aggregate(
+            luceneBatchIterator(searcher, xPlusOne, column),
+            Collections.singletonList(input),
+            aggregation(SumAggregation.NAME, Collections.singletonList(DataTypes.LONG), input)
+        );
+        long expectedCount = NUM_DOCS - NUM_DOCS / 10 - 1;
+        assertThat(result, is(new Object[] { 4_498_500d - 448_500 - 5 + expectedCount }));
+    }
+
+    @Test
+    public void testBatchAggregationIsNotUsedForUnsupportedAggregations() throws Exception {
+        InputCollectExpression x = new InputCollectExpression(0);
+        AggregationContext arbitrary = aggregation(
+            ArbitraryAggregation.NAME, Collections.singletonList(DataTypes.LONG), x);
+
+        BatchIterator source = luceneBatchIterator(new LongColumnReference("x"));
+        assertThat(BatchAggregator.tryCreate(
+            source,
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { arbitrary.function() },
+            new Input[][] { arbitrary.inputs() },
+            RAM_ACCOUNTING_CONTEXT), nullValue());
+
+        Object[] result = aggregate(source, Collections.singletonList(x), arbitrary);
+        assertThat(result[0], notNullValue());
+    }
+
+    @Test
+    public void testBatchAggregationIsOnlyUsedForLuceneBatchIterators() throws Exception {
+        InputCollectExpression x = new InputCollectExpression(0);
+        AggregationContext sum = aggregation(SumAggregation.NAME, Collections.singletonList(DataTypes.LONG), x);
+        BatchIterator source = RowsBatchIterator.newInstance(
+            new CollectionBucket(Arrays.asList(new Object[] { 1L }, new Object[] { 2L })), 1);
+
+        assertThat(BatchAggregator.tryCreate(
+            source,
+            AggregateMode.ITER_FINAL,
+            new AggregationFunction[] { sum.function() },
+            new Input[][] { sum.inputs() },
+            RAM_ACCOUNTING_CONTEXT), nullValue());
+        assertThat(aggregate(source, Collections.singletonList(x), sum), is(new Object[] { 3.0d }));
+    }
+
+    @Test
+    public void testSegmentsWithoutDeletionsAreAggregatedUsingPointValues() throws Exception {
+        IndexWriter iw = new IndexWriter(new RAMDirectory(),
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+        for (long i = 1; i <= 100; i++) {
+            iw.addDocument(tsDocument(i));
+        }
+        iw.addDocument(new Document());
+        // a value which is only indexed as point, to be able to tell if the points or the doc values were used
+        Document pointOnly = new Document();
+        pointOnly.add(new LongPoint("ts", 1000L));
+        iw.addDocument(pointOnly);
+        iw.commit();
+
+        for (long i = 200; i <= 300; i++) {
+            iw.addDocument(tsDocument(i));
+        }
+        iw.commit();
+        // the points of the second segment still contain the deleted value, so it must be aggregated by doc values
+        iw.deleteDocuments(new Term("id", "300"));
+        iw.commit();
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+
+        InputCollectExpression ts = new InputCollectExpression(0);
+        LongColumnReference column = new LongColumnReference("ts");
+        Object[] result = aggregate(
+            luceneBatchIterator(searcher, column, column), Collections.singletonList(ts), minMaxAndCounts(ts));
+        assertThat(result, is(new Object[] { 1L, 1000L, 201L, 202L }));
+    }
+
+    private static Document tsDocument(long value) {
+        Document doc = new Document();
+        doc.add(new StringField("id", String.valueOf(value), Field.Store.NO));
+        doc.add(new LongPoint("ts", value));
+        doc.add(new NumericDocValuesField("ts", value));
+        return doc;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.google.common.collect.Iterators;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.*;
+import io.crate.operation.AggregationContext;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.aggregation.impl.CountAggregation;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.collect.InputCollectExpression;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.Test;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+public class GroupingProjectorTest extends CrateUnitTest {
+
+    private static final RamAccountingContext RAM_ACCOUNTING_CONTEXT =
+        new RamAccountingContext("dummy", new NoopCircuitBreaker(CircuitBreaker.FIELDDATA));
+
+    private static List<Object[]> groupAndCount(List<? extends DataType> keyTypes, Object[]... rows) throws Exception {
+        return groupAndCount(RAM_ACCOUNTING_CONTEXT, keyTypes, Arrays.asList(rows));
+    }
+
+    private static List<Object[]> groupAndCount(RamAccountingContext ramAccountingContext,
+                                                List<? extends DataType> keyTypes,
+                                                Collection<Object[]> rows) throws Exception {
+        InputCollectExpression[] keyInputs = new InputCollectExpression[keyTypes.size()];
+        for (int i = 0; i < keyInputs.length; i++) {
+            keyInputs[i] = new InputCollectExpression(i);
+        }
+        AggregationFunction countStar = (AggregationFunction) getFunctions().getBuiltin(
+            CountAggregation.NAME, Collections.emptyList());
+        GroupingProjector projector = new GroupingProjector(
+            keyTypes,
+            Arrays.<Input<?>>asList(keyInputs),
+            keyInputs,
+            AggregateMode.ITER_FINAL,
+            new AggregationContext[] { new AggregationContext(countStar) },
+            ramAccountingContext
+        );
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(projector.apply(RowsBatchIterator.newInstance(new CollectionBucket(rows), keyTypes.size())), null);
+        return consumer.getResult();
+    }
+
+    @Test
+    public void testGroupBySingleIntegerKey() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Collections.singletonList(DataTypes.INTEGER),
+            new Object[] { 1 },
+            new Object[] { 2 },
+            new Object[] { null },
+            new Object[] { 1 },
+            new Object[] { null },
+            new Object[] { 1 }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { 1, 3L },
+            new Object[] { 2, 1L },
+            new Object[] { null, 2L }
+        ));
+    }
+
+    @Test
+    public void testGroupBySingleLongKeyWithNegativeValues() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Collections.singletonList(DataTypes.LONG),
+            new Object[] { -1L },
+            new Object[] { Long.MIN_VALUE },
+            new Object[] { -1L },
+            new Object[] { 0L }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { -1L, 2L },
+            new Object[] { Long.MIN_VALUE, 1L },
+            new Object[] { 0L, 1L }
+        ));
+    }
+
+    @Test
+    public void testGroupBySingleDoubleKey() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Collections.singletonList(DataTypes.DOUBLE),
+            new Object[] { 1.5 },
+            new Object[] { -0.0 },
+            new Object[] { 0.0 },
+            new Object[] { Double.NaN },
+            new Object[] { 1.5 },
+            new Object[] { Double.NaN },
+            new Object[] { null }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { 1.5, 2L },
+            new Object[] { -0.0, 1L },
+            new Object[] { 0.0, 1L },
+            new Object[] { Double.NaN, 2L },
+            new Object[] { null, 1L }
+        ));
+    }
+
+    @Test
+    public void testGroupBySingleFloatKey() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Collections.singletonList(DataTypes.FLOAT),
+            new Object[] { 1.5f },
+            new Object[] { -2.25f },
+            new Object[] { 1.5f }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { 1.5f, 2L },
+            new Object[] { -2.25f, 1L }
+        ));
+    }
+
+    @Test
+    public void testGroupBySingleStringKey() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Collections.singletonList(DataTypes.STRING),
+            new Object[] { new BytesRef("a") },
+            new Object[] { new BytesRef("b") },
+            new Object[] { new BytesRef("a") },
+            new Object[] { null }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { new BytesRef("a"), 2L },
+            new Object[] { new BytesRef("b"), 1L },
+            new Object[] { null, 1L }
+        ));
+    }
+
+    @Test
+    public void testGroupByManyKeys() throws Exception {
+        List<Object[]> result = groupAndCount(
+            Arrays.asList(DataTypes.INTEGER, DataTypes.STRING),
+            new Object[] { 1, new BytesRef("a") },
+            new Object[] { 1, new BytesRef("b") },
+            new Object[] { 1, new BytesRef("a") },
+            new Object[] { 2, new BytesRef("a") },
+            new Object[] { null, null }
+        );
+        assertThat(result, containsInAnyOrder(
+            new Object[] { 1, new BytesRef("a"), 2L },
+            new Object[] { 1, new BytesRef("b"), 1L },
+            new Object[] { 2, new BytesRef("a"), 1L },
+            new Object[] { null, null, 1L }
+        ));
+    }
+
+    @Test
+    public void testGroupsAreSpilledToDiskIfBreakerLimitIsApproached() throws Exception {
+        // the groups need more memory than the breaker allows
+        CircuitBreaker breaker = new MemoryCircuitBreaker(new ByteSizeValue(16 * 1024), 1.0, logger);
+        RamAccountingContext ramAccountingContext = new RamAccountingContext("test", breaker);
+
+        for (DataType keyType : Arrays.asList(DataTypes.LONG, DataTypes.STRING)) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                long key = i % 2_000;
+                rows.add(new Object[] { keyType.value(key) });
+            }
+            List<Object[]> result = groupAndCount(ramAccountingContext, Collections.singletonList(keyType), rows);
+
+            assertThat(result.size(), is(2_000));
+            for (Object[] row : result) {
+                assertThat(row[1], is(5L));
+            }
+        }
+    }
+
+    @Test
+    public void testSpillingGroupsDoesNotReleaseBytesOfOtherProjectors() throws Exception {
+        CircuitBreaker breaker = new MemoryCircuitBreaker(new ByteSizeValue(16 * 1024), 1.0, logger);
+        RamAccountingContext ramAccountingContext = new RamAccountingContext("test", breaker);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new Object[] { (long) (i % 2_000) });
+        }
+        // another projector sharing the context accounts 1 byte for every row while the groups are collected
+        Collection<Object[]> rowsAccountingOtherBytes = new AbstractCollection<Object[]>() {
+            @Override
+            public Iterator<Object[]> iterator() {
+                return Iterators.transform(rows.iterator(), row -> {
+                    ramAccountingContext.addBytesWithoutBreaking(1);
+                    return row;
+                });
+            }
+
+            @Override
+            public int size() {
+                return rows.size();
+            }
+        };
+        List<Object[]> result = groupAndCount(
+            ramAccountingContext, Collections.singletonList(DataTypes.LONG), rowsAccountingOtherBytes);
+
+        assertThat(result.size(), is(2_000));
+        for (Object[] row : result) {
+            assertThat(row[1], is(5L));
+        }
+        assertThat(ramAccountingContext.totalBytes(), greaterThanOrEqualTo(10_000L));
+    }
+}
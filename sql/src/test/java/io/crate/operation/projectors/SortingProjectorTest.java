@@ -23,7 +23,9 @@
 package io.crate.operation.projectors;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.Streamer;
 import io.crate.analyze.symbol.Literal;
+import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
@@ -33,8 +35,15 @@ import io.crate.operation.projectors.sorting.OrderingByPosition;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.TestingBatchConsumer;
 import io.crate.testing.TestingBatchIterators;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.junit.Test;
 
+import java.util.List;
+
 import static io.crate.testing.TestingHelpers.isRow;
 import static org.hamcrest.core.Is.is;
 
@@ -42,14 +51,23 @@ public class SortingProjectorTest extends CrateUnitTest {
 
     private TestingBatchConsumer consumer = new TestingBatchConsumer();
 
+    private static final RamAccountingContext RAM_ACCOUNTING_CONTEXT =
+        new RamAccountingContext("dummy", new NoopCircuitBreaker(CircuitBreaker.FIELDDATA));
+
     private SortingProjector createProjector(int numOutputs, int offset) {
+        return createProjector(numOutputs, offset, RAM_ACCOUNTING_CONTEXT);
+    }
+
+    private SortingProjector createProjector(int numOutputs, int offset, RamAccountingContext ramAccountingContext) {
         InputCollectExpression input = new InputCollectExpression(0);
         return new SortingProjector(
             ImmutableList.of(input, Literal.of(true)),
             ImmutableList.<CollectExpression<Row, ?>>of(input),
             numOutputs,
             OrderingByPosition.arrayOrdering(0, false, null),
-            offset
+            offset,
+            new Streamer[] { DataTypes.INTEGER.streamer(), DataTypes.BOOLEAN.streamer() },
+            ramAccountingContext
         );
     }
 
@@ -87,6 +105,23 @@ public class SortingProjectorTest extends CrateUnitTest {
         expectedException.expect(IllegalArgumentException.class);
         expectedException.expectMessage("invalid offset -1");
 
-        new SortingProjector(null, null, 2, null, -1);
+        new SortingProjector(null, null, 2, null, -1, null, null);
+    }
+
+    @Test
+    public void testOrderByWithOffsetIfRowsAreSpilledToDisk() throws Exception {
+        // the rows need more memory than the breaker allows
+        CircuitBreaker breaker = new MemoryCircuitBreaker(new ByteSizeValue(16 * 1024), 1.0, logger);
+        SortingProjector projector = createProjector(2, 5, new RamAccountingContext("test", breaker));
+
+        BatchIterator batchIterator = projector.apply(TestingBatchIterators.range(1, 10_001));
+        consumer.accept(batchIterator, null);
+        List<Object[]> rows = consumer.getResult();
+
+        assertThat(rows.size(), is(9_995));
+        int expectedValue = 6;
+        for (Object[] row : rows) {
+            assertThat(row, is(new Object[] { expectedValue++, true }));
+        }
     }
 }
@@ -23,10 +23,13 @@
 package io.crate.operation.reference.sys.node;
 
 import com.google.common.collect.ImmutableSet;
+import io.crate.action.sql.StatementCache;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.sys.SysNodesTableInfo;
 import io.crate.monitor.ZeroExtendedNodeInfo;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.monitor.MonitorService;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -64,7 +67,8 @@ public class NodeStatsContextFieldResolverTest {
             () -> null,
             mock(ThreadPool.class),
             new ZeroExtendedNodeInfo(),
-            () -> postgresAddress
+            () -> postgresAddress,
+            new StatementCache(Settings.EMPTY, mock(ClusterService.class))
         );
     }
 
@@ -101,6 +105,15 @@ public class NodeStatsContextFieldResolverTest {
         assertThat(context.port().get("psql"), is(5432));
     }
 
+    @Test
+    public void testStatementCacheStatsResolution() {
+        NodeStatsContext context = resolver.forTopColumnIdents(ImmutableSet.of(
+            SysNodesTableInfo.Columns.STATEMENT_CACHE
+        ));
+        assertThat(context.statementCacheStats(), is(notNullValue()));
+        assertThat(context.statementCacheStats().size(), is(0L));
+    }
+
     @Test
     public void testResolveForNonExistingColumnIdent() {
         thrown.expect(IllegalArgumentException.class);
@@ -124,6 +137,7 @@ public class NodeStatsContextFieldResolverTest {
         assertThat(context.networkStats(), is(nullValue()));
         assertThat(context.extendedFsStats(), is(nullValue()));
         assertThat(context.threadPools(), is(nullValue()));
+        assertThat(context.statementCacheStats(), is(nullValue()));
         assertThat(context.javaVersion(), is(notNullValue()));
     }
 }
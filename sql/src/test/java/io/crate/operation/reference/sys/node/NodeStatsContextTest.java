@@ -24,6 +24,7 @@ package io.crate.operation.reference.sys.node;
 
 import io.crate.Build;
 import io.crate.Version;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.monitor.ExtendedNodeInfo;
 import io.crate.monitor.ThreadPools;
 import io.crate.monitor.ZeroExtendedNodeInfo;
@@ -91,6 +92,7 @@ public class NodeStatsContextTest extends CrateUnitTest {
         ctx1.extendedProcessCpuStats(extendedNodeInfo.processCpuStats());
         ctx1.extendedFsStats(extendedNodeInfo.fsStats());
         ctx1.threadPools(ThreadPools.newInstance(threadPool));
+        ctx1.statementCacheStats(new StatementCacheStats(10L, 200L, 12L, 2L));
 
         ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
         StreamOutput out = new OutputStreamStreamOutput(outBuffer);
@@ -118,6 +120,10 @@ public class NodeStatsContextTest extends CrateUnitTest {
         assertThat(ctx1.extendedProcessCpuStats().percent(), is(ctx2.extendedProcessCpuStats().percent()));
         assertThat(ctx1.extendedFsStats().size(), is(ctx2.extendedFsStats().size()));
         assertThat(ctx1.threadPools(), is(ctx2.threadPools()));
+        assertThat(ctx2.statementCacheStats().size(), is(10L));
+        assertThat(ctx2.statementCacheStats().hits(), is(200L));
+        assertThat(ctx2.statementCacheStats().misses(), is(12L));
+        assertThat(ctx2.statementCacheStats().evictions(), is(2L));
     }
 
     @Test
@@ -146,6 +152,7 @@ public class NodeStatsContextTest extends CrateUnitTest {
         assertNull(ctx2.extendedProcessCpuStats());
         assertNull(ctx2.extendedFsStats());
         assertNull(ctx2.threadPools());
+        assertNull(ctx2.statementCacheStats());
     }
 
     @Test
@@ -29,8 +29,13 @@ package io.crate.operation.udf;
 import com.google.common.collect.ImmutableList;
 import io.crate.exceptions.UserDefinedFunctionAlreadyExistsException;
 import io.crate.exceptions.UserDefinedFunctionUnknownException;
+import io.crate.metadata.Scalar;
 import io.crate.metadata.Schemas;
 import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.MetaData;
 import org.junit.Test;
 
 import static org.hamcrest.Matchers.*;
@@ -106,4 +111,29 @@ public class UserDefinedFunctionServiceTest extends UdfUnitTest {
         expectedException.expectMessage("User defined Function 'doc.same()' already exists.");
         udfService.putFunction(UserDefinedFunctionsMetaData.of(same1), same2, false);
     }
+
+    private static ClusterState stateWithFunctions(UserDefinedFunctionMetaData... functions) {
+        return ClusterState.builder(ClusterName.DEFAULT)
+            .metaData(MetaData.builder().putCustom(UserDefinedFunctionsMetaData.TYPE, UserDefinedFunctionsMetaData.of(functions)))
+            .build();
+    }
+
+    @Test
+    public void testFunctionImplementationIsOnlyCreatedOnce() throws Exception {
+        udfService.registerLanguage(DUMMY_LANG);
+        Scalar implementation = udfService.getFunctionImplementation(same1);
+        assertThat(udfService.getFunctionImplementation(same1), sameInstance(implementation));
+        assertThat(udfService.getFunctionImplementation(same2), not(sameInstance(implementation)));
+    }
+
+    @Test
+    public void testFunctionImplementationIsDiscardedOnDrop() throws Exception {
+        udfService.registerLanguage(DUMMY_LANG);
+        Scalar sameImplementation = udfService.getFunctionImplementation(same1);
+        Scalar differentImplementation = udfService.getFunctionImplementation(different);
+
+        udfService.clusterChanged(new ClusterChangedEvent("drop_udf", stateWithFunctions(different), stateWithFunctions(same1, different)));
+        assertThat(udfService.getFunctionImplementation(same1), not(sameInstance(sameImplementation)));
+        assertThat(udfService.getFunctionImplementation(different), sameInstance(differentImplementation));
+    }
 }
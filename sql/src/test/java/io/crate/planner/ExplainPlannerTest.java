@@ -23,16 +23,19 @@
 package io.crate.planner;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.planner.node.dql.Collect;
 import io.crate.planner.node.management.ExplainPlan;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
 
 public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
 
@@ -62,6 +65,26 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
         }
     }
 
+    @Test
+    public void testExplainAnalyze() throws Exception {
+        ExplainPlan plan = e.plan("explain analyze select * from users");
+        assertThat(plan.isAnalyze(), is(true));
+        assertNotNull(plan.subPlan());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPrinterWithProfiles() throws Exception {
+        Collect plan = e.plan("select id from sys.shards");
+        int phaseId = plan.collectPhase().phaseId();
+        Map<String, Object> profile = Collections.singletonMap("n1", Collections.singletonMap("rowsOut", 1L));
+        Map<String, Object> map = PlanPrinter.objectMap(plan, Collections.singletonMap(phaseId, profile));
+
+        Map<String, Object> collectPhase = (Map<String, Object>) map.get("collectPhase");
+        assertThat(collectPhase.get("profile"), is(profile));
+        assertThat(collectPhase.get("id"), is(phaseId));
+    }
+
     @Test
     public void testPrinter() throws Exception {
         for (String statement : EXPLAIN_TEST_STATEMENTS) {
@@ -541,7 +541,8 @@ public class SelectPlannerTest extends CrateDummyClusterServiceUnitTest {
                                   "from users u1 left join users u2 on u1.id = u2.id " +
                                   "where u2.name = 'Arthur'" +
                                   "and u2.id > 1 ");
-        NestedLoop nl = (NestedLoop) qtf.subPlan();
+        // equi-join on two distributed tables -> both sides are re-distributed, result is merged on the handler
+        NestedLoop nl = (NestedLoop) ((Merge) qtf.subPlan()).subPlan();
         assertThat(nl.nestedLoopPhase().joinType(), is(JoinType.INNER));
         Collect rightCM = (Collect) nl.right();
         assertThat(((RoutedCollectPhase) rightCM.collectPhase()).whereClause().query(),
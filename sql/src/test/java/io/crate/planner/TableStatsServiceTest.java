@@ -25,8 +25,15 @@ package io.crate.planner;
 import com.carrotsearch.hppc.ObjectLongMap;
 import io.crate.action.sql.SQLOperations;
 import io.crate.data.RowN;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.Schemas;
 import io.crate.metadata.TableIdent;
+import io.crate.planner.statistics.TransportPublishColumnStatsAction;
 import io.crate.plugin.SQLPlugin;
+import io.crate.types.DataTypes;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
@@ -37,8 +44,10 @@ import org.junit.Test;
 import org.mockito.Answers;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -65,7 +74,9 @@ public class TableStatsServiceTest extends CrateDummyClusterServiceUnitTest {
             THREAD_POOL,
             clusterService,
             new TableStats(),
-            mock(SQLOperations.class, Answers.RETURNS_MOCKS.get()));
+            mock(SQLOperations.class, Answers.RETURNS_MOCKS.get()),
+            mock(Schemas.class),
+            mock(TransportPublishColumnStatsAction.class));
 
         assertThat(statsService.refreshInterval,
             is(TimeValue.timeValueMinutes(0)));
@@ -77,7 +88,9 @@ public class TableStatsServiceTest extends CrateDummyClusterServiceUnitTest {
             THREAD_POOL,
             clusterService,
             new TableStats(),
-            mock(SQLOperations.class, Answers.RETURNS_MOCKS.get()));
+            mock(SQLOperations.class, Answers.RETURNS_MOCKS.get()),
+            mock(Schemas.class),
+            mock(TransportPublishColumnStatsAction.class));
 
         assertThat(statsService.refreshInterval,
             is(TableStatsService.STATS_SERVICE_REFRESH_INTERVAL_SETTING.getDefault()));
@@ -141,7 +154,9 @@ public class TableStatsServiceTest extends CrateDummyClusterServiceUnitTest {
             THREAD_POOL,
             clusterService,
             new TableStats(),
-            sqlOperations
+            sqlOperations,
+            mock(Schemas.class),
+            mock(TransportPublishColumnStatsAction.class)
         );
         statsService.run();
 
@@ -164,10 +179,44 @@ public class TableStatsServiceTest extends CrateDummyClusterServiceUnitTest {
             THREAD_POOL,
             clusterService,
             new TableStats(),
-            sqlOperations
+            sqlOperations,
+            mock(Schemas.class),
+            mock(TransportPublishColumnStatsAction.class)
         );
 
         statsService.run();
         Mockito.verify(session, times(0)).sync();
     }
+
+    @Test
+    public void testAnalyzeIntervalSettingChanges() {
+        TableStatsService statsService = new TableStatsService(
+            Settings.builder().put(TableStatsService.STATS_SERVICE_ANALYZE_INTERVAL_SETTING.getKey(), 0).build(),
+            THREAD_POOL,
+            clusterService,
+            new TableStats(),
+            mock(SQLOperations.class, Answers.RETURNS_MOCKS.get()),
+            mock(Schemas.class),
+            mock(TransportPublishColumnStatsAction.class));
+        assertThat(statsService.analyzeInterval, is(TimeValue.timeValueMillis(0)));
+        assertThat(statsService.analyzeScheduledTask, is(nullValue()));
+
+        clusterService.getClusterSettings().applySettings(Settings.builder()
+            .put(TableStatsService.STATS_SERVICE_ANALYZE_INTERVAL_SETTING.getKey(), "1h").build());
+        assertThat(statsService.analyzeInterval, is(TimeValue.timeValueHours(1)));
+        assertThat(statsService.analyzeScheduledTask, is(notNullValue()));
+    }
+
+    @Test
+    public void testSampleStatement() {
+        TableIdent tableIdent = new TableIdent("doc", "t1");
+        List<Reference> columns = Arrays.asList(
+            new Reference(new ReferenceIdent(tableIdent, new ColumnIdent("x")), RowGranularity.DOC, DataTypes.INTEGER),
+            new Reference(new ReferenceIdent(tableIdent, new ColumnIdent("name")), RowGranularity.DOC, DataTypes.STRING)
+        );
+        assertThat(TableStatsService.sampleStatement(tableIdent, columns, 100),
+            is("select \"x\", \"name\" from \"doc\".\"t1\" limit 30000"));
+        assertThat(TableStatsService.sampleStatement(tableIdent, columns, 1_000_000),
+            is("select \"x\", \"name\" from \"doc\".\"t1\" where random() < ? limit 30000"));
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.consumer;
+
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.Analysis;
+import io.crate.analyze.ParameterContext;
+import io.crate.analyze.TableDefinitions;
+import io.crate.analyze.where.DocKeys;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.planner.Plan;
+import io.crate.planner.node.dql.ESGet;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Statement;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static io.crate.testing.SymbolMatchers.isLiteral;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ESGetTemplateTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void setUpExecutor() throws Exception {
+        e = SQLExecutor.builder(clusterService)
+            .enableDefaultTables()
+            .addDocTable(TableDefinitions.USER_TABLE_INFO_MULTI_PK)
+            .build();
+    }
+
+    private ESGetTemplate createTemplate(String stmt, Object... args) {
+        Statement statement = SqlParser.createStatement(stmt);
+        Row params = new RowN(args);
+        Analysis analysis = e.analyzer.boundAnalyze(
+            statement, SessionContext.SYSTEM_SESSION, new ParameterContext(params, Collections.<Row>emptyList()));
+        Plan plan = e.planner.plan(analysis, UUID.randomUUID(), 0, 0);
+        return ESGetTemplate.create(statement, analysis, plan, params);
+    }
+
+    @Test
+    public void testBindCreatesPlanForOtherParameterValues() throws Exception {
+        ESGetTemplate template = createTemplate("select name from users where id = ?", 1L);
+        assertThat(template, notNullValue());
+
+        ESGet plan = template.bind(new RowN(new Object[]{2}), UUID.randomUUID());
+        ESGet expected = e.plan("select name from users where id = 2");
+        assertThat(plan.outputs(), is(expected.outputs()));
+        assertThat(plan.limit(), is(expected.limit()));
+        DocKeys.DocKey docKey = plan.docKeys().getOnlyKey();
+        assertThat(docKey.values(), contains(isLiteral(2L)));
+        assertThat(docKey.id(), is(expected.docKeys().getOnlyKey().id()));
+        assertThat(docKey.routing(), is(expected.docKeys().getOnlyKey().routing()));
+        assertThat(template.outputTypes(), is(expected.outputTypes()));
+    }
+
+    @Test
+    public void testBindWithCompoundPrimaryKeyInAnyOrder() throws Exception {
+        ESGetTemplate template = createTemplate(
+            "select * from users_multi_pk where name = ? and id = ?", "Arthur", 1L);
+        assertThat(template, notNullValue());
+
+        ESGet plan = template.bind(new RowN(new Object[]{"Trillian", 2L}), UUID.randomUUID());
+        ESGet expected = e.plan("select * from users_multi_pk where name = 'Trillian' and id = 2");
+        assertThat(plan.docKeys().getOnlyKey().id(), is(expected.docKeys().getOnlyKey().id()));
+        assertThat(plan.docKeys().getOnlyKey().routing(), is(expected.docKeys().getOnlyKey().routing()));
+    }
+
+    @Test
+    public void testBindReturnsNullIfParameterCannotBeConverted() throws Exception {
+        ESGetTemplate template = createTemplate("select name from users where id = ?", 1L);
+        assertThat(template.bind(new RowN(new Object[]{"foo"}), UUID.randomUUID()), nullValue());
+        assertThat(template.bind(new RowN(new Object[]{null}), UUID.randomUUID()), nullValue());
+    }
+
+    @Test
+    public void testNoTemplateForOtherStatementShapes() throws Exception {
+        assertThat(createTemplate("select name from users where id = 1"), nullValue());
+        assertThat(createTemplate("select name from users where id = ? or id = ?", 1L, 2L), nullValue());
+        assertThat(createTemplate("select name, ? from users where id = ?", "x", 1L), nullValue());
+        assertThat(createTemplate("select name || 'x' from users where id = ?", 1L), nullValue());
+        assertThat(createTemplate("select name from users where id = ? order by name", 1L), nullValue());
+        assertThat(createTemplate("select name from users where id = ? limit 1", 1L), nullValue());
+        assertThat(createTemplate("select name from users where id = ? and name = ?", 1L, "foo"), nullValue());
+        assertThat(createTemplate("select * from users_multi_pk where id = ? and name = 'foo'", 1L), nullValue());
+    }
+}
@@ -40,6 +40,7 @@ import io.crate.planner.node.dql.*;
 import io.crate.planner.node.dql.join.NestedLoop;
 import io.crate.planner.node.dql.join.NestedLoopPhase;
 import io.crate.planner.projection.*;
+import io.crate.planner.statistics.ColumnStats;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 import io.crate.types.DataTypes;
@@ -47,6 +48,7 @@ import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -100,6 +102,14 @@ public class NestedLoopConsumerTest extends CrateDummyClusterServiceUnitTest {
         stats.put(emptyRoutingTable.ident(), 0L);
         TableStats tableStats = new TableStats();
         tableStats.updateTableStats(stats);
+
+        List<Object> ids = new ArrayList<>(1000);
+        for (long i = 0; i < 1000; i++) {
+            ids.add(i);
+        }
+        tableStats.updateColumnStats(ImmutableMap.of(
+            TableDefinitions.USER_TABLE_IDENT_MULTI_PK,
+            ImmutableMap.of(new ColumnIdent("id"), ColumnStats.fromSample(DataTypes.LONG, ids, 5000L))));
         return tableStats;
     }
 
@@ -184,6 +194,37 @@ public class NestedLoopConsumerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(collect.collectPhase().distributionInfo().distributionType(), is(DistributionType.BROADCAST));
     }
 
+    @Test
+    public void testRightSideIsBroadcastIfFilterMakesRightTableSmaller() throws Exception {
+        Merge merge = plan("select users.name, u2.name from users, users_multi_pk u2 " +
+                           "where users.name = u2.name and u2.id = 1 " +
+                           "order by users.name, u2.name ");
+        NestedLoop nl = (NestedLoop) merge.subPlan();
+        assertThat(((Collect) nl.left()).collectPhase().distributionInfo().distributionType(),
+            is(DistributionType.SAME_NODE));
+        assertThat(((Collect) nl.right()).collectPhase().distributionInfo().distributionType(),
+            is(DistributionType.BROADCAST));
+    }
+
+    @Test
+    public void testLeftSideIsBroadcastIfFilterMakesLeftTableSmaller() throws Exception {
+        Merge merge = plan("select u2.name, users.name from users_multi_pk u2, users " +
+                           "where users.name = u2.name " +
+                           "order by u2.name, users.name ");
+        NestedLoop nl = (NestedLoop) merge.subPlan();
+        assertThat(((Collect) nl.right()).collectPhase().distributionInfo().distributionType(),
+            is(DistributionType.BROADCAST));
+
+        merge = plan("select u2.name, users.name from users_multi_pk u2, users " +
+                     "where users.name = u2.name and u2.id = 1 " +
+                     "order by u2.name, users.name ");
+        nl = (NestedLoop) merge.subPlan();
+        assertThat(((Collect) nl.left()).collectPhase().distributionInfo().distributionType(),
+            is(DistributionType.BROADCAST));
+        assertThat(((Collect) nl.right()).collectPhase().distributionInfo().distributionType(),
+            is(DistributionType.SAME_NODE));
+    }
+
 
     @Test
     public void testExplicitCrossJoinWithoutLimitOrOrderBy() throws Exception {
@@ -365,4 +406,64 @@ public class NestedLoopConsumerTest extends CrateDummyClusterServiceUnitTest {
         OrderedTopNProjection projection = (OrderedTopNProjection) nestedLoop.nestedLoopPhase().projections().get(1);
         assertThat(projection.outputs().size(), is(2));
     }
+
+    @Test
+    public void testEquiJoinConditionResultsInHashJoin() throws Exception {
+        NestedLoop plan = plan("select * from information_schema.tables t " +
+                               "join information_schema.columns c " +
+                               "on t.table_schema = c.table_schema and t.table_name = c.table_name");
+        NestedLoopPhase nl = plan.nestedLoopPhase();
+        assertThat(nl.isHashJoin(), is(true));
+        assertThat(nl.name(), is("hash-join"));
+        assertThat(nl.leftJoinKeys().size(), is(2));
+        assertThat(nl.rightJoinKeys().size(), is(2));
+    }
+
+    @Test
+    public void testNonEquiJoinConditionResultsInNestedLoop() throws Exception {
+        NestedLoop plan = plan("select * from information_schema.tables t " +
+                               "join information_schema.columns c " +
+                               "on t.table_schema = c.table_schema or t.table_name = c.table_name");
+        NestedLoopPhase nl = plan.nestedLoopPhase();
+        assertThat(nl.isHashJoin(), is(false));
+        assertThat(nl.name(), is("nested-loop"));
+    }
+
+    @Test
+    public void testEquiJoinOnFloatingPointColumnResultsInNestedLoop() throws Exception {
+        NestedLoop nl = unwrapNestedLoop(plan("select u1.name, u2.name from users u1 " +
+                                              "left join users u2 on u1.floats = u2.floats"));
+        assertThat(nl.nestedLoopPhase().isHashJoin(), is(false));
+    }
+
+    @Test
+    public void testEquiJoinOnDistributedTablesIsShuffled() throws Exception {
+        NestedLoop nl = unwrapNestedLoop(plan("select u1.name, u2.name from users u1 " +
+                                              "left join users u2 on u1.id = u2.id"));
+        NestedLoopPhase nlPhase = nl.nestedLoopPhase();
+        assertThat(nlPhase.name(), is("distributed-hash-join"));
+        assertThat(nlPhase.nodeIds(), contains("nodeOne", "nodeTwo"));
+
+        assertThat(nlPhase.leftMergePhase().numUpstreams(), is(2));
+        assertThat(nlPhase.rightMergePhase().numUpstreams(), is(2));
+
+        CollectPhase leftCollect = ((Collect) nl.left()).collectPhase();
+        assertThat(leftCollect.distributionInfo().distributionType(), is(DistributionType.MODULO));
+        assertThat(leftCollect.toCollect().get(leftCollect.distributionInfo().distributeByColumn()),
+            isReference("id"));
+        CollectPhase rightCollect = ((Collect) nl.right()).collectPhase();
+        assertThat(rightCollect.distributionInfo().distributionType(), is(DistributionType.MODULO));
+        assertThat(rightCollect.toCollect().get(rightCollect.distributionInfo().distributeByColumn()),
+            isReference("id"));
+    }
+
+    private static NestedLoop unwrapNestedLoop(Plan plan) {
+        if (plan instanceof QueryThenFetch) {
+            plan = ((QueryThenFetch) plan).subPlan();
+        }
+        if (plan instanceof Merge) {
+            plan = ((Merge) plan).subPlan();
+        }
+        return (NestedLoop) plan;
+    }
 }
@@ -23,6 +23,7 @@ package io.crate.planner.node.dql;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
+import io.crate.analyze.symbol.InputColumn;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.node.dql.join.JoinType;
@@ -82,7 +83,9 @@ public class NestedLoopPhaseTest extends CrateUnitTest {
             JoinType.INNER,
             joinCondition,
             1,
-            1
+            1,
+            ImmutableList.of(new InputColumn(0, DataTypes.STRING)),
+            ImmutableList.of(new InputColumn(0, DataTypes.STRING))
         );
 
         BytesStreamOutput output = new BytesStreamOutput();
@@ -99,5 +102,7 @@ public class NestedLoopPhaseTest extends CrateUnitTest {
         assertThat(node.joinType(), is(node2.joinType()));
         assertThat(node.numLeftOutputs(), is(node2.numLeftOutputs()));
         assertThat(node.numRightOutputs(), is(node2.numRightOutputs()));
+        assertThat(node.leftJoinKeys(), is(node2.leftJoinKeys()));
+        assertThat(node.rightJoinKeys(), is(node2.rightJoinKeys()));
     }
 }
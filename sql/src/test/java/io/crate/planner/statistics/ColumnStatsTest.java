@@ -0,0 +1,106 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class ColumnStatsTest extends CrateUnitTest {
+
+    @Test
+    public void testStatsOfEmptySample() throws Exception {
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.INTEGER, Collections.emptyList(), 0);
+        assertThat(stats.nullFraction(), is(0.0));
+        assertThat(stats.approxDistinct(), is(0.0));
+        assertThat(stats.mostCommonValues(), is(empty()));
+        assertThat(stats.histogramBounds(), is(empty()));
+    }
+
+    @Test
+    public void testFewDistinctValuesAreAllMostCommonValues() throws Exception {
+        List<Object> samples = Arrays.asList(
+            new BytesRef("a"), new BytesRef("b"), new BytesRef("a"), null, new BytesRef("a"));
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.STRING, samples, -1);
+
+        assertThat(stats.nullFraction(), is(0.2));
+        assertThat(stats.approxDistinct(), is(2.0));
+        assertThat(stats.mostCommonValues(), contains(new BytesRef("a"), new BytesRef("b")));
+        assertThat(stats.mostCommonFrequencies()[0], is(0.6));
+        assertThat(stats.mostCommonFrequencies()[1], is(0.2));
+        assertThat(stats.histogramBounds(), is(empty()));
+
+        assertThat(stats.eqSelectivity("a"), is(0.6));
+        assertThat(stats.eqSelectivity("c"), is(0.0));
+        assertThat(stats.lessThanSelectivity("b"), is(0.6));
+    }
+
+    @Test
+    public void testUniqueValuesResultInHistogram() throws Exception {
+        List<Object> samples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            samples.add(i);
+        }
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.INTEGER, samples, 10_000);
+
+        assertThat(stats.mostCommonValues(), is(empty()));
+        assertThat(stats.histogramBounds().size(), is(ColumnStats.MAX_HISTOGRAM_BUCKETS + 1));
+        assertThat(stats.histogramBounds().get(0), is(0));
+        assertThat(stats.histogramBounds().get(ColumnStats.MAX_HISTOGRAM_BUCKETS), is(999));
+        // all sampled values are unique, so all values of the table are expected to be unique as well
+        assertThat(stats.approxDistinct(), is(10_000.0));
+
+        assertThat(stats.eqSelectivity(20), is(0.0001));
+        assertThat(stats.lessThanSelectivity(500), closeTo(0.5, 0.01));
+        assertThat(stats.lessThanSelectivity(-1), is(0.0));
+        assertThat(stats.lessThanSelectivity(5000), is(1.0));
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        List<Object> samples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            samples.add(new BytesRef("v" + (i % 7 == 0 ? 0 : i)));
+        }
+        samples.add(null);
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.STRING, samples, 5000);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        stats.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        assertThat(new ColumnStats(in), is(stats));
+    }
+}
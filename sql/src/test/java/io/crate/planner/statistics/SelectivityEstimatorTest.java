@@ -0,0 +1,119 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.planner.statistics;
+
+import com.carrotsearch.hppc.ObjectLongHashMap;
+import com.carrotsearch.hppc.ObjectLongMap;
+import com.google.common.collect.ImmutableMap;
+import io.crate.analyze.WhereClause;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.TableIdent;
+import io.crate.planner.TableStats;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.SqlExpressions;
+import io.crate.testing.T3;
+import io.crate.types.DataTypes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class SelectivityEstimatorTest extends CrateUnitTest {
+
+    private static final TableIdent T1 = T3.T1_INFO.ident();
+
+    private final SqlExpressions sqlExpressions = new SqlExpressions(ImmutableMap.of(T3.T1, T3.TR_1), T3.TR_1);
+    private TableStats tableStats;
+
+    @Before
+    public void prepare() throws Exception {
+        // x: the values 0 - 9, each in 10% of the rows
+        List<Object> xSamples = new ArrayList<>();
+        // i: null in 20% of the rows
+        List<Object> iSamples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            xSamples.add(i % 10);
+            iSamples.add(i < 20 ? null : 1);
+        }
+        ObjectLongMap<TableIdent> numDocs = new ObjectLongHashMap<>(1);
+        numDocs.put(T1, 1000L);
+        tableStats = new TableStats();
+        tableStats.updateTableStats(numDocs);
+        tableStats.updateColumnStats(ImmutableMap.of(T1, ImmutableMap.of(
+            new ColumnIdent("x"), ColumnStats.fromSample(DataTypes.INTEGER, xSamples, 1000L),
+            new ColumnIdent("i"), ColumnStats.fromSample(DataTypes.INTEGER, iSamples, 1000L)
+        )));
+    }
+
+    private double selectivity(String expression) {
+        WhereClause whereClause = new WhereClause(sqlExpressions.normalize(sqlExpressions.asSymbol(expression)));
+        return SelectivityEstimator.selectivity(tableStats, T1, whereClause);
+    }
+
+    @Test
+    public void testNoMatchAndMatchAll() throws Exception {
+        assertThat(SelectivityEstimator.selectivity(tableStats, T1, WhereClause.NO_MATCH), is(0.0));
+        assertThat(SelectivityEstimator.selectivity(tableStats, T1, WhereClause.MATCH_ALL), is(1.0));
+    }
+
+    @Test
+    public void testComparisons() throws Exception {
+        assertThat(selectivity("x = 1"), closeTo(0.1, 0.0001));
+        assertThat(selectivity("x < 3"), closeTo(0.3, 0.0001));
+        assertThat(selectivity("x <= 3"), closeTo(0.4, 0.0001));
+        assertThat(selectivity("x > 7"), closeTo(0.2, 0.0001));
+        assertThat(selectivity("x >= 7"), closeTo(0.3, 0.0001));
+        assertThat(selectivity("x = 20"), is(0.0));
+    }
+
+    @Test
+    public void testNullPredicates() throws Exception {
+        assertThat(selectivity("i is null"), closeTo(0.2, 0.0001));
+        assertThat(selectivity("not i is null"), closeTo(0.8, 0.0001));
+    }
+
+    @Test
+    public void testAndOr() throws Exception {
+        assertThat(selectivity("x = 1 and i is null"), closeTo(0.02, 0.0001));
+        assertThat(selectivity("x = 1 or x = 2"), closeTo(0.19, 0.0001));
+    }
+
+    @Test
+    public void testColumnWithoutStatsMatchesAllRows() throws Exception {
+        assertThat(selectivity("a = 'foo'"), is(1.0));
+        assertThat(selectivity("not a = 'foo'"), is(1.0));
+        assertThat(selectivity("a = 'foo' and x = 1"), closeTo(0.1, 0.0001));
+    }
+
+    @Test
+    public void testEstimatedNumRows() throws Exception {
+        WhereClause whereClause = new WhereClause(sqlExpressions.normalize(sqlExpressions.asSymbol("x = 1")));
+        assertThat(SelectivityEstimator.estimatedNumRows(tableStats, T1, whereClause), is(100L));
+        assertThat(SelectivityEstimator.estimatedNumRows(tableStats, T1, WhereClause.MATCH_ALL), is(1000L));
+        assertThat(SelectivityEstimator.estimatedNumRows(tableStats, T3.T2_INFO.ident(), whereClause), is(-1L));
+    }
+}
@@ -24,7 +24,9 @@ package io.crate.protocols.postgres;
 
 import io.crate.action.sql.Option;
 import io.crate.action.sql.SQLOperations;
+import io.crate.action.sql.StatementCache;
 import io.crate.executor.Executor;
+import io.crate.operation.collect.files.StdinFileInputFactory;
 import io.crate.operation.collect.stats.JobsLogs;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
@@ -61,7 +63,9 @@ public class ConnectionContextTest extends CrateDummyClusterServiceUnitTest {
             () -> mock(Executor.class),
             new JobsLogs(() -> true),
             Settings.EMPTY,
-            clusterService
+            clusterService,
+            new StatementCache(Settings.EMPTY, clusterService),
+            new StdinFileInputFactory()
         ) {
             @Override
             public Session createSession(@Nullable String defaultSchema, Set<Option> options, int defaultLimit) {
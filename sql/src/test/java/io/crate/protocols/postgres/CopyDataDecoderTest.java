@@ -0,0 +1,113 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.analyze.CopyFromAnalyzedStatement;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.TableIdent;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.ArrayType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+
+public class CopyDataDecoderTest extends CrateUnitTest {
+
+    private static final TableIdent TABLE_IDENT = new TableIdent(null, "t");
+
+    private static Reference ref(String name, DataType type) {
+        return new Reference(new ReferenceIdent(TABLE_IDENT, name), RowGranularity.DOC, type);
+    }
+
+    private static final List<Reference> COLUMNS = Arrays.asList(
+        ref("id", DataTypes.INTEGER),
+        ref("name", DataTypes.STRING),
+        ref("active", DataTypes.BOOLEAN),
+        ref("tags", new ArrayType(DataTypes.STRING)));
+
+    private static String decode(String data, boolean csv, Settings settings) throws IOException {
+        CopyDataDecoder decoder = new CopyDataDecoder(
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), COLUMNS, csv, settings);
+        return Streams.copyToString(new InputStreamReader(decoder, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTextFormat() throws Exception {
+        String json = decode("1\tArthur\tt\t{a,b}\n2\tTrillian\\twith a tab\t\\N\t\\N\n", false, Settings.EMPTY);
+        assertThat(json, is(
+            "{\"id\":1,\"name\":\"Arthur\",\"active\":true,\"tags\":[\"a\",\"b\"]}\n" +
+            "{\"id\":2,\"name\":\"Trillian\\twith a tab\",\"active\":null,\"tags\":null}\n"));
+    }
+
+    @Test
+    public void testTextFormatStopsAtEndOfDataMarker() throws Exception {
+        String json = decode("1\tArthur\tf\t[\"a\"]\n\\.\n2\tTrillian\tt\t\\N\n", false, Settings.EMPTY);
+        assertThat(json, is("{\"id\":1,\"name\":\"Arthur\",\"active\":false,\"tags\":[\"a\"]}\n"));
+    }
+
+    @Test
+    public void testCsvFormatWithHeaderQuotesAndCustomDelimiter() throws Exception {
+        Settings settings = Settings.builder()
+            .put(CopyFromAnalyzedStatement.DELIMITER_SETTING, ";")
+            .put(CopyFromAnalyzedStatement.HEADER_SETTING, true)
+            .build();
+        String json = decode("id;name;active;tags\n1;\"Arthur; \"\"the\"\"\nDent\";true;\n2;\"\";;{x}\n", true, settings);
+        assertThat(json, is(
+            "{\"id\":1,\"name\":\"Arthur; \\\"the\\\"\\nDent\",\"active\":true,\"tags\":null}\n" +
+            "{\"id\":2,\"name\":\"\",\"active\":null,\"tags\":[\"x\"]}\n"));
+    }
+
+    @Test
+    public void testMissingColumnValue() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("missing data for column \"tags\" in line 2 of COPY data");
+        decode("1\tArthur\tt\t{a}\n2\tTrillian\tt\n", false, Settings.EMPTY);
+    }
+
+    @Test
+    public void testExtraColumnValue() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("extra data after last expected column in line 1 of COPY data");
+        decode("1,Arthur,t,,42\n", true, Settings.EMPTY);
+    }
+
+    @Test
+    public void testInvalidValue() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("invalid value \"one\" for column \"id\" in line 1 of COPY data");
+        decode("one\tArthur\tt\t\\N\n", false, Settings.EMPTY);
+    }
+}
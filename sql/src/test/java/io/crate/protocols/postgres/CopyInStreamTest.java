@@ -0,0 +1,98 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+public class CopyInStreamTest extends CrateUnitTest {
+
+    private static void write(CopyInStream stream, byte[] bytes) {
+        stream.write(ChannelBuffers.wrappedBuffer(bytes), bytes.length);
+    }
+
+    @Test
+    public void testReadingFromChannelIsPausedAndResumedDependingOnBufferedBytes() throws Exception {
+        Channel channel = mock(Channel.class);
+        CopyInStream stream = new CopyInStream(channel);
+        byte[] chunk = new byte[CopyInStream.RESUME_READING_THRESHOLD];
+        for (int i = 0; i < 5; i++) {
+            write(stream, chunk);
+        }
+        verify(channel, times(1)).setReadable(false);
+
+        byte[] buffer = new byte[chunk.length];
+        for (int i = 0; i < 4; i++) {
+            assertThat(stream.read(buffer, 0, buffer.length), is(chunk.length));
+        }
+        verify(channel, never()).setReadable(true);
+
+        assertThat(stream.read(), is(0));
+        verify(channel, times(1)).setReadable(true);
+    }
+
+    @Test
+    public void testReadReturnsDataUntilCopyDone() throws Exception {
+        CopyInStream stream = new CopyInStream(mock(Channel.class));
+        write(stream, "1\tArthur\n".getBytes(StandardCharsets.UTF_8));
+        stream.finish();
+        write(stream, "2\tTrillian\n".getBytes(StandardCharsets.UTF_8));
+
+        byte[] buffer = new byte[64];
+        int numBytes = stream.read(buffer, 0, buffer.length);
+        assertThat(new String(buffer, 0, numBytes, StandardCharsets.UTF_8), is("1\tArthur\n"));
+        assertThat(stream.read(buffer, 0, buffer.length), is(-1));
+    }
+
+    @Test
+    public void testReadFailsAfterCopyFail() throws Exception {
+        CopyInStream stream = new CopyInStream(mock(Channel.class));
+        write(stream, "1\tArthur\n".getBytes(StandardCharsets.UTF_8));
+        stream.fail("COPY FROM STDIN failed: aborted by user");
+
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("COPY FROM STDIN failed: aborted by user");
+        stream.read();
+    }
+
+    @Test
+    public void testCloseDiscardsDataAndResumesReadingFromChannel() throws Exception {
+        Channel channel = mock(Channel.class);
+        CopyInStream stream = new CopyInStream(channel);
+        write(stream, new byte[CopyInStream.PAUSE_READING_THRESHOLD + 1]);
+        verify(channel, times(1)).setReadable(false);
+
+        stream.close();
+        verify(channel, times(1)).setReadable(true);
+        write(stream, new byte[10]);
+        assertThat(stream.read(), is(-1));
+    }
+}
@@ -23,8 +23,11 @@
 package io.crate.protocols.postgres;
 
 import io.crate.data.RowN;
+import io.crate.protocols.postgres.types.PGType;
 import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 import org.junit.Test;
 import org.mockito.Answers;
@@ -35,6 +38,7 @@ import java.util.Arrays;
 import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -59,4 +63,40 @@ public class MessagesTest {
         assertThat(buffer.readInt(), is(16));
         assertThat(buffer.readableBytes(), is(12)); // 16 - INT4 because the size was already read
     }
+
+    @Test
+    public void testWriteDataRowAppendsToBuffer() throws Exception {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        PGType[] pgTypes = Messages.pgTypes(Arrays.asList(DataTypes.INTEGER, DataTypes.STRING));
+        Messages.writeDataRow(buffer, new RowN($(10, null)), pgTypes, null);
+        Messages.writeDataRow(buffer, new RowN($(20, new BytesRef("foo"))), pgTypes,
+            new FormatCodes.FormatCode[] { FormatCodes.FormatCode.BINARY });
+
+        assertThat((char) buffer.readByte(), is('D'));
+        assertThat(buffer.readInt(), is(16));
+        buffer.skipBytes(12);
+
+        assertThat((char) buffer.readByte(), is('D'));
+        assertThat(buffer.readInt(), is(21));
+        assertThat(buffer.readShort(), is((short) 2));
+        assertThat(buffer.readInt(), is(4));
+        assertThat(buffer.readInt(), is(20));
+        assertThat(buffer.readInt(), is(3));
+        buffer.skipBytes(3);
+        assertThat(buffer.readableBytes(), is(0));
+    }
+
+    @Test
+    public void testWriteDataRowFailureLeavesBufferUnchanged() throws Exception {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        PGType[] pgTypes = Messages.pgTypes(Arrays.asList(DataTypes.INTEGER, DataTypes.INTEGER));
+        Messages.writeDataRow(buffer, new RowN($(10, 20)), pgTypes, null);
+        int writerIndex = buffer.writerIndex();
+        try {
+            Messages.writeDataRow(buffer, new RowN($(30, "foo")), pgTypes, null);
+            fail("encoding the row should have failed");
+        } catch (ClassCastException ignored) {
+        }
+        assertThat(buffer.writerIndex(), is(writerIndex));
+    }
 }
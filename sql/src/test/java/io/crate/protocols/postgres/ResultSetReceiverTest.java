@@ -0,0 +1,74 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.data.Row1;
+import io.crate.types.DataTypes;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.junit.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ResultSetReceiverTest {
+
+    @Test
+    public void testEncodingFailureDoesNotSendPartialDataRow() throws Exception {
+        Channel channel = mock(Channel.class, Answers.RETURNS_MOCKS.get());
+        ResultSetReceiver receiver = new ResultSetReceiver(
+            "select x from t", channel, Collections.singletonList(DataTypes.INTEGER), null);
+
+        receiver.setNextRow(new Row1(10));
+        try {
+            // not an integer, fails while the value is encoded
+            receiver.setNextRow(new Row1("foo"));
+            fail("encoding the row should have failed");
+        } catch (ClassCastException e) {
+            receiver.fail(e);
+        }
+
+        ArgumentCaptor<Object> writeCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(channel, times(2)).write(writeCaptor.capture());
+        List<Object> writes = writeCaptor.getAllValues();
+
+        // only the complete row is sent before the error
+        ChannelBuffer rows = (ChannelBuffer) writes.get(0);
+        assertThat((char) rows.readByte(), is('D'));
+        int length = rows.readInt();
+        assertThat(rows.readableBytes(), is(length - 4));
+        assertThat(rows.readShort(), is((short) 1));
+
+        ChannelBuffer error = (ChannelBuffer) writes.get(1);
+        assertThat((char) error.readByte(), is('E'));
+    }
+}
@@ -23,10 +23,15 @@
 package io.crate.protocols.postgres.types;
 
 import org.elasticsearch.common.collect.MapBuilder;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.is;
+
 public class JsonTypeTest extends BasePGTypeTest<Map<String, Object>> {
 
     private Map<String, Object> map = MapBuilder.<String, Object>newMapBuilder()
@@ -53,4 +58,15 @@ public class JsonTypeTest extends BasePGTypeTest<Map<String, Object>> {
         };
         assertBytesReadBinary(bytes, map, 20);
     }
+
+    @Test
+    public void testWriteValueAsText() throws Exception {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        buffer.writeByte('x');
+        int bytesWritten = JsonType.INSTANCE.writeAsText(buffer, map);
+        assertThat(bytesWritten, is(24));
+        assertThat(buffer.readByte(), is((byte) 'x'));
+        assertThat(buffer.readInt(), is(20));
+        assertThat(buffer.toString(StandardCharsets.UTF_8), is("{\"foo\":\"bar\",\"x\":10}"));
+    }
 }
@@ -22,8 +22,11 @@
 
 package io.crate.protocols.postgres.types;
 
+import org.apache.lucene.util.BytesRef;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.Is;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
@@ -147,4 +150,41 @@ public class PGArrayTest {
         o = pgArray.decodeUTF8Text("{{{\"1\",NULL,\"2\"},{NULL,\"3\",\"4\"}},{{\"5\",NULL,\"6\"},{\"7\"}}".getBytes(StandardCharsets.UTF_8));
         assertThat(((Object[]) o), Is.<Object[]>is(new Object[][][] {{{1, null, 2}, {null, 3, 4}}, {{5, null, 6}, {7}}}));
     }
+
+    @Test
+    public void testDecodeUTF8TextWithUnquotedValues() throws Exception {
+        Object o = pgArray.decodeUTF8Text("{10,NULL,20}".getBytes(StandardCharsets.UTF_8));
+        assertThat((Object[]) o, is(new Object[] {10, null, 20}));
+
+        o = pgArray.decodeUTF8Text("{{1,2},{3}}".getBytes(StandardCharsets.UTF_8));
+        assertThat(((Object[]) o), Is.<Object[]>is(new Object[][] {{1, 2}, {3}}));
+
+        o = pgArray.decodeUTF8Text("{}".getBytes(StandardCharsets.UTF_8));
+        assertThat((Object[]) o, is(new Object[0]));
+    }
+
+    @Test
+    public void testEncodeUTF8TextNestedArrayWithMoreThanTwoElements() throws Exception {
+        byte[] bytes = PGArray.FLOAT8_ARRAY.encodeAsUTF8Text(new Object[][] {{1.0, 2.0}, {3.0, 4.0}, {5.0, 6.0}});
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        assertThat(s, is("{{\"1.0\",\"2.0\"},{\"3.0\",\"4.0\"},{\"5.0\",\"6.0\"}}"));
+    }
+
+    @Test
+    public void testEncodeDecodeVarcharArrayWithQuotesAndBackslashes() throws Exception {
+        Object[] array = new Object[] { new BytesRef("a\"b"), new BytesRef("c\\d") };
+        byte[] bytes = PGArray.VARCHAR_ARRAY.encodeAsUTF8Text(array);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        assertThat(s, is("{\"a\\\"b\",\"c\\\\d\"}"));
+        assertThat((Object[]) PGArray.VARCHAR_ARRAY.decodeUTF8Text(bytes), is(array));
+    }
+
+    @Test
+    public void testWriteAsTextWritesLengthPrefix() throws Exception {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        int bytesWritten = pgArray.writeAsText(buffer, new Object[] { 10, 20 });
+        assertThat(bytesWritten, is(15));
+        assertThat(buffer.readInt(), is(11));
+        assertThat(buffer.toString(StandardCharsets.UTF_8), is("{\"10\",\"20\"}"));
+    }
 }
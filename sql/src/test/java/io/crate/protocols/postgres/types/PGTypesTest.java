@@ -51,6 +51,9 @@ public class PGTypesTest extends CrateUnitTest {
             instanceOf(PGArray.class));
         assertThat("Crate set type is mapped to PGArray", PGTypes.get(new SetType(DataTypes.BYTE)),
             instanceOf(PGArray.class));
+        assertThat("Crate IP array type is mapped to PG varchar array", PGTypes.get(new ArrayType(DataTypes.IP)),
+            is(PGArray.VARCHAR_ARRAY));
+        assertThat(PGTypes.fromOID(PGArray.VARCHAR_ARRAY.oid()), is(new ArrayType(DataTypes.STRING)));
     }
 
     @Test
@@ -98,7 +101,12 @@ public class PGTypesTest extends CrateUnitTest {
             new Entry(new ArrayType(DataTypes.INTEGER), new Integer[]{null, null}),
             new Entry(new ArrayType(DataTypes.INTEGER), new Integer[][]{new Integer[]{10, null, 20}, new Integer[]{1, 2, 3}}),
             new Entry(new SetType(DataTypes.STRING), new Object[]{TestingHelpers.bytesRef("test", random())}),
-            new Entry(new SetType(DataTypes.INTEGER), new Integer[]{10, null, 20})
+            new Entry(new SetType(DataTypes.INTEGER), new Integer[]{10, null, 20}),
+            new Entry(new ArrayType(DataTypes.IP), new Object[]{TestingHelpers.bytesRef("192.168.1.1", random()), null}),
+            new Entry(new SetType(DataTypes.IP), new Object[]{TestingHelpers.bytesRef("10.0.0.1", random())}),
+            new Entry(new ArrayType(DataTypes.STRING), new Object[]{TestingHelpers.bytesRef("a\"b\\c", random())}),
+            new Entry(new ArrayType(DataTypes.GEO_POINT), new Double[][]{{1.0, 2.0}, {3.0, 4.0}, {5.0, 6.0}}),
+            new Entry(new ArrayType(DataTypes.UNDEFINED), new Object[]{null, null})
         )) {
 
             PGType pgType = PGTypes.get(entry.type);
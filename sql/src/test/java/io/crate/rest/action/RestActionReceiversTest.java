@@ -23,6 +23,7 @@
 package io.crate.rest.action;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.action.sql.SQLOperations;
 import io.crate.analyze.symbol.Field;
 import io.crate.data.Row;
 import io.crate.data.Row1;
@@ -33,12 +34,22 @@ import io.crate.types.DataTypes;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.rest.RestChannel;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.handler.codec.http.HttpChunk;
+import org.jboss.netty.handler.codec.http.HttpHeaders;
+import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 public class RestActionReceiversTest extends CrateUnitTest {
@@ -123,4 +134,81 @@ public class RestActionReceiversTest extends CrateUnitTest {
         String s = builder.build().string();
         assertEquals(s, "{\"results\":[{\"rowcount\":1},{\"rowcount\":2},{\"rowcount\":3}]}");
     }
+
+    private static Channel newNettyChannel(List<Object> written) {
+        Channel channel = mock(Channel.class);
+        when(channel.write(any())).thenAnswer(invocation -> {
+            written.add(invocation.getArguments()[0]);
+            return Channels.succeededFuture(channel);
+        });
+        return channel;
+    }
+
+    private static String chunkContent(List<Object> written) {
+        StringBuilder sb = new StringBuilder();
+        for (Object message : written) {
+            if (message instanceof HttpChunk) {
+                sb.append(((HttpChunk) message).getContent().toString(StandardCharsets.UTF_8));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testRestStreamingResultSetReceiver() throws Exception {
+        List<Object> written = new ArrayList<>();
+        RestStreamingResultSetReceiver receiver = new RestStreamingResultSetReceiver(
+            newNettyChannel(written), newChannel(), fields, 0L, true,
+            mock(SQLOperations.Session.class), "stream", Runnable::run, () -> {});
+        for (Row row : rows) {
+            receiver.setNextRow(row);
+        }
+        receiver.allFinished(false);
+
+        ResultToXContentBuilder builder = ResultToXContentBuilder.builder(newChannel());
+        builder.cols(fields);
+        builder.colTypes(fields);
+        builder.startRows();
+        for (Row row : rows) {
+            builder.addRow(row, 3);
+        }
+        builder.finishRows();
+        builder.rowCount(rows.size());
+
+        assertThat(written.get(0), instanceOf(HttpResponse.class));
+        HttpResponse response = (HttpResponse) written.get(0);
+        assertThat(response.headers().get(HttpHeaders.Names.TRANSFER_ENCODING), is(HttpHeaders.Values.CHUNKED));
+        assertThat(written.get(written.size() - 1), is(HttpChunk.LAST_CHUNK));
+        assertEquals(stripDuration(builder.build().string()), stripDuration(chunkContent(written)));
+    }
+
+    @Test
+    public void testRestStreamingResultSetReceiverResumesAfterBatchIsWritten() throws Exception {
+        List<Object> written = new ArrayList<>();
+        SQLOperations.Session session = mock(SQLOperations.Session.class);
+        RestStreamingResultSetReceiver receiver = new RestStreamingResultSetReceiver(
+            newNettyChannel(written), newChannel(), fields, 0L, false, session, "stream", Runnable::run, () -> {});
+        receiver.setNextRow(rows.get(0));
+        receiver.batchFinished();
+
+        assertThat(chunkContent(written), is("{\"cols\":[\"doc['col_a']\",\"doc['col_b']\",\"doc['col_c']\"],\"rows\":[[\"foo\",1,true]"));
+        verify(session, times(1)).execute("stream", RestStreamingResultSetReceiver.BATCH_SIZE, receiver);
+        verify(session, times(1)).sync();
+    }
+
+    @Test
+    public void testRestStreamingResultSetReceiverAppendsErrorAfterHeaderIsSent() throws Exception {
+        List<Object> written = new ArrayList<>();
+        RestChannel restChannel = newChannel();
+        RestStreamingResultSetReceiver receiver = new RestStreamingResultSetReceiver(
+            newNettyChannel(written), restChannel, fields, 0L, false,
+            mock(SQLOperations.Session.class), "stream", Runnable::run, () -> {});
+        receiver.setNextRow(rows.get(0));
+        receiver.batchFinished();
+        receiver.fail(new IllegalStateException("dummy"));
+
+        verify(restChannel, never()).sendResponse(any());
+        assertThat(chunkContent(written), is("{\"cols\":[\"doc['col_a']\",\"doc['col_b']\",\"doc['col_c']\"],\"rows\":[[\"foo\",1,true]]," +
+                                             "\"error\":{\"message\":\"IllegalStateException: dummy\",\"code\":5000}}"));
+    }
 }